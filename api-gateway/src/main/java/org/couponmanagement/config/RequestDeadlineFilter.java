@@ -0,0 +1,67 @@
+package org.couponmanagement.config;
+
+import io.grpc.Context;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each HTTP request in a gRPC {@link Context} with a deadline, so every gRPC call made
+ * while handling it carries the time the HTTP client is still willing to wait, and the
+ * services behind it stop working once that time is up. Clients may ask for less with
+ * {@code X-Request-Timeout-Ms}, never for more than {@code app.gateway.request-timeout-ms}.
+ *
+ * <p>Streaming bodies are written on another thread after this filter returns and are not
+ * bound by the deadline.
+ */
+@Component
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private static final ScheduledExecutorService DEADLINE_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("request-deadline").daemon().factory());
+
+    @Value("${app.gateway.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long timeoutMs = resolveTimeoutMs(request.getHeader(TIMEOUT_HEADER));
+        Context.CancellableContext context = Context.current()
+                .withDeadlineAfter(timeoutMs, TimeUnit.MILLISECONDS, DEADLINE_SCHEDULER);
+        Context previous = context.attach();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            context.detach(previous);
+            context.cancel(null);
+        }
+    }
+
+    long resolveTimeoutMs(String header) {
+        if (header == null || header.isBlank()) {
+            return requestTimeoutMs;
+        }
+        try {
+            long requested = Long.parseLong(header.trim());
+            return requested > 0 ? Math.min(requested, requestTimeoutMs) : requestTimeoutMs;
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid {} header: {}", TIMEOUT_HEADER, header);
+            return requestTimeoutMs;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.couponmanagement.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.StatusRuntimeException;
 import io.micrometer.observation.annotation.Observed;
 import org.couponmanagement.dto.ApplyCouponRequest;
 import org.couponmanagement.dto.AutoApplyCouponRequest;
@@ -12,12 +13,16 @@ import org.couponmanagement.grpc.annotation.PerformanceMonitor;
 import org.couponmanagement.coupon.*;
 import org.couponmanagement.security.RequireAdmin;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.extern.slf4j.Slf4j;
 import jakarta.validation.Valid;
 import com.google.protobuf.Value;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -257,7 +262,8 @@ public class CouponController {
     public ResponseEntity<?> listCoupons(
             @RequestParam(name = "page",defaultValue = "0") int page,
             @RequestParam(name = "size",defaultValue = "10") int size,
-            @RequestParam(name = "status",required = false) String status) {
+            @RequestParam(name = "status",required = false) String status,
+            @RequestParam(name = "pageToken", required = false) String pageToken) {
         try {
             log.info("List coupons: page={}, size={}, status={}", page, size, status);
             ObjectMapper objectMapper = new ObjectMapper();
@@ -269,6 +275,9 @@ public class CouponController {
             if (status != null && !status.isEmpty()) {
                 requestBuilder.setStatus(status);
             }
+            if (pageToken != null) {
+                requestBuilder.setPageToken(pageToken);
+            }
 
             CouponServiceProto.ListCouponsResponse response = couponServiceClient.listCoupons(requestBuilder.build());
 
@@ -308,6 +317,7 @@ public class CouponController {
                     .size(response.getPayload().getSize())
                     .totalElements(response.getPayload().getTotalCount())
                     .totalPages((response.getPayload().getCouponsCount()/size) + 1)
+                    .nextPageToken(response.getPayload().getNextPageToken())
                     .build();
 
                 return ResponseEntity.ok(listCouponsResponse);
@@ -338,35 +348,31 @@ public class CouponController {
     public ResponseEntity<?> getUserCoupons(
             @PathVariable("userId") int userId,
             @RequestParam(name = "page",defaultValue = "0") int page,
-            @RequestParam(name = "size", defaultValue = "10") int size) {
+            @RequestParam(name = "size", defaultValue = "10") int size,
+            @RequestParam(name = "pageToken", required = false) String pageToken) {
         try {
             log.info("Get user coupons: user={}", userId);
 
-            CouponServiceProto.GetUserCouponsRequest request = CouponServiceProto.GetUserCouponsRequest.newBuilder()
+            CouponServiceProto.GetUserCouponsRequest.Builder requestBuilder = CouponServiceProto.GetUserCouponsRequest.newBuilder()
                     .setUserId(userId)
                     .setPage(page)
-                    .setSize(size)
-                    .build();
+                    .setSize(size);
+            if (pageToken != null) {
+                requestBuilder.setPageToken(pageToken);
+            }
+            CouponServiceProto.GetUserCouponsRequest request = requestBuilder.build();
 
             CouponServiceProto.GetUserCouponsResponse response = couponServiceClient.getUserCoupons(request);
 
             if (response.getStatus().getCode() == CouponServiceProto.StatusCode.OK) {
                 GetUserCouponsResponse userCouponsResponse = GetUserCouponsResponse.builder()
                         .userCoupons(response.getPayload().getUserCouponsList().stream()
-                                .map(protoCoupon -> UserCouponResponse.builder()
-                                        .couponId(protoCoupon.getCouponId())
-                                        .couponCode(protoCoupon.getCouponCode())
-                                        .description(protoCoupon.getDescription())
-                                        .status(protoCoupon.getStatus())
-                                        .type(protoCoupon.getType())
-                                        .value(protoCoupon.getValue())
-                                        .startDate(protoCoupon.getStartDate())
-                                        .endDate(protoCoupon.getEndDate())
-                                        .build())
+                                .map(this::toUserCouponResponse)
                                 .toList())
                         .totalCount(response.getPayload().getTotalCount())
                         .page(response.getPayload().getPage())
                         .size(response.getPayload().getSize())
+                        .nextPageToken(response.getPayload().getNextPageToken())
                         .build();
 
                 return ResponseEntity.ok(userCouponsResponse);
@@ -391,6 +397,70 @@ public class CouponController {
         }
     }
 
+    /**
+     * Same coupons as {@link #getUserCoupons}, written as one JSON object per line while the
+     * gRPC stream is read, so neither hop holds the whole wallet. The status is committed before
+     * the first line; a failure after that is reported as a final {@code ErrorResponse} line.
+     */
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Observed(name = "stream-user-coupons", contextualName = "user-coupons-streaming")
+    @PerformanceMonitor
+    public ResponseEntity<StreamingResponseBody> streamUserCoupons(
+            @PathVariable("userId") int userId,
+            @RequestParam(name = "chunkSize", defaultValue = "100") int chunkSize) {
+        log.info("Stream user coupons: user={}, chunkSize={}", userId, chunkSize);
+
+        CouponServiceProto.StreamUserCouponsRequest request = CouponServiceProto.StreamUserCouponsRequest.newBuilder()
+                .setUserId(userId)
+                .setChunkSize(chunkSize)
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                couponServiceClient.streamUserCoupons(request, chunk -> {
+                    try {
+                        for (CouponServiceProto.UserCouponSummary protoCoupon : chunk.getUserCouponsList()) {
+                            outputStream.write(objectMapper.writeValueAsBytes(toUserCouponResponse(protoCoupon)));
+                            outputStream.write('\n');
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                log.info("Client went away while streaming user coupons: user={}, error={}", userId, e.getMessage());
+            } catch (StatusRuntimeException e) {
+                log.error("Error in stream user coupons: user={}, status={}", userId, e.getStatus(), e);
+                ErrorResponse errorResponse = ErrorResponse.builder()
+                        .code(e.getStatus().getCode().name())
+                        .message(e.getStatus().getDescription())
+                        .build();
+                outputStream.write(objectMapper.writeValueAsBytes(errorResponse));
+                outputStream.write('\n');
+                outputStream.flush();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private UserCouponResponse toUserCouponResponse(CouponServiceProto.UserCouponSummary protoCoupon) {
+        return UserCouponResponse.builder()
+                .couponId(protoCoupon.getCouponId())
+                .couponCode(protoCoupon.getCouponCode())
+                .description(protoCoupon.getDescription())
+                .status(protoCoupon.getStatus())
+                .type(protoCoupon.getType())
+                .value(protoCoupon.getValue())
+                .startDate(protoCoupon.getStartDate())
+                .endDate(protoCoupon.getEndDate())
+                .build();
+    }
+
 
     private Value convertJsonNodeToValue(JsonNode node) {
         Value.Builder valueBuilder = Value.newBuilder();
@@ -15,4 +15,5 @@ public class GetUserCouponsResponse {
     private Long totalCount;
     private Integer page;
     private Integer size;
+    private String nextPageToken;
 }
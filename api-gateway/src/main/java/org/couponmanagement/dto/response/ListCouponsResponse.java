@@ -16,5 +16,6 @@ public class ListCouponsResponse {
     private int size;
     private long totalElements;
     private int totalPages;
+    private String nextPageToken;
 }
 
@@ -1,10 +1,13 @@
 package org.couponmanagement.grpc;
 
+import io.grpc.Context;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.couponmanagement.coupon.*;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.function.Consumer;
+
 @Service
 @Slf4j
 public class CouponServiceClient {
@@ -63,4 +66,23 @@ public class CouponServiceClient {
             throw e;
         }
     }
+
+    /**
+     * Hands each streamed chunk to {@code onChunk} as it arrives; the blocking iterator only
+     * asks the server for the next message once the previous one has been consumed. If
+     * {@code onChunk} throws, e.g. because the HTTP client went away, the RPC is cancelled.
+     */
+    public void streamUserCoupons(CouponServiceProto.StreamUserCouponsRequest request,
+                                  Consumer<CouponServiceProto.StreamUserCouponsResponse> onChunk) {
+        Context.CancellableContext context = Context.current().withCancellation();
+        try {
+            log.info("Calling coupon service - stream user coupons: user={}", request.getUserId());
+            context.run(() -> couponServiceStub.streamUserCoupons(request).forEachRemaining(onChunk));
+        } catch (Exception e) {
+            log.error("Error in streamUserCoupons: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            context.cancel(null);
+        }
+    }
 }
@@ -21,6 +21,45 @@ public class BudgetGrpcService extends BudgetServiceGrpc.BudgetServiceImplBase {
     @Override
     public void register(BudgetServiceProto.RegisterBudgetCouponRequest request,
                          StreamObserver<BudgetServiceProto.RegisterBudgetCouponResponse> responseObserver) {
+        responseObserver.onNext(registerOne(request));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Registers every entry of a multi-order checkout in one call. Each entry runs in its own
+     * transaction, as with {@link #register}, so one failure does not undo the others.
+     */
+    @Override
+    public void batchRegister(BudgetServiceProto.BatchRegisterBudgetCouponRequest request,
+                              StreamObserver<BudgetServiceProto.BatchRegisterBudgetCouponResponse> responseObserver) {
+        log.info("Batch budget registration: size={}", request.getRegistrationsCount());
+
+        BudgetServiceProto.BatchRegisterBudgetCouponResponse.Builder builder =
+                BudgetServiceProto.BatchRegisterBudgetCouponResponse.newBuilder();
+        for (BudgetServiceProto.RegisterBudgetCouponRequest registration : request.getRegistrationsList()) {
+            try {
+                builder.addResults(registerOne(registration));
+            } catch (Exception e) {
+                log.error("Batch budget registration entry failed: requestId={}, error={}",
+                        registration.getRequestId(), e.getMessage(), e);
+                builder.addResults(BudgetServiceProto.RegisterBudgetCouponResponse.newBuilder()
+                        .setStatus(BudgetServiceProto.Status.newBuilder()
+                                .setCode(BudgetServiceProto.StatusCode.INTERNAL)
+                                .setMessage(e.getMessage() == null ? "" : e.getMessage())
+                                .build())
+                        .setError(BudgetServiceProto.Error.newBuilder()
+                                .setCode(BudgetErrorCode.INTERNAL.name())
+                                .setMessage(e.getMessage() == null ? "" : e.getMessage())
+                                .build())
+                        .build());
+            }
+        }
+
+        responseObserver.onNext(builder.build());
+        responseObserver.onCompleted();
+    }
+
+    private BudgetServiceProto.RegisterBudgetCouponResponse registerOne(BudgetServiceProto.RegisterBudgetCouponRequest request) {
         RegisterBudgetRequest req = RegisterBudgetRequest.builder()
                 .requestId(request.getRequestId())
                 .counponUserId(request.getCouponUserId())
@@ -54,8 +93,7 @@ public class BudgetGrpcService extends BudgetServiceGrpc.BudgetServiceImplBase {
             builder.setError(error);
         }
 
-        responseObserver.onNext(builder.build());
-        responseObserver.onCompleted();
+        return builder.build();
     }
 
 
@@ -29,11 +29,11 @@ public class CouponBudgetUsageRepositoryImpl implements CouponBudgetUsageReposit
                           AND user_id = :userId
                           AND status = :oldStatus
                         """)
-                .setParameter("newStatus", status)
+                .setParameter("newStatus", status.name())
                 .setParameter("budgetId", budgetId)
                 .setParameter("couponId", couponId)
                 .setParameter("userId", userId)
-                .setParameter("oldStatus", RegisterStatus.REGISTERED)
+                .setParameter("oldStatus", RegisterStatus.REGISTERED.name())
                 .executeUpdate();
 
         if (updatedUsage == 0) {
@@ -61,21 +61,47 @@ public class CouponBudgetUsageRepositoryImpl implements CouponBudgetUsageReposit
     @Observed(name = "CouponBudgetUsageRepository.registerCouponBudget")
     public BudgetCheckResult registerCouponBudget(Long coupon_user_id, Integer budgetId, Integer couponId, Integer userId, BigDecimal amount, RegisterStatus status) {
         try {
+            // A cancelled usage, e.g. a released speculative reservation, is taken over again
             int inserted = entityManager.createNativeQuery("""
-                            INSERT IGNORE INTO coupon_budget_usage (coupon_user_id, budget_id, coupon_id, user_id, amount, status, usage_time, created_at, updated_at)
-                            VALUES (:coupon_user_id, :budgetId, :couponId, :userId, :amount, :status, :usage_time, :created_at, :updated_at)
+                            UPDATE coupon_budget_usage
+                            SET coupon_user_id = :coupon_user_id,
+                                amount = :amount,
+                                status = :status,
+                                usage_time = :usage_time,
+                                updated_at = :updated_at
+                            WHERE budget_id = :budgetId
+                              AND coupon_id = :couponId
+                              AND user_id = :userId
+                              AND status = :cancelledStatus
                             """)
                     .setParameter("coupon_user_id", coupon_user_id)
                     .setParameter("budgetId", budgetId)
                     .setParameter("couponId", couponId)
                     .setParameter("userId", userId)
                     .setParameter("amount", amount)
-                    .setParameter("usage_time", LocalDateTime.now())
                     .setParameter("status", status.name())
-                    .setParameter("created_at", LocalDateTime.now())
+                    .setParameter("usage_time", LocalDateTime.now())
                     .setParameter("updated_at", LocalDateTime.now())
+                    .setParameter("cancelledStatus", RegisterStatus.CANCELLED.name())
                     .executeUpdate();
 
+            if (inserted == 0) {
+                inserted = entityManager.createNativeQuery("""
+                                INSERT IGNORE INTO coupon_budget_usage (coupon_user_id, budget_id, coupon_id, user_id, amount, status, usage_time, created_at, updated_at)
+                                VALUES (:coupon_user_id, :budgetId, :couponId, :userId, :amount, :status, :usage_time, :created_at, :updated_at)
+                                """)
+                        .setParameter("coupon_user_id", coupon_user_id)
+                        .setParameter("budgetId", budgetId)
+                        .setParameter("couponId", couponId)
+                        .setParameter("userId", userId)
+                        .setParameter("amount", amount)
+                        .setParameter("usage_time", LocalDateTime.now())
+                        .setParameter("status", status.name())
+                        .setParameter("created_at", LocalDateTime.now())
+                        .setParameter("updated_at", LocalDateTime.now())
+                        .executeUpdate();
+            }
+
             if (inserted == 0) {
                 return new BudgetCheckResult(
                         false,
@@ -57,7 +57,7 @@ public class BudgetService {
             });
 
             return RegisterBudgetResponse.builder()
-                    .success(true)
+                    .success(res.success())
                     .message(res.errorCode().getMessage())
                     .errorCode(res.errorCode())
                     .build();
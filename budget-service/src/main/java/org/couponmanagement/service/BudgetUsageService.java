@@ -42,6 +42,7 @@ public class BudgetUsageService {
         }
     }
 
+    @Transactional
     public void processRollbackBudgetUsage(RollBackBudgetEvent event) {
         try {
             log.info("Processing rollback budget : {} for user: {} with coupon : {}", event.getBudgetId(), event.getUserId(), event.getCouponId());
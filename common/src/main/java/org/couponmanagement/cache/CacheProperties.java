@@ -1,6 +1,16 @@
 package org.couponmanagement.cache;
 
+import java.util.Map;
+
 public interface CacheProperties {
     String getKeyPrefix();
     long getDefaultTtlSeconds();
+
+    /**
+     * Codec name per keyspace, e.g. {@code coupon-detail -> compact-binary}. Keyspaces not
+     * listed keep the JSON string format.
+     */
+    default Map<String, String> getCodecs() {
+        return Map.of();
+    }
 }
@@ -0,0 +1,144 @@
+package org.couponmanagement.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Finds the most read cache keys from a sample of reads, in constant memory. Sampled reads go
+ * into a count-min sketch; keys whose estimate reaches {@code threshold} join a top-K set of at
+ * most {@code maxHotKeys}, displacing the coldest member when full.
+ *
+ * <p>Counts only reflect recent traffic if {@link #decay} is called periodically: it halves
+ * every counter, so a key's estimate settles near twice its sampled reads per decay interval.
+ * A hot key is dropped once its estimate falls below half the threshold, which keeps keys near
+ * the boundary from flapping in and out.
+ */
+public class HotKeyDetector {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+    private final double sampleRate;
+    private final long threshold;
+    private final int maxHotKeys;
+    private final Map<String, Long> hotKeys = new ConcurrentHashMap<>();
+
+    public HotKeyDetector(int width, int depth, double sampleRate, long threshold, int maxHotKeys) {
+        if (width < 1 || depth < 1 || maxHotKeys < 1 || threshold < 1) {
+            throw new IllegalArgumentException("width, depth, threshold and maxHotKeys must be positive");
+        }
+        if (sampleRate <= 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate must be in (0, 1]");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+        this.sampleRate = sampleRate;
+        this.threshold = threshold;
+        this.maxHotKeys = maxHotKeys;
+    }
+
+    /**
+     * Counts one read of {@code key} if it is sampled.
+     *
+     * @return whether the key is currently hot
+     */
+    public boolean record(String key) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return hotKeys.containsKey(key);
+        }
+
+        long estimate = Long.MAX_VALUE;
+        int hash = key.hashCode();
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+
+        if (hotKeys.containsKey(key)) {
+            hotKeys.put(key, estimate);
+            return true;
+        }
+        return estimate >= threshold && promote(key, estimate);
+    }
+
+    public boolean isHot(String key) {
+        return hotKeys.containsKey(key);
+    }
+
+    public Set<String> hotKeySet() {
+        return Set.copyOf(hotKeys.keySet());
+    }
+
+    /**
+     * Current hot keys, hottest first.
+     */
+    public List<HotKey> hotKeys() {
+        List<HotKey> result = new ArrayList<>(hotKeys.size());
+        hotKeys.forEach((key, estimate) -> result.add(new HotKey(key, estimate)));
+        result.sort(Comparator.comparingLong(HotKey::estimatedCount).reversed());
+        return result;
+    }
+
+    /**
+     * Drops hot keys that cooled down, then halves every counter.
+     */
+    public void decay() {
+        hotKeys.replaceAll((key, previous) -> estimate(key));
+        hotKeys.values().removeIf(estimate -> estimate < threshold / 2);
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    long estimate(String key) {
+        long estimate = Long.MAX_VALUE;
+        int hash = key.hashCode();
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    private synchronized boolean promote(String key, long estimate) {
+        if (hotKeys.size() >= maxHotKeys) {
+            Map.Entry<String, Long> coldest = null;
+            for (Map.Entry<String, Long> entry : hotKeys.entrySet()) {
+                if (coldest == null || entry.getValue() < coldest.getValue()) {
+                    coldest = entry;
+                }
+            }
+            if (coldest == null || coldest.getValue() >= estimate) {
+                return false;
+            }
+            hotKeys.remove(coldest.getKey());
+        }
+        hotKeys.put(key, estimate);
+        return true;
+    }
+
+    private int index(int hash, int row) {
+        long mixed = mix(hash + 0x9E3779B97F4A7C15L * (row + 1));
+        return row * width + (int) ((mixed >>> 1) % width);
+    }
+
+    /**
+     * MurmurHash3 finalizer; spreads {@code String.hashCode} so the rows act as independent hashes.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public record HotKey(String key, long estimatedCount) {
+    }
+}
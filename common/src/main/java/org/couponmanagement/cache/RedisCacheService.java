@@ -4,9 +4,15 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.cache.codec.CacheCodec;
+import org.couponmanagement.cache.codec.CacheCodecRegistry;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
@@ -19,6 +25,7 @@ public class RedisCacheService {
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
     private final CacheProperties cacheProperties;
+    private final CacheCodecRegistry codecRegistry;
 
     private final AtomicLong hitCount = new AtomicLong(0);
     private final AtomicLong missCount = new AtomicLong(0);
@@ -26,6 +33,18 @@ public class RedisCacheService {
     public <T> Optional<T> get(String key, Class<T> valueType) {
         try {
             String fullKey = buildKey(key);
+
+            if (codecFor(fullKey).isPresent()) {
+                byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                        connection.stringCommands().get(fullKey.getBytes(StandardCharsets.UTF_8)));
+                if (raw == null) {
+                    missCount.incrementAndGet();
+                    return Optional.empty();
+                }
+                hitCount.incrementAndGet();
+                return decodeRaw(raw, valueType);
+            }
+
             Object cached = redisTemplate.opsForValue().get(fullKey);
 
             if (cached == null) {
@@ -34,17 +53,7 @@ public class RedisCacheService {
             }
 
             hitCount.incrementAndGet();
-
-            if (valueType.isInstance(cached)) {
-                return Optional.of(valueType.cast(cached));
-            }
-
-            if (cached instanceof String) {
-                T value = objectMapper.readValue((String) cached, valueType);
-                return Optional.of(value);
-            }
-
-            return Optional.empty();
+            return convert(cached, valueType);
 
         } catch (Exception e) {
             log.error("Error getting value from cache for key: {}", key, e);
@@ -57,6 +66,15 @@ public class RedisCacheService {
         try {
             String fullKey = buildKey(key);
 
+            Optional<CacheCodec> codec = codecFor(fullKey).filter(c -> c.supports(value.getClass()));
+            if (codec.isPresent()) {
+                byte[] encoded = codec.get().encode(value);
+                redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                        fullKey.getBytes(StandardCharsets.UTF_8), encoded,
+                        Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.upsert()));
+                return;
+            }
+
             Object cacheValue = value;
             if (!(value instanceof String) && !(value instanceof Number) && !(value instanceof Boolean)) {
                 cacheValue = objectMapper.writeValueAsString(value);
@@ -71,6 +89,34 @@ public class RedisCacheService {
         }
     }
 
+    private Optional<CacheCodec> codecFor(String fullKey) {
+        String keyspace = CacheCodecRegistry.keyspaceOf(fullKey, cacheProperties.getKeyPrefix());
+        return codecRegistry.forKeyspace(keyspace, cacheProperties.getCodecs());
+    }
+
+    private <T> Optional<T> decodeRaw(byte[] raw, Class<T> valueType) throws Exception {
+        Optional<CacheCodec> decoder = codecRegistry.decoderFor(raw);
+        if (decoder.isPresent()) {
+            return Optional.of(decoder.get().decode(raw, valueType));
+        }
+        // Written before the keyspace switched codec
+        Object legacy = redisTemplate.getValueSerializer().deserialize(raw);
+        return legacy != null ? convert(legacy, valueType) : Optional.empty();
+    }
+
+    private <T> Optional<T> convert(Object cached, Class<T> valueType) throws JsonProcessingException {
+        if (valueType.isInstance(cached)) {
+            return Optional.of(valueType.cast(cached));
+        }
+
+        if (cached instanceof String) {
+            T value = objectMapper.readValue((String) cached, valueType);
+            return Optional.of(value);
+        }
+
+        return Optional.empty();
+    }
+
     private String buildKey(String key) {
         return cacheProperties.getKeyPrefix() + ":" + key;
     }
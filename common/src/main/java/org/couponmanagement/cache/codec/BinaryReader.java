@@ -0,0 +1,105 @@
+package org.couponmanagement.cache.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Reads values written by {@link BinaryWriter}, in the same order.
+ */
+public final class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public BinaryReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public int readByte() throws IOException {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public long readUnsignedVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint in binary cache value");
+    }
+
+    public int readVarInt() throws IOException {
+        int encoded = (int) readUnsignedVarLong();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    public long readVarLong() throws IOException {
+        long encoded = readUnsignedVarLong();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    public Integer readNullableInt() throws IOException {
+        long encoded = readUnsignedVarLong();
+        if (encoded == 0) {
+            return null;
+        }
+        int zigzag = (int) (encoded - 1);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    public Long readNullableLong() throws IOException {
+        return readBoolean() ? readVarLong() : null;
+    }
+
+    public String readString() throws IOException {
+        long encodedLength = readUnsignedVarLong();
+        if (encodedLength == 0) {
+            return null;
+        }
+        int length = Math.toIntExact(encodedLength - 1);
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public LocalDateTime readTimestamp() throws IOException {
+        if (!readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(readVarLong()), ZoneOffset.UTC);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    private void require(int bytes) throws EOFException {
+        if (bytes < 0 || position + bytes > limit) {
+            throw new EOFException("Truncated binary cache value");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.couponmanagement.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * Field layout of one value type for {@link CompactBinaryCodec}. The tag is written in
+ * front of every value and must never be reused for a different layout; add a new tag
+ * instead of changing the field order of an existing one.
+ */
+public interface BinarySchema<T> {
+
+    int tag();
+
+    Class<T> type();
+
+    void write(T value, BinaryWriter writer);
+
+    T read(BinaryReader reader) throws IOException;
+}
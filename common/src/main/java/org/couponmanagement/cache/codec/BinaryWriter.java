@@ -0,0 +1,97 @@
+package org.couponmanagement.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Append-only buffer for {@link BinarySchema} implementations. Integers are zigzag
+ * varints, timestamps are epoch millis (UTC) and nullable values carry their own marker.
+ */
+public final class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter() {
+        this(64);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    public BinaryWriter writeUnsignedVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    public BinaryWriter writeVarInt(int value) {
+        return writeUnsignedVarLong(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+    }
+
+    public BinaryWriter writeVarLong(long value) {
+        return writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /** Null is written as 0, any other value as its zigzag encoding plus one. */
+    public BinaryWriter writeNullableInt(Integer value) {
+        if (value == null) {
+            return writeUnsignedVarLong(0);
+        }
+        return writeUnsignedVarLong(Integer.toUnsignedLong((value << 1) ^ (value >> 31)) + 1);
+    }
+
+    public BinaryWriter writeNullableLong(Long value) {
+        writeBoolean(value != null);
+        return value != null ? writeVarLong(value) : this;
+    }
+
+    /** Null is written as length 0, any other string as UTF-8 length plus one. */
+    public BinaryWriter writeString(String value) {
+        if (value == null) {
+            return writeUnsignedVarLong(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    public BinaryWriter writeTimestamp(LocalDateTime value) {
+        writeBoolean(value != null);
+        return value != null ? writeVarLong(value.toInstant(ZoneOffset.UTC).toEpochMilli()) : this;
+    }
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
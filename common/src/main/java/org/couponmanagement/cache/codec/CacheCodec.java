@@ -0,0 +1,24 @@
+package org.couponmanagement.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * Encodes cache values to raw Redis bytes. Keyspaces opt into a codec by name through
+ * {@code app.cache.codecs.<keyspace>}; keyspaces without one keep the JSON string format.
+ */
+public interface CacheCodec {
+
+    String name();
+
+    boolean supports(Class<?> type);
+
+    /**
+     * Whether {@code raw} was produced by this codec. Used on reads so a keyspace can be
+     * switched without flushing the values written in the previous format.
+     */
+    boolean canDecode(byte[] raw);
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] raw, Class<T> type) throws IOException;
+}
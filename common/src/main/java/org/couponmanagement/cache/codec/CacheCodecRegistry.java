@@ -0,0 +1,67 @@
+package org.couponmanagement.cache.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves the codec configured for a keyspace. The keyspace of a key is its first
+ * segment once the service key prefix is removed, e.g. {@code coupon-detail} for
+ * {@code coupon-service:coupon-detail:42}.
+ */
+@Component
+@Slf4j
+public class CacheCodecRegistry {
+
+    public static final String JSON = "json";
+
+    private final Map<String, CacheCodec> codecsByName = new LinkedHashMap<>();
+
+    public CacheCodecRegistry(ObjectProvider<CacheCodec> codecs) {
+        codecs.orderedStream().forEach(codec -> codecsByName.put(codec.name(), codec));
+        log.info("Cache codecs available: {}", codecsByName.keySet());
+    }
+
+    /**
+     * Codec for writes in the given keyspace; empty means the legacy JSON string format.
+     */
+    public Optional<CacheCodec> forKeyspace(String keyspace, Map<String, String> configuredCodecs) {
+        if (configuredCodecs == null || configuredCodecs.isEmpty()) {
+            return Optional.empty();
+        }
+        String name = configuredCodecs.get(keyspace);
+        if (name == null || JSON.equalsIgnoreCase(name)) {
+            return Optional.empty();
+        }
+        CacheCodec codec = codecsByName.get(name);
+        if (codec == null) {
+            log.warn("Unknown cache codec configured: keyspace={}, codec={}", keyspace, name);
+        }
+        return Optional.ofNullable(codec);
+    }
+
+    /**
+     * Codec that produced a raw value, if any; empty means it is a legacy JSON value.
+     */
+    public Optional<CacheCodec> decoderFor(byte[] raw) {
+        for (CacheCodec codec : codecsByName.values()) {
+            if (codec.canDecode(raw)) {
+                return Optional.of(codec);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static String keyspaceOf(String key, String keyPrefix) {
+        String unprefixed = key;
+        if (keyPrefix != null && key.startsWith(keyPrefix + ":")) {
+            unprefixed = key.substring(keyPrefix.length() + 1);
+        }
+        int separator = unprefixed.indexOf(':');
+        return separator < 0 ? unprefixed : unprefixed.substring(0, separator);
+    }
+}
@@ -0,0 +1,136 @@
+package org.couponmanagement.cache.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Schema-tagged binary codec. Layout: magic byte, flags byte, varint schema tag, then
+ * the schema payload; payloads at or above the compression threshold are LZ4 compressed
+ * (prefixed with their raw length) when that actually saves space.
+ */
+@Component
+@Slf4j
+public class CompactBinaryCodec implements CacheCodec {
+
+    public static final String NAME = "compact-binary";
+
+    // 0xC1 never starts a UTF-8 or JSON document, so legacy values are told apart safely
+    static final byte MAGIC = (byte) 0xC1;
+    private static final int FLAG_LZ4 = 0x01;
+
+    private final Map<Class<?>, BinarySchema<?>> schemasByType = new HashMap<>();
+    private final Map<Integer, BinarySchema<?>> schemasByTag = new HashMap<>();
+    private final int compressionThresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public CompactBinaryCodec(ObjectProvider<BinarySchema<?>> schemas,
+                              @Value("${app.cache.codec.compression-threshold-bytes:1024}") int compressionThresholdBytes) {
+        schemas.orderedStream().forEach(this::register);
+        this.compressionThresholdBytes = compressionThresholdBytes;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+        log.info("Compact binary cache codec initialized: schemas={}, compressionThreshold={}B",
+                schemasByTag.size(), compressionThresholdBytes);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean supports(Class<?> type) {
+        return schemasByType.containsKey(type);
+    }
+
+    @Override
+    public boolean canDecode(byte[] raw) {
+        return raw != null && raw.length > 2 && raw[0] == MAGIC;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object value) throws IOException {
+        BinarySchema<Object> schema = (BinarySchema<Object>) schemasByType.get(value.getClass());
+        if (schema == null) {
+            throw new IOException("No binary schema registered for " + value.getClass().getName());
+        }
+
+        BinaryWriter payload = new BinaryWriter();
+        schema.write(value, payload);
+        byte[] body = payload.toByteArray();
+
+        int flags = 0;
+        int rawLength = body.length;
+        if (rawLength >= compressionThresholdBytes) {
+            byte[] compressed = compressor.compress(body);
+            if (compressed.length < rawLength) {
+                body = compressed;
+                flags |= FLAG_LZ4;
+            }
+        }
+
+        BinaryWriter out = new BinaryWriter(body.length + 12);
+        out.writeByte(MAGIC).writeByte(flags).writeUnsignedVarLong(schema.tag());
+        if ((flags & FLAG_LZ4) != 0) {
+            out.writeUnsignedVarLong(rawLength);
+        }
+        byte[] header = out.toByteArray();
+
+        byte[] result = new byte[header.length + body.length];
+        System.arraycopy(header, 0, result, 0, header.length);
+        System.arraycopy(body, 0, result, header.length, body.length);
+        return result;
+    }
+
+    @Override
+    public <T> T decode(byte[] raw, Class<T> type) throws IOException {
+        if (!canDecode(raw)) {
+            throw new IOException("Not a compact binary cache value");
+        }
+
+        BinaryReader header = new BinaryReader(raw, 1, raw.length - 1);
+        int flags = header.readByte();
+        int tag = Math.toIntExact(header.readUnsignedVarLong());
+        BinarySchema<?> schema = schemasByTag.get(tag);
+        if (schema == null) {
+            throw new IOException("Unknown binary schema tag: " + tag);
+        }
+        if (!type.isAssignableFrom(schema.type())) {
+            throw new IOException("Schema " + tag + " holds " + schema.type().getName()
+                    + ", not " + type.getName());
+        }
+
+        BinaryReader payload;
+        if ((flags & FLAG_LZ4) != 0) {
+            int rawLength = Math.toIntExact(header.readUnsignedVarLong());
+            byte[] restored = new byte[rawLength];
+            decompressor.decompress(raw, header.position(), restored, 0, rawLength);
+            payload = new BinaryReader(restored);
+        } else {
+            payload = new BinaryReader(raw, header.position(), header.remaining());
+        }
+
+        return type.cast(schema.read(payload));
+    }
+
+    private void register(BinarySchema<?> schema) {
+        BinarySchema<?> previous = schemasByTag.putIfAbsent(schema.tag(), schema);
+        if (previous != null) {
+            throw new IllegalStateException("Binary schema tag " + schema.tag() + " is used by both "
+                    + previous.type().getName() + " and " + schema.type().getName());
+        }
+        schemasByType.put(schema.type(), schema);
+    }
+}
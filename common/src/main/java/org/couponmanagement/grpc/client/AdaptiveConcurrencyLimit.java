@@ -0,0 +1,74 @@
+package org.couponmanagement.grpc.client;
+
+/**
+ * Concurrency limit for one downstream service, adjusted from observed round-trip times.
+ * Each sample compares a slow moving average of the RTT with the sample itself: while
+ * latency stays near the average the limit grows by about its square root, and as requests
+ * start queueing the ratio drops and the limit shrinks with it (down to half per sample).
+ * Timeouts and overload responses cut the limit multiplicatively.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double LONG_RTT_WEIGHT = 0.01;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double longRttNanos;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Releases a slot without adjusting the limit, e.g. for a call cancelled by the caller.
+     */
+    public synchronized void release() {
+        inFlight--;
+    }
+
+    public synchronized void onSample(long rttNanos, boolean dropped) {
+        int used = inFlight;
+        inFlight--;
+        if (dropped) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+
+        longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * (1 - LONG_RTT_WEIGHT) + rttNanos * LONG_RTT_WEIGHT;
+        if (longRttNanos / rttNanos > 2.0) {
+            // Recover faster after a latency spike has passed
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        if (newLimit > limit && used < limit / 2) {
+            // Traffic is not using the current limit, so it proves nothing about a higher one
+            return;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,31 @@
+package org.couponmanagement.grpc.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts work dropped because the caller's deadline had already passed, tagged by where it
+ * was caught: {@code server} for calls whose deadline fired while still running, {@code client}
+ * for downstream calls never sent, {@code task} for executor work skipped or abandoned.
+ */
+@Component
+public class DeadlineMetrics {
+
+    public static final String SERVER = "server";
+    public static final String CLIENT = "client";
+    public static final String TASK = "task";
+
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordExpired(String stage) {
+        Counter.builder("grpc_deadline_expired_total")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,193 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a service to every endpoint it runs on, re-resolving every {@code refreshMs}.
+ * {@code lb-static:///host-a:9090,host-b:9090} yields one endpoint per listed host;
+ * {@code lb-dns:///rule-service:9090} yields one per address the name resolves to, which
+ * for a headless Kubernetes service is one per pod.
+ */
+@Slf4j
+public final class EndpointNameResolverProvider extends NameResolverProvider {
+
+    public static final String STATIC_SCHEME = "lb-static";
+    public static final String DNS_SCHEME = "lb-dns";
+
+    private static final ScheduledExecutorService RESOLVER_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("grpc-endpoint-resolver").daemon().factory());
+    private static boolean registered;
+
+    private final String scheme;
+    private final long refreshMs;
+
+    private EndpointNameResolverProvider(String scheme, long refreshMs) {
+        this.scheme = scheme;
+        this.refreshMs = refreshMs;
+    }
+
+    /**
+     * Registers both schemes once per JVM; the first caller's refresh interval applies.
+     */
+    public static synchronized void register(long refreshMs) {
+        if (registered) {
+            return;
+        }
+        NameResolverRegistry.getDefaultRegistry().register(new EndpointNameResolverProvider(STATIC_SCHEME, refreshMs));
+        NameResolverRegistry.getDefaultRegistry().register(new EndpointNameResolverProvider(DNS_SCHEME, refreshMs));
+        registered = true;
+    }
+
+    /**
+     * Maps a configured address to a target for these schemes: {@code dns:///host:port} is
+     * resolved to all addresses, anything else ({@code host:port}, {@code static://a:1,b:2})
+     * is a static list.
+     */
+    public static String toTarget(String address) {
+        if (address.startsWith("dns:///")) {
+            return DNS_SCHEME + ":///" + address.substring("dns:///".length());
+        }
+        if (address.startsWith("dns://")) {
+            return DNS_SCHEME + ":///" + address.substring("dns://".length());
+        }
+        String endpoints = address.startsWith("static://") ? address.substring("static://".length()) : address;
+        return STATIC_SCHEME + ":///" + endpoints;
+    }
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!scheme.equals(targetUri.getScheme())) {
+            return null;
+        }
+        String path = targetUri.getPath();
+        List<String> endpoints = new ArrayList<>();
+        for (String endpoint : path.substring(1).split(",")) {
+            if (!endpoint.isBlank()) {
+                endpoints.add(endpoint.trim());
+            }
+        }
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("No endpoints in target: " + targetUri);
+        }
+        return new EndpointNameResolver(endpoints, DNS_SCHEME.equals(scheme), refreshMs);
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return scheme;
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    protected int priority() {
+        return 5;
+    }
+
+    @Override
+    public Collection<Class<? extends SocketAddress>> getProducedSocketAddressTypes() {
+        return Set.of(InetSocketAddress.class);
+    }
+
+    private static final class EndpointNameResolver extends NameResolver {
+
+        private final List<String> endpoints;
+        private final boolean allAddresses;
+        private final long refreshMs;
+        private Listener2 listener;
+        private ScheduledFuture<?> refreshTask;
+        private List<EquivalentAddressGroup> last;
+        private volatile boolean shutdown;
+
+        private EndpointNameResolver(List<String> endpoints, boolean allAddresses, long refreshMs) {
+            this.endpoints = endpoints;
+            this.allAddresses = allAddresses;
+            this.refreshMs = refreshMs;
+        }
+
+        @Override
+        public String getServiceAuthority() {
+            return endpoints.get(0);
+        }
+
+        @Override
+        public void start(Listener2 listener) {
+            this.listener = listener;
+            refreshTask = RESOLVER_EXECUTOR.scheduleWithFixedDelay(this::resolve, 0, refreshMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void refresh() {
+            RESOLVER_EXECUTOR.execute(this::resolve);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+            if (refreshTask != null) {
+                refreshTask.cancel(false);
+            }
+        }
+
+        /**
+         * Runs on the resolver thread only. Unchanged results are not republished unless an
+         * error was reported in between.
+         */
+        private void resolve() {
+            if (shutdown) {
+                return;
+            }
+            List<EquivalentAddressGroup> groups = new ArrayList<>();
+            try {
+                for (String endpoint : endpoints) {
+                    int separator = endpoint.lastIndexOf(':');
+                    String host = endpoint.substring(0, separator);
+                    int port = Integer.parseInt(endpoint.substring(separator + 1));
+                    InetAddress[] addresses = allAddresses
+                            ? InetAddress.getAllByName(host)
+                            : new InetAddress[]{InetAddress.getByName(host)};
+                    for (InetAddress address : addresses) {
+                        groups.add(new EquivalentAddressGroup(new InetSocketAddress(address, port)));
+                    }
+                }
+            } catch (UnknownHostException | RuntimeException e) {
+                log.warn("Failed to resolve gRPC endpoints: endpoints={}, error={}", endpoints, e.getMessage());
+                // Forget the last result so the next good one is republished and clears the error
+                last = null;
+                listener.onError(Status.UNAVAILABLE.withDescription("Unable to resolve " + endpoints).withCause(e));
+                return;
+            }
+
+            if (groups.equals(last)) {
+                return;
+            }
+            last = groups;
+            log.info("Resolved gRPC endpoints: endpoints={}, addresses={}", endpoints, groups.size());
+            listener.onResult(ResolutionResult.newBuilder()
+                    .setAddresses(groups)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.couponmanagement.grpc.client;
+
+/**
+ * Count-based circuit breaker for one downstream service. It opens once at least
+ * {@code minimumCalls} of the last {@code windowSize} calls were seen and the failure rate
+ * reaches {@code failureRateThreshold} percent. After {@code openMs} it lets
+ * {@code halfOpenCalls} trial calls through; all of them must succeed to close again.
+ *
+ * <p>Each admission carries the breaker's generation, which changes on every transition, so
+ * results of calls admitted before a transition do not count towards the new state.
+ */
+public class GrpcCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * Returned by {@link #tryAcquire} when the call is rejected.
+     */
+    public static final long REJECTED = -1L;
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAtNanos;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public GrpcCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                              long openMs, int halfOpenCalls) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openMs * 1_000_000L;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    /**
+     * @return the generation to pass back with the result, or {@link #REJECTED}
+     */
+    public synchronized long tryAcquire(long nowNanos) {
+        if (state == State.OPEN) {
+            if (nowNanos - openedAtNanos < openNanos) {
+                return REJECTED;
+            }
+            transitionTo(State.HALF_OPEN, nowNanos);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight + halfOpenSucceeded >= halfOpenCalls) {
+                return REJECTED;
+            }
+            halfOpenInFlight++;
+        }
+        return generation;
+    }
+
+    public synchronized void onResult(long admittedGeneration, boolean failed, long nowNanos) {
+        if (admittedGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+            if (failed) {
+                transitionTo(State.OPEN, nowNanos);
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED, nowNanos);
+            }
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+
+        if (recorded >= minimumCalls && failureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN, nowNanos);
+        }
+    }
+
+    /**
+     * Frees a half-open trial slot for a call that ended without a usable result.
+     */
+    public synchronized void onIgnored(long admittedGeneration) {
+        if (admittedGeneration == generation && state == State.HALF_OPEN) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0.0 : failures * 100.0 / recorded;
+    }
+
+    private void transitionTo(State newState, long nowNanos) {
+        state = newState;
+        generation++;
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = nowNanos;
+        }
+        if (newState == State.CLOSED) {
+            next = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+}
@@ -4,12 +4,16 @@ import io.grpc.Channel;
 import io.grpc.ClientInterceptors;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
 import io.micrometer.observation.annotation.Observed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 
+import org.couponmanagement.grpc.interceptor.GrpcClientGuardInterceptor;
+import org.couponmanagement.grpc.interceptor.GrpcDeadlineClientInterceptor;
 import org.couponmanagement.grpc.interceptor.GrpcClientInterceptor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,15 +40,59 @@ public class GrpcClientFactory {
     @Value("${grpc.client.order-service.address:localhost:9095}")
     private String orderServiceAddress;
     
+    @Value("${grpc.client.rule-service.hedging.enabled:true}")
+    private boolean ruleServiceHedgingEnabled;
+
+    /**
+     * Latency percentile of recent rule-service attempts after which a hedge is sent.
+     */
+    @Value("${grpc.client.rule-service.hedging.percentile:0.95}")
+    private double ruleServiceHedgingPercentile;
+
+    @Value("${grpc.client.rule-service.hedging.initial-delay-ms:50}")
+    private long ruleServiceHedgingInitialDelayMs;
+
+    @Value("${grpc.client.rule-service.hedging.min-delay-ms:5}")
+    private long ruleServiceHedgingMinDelayMs;
+
+    /**
+     * Hedges allowed as a percentage of rule-service calls.
+     */
+    @Value("${grpc.client.rule-service.hedging.budget-percent:5}")
+    private double ruleServiceHedgingBudgetPercent;
+
+    /**
+     * How often endpoints are re-resolved, so scaled or replaced instances are picked up.
+     */
+    @Value("${grpc.client.resolver.refresh-ms:30000}")
+    private long resolverRefreshMs;
+
     private final ConcurrentHashMap<String, ManagedChannel> channels = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Channel> interceptedChannels = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, GrpcHedgingPolicy> hedgingPolicies = new ConcurrentHashMap<>();
 
 
     private final ObservationGrpcClientInterceptor observationGrpcClientInterceptor;
+    private final MeterRegistry meterRegistry;
+    private final GrpcClientGuards grpcClientGuards;
+    private final GrpcDeadlineClientInterceptor deadlineInterceptor;
 
     public GrpcClientFactory(GrpcClientMetadataProperties grpcClientMetadataProperties,
-                             @Qualifier("clientInterceptor") ObservationGrpcClientInterceptor observationGrpcClientInterceptor) {
+                             @Qualifier("clientInterceptor") ObservationGrpcClientInterceptor observationGrpcClientInterceptor,
+                             MeterRegistry meterRegistry,
+                             GrpcClientGuards grpcClientGuards,
+                             DeadlineMetrics deadlineMetrics) {
         this.grpcClientMetadataProperties = grpcClientMetadataProperties;
         this.observationGrpcClientInterceptor = observationGrpcClientInterceptor;
+        this.meterRegistry = meterRegistry;
+        this.grpcClientGuards = grpcClientGuards;
+        this.deadlineInterceptor = new GrpcDeadlineClientInterceptor(deadlineMetrics);
+    }
+
+    @PostConstruct
+    void registerLoadBalancing() {
+        EndpointNameResolverProvider.register(resolverRefreshMs);
+        LeastOutstandingLoadBalancer.Provider.register();
     }
 
     public Channel getCouponServiceChannel() {
@@ -56,6 +104,23 @@ public class GrpcClientFactory {
         return getOrCreateChannel("rule-service", ruleServiceAddress);
     }
     
+    /**
+     * Hedging for idempotent, read-only rule-service calls. Hedges share the primary channel;
+     * its least-outstanding picker steers them away from the endpoint still holding the first attempt.
+     */
+    public GrpcHedgingPolicy getRuleServiceHedgingPolicy() {
+        return hedgingPolicies.computeIfAbsent("rule-service", serviceName -> new GrpcHedgingPolicy(
+                serviceName,
+                this::getRuleServiceChannel,
+                this::getRuleServiceChannel,
+                ruleServiceHedgingEnabled,
+                ruleServiceHedgingPercentile,
+                ruleServiceHedgingInitialDelayMs,
+                ruleServiceHedgingMinDelayMs,
+                ruleServiceHedgingBudgetPercent,
+                meterRegistry));
+    }
+
     public Channel getBudgetServiceChannel() {
         return getOrCreateChannel("budget-service", budgetServiceAddress);
     }
@@ -64,26 +129,31 @@ public class GrpcClientFactory {
         return getOrCreateChannel("order-service", orderServiceAddress);
     }
     
+    /**
+     * Returns the intercepted channel for the service, built once. The address may be
+     * {@code host:port}, {@code static://host-a:port,host-b:port} or {@code dns:///host:port};
+     * every endpoint it resolves to gets its own subchannel.
+     */
     private Channel getOrCreateChannel(String serviceName, String address) {
-        ManagedChannel baseChannel = channels.computeIfAbsent(serviceName, k -> {
-
-            String cleanAddress = address;
-            if (address.startsWith("static://")) {
-                cleanAddress = address.substring("static://".length());
-            }
-
-            String[] parts = cleanAddress.split(":");
-            String host = parts[0];
-            int port = Integer.parseInt(parts[1]);
-
-            return ManagedChannelBuilder.forAddress(host, port)
+        return interceptedChannels.computeIfAbsent(serviceName, name -> {
+            ManagedChannel baseChannel = ManagedChannelBuilder.forTarget(EndpointNameResolverProvider.toTarget(address))
+                    .defaultLoadBalancingPolicy(LeastOutstandingLoadBalancer.POLICY_NAME)
                     .usePlaintext()
                     .build();
-        });
+            channels.put(name, baseChannel);
 
-        GrpcClientInterceptor interceptor = new GrpcClientInterceptor(grpcClientMetadataProperties);
+            GrpcClientInterceptor interceptor = new GrpcClientInterceptor(grpcClientMetadataProperties);
+            if (!grpcClientGuards.isEnabled()) {
+                return ClientInterceptors.intercept(baseChannel, interceptor, deadlineInterceptor,
+                        observationGrpcClientInterceptor);
+            }
 
-        return ClientInterceptors.intercept(baseChannel, interceptor, observationGrpcClientInterceptor);
+            // Interceptors run last to first, so rejected calls are still observed and calls
+            // with no time left never take a guard slot
+            GrpcClientGuardInterceptor guardInterceptor = new GrpcClientGuardInterceptor(grpcClientGuards.guard(name));
+            return ClientInterceptors.intercept(baseChannel, interceptor, guardInterceptor, deadlineInterceptor,
+                    observationGrpcClientInterceptor);
+        });
     }
 
     public void shutdown() {
@@ -96,5 +166,6 @@ public class GrpcClientFactory {
             }
         });
         channels.clear();
+        interceptedChannels.clear();
     }
 }
@@ -0,0 +1,118 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Admission control for unary calls to one downstream service: a circuit breaker in front of
+ * an {@link AdaptiveConcurrencyLimit}. Rejected calls fail at once with {@code UNAVAILABLE}
+ * instead of queueing behind a slow service.
+ */
+public class GrpcClientGuard {
+
+    /**
+     * Statuses that count as a failure for the circuit breaker.
+     */
+    private static final Set<Status.Code> FAILURES = EnumSet.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.INTERNAL, Status.Code.UNKNOWN);
+
+    /**
+     * Statuses that mean the service is overloaded, so the concurrency limit backs off.
+     */
+    private static final Set<Status.Code> DROPS = EnumSet.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED);
+
+    /**
+     * @param rejection         set when the call was not admitted
+     * @param deadlineInherited the call's deadline was cut short by its caller's, see
+     *                          {@link GrpcDeadlines#isInherited}
+     */
+    public record Admission(Status rejection, long breakerGeneration, long startNanos, boolean deadlineInherited) {
+
+        public boolean admitted() {
+            return rejection == null;
+        }
+    }
+
+    public record State(String service, int limit, int inFlight, GrpcCircuitBreaker.State circuit,
+                        double failureRatePercent, double rejectedByLimit, double rejectedByCircuit) {
+    }
+
+    private final String service;
+    private final AdaptiveConcurrencyLimit limit;
+    private final GrpcCircuitBreaker circuitBreaker;
+    private final Counter rejectedByLimit;
+    private final Counter rejectedByCircuit;
+
+    public GrpcClientGuard(String service, AdaptiveConcurrencyLimit limit, GrpcCircuitBreaker circuitBreaker,
+                           MeterRegistry meterRegistry) {
+        this.service = service;
+        this.limit = limit;
+        this.circuitBreaker = circuitBreaker;
+
+        this.rejectedByLimit = Counter.builder("grpc_client_guard_rejected_total")
+                .tag("service", service)
+                .tag("reason", "limit")
+                .register(meterRegistry);
+        this.rejectedByCircuit = Counter.builder("grpc_client_guard_rejected_total")
+                .tag("service", service)
+                .tag("reason", "circuit_open")
+                .register(meterRegistry);
+        Gauge.builder("grpc_client_guard_limit", limit, AdaptiveConcurrencyLimit::limit)
+                .tag("service", service)
+                .register(meterRegistry);
+        Gauge.builder("grpc_client_guard_in_flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .tag("service", service)
+                .register(meterRegistry);
+        Gauge.builder("grpc_client_guard_circuit_state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .tag("service", service)
+                .register(meterRegistry);
+    }
+
+    public Admission admit(boolean deadlineInherited) {
+        long now = System.nanoTime();
+        long generation = circuitBreaker.tryAcquire(now);
+        if (generation == GrpcCircuitBreaker.REJECTED) {
+            rejectedByCircuit.increment();
+            return new Admission(Status.UNAVAILABLE.withDescription("Circuit open for " + service), generation, now,
+                    deadlineInherited);
+        }
+        if (!limit.tryAcquire()) {
+            circuitBreaker.onIgnored(generation);
+            rejectedByLimit.increment();
+            return new Admission(Status.UNAVAILABLE.withDescription("Concurrency limit reached for " + service),
+                    generation, now, deadlineInherited);
+        }
+        return new Admission(null, generation, now, deadlineInherited);
+    }
+
+    /**
+     * Records how an admitted call ended. Calls cancelled by the client say nothing about the
+     * service, so they only free their slot. Neither does {@code DEADLINE_EXCEEDED} on a call
+     * whose deadline its caller cut short: a caller with little time left would otherwise trip
+     * the breaker and shrink the limit of a healthy service.
+     */
+    public void complete(Admission admission, Status status) {
+        long now = System.nanoTime();
+        if (status.getCode() == Status.Code.CANCELLED
+                || (status.getCode() == Status.Code.DEADLINE_EXCEEDED && admission.deadlineInherited())) {
+            limit.release();
+            circuitBreaker.onIgnored(admission.breakerGeneration());
+            return;
+        }
+        limit.onSample(now - admission.startNanos(), DROPS.contains(status.getCode()));
+        circuitBreaker.onResult(admission.breakerGeneration(), FAILURES.contains(status.getCode()), now);
+    }
+
+    public State state() {
+        return new State(service, limit.limit(), limit.inFlight(), circuitBreaker.state(),
+                circuitBreaker.failureRate(), rejectedByLimit.count(), rejectedByCircuit.count());
+    }
+}
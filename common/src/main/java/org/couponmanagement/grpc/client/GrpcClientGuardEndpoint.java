@@ -0,0 +1,25 @@
+package org.couponmanagement.grpc.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/grpcclients}: concurrency limit, in-flight calls and circuit state per
+ * downstream service. Needs {@code grpcclients} in {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "grpcclients")
+@RequiredArgsConstructor
+public class GrpcClientGuardEndpoint {
+
+    private final GrpcClientGuards guards;
+
+    @ReadOperation
+    public List<GrpcClientGuard.State> guards() {
+        return guards.states();
+    }
+}
@@ -0,0 +1,70 @@
+package org.couponmanagement.grpc.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link GrpcClientGuard} per downstream service, shared by every channel to it.
+ */
+@Component
+public class GrpcClientGuards {
+
+    @Value("${grpc.client.guard.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grpc.client.guard.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${grpc.client.guard.min-limit:4}")
+    private int minLimit;
+
+    @Value("${grpc.client.guard.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${grpc.client.guard.circuit.window-size:50}")
+    private int circuitWindowSize;
+
+    @Value("${grpc.client.guard.circuit.minimum-calls:20}")
+    private int circuitMinimumCalls;
+
+    @Value("${grpc.client.guard.circuit.failure-rate-threshold:50}")
+    private double circuitFailureRateThreshold;
+
+    @Value("${grpc.client.guard.circuit.open-ms:5000}")
+    private long circuitOpenMs;
+
+    @Value("${grpc.client.guard.circuit.half-open-calls:5}")
+    private int circuitHalfOpenCalls;
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, GrpcClientGuard> guards = new ConcurrentHashMap<>();
+
+    public GrpcClientGuards(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public GrpcClientGuard guard(String service) {
+        return guards.computeIfAbsent(service, name -> new GrpcClientGuard(
+                name,
+                new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit),
+                new GrpcCircuitBreaker(circuitWindowSize, circuitMinimumCalls, circuitFailureRateThreshold,
+                        circuitOpenMs, circuitHalfOpenCalls),
+                meterRegistry));
+    }
+
+    public List<GrpcClientGuard.State> states() {
+        return guards.values().stream()
+                .map(GrpcClientGuard::state)
+                .sorted(Comparator.comparing(GrpcClientGuard.State::service))
+                .toList();
+    }
+}
@@ -0,0 +1,63 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the deadline carried by the current gRPC {@link Context}. Server calls get it from the
+ * caller's {@code grpc-timeout}, the gateway from the HTTP request timeout, and executor tasks
+ * inherit it from the thread that submitted them, so downstream work can be sized to the time
+ * the original caller is still willing to wait.
+ */
+public final class GrpcDeadlines {
+
+    /**
+     * Slack for a call deadline derived from {@link #remainingMs}: it is computed a moment
+     * before the call starts and rounded to milliseconds.
+     */
+    private static final long INHERITED_TOLERANCE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private GrpcDeadlines() {
+    }
+
+    /**
+     * @return {@code capMs}, or less when the caller's deadline is closer; zero or negative
+     * once it has passed
+     */
+    public static long remainingMs(long capMs) {
+        Deadline deadline = Context.current().getDeadline();
+        if (deadline == null) {
+            return capMs;
+        }
+        return Math.min(capMs, deadline.timeRemaining(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * True when the caller's deadline, not the call's own timeout, is what ends a call with
+     * {@code callDeadline}. Such a call timing out says the caller was short of time, not that
+     * the service was slow.
+     */
+    public static boolean isInherited(Deadline callDeadline) {
+        Deadline contextDeadline = Context.current().getDeadline();
+        if (contextDeadline == null) {
+            return false;
+        }
+        if (callDeadline == null) {
+            return true;
+        }
+        return contextDeadline.timeRemaining(TimeUnit.NANOSECONDS)
+                <= callDeadline.timeRemaining(TimeUnit.NANOSECONDS) + INHERITED_TOLERANCE_NANOS;
+    }
+
+    /**
+     * True once the caller has given up, either because its deadline passed or because it
+     * cancelled the call.
+     */
+    public static boolean isExpired() {
+        Context context = Context.current();
+        Deadline deadline = context.getDeadline();
+        return context.isCancelled() || (deadline != null && deadline.isExpired());
+    }
+}
@@ -0,0 +1,61 @@
+package org.couponmanagement.grpc.client;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bridges gRPC future stubs to {@link CompletableFuture} so callers can compose downstream
+ * calls without parking a thread per in-flight RPC.
+ */
+public final class GrpcFutures {
+
+    private GrpcFutures() {
+    }
+
+    /**
+     * Completes on the gRPC callback thread; chain an async stage with an executor before
+     * doing anything blocking. Cancelling the returned future cancels the RPC.
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> listenableFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                listenableFuture.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+
+        Futures.addCallback(listenableFuture, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+
+        return future;
+    }
+
+    /**
+     * Strips the {@link CompletionException} / {@link ExecutionException} wrappers added by
+     * future composition so callers can log and map the original failure.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable current = throwable;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,231 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.Channel;
+import io.grpc.Context;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent, read-only calls to one service. When the first attempt has not answered
+ * after roughly the observed latency percentile, a second attempt goes out, usually to another
+ * endpoint since the first one still counts as outstanding there; the first answer wins and the
+ * other attempt is cancelled. Hedges are capped at {@code budgetPercent} of calls, so a
+ * service-wide slowdown cannot double the load on it.
+ *
+ * <p>The delay is recomputed every {@value #RECOMPUTE_EVERY} successful attempts from the last
+ * {@value #WINDOW}; until {@value #MIN_SAMPLES} attempts are seen, {@code initialDelayMs} is used.
+ */
+@Slf4j
+public class GrpcHedgingPolicy {
+
+    static final int WINDOW = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+    static final int MIN_SAMPLES = 128;
+    private static final double MAX_TOKENS = 10.0;
+
+    /**
+     * Starts one attempt on the given channel with its own deadline.
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        CompletableFuture<T> start(Channel channel, long deadlineMs);
+    }
+
+    private final Supplier<Channel> primaryChannel;
+    private final Supplier<Channel> hedgeChannel;
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMs;
+    private final double tokensPerCall;
+
+    private final long[] latenciesMicros = new long[WINDOW];
+    private long samples;
+    private double tokens;
+    private volatile long delayMs;
+
+    private final Counter calls;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+    private final Counter budgetExhausted;
+
+    public GrpcHedgingPolicy(String serviceName,
+                             Supplier<Channel> primaryChannel,
+                             Supplier<Channel> hedgeChannel,
+                             boolean enabled,
+                             double percentile,
+                             long initialDelayMs,
+                             long minDelayMs,
+                             double budgetPercent,
+                             MeterRegistry meterRegistry) {
+        this.primaryChannel = primaryChannel;
+        this.hedgeChannel = hedgeChannel;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayMs = minDelayMs;
+        this.tokensPerCall = budgetPercent / 100.0;
+        this.delayMs = Math.max(minDelayMs, initialDelayMs);
+
+        this.calls = Counter.builder("grpc_client_hedging_calls_total")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        this.hedges = Counter.builder("grpc_client_hedging_attempts_total")
+                .description("Second attempts sent; divide by calls for the hedge rate")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("grpc_client_hedging_wins_total")
+                .description("Calls answered by the second attempt; divide by attempts for the win rate")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("grpc_client_hedging_budget_exhausted_total")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        Gauge.builder("grpc_client_hedging_delay_ms", this, policy -> policy.delayMs)
+                .tag("service", serviceName)
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> call(long deadlineMs, Attempt<T> attempt) {
+        calls.increment();
+        addTokens();
+        long delay = delayMs;
+        if (!enabled || delay >= deadlineMs) {
+            return start(attempt, primaryChannel, deadlineMs, false, null);
+        }
+
+        HedgedCall<T> call = new HedgedCall<>(attempt, deadlineMs - delay);
+        call.primary = start(attempt, primaryChannel, deadlineMs, false, call);
+        // The hedge starts on a timer thread; it still belongs to the caller's context
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(Context.current().wrap(call::hedge));
+        return call.result;
+    }
+
+    long delayMs() {
+        return delayMs;
+    }
+
+    /**
+     * @return the attempt's own future, so cancelling it cancels the RPC
+     */
+    private <T> CompletableFuture<T> start(Attempt<T> attempt, Supplier<Channel> channel, long deadlineMs,
+                                           boolean hedge, HedgedCall<T> call) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = attempt.start(channel.get(), deadlineMs);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, failure) -> {
+            if (failure == null) {
+                recordLatency(System.nanoTime() - startNanos);
+            }
+            if (call != null) {
+                call.attemptDone(hedge, value, failure);
+            }
+        });
+        return future;
+    }
+
+    private synchronized void addTokens() {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerCall);
+    }
+
+    private synchronized boolean tryAcquireToken() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    private void recordLatency(long nanos) {
+        long[] window = null;
+        synchronized (this) {
+            latenciesMicros[(int) (samples % WINDOW)] = TimeUnit.NANOSECONDS.toMicros(nanos);
+            samples++;
+            if (samples >= MIN_SAMPLES && samples % RECOMPUTE_EVERY == 0) {
+                window = Arrays.copyOf(latenciesMicros, (int) Math.min(samples, WINDOW));
+            }
+        }
+        if (window != null) {
+            Arrays.sort(window);
+            long micros = window[Math.min(window.length - 1, (int) Math.ceil(percentile * window.length) - 1)];
+            delayMs = Math.max(minDelayMs, TimeUnit.MICROSECONDS.toMillis(micros + 999));
+        }
+    }
+
+    /**
+     * The primary attempt and, once the delay passes without an answer, a hedge. The result
+     * fails only when every attempt that was sent has failed.
+     */
+    private final class HedgedCall<T> {
+
+        private final Attempt<T> attempt;
+        private final long hedgeDeadlineMs;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> primary;
+        private volatile CompletableFuture<T> hedge;
+        private int sent = 1;
+        private int failed;
+
+        private HedgedCall(Attempt<T> attempt, long hedgeDeadlineMs) {
+            this.attempt = attempt;
+            this.hedgeDeadlineMs = hedgeDeadlineMs;
+            result.whenComplete((value, failure) -> cancelAttempts());
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                // A primary that already failed ends the call; hedging is not a retry
+                if (result.isDone() || failed == sent) {
+                    return;
+                }
+                if (!tryAcquireToken()) {
+                    budgetExhausted.increment();
+                    return;
+                }
+                sent++;
+            }
+            hedges.increment();
+            hedge = start(attempt, hedgeChannel, hedgeDeadlineMs, true, this);
+            if (result.isDone()) {
+                hedge.cancel(true);
+            }
+        }
+
+        private void attemptDone(boolean isHedge, T value, Throwable failure) {
+            if (failure == null) {
+                if (result.complete(value) && isHedge) {
+                    hedgeWins.increment();
+                }
+                return;
+            }
+            boolean allFailed;
+            synchronized (this) {
+                failed++;
+                allFailed = failed == sent;
+            }
+            if (allFailed) {
+                result.completeExceptionally(failure);
+            }
+        }
+
+        private void cancelAttempts() {
+            CompletableFuture<T> first = primary;
+            CompletableFuture<T> second = hedge;
+            if (first != null) {
+                first.cancel(true);
+            }
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.LoadBalancerRegistry;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps one subchannel per resolved endpoint and sends each call to the less loaded of two
+ * randomly chosen ready endpoints (power of two choices over outstanding requests). An
+ * endpoint is healthy while its connection is READY; after {@value #EJECTION_FAILURES}
+ * consecutive {@code UNAVAILABLE} results it is also ejected for {@value #EJECTION_MS} ms,
+ * unless that would leave no endpoint to pick.
+ *
+ * <p>Everything except the picker and the stream tracers runs in the channel's
+ * synchronization context.
+ */
+@Slf4j
+public class LeastOutstandingLoadBalancer extends LoadBalancer {
+
+    public static final String POLICY_NAME = "least_outstanding_p2c";
+
+    static final int EJECTION_FAILURES = 5;
+    static final long EJECTION_MS = 10_000;
+
+    private final Helper helper;
+    private final Map<EquivalentAddressGroup, Endpoint> endpoints = new HashMap<>();
+    private Status lastResolutionError;
+
+    LeastOutstandingLoadBalancer(Helper helper) {
+        this.helper = helper;
+    }
+
+    @Override
+    public Status acceptResolvedAddresses(ResolvedAddresses resolvedAddresses) {
+        List<EquivalentAddressGroup> addresses = resolvedAddresses.getAddresses();
+        if (addresses.isEmpty()) {
+            Status error = Status.UNAVAILABLE.withDescription("Name resolver returned no endpoints");
+            handleNameResolutionError(error);
+            return error;
+        }
+        lastResolutionError = null;
+
+        Set<EquivalentAddressGroup> current = new HashSet<>();
+        for (EquivalentAddressGroup address : addresses) {
+            EquivalentAddressGroup key = new EquivalentAddressGroup(address.getAddresses());
+            current.add(key);
+            if (!endpoints.containsKey(key)) {
+                Subchannel subchannel = helper.createSubchannel(CreateSubchannelArgs.newBuilder()
+                        .setAddresses(key)
+                        .build());
+                Endpoint endpoint = new Endpoint(key, subchannel);
+                endpoints.put(key, endpoint);
+                subchannel.start(state -> onStateChange(endpoint, state));
+                subchannel.requestConnection();
+            }
+        }
+
+        endpoints.values().removeIf(endpoint -> {
+            if (current.contains(endpoint.key)) {
+                return false;
+            }
+            endpoint.subchannel.shutdown();
+            return true;
+        });
+
+        updateBalancingState();
+        return Status.OK;
+    }
+
+    @Override
+    public void handleNameResolutionError(Status error) {
+        lastResolutionError = error;
+        if (readyEndpoints().isEmpty()) {
+            helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE,
+                    new ErrorPicker(error));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        endpoints.values().forEach(endpoint -> endpoint.subchannel.shutdown());
+        endpoints.clear();
+    }
+
+    private void onStateChange(Endpoint endpoint, ConnectivityStateInfo stateInfo) {
+        if (endpoints.get(endpoint.key) != endpoint) {
+            return;
+        }
+        if (stateInfo.getState() == ConnectivityState.IDLE) {
+            // Keep every endpoint connected so it can be picked
+            endpoint.subchannel.requestConnection();
+        }
+        endpoint.state = stateInfo;
+        updateBalancingState();
+    }
+
+    private void eject(Endpoint endpoint) {
+        helper.getSynchronizationContext().execute(() -> {
+            if (endpoints.get(endpoint.key) != endpoint) {
+                return;
+            }
+            log.warn("Ejecting gRPC endpoint after consecutive failures: address={}, ejectionMs={}",
+                    endpoint.key.getAddresses(), EJECTION_MS);
+            endpoint.ejectedUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(EJECTION_MS);
+            updateBalancingState();
+            helper.getSynchronizationContext().schedule(this::updateBalancingState,
+                    EJECTION_MS, TimeUnit.MILLISECONDS, helper.getScheduledExecutorService());
+        });
+    }
+
+    private List<Endpoint> readyEndpoints() {
+        List<Endpoint> ready = new ArrayList<>();
+        for (Endpoint endpoint : endpoints.values()) {
+            if (endpoint.state.getState() == ConnectivityState.READY) {
+                ready.add(endpoint);
+            }
+        }
+        return ready;
+    }
+
+    private void updateBalancingState() {
+        List<Endpoint> ready = readyEndpoints();
+        if (!ready.isEmpty()) {
+            long now = System.nanoTime();
+            List<Endpoint> healthy = new ArrayList<>();
+            for (Endpoint endpoint : ready) {
+                if (now - endpoint.ejectedUntilNanos >= 0) {
+                    healthy.add(endpoint);
+                }
+            }
+            helper.updateBalancingState(ConnectivityState.READY,
+                    new Picker(healthy.isEmpty() ? ready : healthy));
+            return;
+        }
+
+        boolean connecting = endpoints.values().stream()
+                .map(endpoint -> endpoint.state.getState())
+                .anyMatch(state -> state == ConnectivityState.CONNECTING || state == ConnectivityState.IDLE);
+        if (connecting) {
+            helper.updateBalancingState(ConnectivityState.CONNECTING, new ErrorPicker(null));
+            return;
+        }
+
+        Status error = lastResolutionError;
+        if (error == null) {
+            error = endpoints.values().stream()
+                    .map(endpoint -> endpoint.state.getStatus())
+                    .filter(status -> !status.isOk())
+                    .findFirst()
+                    .orElse(Status.UNAVAILABLE.withDescription("No ready endpoints"));
+        }
+        helper.updateBalancingState(ConnectivityState.TRANSIENT_FAILURE, new ErrorPicker(error));
+    }
+
+    /**
+     * One resolved endpoint. The counters are updated from stream tracers on transport threads,
+     * so they are atomic; the rest is confined to the synchronization context. A call is counted
+     * when its stream tracer is created rather than when it is picked, since gRPC may drop a pick
+     * and pick again, or cancel the call before a stream exists, and only created streams are
+     * guaranteed to close.
+     */
+    final class Endpoint {
+
+        private final EquivalentAddressGroup key;
+        private final Subchannel subchannel;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final ClientStreamTracer.Factory tracerFactory = new ClientStreamTracer.Factory() {
+            @Override
+            public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                outstanding.incrementAndGet();
+                return new ClientStreamTracer() {
+                    @Override
+                    public void streamClosed(Status status) {
+                        onCallClosed(status);
+                    }
+                };
+            }
+        };
+        private ConnectivityStateInfo state = ConnectivityStateInfo.forNonError(ConnectivityState.IDLE);
+        private volatile long ejectedUntilNanos = System.nanoTime();
+
+        Endpoint(EquivalentAddressGroup key, Subchannel subchannel) {
+            this.key = key;
+            this.subchannel = subchannel;
+        }
+
+        int outstanding() {
+            return outstanding.get();
+        }
+
+        PickResult pick() {
+            return PickResult.withSubchannel(subchannel, tracerFactory);
+        }
+
+        void onCallClosed(Status status) {
+            outstanding.decrementAndGet();
+            if (status.getCode() != Status.Code.UNAVAILABLE) {
+                consecutiveFailures.set(0);
+            } else if (consecutiveFailures.incrementAndGet() == EJECTION_FAILURES) {
+                consecutiveFailures.set(0);
+                eject(this);
+            }
+        }
+    }
+
+    static final class Picker extends SubchannelPicker {
+
+        private final List<Endpoint> endpoints;
+
+        Picker(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+        }
+
+        @Override
+        public PickResult pickSubchannel(PickSubchannelArgs args) {
+            return choose().pick();
+        }
+
+        Endpoint choose() {
+            int size = endpoints.size();
+            if (size == 1) {
+                return endpoints.get(0);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            Endpoint a = endpoints.get(first);
+            Endpoint b = endpoints.get(second);
+            return b.outstanding() < a.outstanding() ? b : a;
+        }
+    }
+
+    /**
+     * Fails calls with the given status, or queues them until the next picker when it is null.
+     */
+    private static final class ErrorPicker extends SubchannelPicker {
+
+        private final Status error;
+
+        private ErrorPicker(Status error) {
+            this.error = error;
+        }
+
+        @Override
+        public PickResult pickSubchannel(PickSubchannelArgs args) {
+            return error == null ? PickResult.withNoResult() : PickResult.withError(error);
+        }
+    }
+
+    public static final class Provider extends LoadBalancerProvider {
+
+        private static boolean registered;
+
+        public static synchronized void register() {
+            if (!registered) {
+                LoadBalancerRegistry.getDefaultRegistry().register(new Provider());
+                registered = true;
+            }
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public int getPriority() {
+            return 5;
+        }
+
+        @Override
+        public String getPolicyName() {
+            return POLICY_NAME;
+        }
+
+        @Override
+        public LoadBalancer newLoadBalancer(Helper helper) {
+            return new LeastOutstandingLoadBalancer(helper);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.couponmanagement.grpc.config;
+
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.couponmanagement.grpc.client.DeadlineMetrics;
+import org.couponmanagement.grpc.interceptor.GrpcDeadlineServerInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DeadlineConfig {
+
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public GrpcDeadlineServerInterceptor grpcDeadlineServerInterceptor(DeadlineMetrics deadlineMetrics) {
+        return new GrpcDeadlineServerInterceptor(deadlineMetrics);
+    }
+}
@@ -1,5 +1,6 @@
 package org.couponmanagement.grpc.config;
 
+import io.grpc.Context;
 import io.micrometer.context.ContextSnapshot;
 import io.micrometer.context.ContextSnapshotFactory;
 import lombok.extern.slf4j.Slf4j;
@@ -97,11 +98,16 @@ public class ThreadPoolConfig {
             this.threadNamePrefix = threadNamePrefix;
         }
 
+        /**
+         * Tasks also run in the submitter's gRPC {@link Context}, so they see the caller's
+         * deadline and cancellation and pass them on to any downstream call they make.
+         */
         @Override
         public void execute(Runnable command) {
             ContextSnapshot snapshot = contextSnapshotFactory.captureAll();
+            Context grpcContext = Context.current();
 
-            delegate.execute(() -> {
+            delegate.execute(grpcContext.wrap(() -> {
                 try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
                     var span = tracer.nextSpan().name(threadNamePrefix + "async-task").start();
                     try (Tracer.SpanInScope ws = tracer.withSpan(span)) {
@@ -114,7 +120,7 @@ public class ThreadPoolConfig {
                         span.end();
                     }
                 }
-            });
+            }));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package org.couponmanagement.grpc.interceptor;
+
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.Status;
+
+/**
+ * A call that never reaches the network: it closes the listener with the given status as
+ * soon as it is started.
+ */
+final class FailedClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+    private final Status status;
+
+    FailedClientCall(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public void start(Listener<RespT> responseListener, Metadata headers) {
+        responseListener.onClose(status, new Metadata());
+    }
+
+    @Override
+    public void request(int numMessages) {
+    }
+
+    @Override
+    public void cancel(String message, Throwable cause) {
+    }
+
+    @Override
+    public void halfClose() {
+    }
+
+    @Override
+    public void sendMessage(ReqT message) {
+    }
+}
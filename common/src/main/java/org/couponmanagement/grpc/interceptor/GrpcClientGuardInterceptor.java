@@ -0,0 +1,74 @@
+package org.couponmanagement.grpc.interceptor;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import org.couponmanagement.grpc.client.GrpcClientGuard;
+import org.couponmanagement.grpc.client.GrpcDeadlines;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Applies a {@link GrpcClientGuard} to unary calls. A rejected call is closed with the
+ * rejection status without touching the network. Streaming calls stay open for long periods,
+ * so they would hold a slot and skew the RTT samples; they pass through unguarded.
+ */
+public class GrpcClientGuardInterceptor implements ClientInterceptor {
+
+    private final GrpcClientGuard guard;
+
+    public GrpcClientGuardInterceptor(GrpcClientGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+            return next.newCall(method, callOptions);
+        }
+
+        GrpcClientGuard.Admission admission = guard.admit(GrpcDeadlines.isInherited(callOptions.getDeadline()));
+        if (!admission.admitted()) {
+            return new FailedClientCall<>(admission.rejection());
+        }
+
+        AtomicBoolean completed = new AtomicBoolean();
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                try {
+                    super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                        @Override
+                        public void onClose(Status status, Metadata trailers) {
+                            if (completed.compareAndSet(false, true)) {
+                                guard.complete(admission, status);
+                            }
+                            super.onClose(status, trailers);
+                        }
+                    }, headers);
+                } catch (RuntimeException e) {
+                    if (completed.compareAndSet(false, true)) {
+                        guard.complete(admission, Status.CANCELLED);
+                    }
+                    throw e;
+                }
+            }
+
+            @Override
+            public void cancel(String message, Throwable cause) {
+                // Cancelled before start, onClose never runs
+                if (completed.compareAndSet(false, true)) {
+                    guard.complete(admission, Status.CANCELLED);
+                }
+                super.cancel(message, cause);
+            }
+        };
+    }
+}
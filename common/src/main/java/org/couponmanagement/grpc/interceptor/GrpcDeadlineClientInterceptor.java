@@ -0,0 +1,38 @@
+package org.couponmanagement.grpc.interceptor;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Deadline;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import org.couponmanagement.grpc.client.DeadlineMetrics;
+import org.couponmanagement.grpc.client.GrpcDeadlines;
+
+/**
+ * Fails a downstream call without sending it when the caller it is done for has already
+ * given up, or when its own deadline was used up before it started. gRPC caps a call's
+ * deadline at the one in the current {@link io.grpc.Context} by itself, so this only adds
+ * the fast path and the count.
+ */
+public class GrpcDeadlineClientInterceptor implements ClientInterceptor {
+
+    private final DeadlineMetrics deadlineMetrics;
+
+    public GrpcDeadlineClientInterceptor(DeadlineMetrics deadlineMetrics) {
+        this.deadlineMetrics = deadlineMetrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        Deadline deadline = callOptions.getDeadline();
+        if (GrpcDeadlines.isExpired() || (deadline != null && deadline.isExpired())) {
+            deadlineMetrics.recordExpired(DeadlineMetrics.CLIENT);
+            return new FailedClientCall<>(Status.DEADLINE_EXCEEDED
+                    .withDescription("No time left to call " + method.getFullMethodName()));
+        }
+        return next.newCall(method, callOptions);
+    }
+}
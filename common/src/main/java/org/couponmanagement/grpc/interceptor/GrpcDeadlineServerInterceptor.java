@@ -0,0 +1,62 @@
+package org.couponmanagement.grpc.interceptor;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.couponmanagement.grpc.client.DeadlineMetrics;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * gRPC already turns the caller's {@code grpc-timeout} into a deadline on the call's
+ * {@link Context} and cancels it when the deadline fires. This interceptor refuses calls that
+ * arrive with no time left and counts calls still running when their deadline fired. Work that
+ * keeps the context, including tasks on the shared executors, sees the cancellation.
+ */
+public class GrpcDeadlineServerInterceptor implements ServerInterceptor {
+
+    private final DeadlineMetrics deadlineMetrics;
+
+    public GrpcDeadlineServerInterceptor(DeadlineMetrics deadlineMetrics) {
+        this.deadlineMetrics = deadlineMetrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        Context context = Context.current();
+        Deadline deadline = context.getDeadline();
+        if (deadline == null) {
+            return next.startCall(call, headers);
+        }
+        if (deadline.isExpired()) {
+            deadlineMetrics.recordExpired(DeadlineMetrics.SERVER);
+            call.close(Status.DEADLINE_EXCEEDED.withDescription("Deadline passed before the call was handled"),
+                    new Metadata());
+            return new ServerCall.Listener<>() {};
+        }
+
+        AtomicBoolean closed = new AtomicBoolean();
+        context.addListener(cancelled -> {
+            if (!closed.get() && cancelled.cancellationCause() instanceof TimeoutException) {
+                deadlineMetrics.recordExpired(DeadlineMetrics.SERVER);
+            }
+        }, MoreExecutors.directExecutor());
+
+        return next.startCall(new ForwardingServerCall.SimpleForwardingServerCall<>(call) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                closed.set(true);
+                super.close(status, trailers);
+            }
+        }, headers);
+    }
+}
@@ -0,0 +1,13 @@
+package org.couponmanagement.rule.engine;
+
+/**
+ * Result of evaluating one rule collection; {@code errorMessage} is set only on failure.
+ */
+public record CollectionOutcome(boolean success, String errorMessage) {
+
+    public static final CollectionOutcome SUCCESS = new CollectionOutcome(true, null);
+
+    public static CollectionOutcome failure(String errorMessage) {
+        return new CollectionOutcome(false, errorMessage);
+    }
+}
@@ -0,0 +1,36 @@
+package org.couponmanagement.rule.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * {@code DAILY_ACTIVE_TIME}: passes when the order's time of day lies within
+ * [{@code start_time}, {@code end_time}], both {@code HH:mm:ss}.
+ */
+public class DailyActiveTimeCheck implements RuleCheck {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    @Override
+    public boolean supports(JsonNode config) {
+        try {
+            return config.hasNonNull("start_time") && config.hasNonNull("end_time")
+                    && parse(config, "start_time").isBefore(parse(config, "end_time"));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean check(JsonNode config, RuleInput input) {
+        LocalTime time = input.orderTime().toLocalTime();
+        return !time.isBefore(parse(config, "start_time")) && !time.isAfter(parse(config, "end_time"));
+    }
+
+    private static LocalTime parse(JsonNode config, String field) {
+        return LocalTime.parse(config.get(field).asText(), TIME_FORMAT);
+    }
+}
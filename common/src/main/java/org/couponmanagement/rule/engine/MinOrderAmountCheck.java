@@ -0,0 +1,20 @@
+package org.couponmanagement.rule.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * {@code MIN_ORDER_AMOUNT}: passes when the order amount is at least {@code min_amount}.
+ */
+public class MinOrderAmountCheck implements RuleCheck {
+
+    @Override
+    public boolean supports(JsonNode config) {
+        JsonNode minAmount = config.get("min_amount");
+        return minAmount != null && minAmount.isNumber();
+    }
+
+    @Override
+    public boolean check(JsonNode config, RuleInput input) {
+        return input.orderAmount() >= config.get("min_amount").asDouble();
+    }
+}
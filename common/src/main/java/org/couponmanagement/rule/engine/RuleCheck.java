@@ -0,0 +1,17 @@
+package org.couponmanagement.rule.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Evaluates one rule type against a parsed rule configuration.
+ */
+public interface RuleCheck {
+
+    /**
+     * @return false if {@code config} lacks what this rule type needs; such rules are not
+     *         evaluated locally
+     */
+    boolean supports(JsonNode config);
+
+    boolean check(JsonNode config, RuleInput input);
+}
@@ -0,0 +1,7 @@
+package org.couponmanagement.rule.engine;
+
+/**
+ * One rule as stored by rule-service; {@code description} becomes the failure message.
+ */
+public record RuleDefinition(int ruleId, String type, String description, String configuration) {
+}
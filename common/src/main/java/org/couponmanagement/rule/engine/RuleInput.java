@@ -0,0 +1,9 @@
+package org.couponmanagement.rule.engine;
+
+import java.time.LocalDateTime;
+
+/**
+ * The order attributes today's rule types read.
+ */
+public record RuleInput(double orderAmount, LocalDateTime orderTime) {
+}
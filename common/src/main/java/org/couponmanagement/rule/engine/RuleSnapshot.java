@@ -0,0 +1,112 @@
+package org.couponmanagement.rule.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of every rule and rule collection, small enough to hold in memory on each
+ * coupon-service node. The version is a digest of the content, so two snapshots with the same
+ * version evaluate identically. Rule configurations are parsed once, when the snapshot is built.
+ */
+public final class RuleSnapshot {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String version;
+    private final Map<Integer, RuleDefinition> rules;
+    private final Map<Integer, List<Integer>> collections;
+    private final Map<Integer, JsonNode> configs;
+
+    private RuleSnapshot(String version, Map<Integer, RuleDefinition> rules, Map<Integer, List<Integer>> collections) {
+        this.version = version;
+        this.rules = rules;
+        this.collections = collections;
+        this.configs = new HashMap<>();
+        rules.forEach((ruleId, rule) -> {
+            JsonNode config = parse(rule.configuration());
+            if (config != null) {
+                configs.put(ruleId, config);
+            }
+        });
+    }
+
+    /**
+     * @param collections rule ids per collection id, in evaluation order
+     */
+    public static RuleSnapshot of(Collection<RuleDefinition> rules, Map<Integer, List<Integer>> collections) {
+        Map<Integer, RuleDefinition> rulesById = new TreeMap<>();
+        rules.forEach(rule -> rulesById.put(rule.ruleId(), rule));
+        Map<Integer, List<Integer>> sortedCollections = new TreeMap<>();
+        collections.forEach((collectionId, ruleIds) -> sortedCollections.put(collectionId, List.copyOf(ruleIds)));
+        return new RuleSnapshot(version(rulesById, sortedCollections), rulesById, sortedCollections);
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public Collection<RuleDefinition> rules() {
+        return rules.values();
+    }
+
+    public Map<Integer, List<Integer>> collections() {
+        return collections;
+    }
+
+    public boolean hasCollection(int collectionId) {
+        return collections.containsKey(collectionId);
+    }
+
+    List<Integer> ruleIds(int collectionId) {
+        return collections.get(collectionId);
+    }
+
+    RuleDefinition rule(int ruleId) {
+        return rules.get(ruleId);
+    }
+
+    JsonNode config(int ruleId) {
+        return configs.get(ruleId);
+    }
+
+    private static JsonNode parse(String configuration) {
+        if (configuration == null || configuration.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(configuration);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String version(Map<Integer, RuleDefinition> rules, Map<Integer, List<Integer>> collections) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (RuleDefinition rule : rules.values()) {
+                for (Object part : Arrays.asList(rule.ruleId(), rule.type(), rule.description(), rule.configuration())) {
+                    digest.update((byte) 0);
+                    digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            collections.forEach((collectionId, ruleIds) -> {
+                digest.update((byte) 1);
+                digest.update((collectionId + "=" + ruleIds).getBytes(StandardCharsets.UTF_8));
+            });
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
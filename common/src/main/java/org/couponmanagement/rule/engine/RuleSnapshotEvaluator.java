@@ -0,0 +1,68 @@
+package org.couponmanagement.rule.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Evaluates rule collections against a {@link RuleSnapshot} with the same outcomes and messages
+ * as rule-service's {@code RuleEvaluationService}: collection 0 always passes, a collection
+ * without rules fails, and a failed collection reports the descriptions of its failed rules.
+ *
+ * <p>Anything whose outcome this library cannot reproduce exactly (an unknown rule type, a
+ * missing or malformed configuration, a collection absent from the snapshot) yields empty, and
+ * the caller falls back to rule-service.
+ */
+public class RuleSnapshotEvaluator {
+
+    private final Map<String, RuleCheck> checks;
+
+    public RuleSnapshotEvaluator(Map<String, RuleCheck> checks) {
+        this.checks = Map.copyOf(checks);
+    }
+
+    public static RuleSnapshotEvaluator withDefaultChecks() {
+        return new RuleSnapshotEvaluator(Map.of(
+                "MIN_ORDER_AMOUNT", new MinOrderAmountCheck(),
+                "DAILY_ACTIVE_TIME", new DailyActiveTimeCheck()));
+    }
+
+    public Optional<CollectionOutcome> evaluate(RuleSnapshot snapshot, int collectionId, RuleInput input) {
+        if (collectionId == 0) {
+            return Optional.of(CollectionOutcome.SUCCESS);
+        }
+        if (!snapshot.hasCollection(collectionId)) {
+            return Optional.empty();
+        }
+
+        List<String> failures = new ArrayList<>();
+        boolean anyRule = false;
+        for (Integer ruleId : snapshot.ruleIds(collectionId)) {
+            RuleDefinition rule = snapshot.rule(ruleId);
+            if (rule == null) {
+                // rule-service loads collection rules with findByIdIn, which skips deleted ids
+                continue;
+            }
+            anyRule = true;
+            RuleCheck check = checks.get(rule.type());
+            JsonNode config = snapshot.config(ruleId);
+            if (check == null || config == null || !check.supports(config)) {
+                return Optional.empty();
+            }
+            if (!check.check(config, input) && rule.description() != null) {
+                failures.add(rule.description());
+            }
+        }
+
+        if (!anyRule) {
+            return Optional.of(CollectionOutcome.failure("No rules found in collection: " + collectionId));
+        }
+        // As in rule-service, failed rules without a description do not fail the collection
+        return Optional.of(failures.isEmpty()
+                ? CollectionOutcome.SUCCESS
+                : CollectionOutcome.failure(String.join(", ", failures)));
+    }
+}
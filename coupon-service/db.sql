@@ -0,0 +1,22 @@
+-- Schema changes to coupon_db.coupon_user, in the order they have to be applied to an
+-- existing database. coupon-service does not create or update its schema on startup.
+
+-- Bulk issuance and its replays rely on INSERT IGNORE hitting this key, and lookups by
+-- (user_id, coupon_id) expect at most one row. Drop duplicates first, keeping a USED row
+-- over a claimed one and otherwise the oldest, so the key can be added.
+delete dup
+from coupon_db.coupon_user dup
+         join coupon_db.coupon_user keep
+              on keep.user_id = dup.user_id
+                  and keep.coupon_id = dup.coupon_id
+                  and ((coalesce(keep.status, '') = 'USED') > (coalesce(dup.status, '') = 'USED')
+                      or ((coalesce(keep.status, '') = 'USED') = (coalesce(dup.status, '') = 'USED')
+                          and keep.id < dup.id));
+
+alter table coupon_db.coupon_user
+    add unique key uk_coupon_user_user_coupon (user_id, coupon_id);
+
+-- Status writes are fenced by the version CouponUserStateStore issues per transition
+-- (CouponUserStateRepository, CouponUserBulkRepository); rows start below any issued version.
+alter table coupon_db.coupon_user
+    add column state_version bigint not null default 0;
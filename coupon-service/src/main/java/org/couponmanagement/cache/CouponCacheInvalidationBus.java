@@ -0,0 +1,113 @@
+package org.couponmanagement.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Broadcasts L1 invalidations over Redis pub/sub so every coupon-service node drops
+ * stale local entries. Messages are "nodeId|keyspace|redisKey"; a node ignores its own.
+ *
+ * <p>Messages published while this node is not subscribed are lost. The listener container
+ * resubscribes after a connection failure; every subscription after the first resyncs the
+ * {@link CouponCodeFilter}, which may have missed new codes in between.
+ */
+@Component
+@Slf4j
+public class CouponCacheInvalidationBus implements MessageListener, SubscriptionListener {
+
+    private static final String SEPARATOR = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final CouponLocalCache localCache;
+    private final CouponCacheProperties cacheProperties;
+    private final CouponCodeFilter codeFilter;
+    private final CouponHotKeyCache hotKeyCache;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicBoolean subscribedOnce = new AtomicBoolean();
+
+    public CouponCacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      CouponLocalCache localCache,
+                                      CouponCacheProperties cacheProperties,
+                                      CouponCodeFilter codeFilter,
+                                      CouponHotKeyCache hotKeyCache) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.localCache = localCache;
+        this.cacheProperties = cacheProperties;
+        this.codeFilter = codeFilter;
+        this.hotKeyCache = hotKeyCache;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        log.info("Subscribed to cache invalidation channel: channel={}, nodeId={}",
+                cacheProperties.getInvalidationChannel(), nodeId);
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        if (!subscribedOnce.compareAndSet(false, true)) {
+            log.info("Resubscribed to cache invalidation channel, resyncing coupon code filter: channel={}",
+                    cacheProperties.getInvalidationChannel());
+            codeFilter.resync();
+        }
+    }
+
+    @Override
+    public void onChannelUnsubscribed(byte[] channel, long count) {
+        codeFilter.markStale();
+    }
+
+    public void publish(CouponLocalCache.Keyspace keyspace, String key) {
+        try {
+            String message = nodeId + SEPARATOR + keyspace.tag() + SEPARATOR + key;
+            stringRedisTemplate.convertAndSend(cacheProperties.getInvalidationChannel(), message);
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation: keyspace={}, key={}, error={}",
+                    keyspace.tag(), key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+
+        Optional<CouponLocalCache.Keyspace> keyspace = CouponLocalCache.Keyspace.fromTag(parts[1]);
+        if (keyspace.isEmpty()) {
+            log.warn("Ignoring cache invalidation for unknown keyspace: {}", parts[1]);
+            return;
+        }
+
+        localCache.invalidate(keyspace.get(), parts[2]);
+        hotKeyCache.invalidate(parts[2]);
+        if (keyspace.get() == CouponLocalCache.Keyspace.COUPON_CODE
+                && parts[2].startsWith(CouponCacheProperties.COUPON_INFO_KEY_PREFIX)) {
+            // A peer created or renamed a coupon: make the code known here too
+            codeFilter.add(parts[2].substring(CouponCacheProperties.COUPON_INFO_KEY_PREFIX.length()));
+        }
+        log.debug("Local cache entry invalidated by peer: keyspace={}, key={}", parts[1], parts[2]);
+    }
+}
@@ -5,14 +5,21 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "app.cache")
 @Validated
-public class CouponCacheProperties{
+public class CouponCacheProperties implements CacheProperties {
+
+    public static final String COUPON_INFO_KEY_PREFIX = "coupon:info:";
 
     @NotBlank
     private String keyPrefix = "coupon-service";
@@ -29,11 +36,134 @@ public class CouponCacheProperties{
     @Min(1)
     private long couponDetailedTtlSeconds = 172800;
 
+    /**
+     * Lifetime of a coupon-user status/version entry; outlives the wallet so replays still lose.
+     */
+    @Min(1)
+    private long couponUserStateTtlSeconds = 604800;
+
     @Min(1)
     private long couponDetailTtlSeconds = 60 * 60 * 24 * 7; // 1 day
 
+    @Min(1)
+    private long localMaxSize = 10_000;
+
+    @Min(1)
+    private long localTtlSeconds = 300;
+
+    @Min(1)
+    private long localUserCouponsTtlSeconds = 30;
+
+    @Min(1)
+    private int batchChunkSize = 200;
+
+    /**
+     * coupon_user rows read per keyset page during wallet warmup.
+     */
+    @Min(1)
+    private int warmupPageSize = 5_000;
+
+    /**
+     * Pipelined wallet chunks written concurrently during warmup.
+     */
+    @Min(1)
+    private int warmupParallelism = 4;
+
+    private boolean earlyRefreshEnabled = true;
+
+    /**
+     * Early refresh aggressiveness; above 1 refreshes sooner, below 1 later.
+     */
+    @DecimalMin("0.0")
+    private double earlyRefreshBeta = 1.0;
+
+    /**
+     * Assumed load cost for entries this node read from Redis rather than loaded itself.
+     */
+    @Min(1)
+    private long earlyRefreshComputeMillis = 50;
+
+    @Min(1)
+    private long negativeCacheTtlSeconds = 30;
+
+    @Min(1)
+    private long negativeCacheMaxSize = 100_000;
+
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax(value = "1.0", inclusive = false)
+    private double bloomFalsePositiveRate = 0.01;
+
+    @Min(1)
+    private long bloomMinCapacity = 10_000;
+
+    /**
+     * Filter capacity relative to the coupon count at build time, leaving room for new codes.
+     */
+    @DecimalMin("1.0")
+    private double bloomGrowthFactor = 2.0;
+
+    /**
+     * Full rebuild period, picking up codes whose pub/sub message was lost or that were
+     * inserted without going through coupon-service.
+     */
+    @Min(1)
+    private long bloomRebuildIntervalSeconds = 600;
+
+    private boolean hotKeyEnabled = true;
+
+    /**
+     * Fraction of coupon detail and code reads fed to the hot-key detector.
+     */
+    @DecimalMin(value = "0.0", inclusive = false)
+    @DecimalMax("1.0")
+    private double hotKeySampleRate = 0.1;
+
+    /**
+     * Sampled reads per refresh interval, roughly, at which a key counts as hot.
+     */
+    @Min(1)
+    private long hotKeyThreshold = 50;
+
+    @Min(1)
+    private int hotKeyMaxKeys = 64;
+
+    /**
+     * How often pinned hot keys are re-read from Redis and the detector decays.
+     */
+    @Min(100)
+    private long hotKeyRefreshMillis = 1_000;
+
+    /**
+     * Copies of each hot key under {@code <key>:replica:<n>}; reads pick one at random so a
+     * hot key is spread over several Redis Cluster slots. 0 disables replicas.
+     */
+    @Min(0)
+    private int hotKeyReplicas = 0;
+
+    @Min(1)
+    private long hotKeyReplicaTtlSeconds = 30;
+
+    private boolean ruleOutcomeCacheEnabled = true;
+
+    /**
+     * How long rule-collection bounds are trusted; a rule change reaches cached outcomes after at most this long.
+     */
+    @Min(1)
+    private long ruleOutcomeBoundsTtlSeconds = 30;
+
+    @Min(1)
+    private long ruleOutcomeMaxSize = 100_000;
+
+    @NotBlank
+    private String invalidationChannel = "coupon-service:cache-invalidation";
+
+    /**
+     * Codec per keyspace (coupon-detail, user-coupon-wallet, ...); unlisted keyspaces stay JSON.
+     */
+    private Map<String, String> codecs = new HashMap<>();
+
     public String getCouponInfoKey(String couponCode) {
-        return "coupon:info:" + couponCode;
+        return COUPON_INFO_KEY_PREFIX + couponCode;
     }
 
     public String getUserCouponsKey(Integer userId) {
@@ -48,8 +178,19 @@ public class CouponCacheProperties{
         return keyPrefix + ":coupon-detailed:" + couponCode;
     }
 
-    public String getUserCouponIdsKey(Integer userId) {
-        return keyPrefix + ":user-coupon-ids:" + userId;
+    /**
+     * Redis hash of couponId to claim info; replaced the serialized {@code user-coupon-ids} value.
+     */
+    public String getUserCouponWalletKey(Integer userId) {
+        return keyPrefix + ":user-coupon-wallet:" + userId;
+    }
+
+    public String getCouponUserStateKey(Integer userId, Integer couponId) {
+        return keyPrefix + ":coupon-user-state:" + userId + ":" + couponId;
+    }
+
+    public String getUserCouponCandidatesKey(Integer userId) {
+        return keyPrefix + ":user-coupon-candidates:" + userId;
     }
 
     public String getCouponDetailKey(Integer couponId) {
@@ -3,13 +3,17 @@ package org.couponmanagement.cache;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.cache.CouponLocalCache.Keyspace;
+import org.couponmanagement.dto.CouponCandidateIndex;
 import org.couponmanagement.dto.CouponDetail;
+import org.couponmanagement.dto.UserCouponClaimInfo;
 import org.couponmanagement.dto.UserCouponIds;
 import org.couponmanagement.grpc.annotation.PerformanceMonitor;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -19,23 +23,64 @@ public class CouponCacheService {
     private final RedisCacheService cacheService;
     private final CouponCacheProperties cacheProperties;
     private final RedissonClient redissonClient;
+    private final CouponLocalCache localCache;
+    private final CouponCacheInvalidationBus invalidationBus;
+    private final SingleFlightCacheLoader cacheLoader;
+    private final CouponCodeFilter codeFilter;
+    private final CouponHotKeyCache hotKeyCache;
 
 
+    /**
+     * Replaces the user's wallet hash (couponId to claim info) as a whole; single coupons are
+     * then added or removed field by field without rewriting it.
+     */
     @PerformanceMonitor()
     public void cacheUserCouponIds(Integer userId, UserCouponIds userCouponIds) {
-        String key = cacheProperties.getUserCouponIdsKey(userId);
-        cacheService.put(key, userCouponIds, cacheProperties.getUserCouponsTtlSeconds());
+        String key = cacheProperties.getUserCouponWalletKey(userId);
+        Map<String, UserCouponClaimInfo> fields = new HashMap<>();
+        userCouponIds.getUserCouponInfo().forEach((couponId, claimInfo) -> fields.put(String.valueOf(couponId), claimInfo));
+        cacheService.putHash(key, fields, cacheProperties.getUserCouponsTtlSeconds());
+        localCache.put(Keyspace.USER_COUPON_IDS, key, userCouponIds.copy());
+        invalidationBus.publish(Keyspace.USER_COUPON_IDS, key);
         log.debug("Cached user coupon IDs: userId={}, count={}, ttl={}s",
-                userId, userCouponIds.getUserCouponInfo().size(), cacheProperties.getUserCouponsTtlSeconds());
+                userId, fields.size(), cacheProperties.getUserCouponsTtlSeconds());
+    }
+
+    /**
+     * Bulk form of {@link #cacheUserCouponIds} for warmup. Wallets are not copied into the local
+     * cache and peers are not notified per user: local wallet entries live only
+     * {@code localUserCouponsTtlSeconds}, and flooding the invalidation channel with millions of
+     * keys would cost more than it saves.
+     *
+     * @return the number of wallets written to Redis
+     */
+    public int cacheUserWallets(Map<Integer, UserCouponIds> wallets) {
+        Map<String, Map<String, UserCouponClaimInfo>> hashes = new LinkedHashMap<>();
+        wallets.forEach((userId, userCouponIds) -> {
+            String key = cacheProperties.getUserCouponWalletKey(userId);
+            Map<String, UserCouponClaimInfo> fields = new HashMap<>();
+            userCouponIds.getUserCouponInfo().forEach((couponId, claimInfo) -> fields.put(String.valueOf(couponId), claimInfo));
+            hashes.put(key, fields);
+            localCache.invalidate(Keyspace.USER_COUPON_IDS, key);
+        });
+        return cacheService.putHashes(hashes, cacheProperties.getUserCouponsTtlSeconds());
     }
 
     @PerformanceMonitor
     @Observed(name = "getCachedUserCouponIds", contextualName = "CouponCacheService.getCachedUserCouponIds")
     public Optional<UserCouponIds> getCachedUserCouponIds(Integer userId) {
-        String key = cacheProperties.getUserCouponIdsKey(userId);
-        Optional<UserCouponIds> result = cacheService.get(key, UserCouponIds.class);
+        String key = cacheProperties.getUserCouponWalletKey(userId);
+        Optional<UserCouponIds> local = localCache.get(Keyspace.USER_COUPON_IDS, key, UserCouponIds.class);
+        if (local.isPresent()) {
+            log.debug("Local cache hit for user coupon IDs: userId={}", userId);
+            return local.map(UserCouponIds::copy);
+        }
+
+        Optional<UserCouponIds> result = cacheService.getHash(key, UserCouponClaimInfo.class)
+                .map(CouponCacheService::toUserCouponIds);
 
         if (result.isPresent()) {
+            localCache.put(Keyspace.USER_COUPON_IDS, key, result.get().copy());
             log.debug("Cache hit for user coupon IDs: userId={}", userId);
         } else {
             log.debug("Cache miss for user coupon IDs: userId={}", userId);
@@ -44,27 +89,115 @@ public class CouponCacheService {
         return result;
     }
 
+    /**
+     * Reads only the given coupons of the wallet (one HMGET on a local miss). Empty when the
+     * wallet is not cached; otherwise holds those of the coupons the user has claimed.
+     */
     @PerformanceMonitor
-    @Observed(name = "invalidateUserCache", contextualName = "CouponCacheService.invalidateUserCache")
-    public boolean invalidateUserCache(Integer userId, Integer couponId){
-        try {
-            Optional<UserCouponIds> result = getCachedUserCouponIds(userId);
-            if (result.isPresent()){
-                result.get().removeUserClaimInfo(couponId);
-                cacheUserCouponIds(userId, result.get());
-                return true;
+    @Observed(name = "getCachedUserCouponClaims", contextualName = "CouponCacheService.getCachedUserCouponClaims")
+    public Optional<UserCouponIds> getCachedUserCouponClaims(Integer userId, Collection<Integer> couponIds) {
+        String key = cacheProperties.getUserCouponWalletKey(userId);
+        Optional<UserCouponIds> local = localCache.get(Keyspace.USER_COUPON_IDS, key, UserCouponIds.class);
+        if (local.isPresent()) {
+            Map<Integer, UserCouponClaimInfo> claims = new HashMap<>();
+            for (Integer couponId : couponIds) {
+                UserCouponClaimInfo claimInfo = local.get().getCouponClaimInfo(couponId);
+                if (claimInfo != null) {
+                    claims.put(couponId, claimInfo);
+                }
             }
-        } catch (Exception e) {
-            log.error("Error invalidating user cache: userId={}, couponId={}", userId, couponId, e);
-            return false;
+            return Optional.of(UserCouponIds.of(claims));
+        }
+
+        List<String> fields = couponIds.stream().map(String::valueOf).toList();
+        return cacheService.getHashFields(key, fields, UserCouponClaimInfo.class)
+                .map(CouponCacheService::toUserCouponIds);
+    }
+
+    /**
+     * Removes one coupon from the wallet with a single HDEL; no lock and no rewrite of the
+     * other entries. A wallet that is not cached has nothing stale to remove.
+     *
+     * @return false only if Redis could not be reached; the error is logged there
+     */
+    @PerformanceMonitor
+    @Observed(name = "invalidateUserCache", contextualName = "CouponCacheService.invalidateUserCache")
+    public boolean invalidateUserCache(Integer userId, Integer couponId) {
+        String key = cacheProperties.getUserCouponWalletKey(userId);
+        boolean deleted = cacheService.deleteHashField(key, String.valueOf(couponId));
+        localCache.invalidate(Keyspace.USER_COUPON_IDS, key);
+        invalidationBus.publish(Keyspace.USER_COUPON_IDS, key);
+        return deleted;
+    }
+
+    /**
+     * Adds one coupon back to a cached wallet with a single HSET. Does nothing if the wallet is
+     * not cached, so a one-coupon hash never stands in for the user's whole wallet.
+     */
+    @PerformanceMonitor
+    public boolean addUserCouponClaim(Integer userId, UserCouponClaimInfo claimInfo) {
+        String key = cacheProperties.getUserCouponWalletKey(userId);
+        boolean added = cacheService.putHashFieldIfPresent(key, String.valueOf(claimInfo.getCouponId()), claimInfo);
+        localCache.invalidate(Keyspace.USER_COUPON_IDS, key);
+        invalidationBus.publish(Keyspace.USER_COUPON_IDS, key);
+        log.debug("User coupon claim cached: userId={}, couponId={}, walletCached={}",
+                userId, claimInfo.getCouponId(), added);
+        return added;
+    }
+
+    /**
+     * Bulk form of {@link #addUserCouponClaim} for one coupon issued to many users. As with
+     * {@link #cacheUserWallets}, peers are not notified per user and catch up within
+     * {@code localUserCouponsTtlSeconds}.
+     *
+     * @return the number of cached wallets the claim was added to
+     */
+    @PerformanceMonitor
+    public int addUserCouponClaims(Integer couponId, List<UserCouponClaimInfo> claimInfos) {
+        Map<String, UserCouponClaimInfo> valuesByKey = new LinkedHashMap<>();
+        for (UserCouponClaimInfo claimInfo : claimInfos) {
+            String key = cacheProperties.getUserCouponWalletKey(claimInfo.getUserId());
+            valuesByKey.put(key, claimInfo);
+            localCache.invalidate(Keyspace.USER_COUPON_IDS, key);
         }
-        return false;
+        return cacheService.putHashFieldIfPresentAll(String.valueOf(couponId), valuesByKey);
+    }
+
+    private static UserCouponIds toUserCouponIds(Map<String, UserCouponClaimInfo> fields) {
+        Map<Integer, UserCouponClaimInfo> claims = new HashMap<>(Math.max(16, fields.size() * 2));
+        fields.forEach((couponId, claimInfo) -> claims.put(Integer.valueOf(couponId), claimInfo));
+        return UserCouponIds.of(claims);
+    }
+
+    @PerformanceMonitor
+    @Observed(name = "getCachedCouponCandidates", contextualName = "CouponCacheService.getCachedCouponCandidates")
+    public Optional<CouponCandidateIndex> getCachedCouponCandidates(Integer userId) {
+        String key = cacheProperties.getUserCouponCandidatesKey(userId);
+        Optional<CouponCandidateIndex> local = localCache.get(Keyspace.USER_COUPON_CANDIDATES, key, CouponCandidateIndex.class);
+        if (local.isPresent()) {
+            return local;
+        }
+
+        Optional<CouponCandidateIndex> result = cacheService.get(key, CouponCandidateIndex.class);
+        result.ifPresent(index -> localCache.put(Keyspace.USER_COUPON_CANDIDATES, key, index));
+        return result;
+    }
+
+    @PerformanceMonitor
+    public void cacheCouponCandidates(Integer userId, CouponCandidateIndex candidateIndex) {
+        String key = cacheProperties.getUserCouponCandidatesKey(userId);
+        cacheService.put(key, candidateIndex, cacheProperties.getUserCouponsTtlSeconds());
+        localCache.put(Keyspace.USER_COUPON_CANDIDATES, key, candidateIndex);
+        invalidationBus.publish(Keyspace.USER_COUPON_CANDIDATES, key);
+        log.debug("Cached coupon candidates: userId={}, count={}", userId, candidateIndex.getCandidates().size());
     }
 
     @PerformanceMonitor()
     public void cacheCouponDetail(Integer couponId, CouponDetail couponDetail) {
         String key = cacheProperties.getCouponDetailKey(couponId);
         cacheService.put(key, couponDetail, cacheProperties.getCouponDetailTtlSeconds());
+        localCache.put(Keyspace.COUPON_DETAIL, key, couponDetail);
+        hotKeyCache.onWrite(key, couponDetail);
         log.debug("Cached coupon detail: couponId={}, code={}, ttl={}s",
                 couponId, couponDetail.getCouponCode(), cacheProperties.getCouponDetailTtlSeconds());
     }
@@ -73,40 +206,83 @@ public class CouponCacheService {
     @Observed(name = "getCachedCouponDetail", contextualName = "CouponCacheService.getCachedCouponDetail")
     public Optional<CouponDetail> getCachedCouponDetail(Integer couponId) {
         String key = cacheProperties.getCouponDetailKey(couponId);
+        Optional<CouponDetail> hot = hotKeyCache.get(key, CouponDetail.class);
+        if (hot.isPresent()) {
+            return hot;
+        }
+        Optional<CouponDetail> local = localCache.get(Keyspace.COUPON_DETAIL, key, CouponDetail.class);
+        if (local.isPresent()) {
+            hotKeyCache.pin(key, local.get());
+            return local;
+        }
 
-        return cacheService.get(key, CouponDetail.class);
+        Optional<CouponDetail> result = hotKeyCache.readRemote(key, CouponDetail.class);
+        result.ifPresent(detail -> {
+            localCache.put(Keyspace.COUPON_DETAIL, key, detail);
+            hotKeyCache.pin(key, detail);
+        });
+        return result;
     }
 
+    @PerformanceMonitor
+    @Observed(name = "getCachedCouponDetailsBatch", contextualName = "CouponCacheService.getCachedCouponDetailsBatch")
     public Map<Integer, CouponDetail> getCachedCouponDetailsBatch(List<Integer> couponIds) {
         if (couponIds.isEmpty()) {
             return new HashMap<>();
         }
 
         Map<Integer, CouponDetail> results = new HashMap<>();
-        List<Integer> cacheHits = new ArrayList<>();
-        List<Integer> cacheMisses = new ArrayList<>();
+        Map<String, Integer> remoteKeys = new LinkedHashMap<>();
 
         for (Integer couponId : couponIds) {
-            Optional<CouponDetail> cached = getCachedCouponDetail(couponId);
-            if (cached.isPresent()) {
-                results.put(couponId, cached.get());
-                cacheHits.add(couponId);
+            String key = cacheProperties.getCouponDetailKey(couponId);
+            Optional<CouponDetail> local = localCache.get(Keyspace.COUPON_DETAIL, key, CouponDetail.class);
+            if (local.isPresent()) {
+                results.put(couponId, local.get());
             } else {
-                cacheMisses.add(couponId);
+                remoteKeys.put(key, couponId);
             }
         }
 
-        log.debug("Batch coupon detail cache: hits={}, misses={}, total={}",
-                cacheHits.size(), cacheMisses.size(), couponIds.size());
+        int localHits = results.size();
+        if (!remoteKeys.isEmpty()) {
+            Map<String, CouponDetail> remote =
+                    cacheService.multiGet(new ArrayList<>(remoteKeys.keySet()), CouponDetail.class);
+            remote.forEach((key, detail) -> {
+                results.put(remoteKeys.get(key), detail);
+                localCache.put(Keyspace.COUPON_DETAIL, key, detail);
+            });
+        }
+
+        log.debug("Batch coupon detail cache: localHits={}, redisHits={}, misses={}, total={}",
+                localHits, results.size() - localHits, couponIds.size() - results.size(), couponIds.size());
 
         return results;
     }
 
+    @PerformanceMonitor
+    public void cacheCouponDetailsBatch(Map<Integer, CouponDetail> couponDetails) {
+        if (couponDetails.isEmpty()) {
+            return;
+        }
+
+        Map<String, CouponDetail> entries = new LinkedHashMap<>();
+        couponDetails.forEach((couponId, detail) -> entries.put(cacheProperties.getCouponDetailKey(couponId), detail));
+
+        cacheService.putAll(entries, cacheProperties.getCouponDetailTtlSeconds());
+        entries.forEach((key, detail) -> localCache.put(Keyspace.COUPON_DETAIL, key, detail));
+        hotKeyCache.onWriteAll(entries);
+        log.debug("Cached coupon details batch: count={}, ttl={}s",
+                entries.size(), cacheProperties.getCouponDetailTtlSeconds());
+    }
+
 
     @PerformanceMonitor
     public void cacheCouponCodeMapping(String couponCode, Integer couponId) {
         String key = cacheProperties.getCouponInfoKey(couponCode);
         cacheService.put(key, couponId, cacheProperties.getCouponInfoTtlSeconds());
+        localCache.put(Keyspace.COUPON_CODE, key, couponId);
+        hotKeyCache.onWrite(key, couponId);
         log.debug("Cached coupon code mapping: couponCode={}, couponId={}, ttl={}s", couponCode, couponId, cacheProperties.getCouponInfoTtlSeconds());
     }
 
@@ -114,6 +290,107 @@ public class CouponCacheService {
     @Observed(name = "getCouponIdByCode", contextualName = "CouponCacheService.getCouponIdByCode")
     public Optional<Integer> getCouponIdByCode(String couponCode) {
         String key = cacheProperties.getCouponInfoKey(couponCode);
-        return cacheService.get(key, Integer.class);
+        Optional<Integer> hot = hotKeyCache.get(key, Integer.class);
+        if (hot.isPresent()) {
+            return hot;
+        }
+        Optional<Integer> local = localCache.get(Keyspace.COUPON_CODE, key, Integer.class);
+        if (local.isPresent()) {
+            hotKeyCache.pin(key, local.get());
+            return local;
+        }
+
+        Optional<Integer> result = hotKeyCache.readRemote(key, Integer.class);
+        result.ifPresent(couponId -> {
+            localCache.put(Keyspace.COUPON_CODE, key, couponId);
+            hotKeyCache.pin(key, couponId);
+        });
+        return result;
+    }
+
+    /**
+     * Code lookup that falls back to {@code databaseLoader} on a miss, with one load per code
+     * shared by concurrent callers; hot codes are reloaded shortly before they expire. Codes
+     * known not to exist are rejected without touching Redis or the database.
+     */
+    @PerformanceMonitor
+    public Optional<Integer> getOrLoadCouponIdByCode(String couponCode, Supplier<Optional<Integer>> databaseLoader) {
+        if (codeFilter.isKnownMissing(couponCode)) {
+            log.debug("Coupon code rejected by code filter: couponCode={}", couponCode);
+            return Optional.empty();
+        }
+
+        Optional<Integer> couponId = readThrough(cacheProperties.getCouponInfoKey(couponCode), cacheProperties.getCouponInfoTtlSeconds(),
+                () -> getCouponIdByCode(couponCode),
+                () -> {
+                    Optional<Integer> loaded = databaseLoader.get();
+                    loaded.ifPresent(id -> cacheCouponCodeMapping(couponCode, id));
+                    return loaded;
+                });
+        if (couponId.isEmpty()) {
+            codeFilter.recordMissing(couponCode);
+        }
+        return couponId;
+    }
+
+    @PerformanceMonitor
+    public Optional<CouponDetail> getOrLoadCouponDetail(Integer couponId, Supplier<Optional<CouponDetail>> databaseLoader) {
+        return readThrough(cacheProperties.getCouponDetailKey(couponId), cacheProperties.getCouponDetailTtlSeconds(),
+                () -> getCachedCouponDetail(couponId),
+                () -> {
+                    Optional<CouponDetail> loaded = databaseLoader.get();
+                    loaded.ifPresent(detail -> cacheCouponDetail(couponId, detail));
+                    return loaded;
+                });
+    }
+
+    /**
+     * Shares one {@code loader} run among concurrent wallet misses for the same user and code.
+     */
+    public <T> T loadUserCoupon(Integer userId, String couponCode, Supplier<T> loader) {
+        return cacheLoader.load(cacheProperties.getUserCouponWalletKey(userId) + ":" + couponCode, loader);
+    }
+
+    private <T> Optional<T> readThrough(String key, long ttlSeconds,
+                                        Supplier<Optional<T>> cached, Supplier<Optional<T>> reload) {
+        Optional<T> hit = cached.get();
+        if (hit.isPresent()) {
+            if (!cacheLoader.isTracked(key)) {
+                cacheLoader.track(key, cacheService.getExpireMillis(key).orElse(ttlSeconds * 1000));
+            }
+            if (cacheLoader.shouldRefreshEarly(key)) {
+                cacheLoader.refreshAsync(key, ttlSeconds, reload);
+            }
+            return hit;
+        }
+
+        // Re-check inside the flight: a load may have finished between the miss and taking the lead
+        return cacheLoader.load(key, ttlSeconds, () -> cached.get().or(reload));
+    }
+
+    /**
+     * Refreshes both tiers after a coupon is created or updated and tells peer nodes
+     * to drop their local copies. A changed code also retires the previous code mapping.
+     */
+    @PerformanceMonitor
+    public void onCouponChanged(CouponDetail couponDetail, String previousCode) {
+        Integer couponId = couponDetail.getCouponId();
+        cacheCouponDetail(couponId, couponDetail);
+        cacheCouponCodeMapping(couponDetail.getCouponCode(), couponId);
+        codeFilter.add(couponDetail.getCouponCode());
+
+        invalidationBus.publish(Keyspace.COUPON_DETAIL, cacheProperties.getCouponDetailKey(couponId));
+        invalidationBus.publish(Keyspace.COUPON_CODE, cacheProperties.getCouponInfoKey(couponDetail.getCouponCode()));
+
+        if (previousCode != null && !previousCode.equals(couponDetail.getCouponCode())) {
+            String previousKey = cacheProperties.getCouponInfoKey(previousCode);
+            cacheService.delete(previousKey);
+            localCache.invalidate(Keyspace.COUPON_CODE, previousKey);
+            hotKeyCache.onDelete(previousKey);
+            invalidationBus.publish(Keyspace.COUPON_CODE, previousKey);
+        }
+
+        log.debug("Coupon caches refreshed and invalidation published: couponId={}, code={}, previousCode={}",
+                couponId, couponDetail.getCouponCode(), previousCode);
     }
 }
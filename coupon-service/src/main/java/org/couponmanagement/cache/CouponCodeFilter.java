@@ -0,0 +1,271 @@
+package org.couponmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.entity.Coupon;
+import org.couponmanagement.repository.CouponRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects unknown coupon codes before they reach Redis or MySQL. A Bloom filter of every
+ * existing code answers "definitely not a coupon"; codes that pass it but turn out not to
+ * exist are remembered in a short-TTL negative cache. Codes are matched case-insensitively,
+ * like {@code findByCodeIgnoreCase}.
+ *
+ * <p>Until the filter has been built from {@link CouponRepository}, every code passes.
+ * New codes are added on this node by {@link CouponCacheService#onCouponChanged} and on peers
+ * through {@link CouponCacheInvalidationBus}. Pub/sub may lose messages and codes may be
+ * inserted straight into the database, so the filter is also rebuilt every
+ * {@code app.cache.bloom-rebuild-interval-seconds}. When the bus reports that peer updates may
+ * have been missed, the filter stops rejecting codes until a rebuild started after that point
+ * has finished; such codes are looked up in the database instead.
+ */
+@Component
+@Slf4j
+public class CouponCodeFilter {
+
+    private static final int BUILD_PAGE_SIZE = 1_000;
+
+    private final CouponRepository couponRepository;
+    private final CouponCacheProperties cacheProperties;
+    private final Cache<String, Boolean> negativeCache;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicLong staleMarks = new AtomicLong();
+    private ScheduledExecutorService rebuilder;
+
+    private volatile BloomFilter<CharSequence> filter;
+    private volatile BloomFilter<CharSequence> building;
+    private volatile long capacity;
+    private volatile long coveredStaleMarks;
+
+    private final Counter bloomRejects;
+    private final Counter negativeHits;
+    private final Counter falsePositives;
+    private final Counter stalePasses;
+
+    public CouponCodeFilter(CouponRepository couponRepository,
+                            CouponCacheProperties cacheProperties,
+                            MeterRegistry meterRegistry) {
+        this.couponRepository = couponRepository;
+        this.cacheProperties = cacheProperties;
+        this.negativeCache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getNegativeCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(cacheProperties.getNegativeCacheTtlSeconds()))
+                .build();
+
+        this.bloomRejects = Counter.builder("coupon_code_filter_requests_total")
+                .tag("result", "bloom_reject")
+                .register(meterRegistry);
+        this.negativeHits = Counter.builder("coupon_code_filter_requests_total")
+                .tag("result", "negative_hit")
+                .register(meterRegistry);
+        this.stalePasses = Counter.builder("coupon_code_filter_requests_total")
+                .tag("result", "stale_pass")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("coupon_code_bloom_false_positives_total")
+                .description("Codes the Bloom filter let through that did not exist")
+                .register(meterRegistry);
+        Gauge.builder("coupon_code_bloom_expected_fpp", this, CouponCodeFilter::expectedFpp)
+                .description("Current expected false-positive probability of the coupon code Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("coupon_code_bloom_size_bytes", this, CouponCodeFilter::sizeBytes)
+                .description("Bit array size of the coupon code Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("coupon_code_bloom_elements", this, CouponCodeFilter::approximateElements)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        CompletableFuture.runAsync(this::rebuild);
+        rebuilder = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("CouponCodeFilterRebuild").daemon().factory());
+        long interval = cacheProperties.getBloomRebuildIntervalSeconds();
+        rebuilder.scheduleWithFixedDelay(this::rebuild, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    /**
+     * Peer updates may have been lost, e.g. while the invalidation bus was disconnected. Codes
+     * stop being rejected by the filter until a rebuild that started after this call finishes.
+     */
+    public void markStale() {
+        staleMarks.incrementAndGet();
+    }
+
+    /**
+     * {@link #markStale()} and rebuild right away.
+     */
+    public void resync() {
+        markStale();
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    /**
+     * True when the code is known not to exist; false means "look it up".
+     */
+    public boolean isKnownMissing(String couponCode) {
+        String normalized = normalize(couponCode);
+        if (negativeCache.getIfPresent(normalized) != null) {
+            negativeHits.increment();
+            return true;
+        }
+        BloomFilter<CharSequence> current = filter;
+        if (current != null && !current.mightContain(normalized)) {
+            if (isStale()) {
+                stalePasses.increment();
+                return false;
+            }
+            bloomRejects.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Called after a lookup that passed {@link #isKnownMissing} found nothing.
+     */
+    public void recordMissing(String couponCode) {
+        String normalized = normalize(couponCode);
+        if (filter != null) {
+            falsePositives.increment();
+        }
+        negativeCache.put(normalized, Boolean.TRUE);
+    }
+
+    public void add(String couponCode) {
+        String normalized = normalize(couponCode);
+        negativeCache.invalidate(normalized);
+
+        BloomFilter<CharSequence> pending = building;
+        if (pending != null) {
+            pending.put(normalized);
+        }
+        BloomFilter<CharSequence> current = filter;
+        if (current != null) {
+            current.put(normalized);
+            if (current.approximateElementCount() > capacity) {
+                log.info("Coupon code Bloom filter over capacity, rebuilding: capacity={}", capacity);
+                CompletableFuture.runAsync(this::rebuild);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the database, sized for the current coupon count plus headroom.
+     * Codes added while the scan runs go into both filters, so none are lost in the swap. A
+     * rebuild requested while one is running runs again right after it, since the running scan
+     * may have started before the change it is meant to pick up.
+     */
+    public void rebuild() {
+        rebuildRequested.set(true);
+        while (rebuildRequested.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildRequested.set(false);
+                rebuildOnce();
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    private void rebuildOnce() {
+        long start = System.nanoTime();
+        long marks = staleMarks.get();
+        try {
+            long total = couponRepository.count();
+            long newCapacity = Math.max(cacheProperties.getBloomMinCapacity(),
+                    (long) (total * cacheProperties.getBloomGrowthFactor()));
+            BloomFilter<CharSequence> next = BloomFilter.create(
+                    Funnels.stringFunnel(StandardCharsets.UTF_8), newCapacity, cacheProperties.getBloomFalsePositiveRate());
+            building = next;
+
+            int page = 0;
+            Page<Coupon> coupons;
+            do {
+                coupons = couponRepository.findAll(PageRequest.of(page++, BUILD_PAGE_SIZE, Sort.by("id")));
+                for (Coupon coupon : coupons.getContent()) {
+                    if (coupon.getCode() != null) {
+                        next.put(normalize(coupon.getCode()));
+                    }
+                }
+            } while (coupons.hasNext());
+
+            capacity = newCapacity;
+            filter = next;
+            building = null;
+            coveredStaleMarks = marks;
+            log.info("Coupon code Bloom filter built: codes={}, capacity={}, sizeBytes={}, durationMs={}",
+                    next.approximateElementCount(), newCapacity, sizeBytes(),
+                    Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (Exception e) {
+            building = null;
+            log.error("Failed to build coupon code Bloom filter, codes will not be pre-filtered: error={}",
+                    e.getMessage(), e);
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    boolean isStale() {
+        return coveredStaleMarks != staleMarks.get();
+    }
+
+    double expectedFpp() {
+        BloomFilter<CharSequence> current = filter;
+        return current != null ? current.expectedFpp() : 0.0;
+    }
+
+    /**
+     * Optimal bit count for the configured capacity and rate; Guava does not expose its own.
+     */
+    double sizeBytes() {
+        if (filter == null) {
+            return 0.0;
+        }
+        double p = cacheProperties.getBloomFalsePositiveRate();
+        double bits = -capacity * Math.log(p) / (Math.log(2) * Math.log(2));
+        return Math.ceil(bits / Long.SIZE) * Long.BYTES;
+    }
+
+    double approximateElements() {
+        BloomFilter<CharSequence> current = filter;
+        return current != null ? current.approximateElementCount() : 0.0;
+    }
+
+    private static String normalize(String couponCode) {
+        return couponCode.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,235 @@
+package org.couponmanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tier above {@link CouponLocalCache} for the few coupon detail and code keys that take a
+ * large share of reads, e.g. a viral code. Reads are sampled into a {@link HotKeyDetector};
+ * keys it flags are pinned in memory, immune to local size eviction, and re-read from Redis
+ * every {@code hotKeyRefreshMillis} instead of waiting out the local TTL.
+ *
+ * <p>With {@code hotKeyReplicas > 0}, hot keys are also copied to {@code <key>:replica:<n>}
+ * and remote reads pick a random copy, spreading one key over several cluster slots. Copies
+ * are rewritten on every refresh and deleted whenever the primary is written.
+ */
+@Component
+@Slf4j
+public class CouponHotKeyCache {
+
+    private static final String REPLICA_SUFFIX = ":replica:";
+
+    private final RedisCacheService cacheService;
+    private final CouponCacheProperties cacheProperties;
+    private final HotKeyDetector detector;
+    private final Map<String, Object> pinned = new ConcurrentHashMap<>();
+    private final Counter pinnedHits;
+    private final Counter replicaReads;
+    private ScheduledExecutorService refresher;
+
+    public CouponHotKeyCache(RedisCacheService cacheService,
+                             CouponCacheProperties cacheProperties,
+                             MeterRegistry meterRegistry) {
+        this.cacheService = cacheService;
+        this.cacheProperties = cacheProperties;
+        this.detector = cacheProperties.isHotKeyEnabled()
+                ? new HotKeyDetector(2048, 4, cacheProperties.getHotKeySampleRate(),
+                        cacheProperties.getHotKeyThreshold(), cacheProperties.getHotKeyMaxKeys())
+                : null;
+
+        this.pinnedHits = Counter.builder("coupon_hot_key_reads_total")
+                .tag("result", "pinned")
+                .register(meterRegistry);
+        this.replicaReads = Counter.builder("coupon_hot_key_reads_total")
+                .tag("result", "replica")
+                .register(meterRegistry);
+        Gauge.builder("coupon_hot_keys", pinned, Map::size)
+                .description("Hot keys currently pinned in memory")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (detector == null) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("HotKeyRefresh").daemon().factory());
+        long interval = cacheProperties.getHotKeyRefreshMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Hot key detection started: sampleRate={}, threshold={}, maxKeys={}, refreshMs={}, replicas={}",
+                cacheProperties.getHotKeySampleRate(), cacheProperties.getHotKeyThreshold(),
+                cacheProperties.getHotKeyMaxKeys(), interval, cacheProperties.getHotKeyReplicas());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Counts a read of {@code key} and returns the pinned value if the key is hot.
+     */
+    public <T> Optional<T> get(String key, Class<T> valueType) {
+        if (detector == null) {
+            return Optional.empty();
+        }
+        detector.record(key);
+        Object value = pinned.get(key);
+        if (valueType.isInstance(value)) {
+            pinnedHits.increment();
+            return Optional.of(valueType.cast(value));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Reads {@code key} from Redis, through a random replica when it is hot and replicas are
+     * enabled, falling back to the primary when the replica is missing.
+     */
+    public <T> Optional<T> readRemote(String key, Class<T> valueType) {
+        int replicas = cacheProperties.getHotKeyReplicas();
+        if (replicas > 0 && detector != null && detector.isHot(key)) {
+            Optional<T> replica = cacheService.get(replicaKey(key, ThreadLocalRandom.current().nextInt(replicas)), valueType);
+            if (replica.isPresent()) {
+                replicaReads.increment();
+                return replica;
+            }
+        }
+        return cacheService.get(key, valueType);
+    }
+
+    /**
+     * Keeps a value just read from a lower tier if its key is hot.
+     */
+    public void pin(String key, Object value) {
+        if (detector != null && value != null && detector.isHot(key)) {
+            pinned.put(key, value);
+        }
+    }
+
+    /**
+     * Called after the primary is written: replicas are dropped rather than rewritten, since
+     * this node may not see the key as hot; readers that do recreate them on their next refresh.
+     */
+    public void onWrite(String key, Object value) {
+        if (detector == null) {
+            return;
+        }
+        if (pinned.containsKey(key)) {
+            pinned.put(key, value);
+        }
+        deleteReplicas(List.of(key));
+    }
+
+    public void onWriteAll(Map<String, ?> entries) {
+        if (detector == null) {
+            return;
+        }
+        entries.forEach((key, value) -> pinned.computeIfPresent(key, (k, previous) -> value));
+        deleteReplicas(entries.keySet());
+    }
+
+    public void onDelete(String key) {
+        if (detector == null) {
+            return;
+        }
+        pinned.remove(key);
+        deleteReplicas(List.of(key));
+    }
+
+    /**
+     * Drops the pinned copy after a peer changed the key; it is pinned again on the next read.
+     */
+    public void invalidate(String key) {
+        pinned.remove(key);
+    }
+
+    public List<HotKeyDetector.HotKey> hotKeys() {
+        return detector != null ? detector.hotKeys() : List.of();
+    }
+
+    public Set<String> pinnedKeys() {
+        return Set.copyOf(pinned.keySet());
+    }
+
+    /**
+     * Decays the detector, unpins keys that cooled down, re-reads the rest from Redis with one
+     * MGET per value type and rewrites their replicas.
+     */
+    void refresh() {
+        try {
+            detector.decay();
+            Set<String> hot = detector.hotKeySet();
+            pinned.keySet().removeIf(key -> !hot.contains(key));
+
+            Map<Class<?>, List<String>> keysByType = new HashMap<>();
+            pinned.forEach((key, value) -> keysByType.computeIfAbsent(value.getClass(), type -> new ArrayList<>()).add(key));
+
+            Map<String, Object> refreshed = new LinkedHashMap<>();
+            keysByType.forEach((type, keys) -> {
+                Map<String, ?> values = cacheService.multiGet(keys, type);
+                for (String key : keys) {
+                    Object value = values.get(key);
+                    if (value != null) {
+                        pinned.replace(key, value);
+                        refreshed.put(key, value);
+                    } else {
+                        pinned.remove(key);
+                    }
+                }
+            });
+
+            int replicas = cacheProperties.getHotKeyReplicas();
+            if (replicas > 0 && !refreshed.isEmpty()) {
+                Map<String, Object> copies = new LinkedHashMap<>();
+                refreshed.forEach((key, value) -> {
+                    for (int i = 0; i < replicas; i++) {
+                        copies.put(replicaKey(key, i), value);
+                    }
+                });
+                cacheService.putAll(copies, cacheProperties.getHotKeyReplicaTtlSeconds());
+            }
+        } catch (Exception e) {
+            log.warn("Hot key refresh failed: error={}", e.getMessage(), e);
+        }
+    }
+
+    private void deleteReplicas(Iterable<String> keys) {
+        int replicas = cacheProperties.getHotKeyReplicas();
+        if (replicas == 0) {
+            return;
+        }
+        List<String> replicaKeys = new ArrayList<>();
+        for (String key : keys) {
+            for (int i = 0; i < replicas; i++) {
+                replicaKeys.add(replicaKey(key, i));
+            }
+        }
+        cacheService.delete(replicaKeys);
+    }
+
+    static String replicaKey(String key, int replica) {
+        return key + REPLICA_SUFFIX + replica;
+    }
+}
@@ -0,0 +1,29 @@
+package org.couponmanagement.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code /actuator/hotkeys}: keys this node currently sees as hot, hottest first, and which of
+ * them are pinned. Needs {@code hotkeys} in {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class CouponHotKeyEndpoint {
+
+    private final CouponHotKeyCache hotKeyCache;
+
+    @ReadOperation
+    public HotKeys hotKeys() {
+        return new HotKeys(hotKeyCache.hotKeys(), hotKeyCache.pinnedKeys());
+    }
+
+    public record HotKeys(List<HotKeyDetector.HotKey> hotKeys, Set<String> pinned) {
+    }
+}
@@ -0,0 +1,111 @@
+package org.couponmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process L1 in front of Redis. Entries are keyed by their full Redis key and
+ * bounded by size and TTL per keyspace; cross-node staleness is handled by
+ * {@link CouponCacheInvalidationBus}.
+ */
+@Component
+@Slf4j
+public class CouponLocalCache {
+
+    public enum Keyspace {
+        COUPON_DETAIL("coupon-detail"),
+        COUPON_CODE("coupon-code"),
+        USER_COUPON_IDS("user-coupon-ids"),
+        USER_COUPON_CANDIDATES("user-coupon-candidates");
+
+        private final String tag;
+
+        Keyspace(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+
+        public static Optional<Keyspace> fromTag(String tag) {
+            for (Keyspace keyspace : values()) {
+                if (keyspace.tag.equals(tag)) {
+                    return Optional.of(keyspace);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    private final Map<Keyspace, Cache<String, Object>> caches = new EnumMap<>(Keyspace.class);
+    private final Map<Keyspace, Counter> hitCounters = new EnumMap<>(Keyspace.class);
+    private final Map<Keyspace, Counter> missCounters = new EnumMap<>(Keyspace.class);
+    private final Map<Keyspace, Counter> evictionCounters = new EnumMap<>(Keyspace.class);
+
+    public CouponLocalCache(CouponCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        for (Keyspace keyspace : Keyspace.values()) {
+            hitCounters.put(keyspace, Counter.builder("coupon_local_cache_requests_total")
+                    .tags("keyspace", keyspace.tag(), "result", "hit")
+                    .register(meterRegistry));
+            missCounters.put(keyspace, Counter.builder("coupon_local_cache_requests_total")
+                    .tags("keyspace", keyspace.tag(), "result", "miss")
+                    .register(meterRegistry));
+            Counter evictions = Counter.builder("coupon_local_cache_evictions_total")
+                    .tags("keyspace", keyspace.tag())
+                    .register(meterRegistry);
+            evictionCounters.put(keyspace, evictions);
+
+            long ttlSeconds = keyspace == Keyspace.USER_COUPON_IDS || keyspace == Keyspace.USER_COUPON_CANDIDATES
+                    ? cacheProperties.getLocalUserCouponsTtlSeconds()
+                    : cacheProperties.getLocalTtlSeconds();
+
+            caches.put(keyspace, Caffeine.newBuilder()
+                    .maximumSize(cacheProperties.getLocalMaxSize())
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .removalListener((String key, Object value, RemovalCause cause) -> {
+                        if (cause.wasEvicted()) {
+                            evictions.increment();
+                        }
+                    })
+                    .build());
+        }
+        log.info("Local coupon cache initialized: maxSize={}, ttl={}s, userCouponsTtl={}s",
+                cacheProperties.getLocalMaxSize(), cacheProperties.getLocalTtlSeconds(),
+                cacheProperties.getLocalUserCouponsTtlSeconds());
+    }
+
+    public <T> Optional<T> get(Keyspace keyspace, String key, Class<T> valueType) {
+        Object cached = caches.get(keyspace).getIfPresent(key);
+        if (valueType.isInstance(cached)) {
+            hitCounters.get(keyspace).increment();
+            return Optional.of(valueType.cast(cached));
+        }
+        missCounters.get(keyspace).increment();
+        return Optional.empty();
+    }
+
+    public void put(Keyspace keyspace, String key, Object value) {
+        if (value != null) {
+            caches.get(keyspace).put(key, value);
+        }
+    }
+
+    public void invalidate(Keyspace keyspace, String key) {
+        caches.get(keyspace).invalidate(key);
+    }
+
+    public void invalidateAll(Keyspace keyspace) {
+        caches.get(keyspace).invalidateAll();
+    }
+}
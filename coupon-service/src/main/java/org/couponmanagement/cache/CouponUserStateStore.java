@@ -0,0 +1,85 @@
+package org.couponmanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.entity.CouponUser.CouponUserStatus;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Per coupon-user status and version in Redis, changed only by one compare-and-set script.
+ * Concurrent transitions of the same coupon-user are serialized by Redis itself: exactly one
+ * caller wins, the others get the current status back instead of waiting on a lock.
+ *
+ * <p>Each applied transition issues a new version, never lower than the previous one nor than
+ * the Redis clock in microseconds, so versions keep increasing even after the entry expired.
+ * Database writes carry that version and are ignored when a newer one was already written.
+ */
+@Component
+@Slf4j
+public class CouponUserStateStore {
+
+    private static final RedisScript<List> TRANSITION_SCRIPT = new DefaultRedisScript<>("""
+            local status = redis.call('HGET', KEYS[1], 'status') or ARGV[3]
+            local version = tonumber(redis.call('HGET', KEYS[1], 'version') or '0')
+            if status ~= ARGV[1] then
+              return {0, version, status}
+            end
+            local now = redis.call('TIME')
+            local next = math.max(version + 1, tonumber(now[1]) * 1000000 + tonumber(now[2]))
+            redis.call('HSET', KEYS[1], 'status', ARGV[2], 'version', string.format('%d', next))
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            return {1, next, ARGV[2]}
+            """, List.class);
+
+    public record Transition(boolean applied, long version, CouponUserStatus status) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CouponCacheProperties cacheProperties;
+    private final Counter applied;
+    private final Counter rejected;
+
+    public CouponUserStateStore(StringRedisTemplate stringRedisTemplate,
+                                CouponCacheProperties cacheProperties,
+                                MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheProperties = cacheProperties;
+        this.applied = Counter.builder("coupon_user_state_transitions_total")
+                .tag("result", "applied")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("coupon_user_state_transitions_total")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Moves the coupon-user from {@code expected} to {@code target} if it is currently in
+     * {@code expected}. With no entry in Redis the status is taken to be {@code observed},
+     * which is what the caller last read from the wallet or the database.
+     */
+    public Transition transition(Integer userId, Integer couponId, CouponUserStatus expected,
+                                 CouponUserStatus target, CouponUserStatus observed) {
+        List<?> result = stringRedisTemplate.execute(TRANSITION_SCRIPT,
+                List.of(cacheProperties.getCouponUserStateKey(userId, couponId)),
+                expected.name(), target.name(), observed.name(),
+                String.valueOf(cacheProperties.getCouponUserStateTtlSeconds()));
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Coupon user state transition returned no result");
+        }
+
+        Transition transition = new Transition(
+                ((Number) result.get(0)).longValue() == 1L,
+                ((Number) result.get(1)).longValue(),
+                CouponUserStatus.valueOf(String.valueOf(result.get(2))));
+        (transition.applied() ? applied : rejected).increment();
+        log.debug("Coupon user state transition: userId={}, couponId={}, {}->{}, applied={}, version={}",
+                userId, couponId, expected, target, transition.applied(), transition.version());
+        return transition;
+    }
+}
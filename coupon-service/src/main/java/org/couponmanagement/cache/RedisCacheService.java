@@ -2,13 +2,31 @@ package org.couponmanagement.cache;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.cache.codec.CacheCodec;
+import org.couponmanagement.cache.codec.CacheCodecRegistry;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Component
@@ -19,12 +37,40 @@ public class RedisCacheService {
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
     private final CouponCacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
+    private final CacheCodecRegistry codecRegistry;
+
+    /**
+     * Written into every hash stored by {@link #putHash}, so an empty hash still exists and a
+     * cached hash without a given field can be told apart from a hash that is not cached.
+     */
+    static final String HASH_MARKER_FIELD = "_";
+    private static final byte[] HASH_MARKER = HASH_MARKER_FIELD.getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] PUT_HASH_FIELD_IF_PRESENT_SCRIPT = """
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then
+              redis.call('HSET', KEYS[1], ARGV[2], ARGV[3])
+              return 1
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
 
     private final AtomicLong hitCount = new AtomicLong(0);
     private final AtomicLong missCount = new AtomicLong(0);
 
     public <T> Optional<T> get(String key, Class<T> valueType) {
         try {
+            if (codecFor(key).isPresent()) {
+                byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                        connection.stringCommands().get(rawKey(key)));
+                if (raw == null) {
+                    missCount.incrementAndGet();
+                    return Optional.empty();
+                }
+                hitCount.incrementAndGet();
+                return decodeRaw(raw, valueType);
+            }
+
             Object cached = redisTemplate.opsForValue().get(key);
 
             if (cached == null) {
@@ -33,43 +79,460 @@ public class RedisCacheService {
             }
 
             hitCount.incrementAndGet();
+            return convert(cached, valueType);
+
+        } catch (Exception e) {
+            log.error("Error getting value from cache for key: {}", key, e);
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads many keys with one MGET per chunk. Missing or undecodable keys are simply
+     * absent from the result; a failed chunk is treated as all misses.
+     */
+    public <T> Map<String, T> multiGet(List<String> keys, Class<T> valueType) {
+        Map<String, T> results = new HashMap<>();
+        if (keys == null || keys.isEmpty()) {
+            return results;
+        }
+
+        for (List<String> chunk : chunk(keys)) {
+            long start = System.nanoTime();
+            try {
+                boolean raw = chunk.stream().anyMatch(key -> codecFor(key).isPresent());
+                List<?> values = raw
+                        ? redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                                connection.stringCommands().mGet(chunk.stream().map(this::rawKey).toArray(byte[][]::new)))
+                        : redisTemplate.opsForValue().multiGet(chunk);
+                recordBatch("mget", chunk.size(), start);
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    Object cached = values != null && i < values.size() ? values.get(i) : null;
+                    if (cached == null) {
+                        missCount.incrementAndGet();
+                        continue;
+                    }
+                    hitCount.incrementAndGet();
+                    String key = chunk.get(i);
+                    try {
+                        Optional<T> value = cached instanceof byte[] bytes
+                                ? decodeRaw(bytes, valueType)
+                                : convert(cached, valueType);
+                        value.ifPresent(v -> results.put(key, v));
+                    } catch (Exception e) {
+                        log.warn("Error decoding cached value for key: {}, error={}", key, e.getMessage());
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error getting batch from cache: size={}", chunk.size(), e);
+                missCount.addAndGet(chunk.size());
+            }
+        }
 
-            if (valueType.isInstance(cached)) {
-                return Optional.of(valueType.cast(cached));
+        return results;
+    }
+
+    public void put(String key, Object value, long ttlSeconds) {
+        try {
+            Optional<CacheCodec> codec = codecFor(key).filter(c -> c.supports(value.getClass()));
+            if (codec.isPresent()) {
+                byte[] encoded = codec.get().encode(value);
+                redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().set(
+                        rawKey(key), encoded, Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.upsert()));
+                return;
             }
 
-            if (cached instanceof String) {
-                T value = objectMapper.readValue((String) cached, valueType);
-                return Optional.of(value);
+            Object cacheValue = toCacheValue(value);
+
+            redisTemplate.opsForValue().set(key, cacheValue, Duration.ofSeconds(ttlSeconds));
+
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing value for cache key: {}", key, e);
+        } catch (Exception e) {
+            log.error("Error putting value to cache for key: {}", key, e);
+        }
+    }
+
+    /**
+     * Writes many entries with the same TTL in one pipelined round trip per chunk.
+     */
+    public void putAll(Map<String, ?> entries, long ttlSeconds) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Map<String, byte[]> serialized = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            try {
+                Optional<CacheCodec> codec = codecFor(key).filter(c -> c.supports(value.getClass()));
+                serialized.put(key, codec.isPresent()
+                        ? codec.get().encode(value)
+                        : valueSerializer.serialize(toCacheValue(value)));
+            } catch (Exception e) {
+                log.error("Error serializing value for cache key: {}", key, e);
             }
+        });
 
+        Expiration expiration = Expiration.seconds(ttlSeconds);
+        for (List<String> chunk : chunk(new ArrayList<>(serialized.keySet()))) {
+            long start = System.nanoTime();
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : chunk) {
+                        connection.stringCommands().set(rawKey(key), serialized.get(key), expiration,
+                                RedisStringCommands.SetOption.upsert());
+                    }
+                    return null;
+                });
+                recordBatch("pipelined_set", chunk.size(), start);
+            } catch (Exception e) {
+                log.error("Error putting batch to cache: size={}", chunk.size(), e);
+            }
+        }
+    }
+
+    /**
+     * Replaces a whole hash in one MULTI/EXEC, so readers never see it half written.
+     * Field values are encoded like string values of the same keyspace.
+     */
+    public void putHash(String key, Map<String, ?> fields, long ttlSeconds) {
+        try {
+            Map<byte[], byte[]> encoded = new LinkedHashMap<>();
+            encoded.put(HASH_MARKER, HASH_MARKER);
+            for (Map.Entry<String, ?> field : fields.entrySet()) {
+                encoded.put(rawKey(field.getKey()), encodeHashValue(key, field.getValue()));
+            }
+
+            long start = System.nanoTime();
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                byte[] rawKey = rawKey(key);
+                connection.multi();
+                connection.keyCommands().del(rawKey);
+                connection.hashCommands().hMSet(rawKey, encoded);
+                connection.keyCommands().expire(rawKey, ttlSeconds);
+                return connection.exec();
+            });
+            recordBatch("hash_replace", encoded.size(), start);
+        } catch (Exception e) {
+            log.error("Error putting hash to cache for key: {}", key, e);
+        }
+    }
+
+    /**
+     * Replaces many hashes in one pipelined round trip per chunk. Hashes are not wrapped in
+     * MULTI like {@link #putHash}; a reader may briefly find one missing, but never half
+     * written, because the marker and the fields go in the same HMSET.
+     *
+     * @return the number of hashes written
+     */
+    public int putHashes(Map<String, ? extends Map<String, ?>> hashes, long ttlSeconds) {
+        if (hashes == null || hashes.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Map<byte[], byte[]>> encoded = new LinkedHashMap<>();
+        hashes.forEach((key, fields) -> {
+            try {
+                Map<byte[], byte[]> raw = new LinkedHashMap<>();
+                raw.put(HASH_MARKER, HASH_MARKER);
+                for (Map.Entry<String, ?> field : fields.entrySet()) {
+                    raw.put(rawKey(field.getKey()), encodeHashValue(key, field.getValue()));
+                }
+                encoded.put(key, raw);
+            } catch (Exception e) {
+                log.error("Error serializing hash for cache key: {}", key, e);
+            }
+        });
+
+        int written = 0;
+        for (List<String> chunk : chunk(new ArrayList<>(encoded.keySet()))) {
+            long start = System.nanoTime();
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : chunk) {
+                        byte[] rawKey = rawKey(key);
+                        connection.keyCommands().del(rawKey);
+                        connection.hashCommands().hMSet(rawKey, encoded.get(key));
+                        connection.keyCommands().expire(rawKey, ttlSeconds);
+                    }
+                    return null;
+                });
+                recordBatch("pipelined_hash_replace", chunk.size(), start);
+                written += chunk.size();
+            } catch (Exception e) {
+                log.error("Error putting hash batch to cache: size={}", chunk.size(), e);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Reads a whole hash written by {@link #putHash}; empty when it is not cached.
+     */
+    public <T> Optional<Map<String, T>> getHash(String key, Class<T> valueType) {
+        try {
+            Map<byte[], byte[]> raw = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                    connection.hashCommands().hGetAll(rawKey(key)));
+            if (raw == null || raw.isEmpty()) {
+                missCount.incrementAndGet();
+                return Optional.empty();
+            }
+
+            hitCount.incrementAndGet();
+            Map<String, T> fields = new HashMap<>(Math.max(16, raw.size() * 2));
+            for (Map.Entry<byte[], byte[]> entry : raw.entrySet()) {
+                String field = new String(entry.getKey(), StandardCharsets.UTF_8);
+                if (!HASH_MARKER_FIELD.equals(field)) {
+                    decodeRaw(entry.getValue(), valueType).ifPresent(value -> fields.put(field, value));
+                }
+            }
+            return Optional.of(fields);
+        } catch (Exception e) {
+            log.error("Error getting hash from cache for key: {}", key, e);
+            missCount.incrementAndGet();
             return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads some fields of a hash written by {@link #putHash} with one HMGET. Empty when the
+     * hash is not cached; otherwise holds those of the requested fields that are present.
+     */
+    public <T> Optional<Map<String, T>> getHashFields(String key, List<String> fields, Class<T> valueType) {
+        try {
+            byte[][] rawFields = new byte[fields.size() + 1][];
+            rawFields[0] = HASH_MARKER;
+            for (int i = 0; i < fields.size(); i++) {
+                rawFields[i + 1] = rawKey(fields.get(i));
+            }
+
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.hashCommands().hMGet(rawKey(key), rawFields));
+            if (values == null || values.isEmpty() || values.get(0) == null) {
+                missCount.incrementAndGet();
+                return Optional.empty();
+            }
 
+            hitCount.incrementAndGet();
+            Map<String, T> results = new HashMap<>();
+            for (int i = 0; i < fields.size() && i + 1 < values.size(); i++) {
+                byte[] value = values.get(i + 1);
+                if (value != null) {
+                    String field = fields.get(i);
+                    decodeRaw(value, valueType).ifPresent(decoded -> results.put(field, decoded));
+                }
+            }
+            return Optional.of(results);
         } catch (Exception e) {
-            log.error("Error getting value from cache for key: {}", key, e);
+            log.error("Error getting hash fields from cache for key: {}", key, e);
             missCount.incrementAndGet();
             return Optional.empty();
         }
     }
 
-    public void put(String key, Object value, long ttlSeconds) {
+    /**
+     * Sets one field of a hash only if the hash is cached, so a partial hash is never created.
+     *
+     * @return true if the field was written
+     */
+    public boolean putHashFieldIfPresent(String key, String field, Object value) {
         try {
+            byte[] encoded = encodeHashValue(key, value);
+            Long written = redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(PUT_HASH_FIELD_IF_PRESENT_SCRIPT, ReturnType.INTEGER, 1,
+                            rawKey(key), HASH_MARKER, rawKey(field), encoded));
+            return written != null && written == 1L;
+        } catch (Exception e) {
+            log.error("Error putting hash field to cache: key={}, field={}", key, field, e);
+            return false;
+        }
+    }
 
-            Object cacheValue = value;
-            if (!(value instanceof String) && !(value instanceof Number) && !(value instanceof Boolean)) {
-                cacheValue = objectMapper.writeValueAsString(value);
+    /**
+     * Pipelined {@link #putHashFieldIfPresent} of the same field into many hashes, one round
+     * trip per chunk.
+     *
+     * @return the number of hashes that were cached and got the field
+     */
+    public int putHashFieldIfPresentAll(String field, Map<String, ?> valuesByKey) {
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        valuesByKey.forEach((key, value) -> {
+            try {
+                encoded.put(key, encodeHashValue(key, value));
+            } catch (Exception e) {
+                log.error("Error serializing hash field for cache key: key={}, field={}", key, field, e);
             }
+        });
 
-            redisTemplate.opsForValue().set(key, cacheValue, Duration.ofSeconds(ttlSeconds));
+        byte[] rawField = rawKey(field);
+        int written = 0;
+        for (List<String> chunk : chunk(new ArrayList<>(encoded.keySet()))) {
+            long start = System.nanoTime();
+            try {
+                List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : chunk) {
+                        connection.scriptingCommands().eval(PUT_HASH_FIELD_IF_PRESENT_SCRIPT, ReturnType.INTEGER, 1,
+                                rawKey(key), HASH_MARKER, rawField, encoded.get(key));
+                    }
+                    return null;
+                });
+                recordBatch("pipelined_hash_field_put", chunk.size(), start);
+                for (Object result : results) {
+                    if (result instanceof Long count && count == 1L) {
+                        written++;
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error putting hash field batch to cache: field={}, size={}", field, chunk.size(), e);
+            }
+        }
+        return written;
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing value for cache key: {}", key, e);
+    /**
+     * @return false only if the command failed; a missing field or hash counts as deleted
+     */
+    public boolean deleteHashField(String key, String field) {
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.hashCommands().hDel(rawKey(key), rawKey(field)));
+            return true;
         } catch (Exception e) {
-            log.error("Error putting value to cache for key: {}", key, e);
+            log.error("Error deleting hash field from cache: key={}, field={}", key, field, e);
+            return false;
+        }
+    }
+
+    /**
+     * Remaining TTL in milliseconds; empty when the key has no expiry or the lookup fails,
+     * zero when the key no longer exists.
+     */
+    public Optional<Long> getExpireMillis(String key) {
+        try {
+            Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+            if (ttl == null || ttl == -1) {
+                return Optional.empty();
+            }
+            return Optional.of(Math.max(0L, ttl));
+        } catch (Exception e) {
+            log.error("Error getting TTL for cache key: {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    public void delete(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.error("Error deleting cache key: {}", key, e);
+        }
+    }
+
+    public void delete(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (Exception e) {
+            log.error("Error deleting cache keys: {}", keys, e);
         }
     }
 
     private String buildKey(String key) {
         return cacheProperties.getKeyPrefix() + ":" + key;
     }
+
+    private Optional<CacheCodec> codecFor(String key) {
+        String keyspace = CacheCodecRegistry.keyspaceOf(key, cacheProperties.getKeyPrefix());
+        return codecRegistry.forKeyspace(keyspace, cacheProperties.getCodecs());
+    }
+
+    private <T> Optional<T> decodeRaw(byte[] raw, Class<T> valueType) throws Exception {
+        Optional<CacheCodec> decoder = codecRegistry.decoderFor(raw);
+        if (decoder.isPresent()) {
+            return Optional.of(decoder.get().decode(raw, valueType));
+        }
+        // Written before the keyspace switched codec
+        Object legacy = redisTemplate.getValueSerializer().deserialize(raw);
+        return legacy != null ? convert(legacy, valueType) : Optional.empty();
+    }
+
+    private byte[] encodeHashValue(String key, Object value) throws Exception {
+        Optional<CacheCodec> codec = codecFor(key).filter(c -> c.supports(value.getClass()));
+        if (codec.isPresent()) {
+            return codec.get().encode(value);
+        }
+        @SuppressWarnings("unchecked")
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        return valueSerializer.serialize(toCacheValue(value));
+    }
+
+    private byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Object toCacheValue(Object value) throws JsonProcessingException {
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private <T> Optional<T> convert(Object cached, Class<T> valueType) throws JsonProcessingException {
+        if (valueType.isInstance(cached)) {
+            return Optional.of(valueType.cast(cached));
+        }
+
+        if (cached instanceof String) {
+            T value = objectMapper.readValue((String) cached, valueType);
+            return Optional.of(value);
+        }
+
+        return Optional.empty();
+    }
+
+    private List<List<String>> chunk(List<String> keys) {
+        int chunkSize = cacheProperties.getBatchChunkSize();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += chunkSize) {
+            chunks.add(keys.subList(i, Math.min(i + chunkSize, keys.size())));
+        }
+        return chunks;
+    }
+
+    private void recordBatch(String operation, int batchSize, long startNanos) {
+        Timer.builder("coupon_redis_batch_duration")
+                .description("Round-trip time of batched Redis operations by batch size bucket")
+                .tags("operation", operation, "batch_size", sizeBucket(batchSize))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("coupon_redis_batch_size")
+                .description("Number of keys per batched Redis operation")
+                .tags("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(batchSize);
+    }
+
+    private static String sizeBucket(int batchSize) {
+        if (batchSize <= 1) {
+            return "1";
+        }
+        if (batchSize <= 10) {
+            return "2-10";
+        }
+        if (batchSize <= 50) {
+            return "11-50";
+        }
+        if (batchSize <= 200) {
+            return "51-200";
+        }
+        return "200+";
+    }
 }
@@ -0,0 +1,204 @@
+package org.couponmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.Context;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.grpc.client.RuleServiceAsyncClient;
+import org.couponmanagement.rule.bounds.RuleBoundsServiceProto;
+import org.couponmanagement.rule.engine.CollectionOutcome;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rule-collection outcomes, so applies whose collections were already evaluated for an
+ * equivalent order skip the rule-service call. Rule-service publishes per collection a version
+ * and the order amounts and times of day at which the outcome can change; orders in the same
+ * bucket of both get the same outcome, so a hit is exact for that version.
+ *
+ * <p>Bounds are fetched in the background the first time a collection is seen and trusted for
+ * {@code ruleOutcomeBoundsTtlSeconds}; outcomes are keyed by version and expire with them, so a
+ * rule change is picked up within that window. Collection 0 needs no rules and always passes.
+ */
+@Component
+@Slf4j
+public class RuleOutcomeCache {
+
+    private final RuleServiceAsyncClient ruleServiceClient;
+    private final boolean enabled;
+    private final Cache<Integer, Bounds> bounds;
+    private final Cache<OutcomeKey, CollectionOutcome> outcomes;
+    private final Set<Integer> loading = ConcurrentHashMap.newKeySet();
+    private final Counter hits;
+    private final Counter misses;
+
+    public RuleOutcomeCache(RuleServiceAsyncClient ruleServiceClient,
+                            CouponCacheProperties cacheProperties,
+                            MeterRegistry meterRegistry) {
+        this.ruleServiceClient = ruleServiceClient;
+        this.enabled = cacheProperties.isRuleOutcomeCacheEnabled();
+        Duration ttl = Duration.ofSeconds(cacheProperties.getRuleOutcomeBoundsTtlSeconds());
+        this.bounds = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getRuleOutcomeMaxSize())
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.hits = Counter.builder("rule_outcome_cache_requests_total")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("rule_outcome_cache_requests_total")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the outcome of every collection, or empty unless all of them are cached
+     */
+    public Optional<Map<Integer, CollectionOutcome>> getAll(Collection<Integer> collectionIds,
+                                                            double orderAmount, LocalDateTime orderDate) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Map<Integer, CollectionOutcome> result = new HashMap<>();
+        List<Integer> unknown = new ArrayList<>();
+        boolean complete = true;
+        for (Integer collectionId : collectionIds) {
+            if (collectionId == 0) {
+                result.put(collectionId, CollectionOutcome.SUCCESS);
+                continue;
+            }
+            Bounds collectionBounds = bounds.getIfPresent(collectionId);
+            if (collectionBounds == null) {
+                unknown.add(collectionId);
+                complete = false;
+                continue;
+            }
+            CollectionOutcome outcome = collectionBounds.cacheable()
+                    ? outcomes.getIfPresent(collectionBounds.key(collectionId, orderAmount, orderDate))
+                    : null;
+            if (outcome == null) {
+                complete = false;
+            } else {
+                result.put(collectionId, outcome);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            loadBounds(unknown);
+        }
+        if (!complete) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(result);
+    }
+
+    /**
+     * Records a successful evaluation; collections absent from {@code failures} passed.
+     */
+    public void putAll(Collection<Integer> collectionIds, double orderAmount, LocalDateTime orderDate,
+                       Map<Integer, String> failures) {
+        if (!enabled) {
+            return;
+        }
+        for (Integer collectionId : collectionIds) {
+            Bounds collectionBounds = bounds.getIfPresent(collectionId);
+            if (collectionBounds == null || !collectionBounds.cacheable()) {
+                continue;
+            }
+            String failure = failures.get(collectionId);
+            outcomes.put(collectionBounds.key(collectionId, orderAmount, orderDate),
+                    failure == null ? CollectionOutcome.SUCCESS : CollectionOutcome.failure(failure));
+        }
+    }
+
+    private void loadBounds(List<Integer> collectionIds) {
+        List<Integer> toLoad = collectionIds.stream()
+                .filter(loading::add)
+                .toList();
+        if (toLoad.isEmpty()) {
+            return;
+        }
+
+        var request = RuleBoundsServiceProto.GetCollectionBoundsRequest.newBuilder()
+                .setRequestId(String.valueOf(UUID.randomUUID()))
+                .addAllRuleCollectionIds(toLoad)
+                .build();
+        // Forked so the fill is not cancelled when the request that triggered it ends
+        Context fillContext = Context.current().fork();
+        Context previous = fillContext.attach();
+        CompletableFuture<RuleBoundsServiceProto.GetCollectionBoundsResponse> response;
+        try {
+            response = ruleServiceClient.getCollectionBounds(request);
+        } finally {
+            fillContext.detach(previous);
+        }
+        response.whenComplete((loaded, failure) -> {
+            try {
+                if (failure != null || loaded.getStatus().getCode() != RuleBoundsServiceProto.StatusCode.OK) {
+                    log.debug("Rule collection bounds unavailable: ruleCollectionIds={}, error={}", toLoad,
+                            failure != null ? failure.getMessage() : loaded.getStatus().getMessage());
+                    return;
+                }
+                for (var collectionBounds : loaded.getPayload().getCollectionBoundsList()) {
+                    bounds.put(collectionBounds.getRuleCollectionId(), Bounds.fromProto(collectionBounds));
+                }
+            } finally {
+                toLoad.forEach(loading::remove);
+            }
+        });
+    }
+
+    /**
+     * Buckets alternate between the open interval below a bound and the bound itself, so the
+     * outcome is constant within one whichever comparison a rule uses at its bound.
+     */
+    static int bucket(double[] sortedBounds, double value) {
+        int index = Arrays.binarySearch(sortedBounds, value);
+        return index >= 0 ? 2 * index + 1 : 2 * (-index - 1);
+    }
+
+    static int bucket(long[] sortedBounds, long value) {
+        int index = Arrays.binarySearch(sortedBounds, value);
+        return index >= 0 ? 2 * index + 1 : 2 * (-index - 1);
+    }
+
+    record Bounds(String version, boolean cacheable, double[] amountBounds, long[] timeOfDayBounds) {
+
+        static Bounds fromProto(RuleBoundsServiceProto.CollectionBounds proto) {
+            return new Bounds(
+                    proto.getVersion(),
+                    proto.getCacheable(),
+                    proto.getAmountBoundsList().stream().mapToDouble(Double::doubleValue).toArray(),
+                    proto.getTimeOfDayBoundsList().stream().mapToLong(Long::longValue).toArray());
+        }
+
+        OutcomeKey key(Integer collectionId, double orderAmount, LocalDateTime orderDate) {
+            return new OutcomeKey(collectionId, version,
+                    bucket(amountBounds, orderAmount),
+                    bucket(timeOfDayBounds, orderDate.toLocalTime().toNanoOfDay()));
+        }
+    }
+
+    record OutcomeKey(int collectionId, String version, int amountBucket, int timeBucket) {
+    }
+}
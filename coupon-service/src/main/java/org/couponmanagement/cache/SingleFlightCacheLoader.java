@@ -0,0 +1,164 @@
+package org.couponmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.grpc.Context;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent cache-miss loads per key so a hot key expiring costs one database
+ * query per node, not one per request. Also tracks when loaded entries expire and how long
+ * they took to build, so hits can trigger a background reload before expiry
+ * (probabilistic early expiration: the closer to expiry and the slower the load, the more
+ * likely a hit refreshes).
+ */
+@Component
+@Slf4j
+public class SingleFlightCacheLoader {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, RefreshWindow> refreshWindows;
+    private final CouponCacheProperties cacheProperties;
+    private final Executor refreshExecutor;
+
+    private final Counter leaderLoads;
+    private final Counter sharedLoads;
+    private final Counter earlyRefreshes;
+
+    record RefreshWindow(long expiresAtMillis, long computeMillis) {
+    }
+
+    public SingleFlightCacheLoader(CouponCacheProperties cacheProperties,
+                                   MeterRegistry meterRegistry,
+                                   @Qualifier("couponEvaluationExecutor") Executor refreshExecutor) {
+        this.cacheProperties = cacheProperties;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshWindows = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getLocalMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(Math.max(
+                        cacheProperties.getCouponInfoTtlSeconds(), cacheProperties.getCouponDetailTtlSeconds())))
+                .build();
+        this.leaderLoads = Counter.builder("coupon_cache_loads_total")
+                .tag("result", "leader")
+                .register(meterRegistry);
+        this.sharedLoads = Counter.builder("coupon_cache_loads_total")
+                .tag("result", "shared")
+                .register(meterRegistry);
+        this.earlyRefreshes = Counter.builder("coupon_cache_early_refresh_total")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code loader} once for all concurrent callers of the same key; the others wait for
+     * and share its result or failure. The key must fully determine the loaded value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String key, Supplier<T> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            sharedLoads.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        leaderLoads.increment();
+        try {
+            T value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * {@link #load(String, Supplier)} for a value cached with {@code ttlSeconds}; records its
+     * refresh window once loaded.
+     */
+    public <T> T load(String key, long ttlSeconds, Supplier<T> loader) {
+        return load(key, () -> {
+            long startNanos = System.nanoTime();
+            T value = loader.get();
+            long computeMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+            refreshWindows.put(key, new RefreshWindow(
+                    System.currentTimeMillis() + ttlSeconds * 1000, Math.max(1, computeMillis)));
+            return value;
+        });
+    }
+
+    public boolean isTracked(String key) {
+        return refreshWindows.getIfPresent(key) != null;
+    }
+
+    /**
+     * Tracks an entry this node did not load itself, e.g. one first seen in Redis. The load
+     * cost is unknown, so the configured estimate is used.
+     */
+    public void track(String key, long remainingTtlMillis) {
+        refreshWindows.put(key, new RefreshWindow(
+                System.currentTimeMillis() + remainingTtlMillis, cacheProperties.getEarlyRefreshComputeMillis()));
+    }
+
+    /**
+     * XFetch check: refresh when {@code computeMillis * beta * -ln(rand)} reaches the time
+     * left before expiry.
+     */
+    public boolean shouldRefreshEarly(String key) {
+        if (!cacheProperties.isEarlyRefreshEnabled()) {
+            return false;
+        }
+        RefreshWindow window = refreshWindows.getIfPresent(key);
+        if (window == null) {
+            return false;
+        }
+        long remainingMillis = window.expiresAtMillis() - System.currentTimeMillis();
+        double gapMillis = window.computeMillis() * cacheProperties.getEarlyRefreshBeta()
+                * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return gapMillis >= remainingMillis;
+    }
+
+    /**
+     * Reloads {@code key} in the background through the same single-flight slot; the caller
+     * keeps serving its current value. No-op while a load for the key is already running.
+     */
+    public <T> void refreshAsync(String key, long ttlSeconds, Supplier<T> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        earlyRefreshes.increment();
+        try {
+            // Forked so the refresh is not cut short when the request that triggered it ends
+            refreshExecutor.execute(Context.current().fork().wrap(() -> {
+                try {
+                    load(key, ttlSeconds, loader);
+                } catch (Exception e) {
+                    log.warn("Early cache refresh failed: key={}, error={}", key, e.getMessage());
+                }
+            }));
+        } catch (Exception e) {
+            log.warn("Early cache refresh rejected: key={}, error={}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.couponmanagement.cache.codec;
+
+import org.couponmanagement.dto.CouponDetail;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class CouponDetailBinarySchema implements BinarySchema<CouponDetail> {
+
+    static final int TAG = 1;
+
+    @Override
+    public int tag() {
+        return TAG;
+    }
+
+    @Override
+    public Class<CouponDetail> type() {
+        return CouponDetail.class;
+    }
+
+    @Override
+    public void write(CouponDetail value, BinaryWriter writer) {
+        writer.writeNullableInt(value.getCouponId())
+                .writeString(value.getCouponCode())
+                .writeString(value.getTitle())
+                .writeString(value.getDescription())
+                .writeString(value.getType())
+                .writeString(value.getStatus())
+                .writeNullableInt(value.getCollectionKeyId())
+                .writeNullableInt(value.getBudgetId())
+                .writeString(value.getDiscountConfigJson())
+                .writeBoolean(value.isActive())
+                .writeTimestamp(value.getCreatedAt())
+                .writeTimestamp(value.getExpiryDate())
+                .writeTimestamp(value.getUpdatedAt())
+                .writeTimestamp(value.getCachedAt());
+    }
+
+    @Override
+    public CouponDetail read(BinaryReader reader) throws IOException {
+        return CouponDetail.builder()
+                .couponId(reader.readNullableInt())
+                .couponCode(reader.readString())
+                .title(reader.readString())
+                .description(reader.readString())
+                .type(reader.readString())
+                .status(reader.readString())
+                .collectionKeyId(reader.readNullableInt())
+                .budgetId(reader.readNullableInt())
+                .discountConfigJson(reader.readString())
+                .isActive(reader.readBoolean())
+                .createdAt(reader.readTimestamp())
+                .expiryDate(reader.readTimestamp())
+                .updatedAt(reader.readTimestamp())
+                .cachedAt(reader.readTimestamp())
+                .build();
+    }
+}
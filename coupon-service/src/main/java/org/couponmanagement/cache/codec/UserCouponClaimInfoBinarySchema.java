@@ -0,0 +1,44 @@
+package org.couponmanagement.cache.codec;
+
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * One field of the user coupon wallet hash; the coupon id is the hash field itself.
+ */
+@Component
+public class UserCouponClaimInfoBinarySchema implements BinarySchema<UserCouponClaimInfo> {
+
+    static final int TAG = 3;
+
+    @Override
+    public int tag() {
+        return TAG;
+    }
+
+    @Override
+    public Class<UserCouponClaimInfo> type() {
+        return UserCouponClaimInfo.class;
+    }
+
+    @Override
+    public void write(UserCouponClaimInfo value, BinaryWriter writer) {
+        writer.writeNullableLong(value.getCouponUserId())
+                .writeNullableInt(value.getUserId())
+                .writeNullableInt(value.getCouponId())
+                .writeTimestamp(value.getClaimedDate())
+                .writeTimestamp(value.getExpiryDate());
+    }
+
+    @Override
+    public UserCouponClaimInfo read(BinaryReader reader) throws IOException {
+        return new UserCouponClaimInfo(
+                reader.readNullableLong(),
+                reader.readNullableInt(),
+                reader.readNullableInt(),
+                reader.readTimestamp(),
+                reader.readTimestamp());
+    }
+}
@@ -0,0 +1,67 @@
+package org.couponmanagement.cache.codec;
+
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.dto.UserCouponIds;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class UserCouponIdsBinarySchema implements BinarySchema<UserCouponIds> {
+
+    static final int TAG = 2;
+
+    @Override
+    public int tag() {
+        return TAG;
+    }
+
+    @Override
+    public Class<UserCouponIds> type() {
+        return UserCouponIds.class;
+    }
+
+    @Override
+    public void write(UserCouponIds value, BinaryWriter writer) {
+        Map<Integer, UserCouponClaimInfo> info = value.getUserCouponInfo() != null
+                ? value.getUserCouponInfo()
+                : Map.of();
+
+        writer.writeTimestamp(value.getCacheTimestamp())
+                .writeNullableInt(value.getTotalCount())
+                .writeUnsignedVarLong(info.size());
+
+        for (Map.Entry<Integer, UserCouponClaimInfo> entry : info.entrySet()) {
+            UserCouponClaimInfo claimInfo = entry.getValue();
+            writer.writeVarInt(entry.getKey())
+                    .writeNullableLong(claimInfo.getCouponUserId())
+                    .writeNullableInt(claimInfo.getUserId())
+                    .writeNullableInt(claimInfo.getCouponId())
+                    .writeTimestamp(claimInfo.getClaimedDate())
+                    .writeTimestamp(claimInfo.getExpiryDate());
+        }
+    }
+
+    @Override
+    public UserCouponIds read(BinaryReader reader) throws IOException {
+        UserCouponIds value = new UserCouponIds();
+        value.setCacheTimestamp(reader.readTimestamp());
+        value.setTotalCount(reader.readNullableInt());
+
+        int size = Math.toIntExact(reader.readUnsignedVarLong());
+        Map<Integer, UserCouponClaimInfo> info = new HashMap<>(Math.max(16, size * 2));
+        for (int i = 0; i < size; i++) {
+            int couponId = reader.readVarInt();
+            info.put(couponId, new UserCouponClaimInfo(
+                    reader.readNullableLong(),
+                    reader.readNullableInt(),
+                    reader.readNullableInt(),
+                    reader.readTimestamp(),
+                    reader.readTimestamp()));
+        }
+        value.setUserCouponInfo(info);
+        return value;
+    }
+}
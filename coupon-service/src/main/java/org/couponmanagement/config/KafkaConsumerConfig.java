@@ -3,12 +3,18 @@ package org.couponmanagement.config;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.couponmanagement.dto.UpdateCouponEvent;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
@@ -16,21 +22,16 @@ import java.util.Map;
 
 @Configuration
 public class KafkaConsumerConfig {
+
+    private static final int BATCH_MAX_POLL_RECORDS = 500;
+    private static final int BATCH_MAX_RETRIES = 5;
+
     @Bean
     public ConsumerFactory<String, UpdateCouponEvent> consumerFactory() {
-        JsonDeserializer<UpdateCouponEvent> deserializer = new JsonDeserializer<>(UpdateCouponEvent.class);
-        deserializer.addTrustedPackages("*");
-
-        Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        config.put(ConsumerConfig.GROUP_ID_CONFIG, "coupon-service-group");
-        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        Map<String, Object> config = consumerConfig();
         config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10);
 
-        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), deserializer);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), eventDeserializer());
     }
 
     @Bean
@@ -43,5 +44,56 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
-}
 
+    /**
+     * Whole poll batches for {@code CouponEventBatchConsumer}. Records that cannot be
+     * deserialized arrive with a null value instead of failing the poll, so one bad record
+     * cannot stall its partition. A batch the listener rethrows on is redelivered with backoff,
+     * then its records go to {@code update-coupon-user.DLT} instead of being committed unseen.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UpdateCouponEvent> batchKafkaListenerContainerFactory(
+            ObjectProvider<KafkaTemplate<String, Object>> kafkaTemplate) {
+        Map<String, Object> config = consumerConfig();
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, BATCH_MAX_POLL_RECORDS);
+
+        ConcurrentKafkaListenerContainerFactory<String, UpdateCouponEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(eventDeserializer())));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(batchErrorHandler(kafkaTemplate.getIfAvailable()));
+        factory.setConcurrency(3);
+
+        return factory;
+    }
+
+    private DefaultErrorHandler batchErrorHandler(KafkaTemplate<String, Object> kafkaTemplate) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(BATCH_MAX_RETRIES);
+        backOff.setInitialInterval(500);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(10_000);
+        if (kafkaTemplate == null) {
+            return new DefaultErrorHandler(backOff);
+        }
+        return new DefaultErrorHandler(new DeadLetterPublishingRecoverer(kafkaTemplate), backOff);
+    }
+
+    private Map<String, Object> consumerConfig() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, "coupon-service-group");
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return config;
+    }
+
+    private JsonDeserializer<UpdateCouponEvent> eventDeserializer() {
+        JsonDeserializer<UpdateCouponEvent> deserializer = new JsonDeserializer<>(UpdateCouponEvent.class);
+        deserializer.addTrustedPackages("*");
+        return deserializer;
+    }
+}
@@ -0,0 +1,152 @@
+package org.couponmanagement.discount;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.entity.DiscountType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable, pre-parsed form of a coupon's discount_config.
+ * All per-call math is done in long minor units (1/100 of the currency unit);
+ * percentages are stored in millionths so no BigDecimal division happens per call.
+ */
+@Slf4j
+public final class DiscountCalculator {
+
+    public static final int MONEY_SCALE = 2;
+    private static final int PERCENT_SCALE = 4;
+    private static final long PERCENT_DIVISOR = 1_000_000L;
+    private static final long NO_CAP = -1L;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final DiscountType discountType;
+    private final BigDecimal value;
+    private final BigDecimal maxDiscount;
+    private final String typeName;
+    private final long scaledValue;
+    private final long maxDiscountMinor;
+
+    private DiscountCalculator(DiscountType discountType, BigDecimal value, BigDecimal maxDiscount,
+                               String typeName, long scaledValue, long maxDiscountMinor) {
+        this.discountType = discountType;
+        this.value = value;
+        this.maxDiscount = maxDiscount;
+        this.typeName = typeName;
+        this.scaledValue = scaledValue;
+        this.maxDiscountMinor = maxDiscountMinor;
+    }
+
+    public static DiscountCalculator compile(String discountConfigJson, String fallbackType) {
+        String defaultTypeName = fallbackType != null ? fallbackType.toUpperCase() : "FIXED_AMOUNT";
+        if (discountConfigJson == null || discountConfigJson.trim().isEmpty()) {
+            return new DiscountCalculator(null, null, null, defaultTypeName, 0L, NO_CAP);
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(discountConfigJson);
+            BigDecimal value = decimalOrNull(root.get("value"));
+            BigDecimal maxDiscount = decimalOrNull(root.get("max_discount"));
+            JsonNode typeNode = root.get("type");
+            String rawType = typeNode != null && typeNode.isTextual() ? typeNode.asText().toUpperCase() : null;
+
+            DiscountType discountType = parseType(rawType);
+            String typeName = rawType != null ? rawType : defaultTypeName;
+
+            long scaledValue = 0L;
+            if (value != null && discountType != null) {
+                scaledValue = discountType == DiscountType.PERCENTAGE
+                        ? value.movePointRight(PERCENT_SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact()
+                        : toMinorUnits(value);
+            }
+            long maxDiscountMinor = maxDiscount != null ? toMinorUnits(maxDiscount) : NO_CAP;
+
+            return new DiscountCalculator(discountType, value, maxDiscount, typeName, scaledValue, maxDiscountMinor);
+        } catch (Exception e) {
+            log.error("Failed to compile discount config JSON: {}", e.getMessage());
+            return new DiscountCalculator(null, null, null, defaultTypeName, 0L, NO_CAP);
+        }
+    }
+
+    public long calculateMinor(long orderAmountMinor) {
+        if (discountType == null || value == null || orderAmountMinor <= 0) {
+            return 0L;
+        }
+
+        long discount = switch (discountType) {
+            case PERCENTAGE -> (orderAmountMinor / PERCENT_DIVISOR) * scaledValue
+                    + (orderAmountMinor % PERCENT_DIVISOR) * scaledValue / PERCENT_DIVISOR;
+            case FIXED_AMOUNT -> scaledValue;
+        };
+
+        if (maxDiscountMinor != NO_CAP && discount > maxDiscountMinor) {
+            discount = maxDiscountMinor;
+        }
+
+        return Math.max(0L, Math.min(discount, orderAmountMinor));
+    }
+
+    /**
+     * Largest discount this coupon can give for any order, in minor units. Used to order
+     * a user's coupons best-first; {@link Long#MAX_VALUE} for an uncapped percentage.
+     */
+    public long upperBoundMinor() {
+        if (discountType == null || value == null) {
+            return 0L;
+        }
+
+        long bound = switch (discountType) {
+            case PERCENTAGE -> Long.MAX_VALUE;
+            case FIXED_AMOUNT -> Math.max(0L, scaledValue);
+        };
+
+        if (maxDiscountMinor != NO_CAP && bound > maxDiscountMinor) {
+            bound = Math.max(0L, maxDiscountMinor);
+        }
+        return bound;
+    }
+
+    public BigDecimal calculateDiscount(BigDecimal orderAmount) {
+        if (orderAmount == null) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(calculateMinor(toMinorUnits(orderAmount)), MONEY_SCALE);
+    }
+
+    public String getDiscountType() {
+        return typeName;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public BigDecimal getMaxDiscount() {
+        return maxDiscount;
+    }
+
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(MONEY_SCALE, RoundingMode.DOWN).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal decimalOrNull(JsonNode node) {
+        if (node == null || node.isNull() || !node.isNumber()) {
+            return null;
+        }
+        return node.decimalValue();
+    }
+
+    private static DiscountType parseType(String rawType) {
+        if (rawType == null) {
+            return null;
+        }
+        try {
+            return DiscountType.valueOf(rawType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
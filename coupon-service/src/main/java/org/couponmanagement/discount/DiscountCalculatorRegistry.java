@@ -0,0 +1,65 @@
+package org.couponmanagement.discount;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of compiled discount calculators, one per coupon version.
+ * A version is identified by coupon id + updatedAt; the source JSON is kept alongside
+ * so in-memory edits that do not bump updatedAt still trigger a recompile.
+ */
+@Slf4j
+public final class DiscountCalculatorRegistry {
+
+    private static final DiscountCalculatorRegistry INSTANCE = new DiscountCalculatorRegistry();
+
+    private final ConcurrentHashMap<Integer, Entry> calculators = new ConcurrentHashMap<>();
+
+    private DiscountCalculatorRegistry() {
+    }
+
+    public static DiscountCalculatorRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public DiscountCalculator forCoupon(Integer couponId, LocalDateTime updatedAt,
+                                        String discountConfigJson, String fallbackType) {
+        if (couponId == null) {
+            return DiscountCalculator.compile(discountConfigJson, fallbackType);
+        }
+
+        Entry entry = calculators.get(couponId);
+        if (entry != null && entry.matches(updatedAt, discountConfigJson, fallbackType)) {
+            return entry.calculator();
+        }
+
+        Entry compiled = new Entry(updatedAt, discountConfigJson, fallbackType,
+                DiscountCalculator.compile(discountConfigJson, fallbackType));
+        calculators.put(couponId, compiled);
+        log.debug("Compiled discount calculator: couponId={}, version={}", couponId, updatedAt);
+        return compiled.calculator();
+    }
+
+    public void evict(Integer couponId) {
+        if (couponId != null) {
+            calculators.remove(couponId);
+        }
+    }
+
+    public int size() {
+        return calculators.size();
+    }
+
+    private record Entry(LocalDateTime version, String sourceJson, String fallbackType,
+                         DiscountCalculator calculator) {
+
+        boolean matches(LocalDateTime updatedAt, String discountConfigJson, String type) {
+            return Objects.equals(version, updatedAt)
+                    && Objects.equals(sourceJson, discountConfigJson)
+                    && Objects.equals(fallbackType, type);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.couponmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A user's claimed coupons ordered by the largest discount each could ever give, so
+ * auto-apply can evaluate them best-first and stop early.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CouponCandidateIndex {
+    private List<Candidate> candidates;
+    private LocalDateTime builtAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Candidate {
+        private Integer couponId;
+        private long upperBoundMinor;
+    }
+
+    /**
+     * Coupons without a detail still get an entry (with a zero bound) so the index keeps
+     * matching the wallet it was built from.
+     */
+    public static CouponCandidateIndex build(Collection<Integer> couponIds, Map<Integer, CouponDetail> couponDetails) {
+        List<Candidate> candidates = new ArrayList<>(couponIds.size());
+        for (Integer couponId : couponIds) {
+            CouponDetail couponDetail = couponDetails.get(couponId);
+            long upperBound = couponDetail != null ? couponDetail.getDiscountCalculator().upperBoundMinor() : 0L;
+            candidates.add(new Candidate(couponId, upperBound));
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::getUpperBoundMinor).reversed()
+                .thenComparing(Candidate::getCouponId));
+        return new CouponCandidateIndex(candidates, LocalDateTime.now());
+    }
+
+    /**
+     * An index is only usable for the wallet it was built from: coupons claimed or used
+     * since then make it stale.
+     */
+    public boolean covers(Set<Integer> walletCouponIds) {
+        return getCouponIds().equals(walletCouponIds);
+    }
+
+    @JsonIgnore
+    public Set<Integer> getCouponIds() {
+        Set<Integer> couponIds = new HashSet<>();
+        if (candidates != null) {
+            candidates.forEach(candidate -> couponIds.add(candidate.getCouponId()));
+        }
+        return couponIds;
+    }
+}
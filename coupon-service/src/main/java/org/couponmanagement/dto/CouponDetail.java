@@ -1,9 +1,12 @@
 package org.couponmanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.couponmanagement.discount.DiscountCalculator;
+import org.couponmanagement.discount.DiscountCalculatorRegistry;
 import org.couponmanagement.entity.Coupon;
 
 import java.time.LocalDateTime;
@@ -46,4 +49,9 @@ public class CouponDetail {
                 .cachedAt(LocalDateTime.now())
                 .build();
     }
+
+    @JsonIgnore
+    public DiscountCalculator getDiscountCalculator() {
+        return DiscountCalculatorRegistry.getInstance().forCoupon(couponId, updatedAt, discountConfigJson, type);
+    }
 }
@@ -7,4 +7,6 @@ public enum CouponErrorCode {
     RULE_VIOLATION,
     COUPON_NOT_FOUND,
     COUPON_EXPIRED,
+    DUPLICATE_COUPON,
+    COUPON_ALREADY_USED,
 }
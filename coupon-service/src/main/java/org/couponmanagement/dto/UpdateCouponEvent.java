@@ -5,7 +5,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.couponmanagement.entity.CouponUser.CouponUserStatus;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 
 @Data
 @NoArgsConstructor
@@ -16,4 +19,22 @@ public class UpdateCouponEvent {
     private CouponUserStatus newStatus;
     private LocalDateTime usedAt;
     private LocalDateTime updatedAt;
+    /**
+     * Version issued by {@code CouponUserStateStore} for this transition, if the producer has one.
+     */
+    private Long stateVersion;
+
+    /**
+     * The version the row write is fenced with: the issued one, or else {@code updatedAt} in
+     * epoch microseconds, the clock the state store issues versions from. Null if neither is set.
+     */
+    public Long fenceVersion() {
+        if (stateVersion != null) {
+            return stateVersion;
+        }
+        if (updatedAt == null) {
+            return null;
+        }
+        return ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt.atZone(ZoneId.systemDefault()).toInstant());
+    }
 }
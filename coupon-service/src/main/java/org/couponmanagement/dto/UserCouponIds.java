@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,4 +40,9 @@ public class UserCouponIds {
         return userCouponInfo.get(couponId);
     }
 
+    public UserCouponIds copy() {
+        Map<Integer, UserCouponClaimInfo> info = userCouponInfo != null ? new HashMap<>(userCouponInfo) : new HashMap<>();
+        return new UserCouponIds(info, cacheTimestamp, totalCount);
+    }
+
 }
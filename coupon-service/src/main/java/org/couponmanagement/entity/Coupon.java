@@ -11,6 +11,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.discount.DiscountCalculator;
+import org.couponmanagement.discount.DiscountCalculatorRegistry;
 import org.couponmanagement.grpc.annotation.PerformanceMonitor;
 
 import java.math.BigDecimal;
@@ -132,55 +134,30 @@ public class Coupon {
         }
     }
 
+    @Transient
+    public DiscountCalculator getDiscountCalculator() {
+        return DiscountCalculatorRegistry.getInstance().forCoupon(id, updatedAt, discountConfigJson, type);
+    }
+
     @Transient
     @PerformanceMonitor
     public BigDecimal calculateDiscount(BigDecimal orderAmount) {
-        DiscountConfig config = getDiscountConfig();
-
-        if (config.getValue() == null || config.getType() == null) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal discountAmount = BigDecimal.ZERO;
-
-        switch (config.getType().toUpperCase()) {
-            case "PERCENTAGE":
-                discountAmount = orderAmount.multiply(config.getValue().divide(BigDecimal.valueOf(100)));
-                break;
-            case "FIXED_AMOUNT":
-                discountAmount = config.getValue();
-                break;
-            default:
-                return BigDecimal.ZERO;
-        }
-
-        if (config.getMaxDiscount() != null && discountAmount.compareTo(config.getMaxDiscount()) > 0) {
-            discountAmount = config.getMaxDiscount();
-        }
-
-        if (discountAmount.compareTo(orderAmount) > 0) {
-            discountAmount = orderAmount;
-        }
-
-        return discountAmount;
+        return getDiscountCalculator().calculateDiscount(orderAmount);
     }
 
     @Transient
     public String getDiscountType() {
-        DiscountConfig config = getDiscountConfig();
-        return config.getType() != null ? config.getType().toUpperCase() : type != null ? type.toUpperCase() : "FIXED_AMOUNT";
+        return getDiscountCalculator().getDiscountType();
     }
 
     @Transient
     public BigDecimal getDiscountValue() {
-        DiscountConfig config = getDiscountConfig();
-        return config.getValue();
+        return getDiscountCalculator().getValue();
     }
 
     @Transient
     public BigDecimal getMaxDiscount() {
-        DiscountConfig config = getDiscountConfig();
-        return config.getMaxDiscount();
+        return getDiscountCalculator().getMaxDiscount();
     }
 
     @Transient
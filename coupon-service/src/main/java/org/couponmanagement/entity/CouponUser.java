@@ -20,6 +20,8 @@ import java.time.LocalDateTime;
 @Table(name = "coupon_user", indexes = {
     @Index(name = "idx_user_id", columnList = "user_id"),
     @Index(name = "idx_coupon_id", columnList = "coupon_id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_coupon_user_user_coupon", columnNames = {"user_id", "coupon_id"})
 })
 @Data
 @Builder
@@ -58,6 +60,13 @@ public class CouponUser {
     @Column(name = "updated_at", nullable = false)
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    /**
+     * Version of the last status transition; see {@code CouponUserStateRepository}.
+     */
+    @Column(name = "state_version", nullable = false)
+    @Builder.Default
+    private Long stateVersion = 0L;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "coupon_id", insertable = false, updatable = false)
@@ -100,6 +109,7 @@ public class CouponUser {
                 .discountConfigJson(couponDetail.getDiscountConfigJson())
                 .isActive("ACTIVE".equalsIgnoreCase(couponDetail.getStatus()))
                 .createdAt(couponDetail.getCreatedAt())
+                .updatedAt(couponDetail.getUpdatedAt())
                 .expiryDate(couponDetail.getExpiryDate())
                 .build();
         return CouponUser.builder()
@@ -3,6 +3,8 @@ package org.couponmanagement.grpc;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.protobuf.Value;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
@@ -14,22 +16,25 @@ import org.couponmanagement.dto.UserCouponClaimInfo;
 import org.couponmanagement.dto.CouponDetail;
 import org.couponmanagement.coupon.CouponServiceGrpc;
 import org.couponmanagement.coupon.CouponServiceProto;
-import org.couponmanagement.dto.UserCouponIds;
 import org.couponmanagement.entity.Coupon;
 import org.couponmanagement.entity.CouponUser;
 import org.couponmanagement.grpc.annotation.RequireAuth;
+import org.couponmanagement.grpc.client.GrpcFutures;
 import org.couponmanagement.grpc.validation.RequestValidator;
 import org.couponmanagement.grpc.annotation.PerformanceMonitor;
 import org.couponmanagement.repository.CouponRepository;
 import org.couponmanagement.repository.CouponUserRepository;
 import org.couponmanagement.service.CouponApplicationResult;
+import org.couponmanagement.service.CouponIssuanceService;
 import org.couponmanagement.service.CouponService;
+import org.couponmanagement.validate.CouponValidator;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,11 +46,17 @@ import static org.couponmanagement.utils.Utils.parseOrderDateTime;
 @Slf4j
 public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
 
+    private static final int DEFAULT_STREAM_CHUNK_SIZE = 100;
+    private static final int MAX_STREAM_CHUNK_SIZE = 500;
+    private static final int MAX_BATCH_APPLY_ITEMS = 50;
+
     private final CouponService couponService;
     private final RequestValidator validator;
     private final CouponRepository couponRepository;
     private final CouponCacheService couponCacheService;
     private final CouponUserRepository couponUserRepository;
+    private final CouponIssuanceService couponIssuanceService;
+    private final CouponValidator couponValidator = new CouponValidator();
 
     @Override
     @RequireAuth("USE_COUPON")
@@ -62,159 +73,283 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
             validator.validateCouponCode(request.getCouponCode());
             validator.validateOrderAmount(request.getOrderAmount());
 
-            CouponApplicationResult result = couponService.applyCouponManual(
-                    request.getUserId(), 
-                    request.getCouponCode(), 
-                    BigDecimal.valueOf(request.getOrderAmount()),
-                    parseOrderDateTime(request.getOrderDate())
-                    );
-
-            CouponServiceProto.ApplyCouponManualResponse response;
-            BigDecimal orderAmount = BigDecimal.valueOf(request.getOrderAmount());
-            BigDecimal finalAmount = orderAmount.subtract(result.getDiscountAmount());
-            if (result.isSuccess()) {
-
-                response = CouponServiceProto.ApplyCouponManualResponse.newBuilder()
-                        .setStatus(CouponServiceProto.Status.newBuilder()
-                                .setCode(CouponServiceProto.StatusCode.OK)
-                                .setMessage("Coupon applied successfully")
-                                .build())
-                        .setPayload(CouponServiceProto.ApplyCouponManualResponsePayload.newBuilder()
-                                .setSuccess(true)
-                                .setCouponId(result.getCouponId())
-                                .setCouponCode(result.getCouponCode())
-                                .setOrderAmount(orderAmount.doubleValue())
-                                .setDiscountAmount(result.getDiscountAmount().doubleValue())
-                                .setFinalAmount(finalAmount.doubleValue())
-                                .build())
-                        .build();
-
-                log.info("Manual coupon applied successfully: couponId={}, discount={}", 
-                        result.getCouponId(), result.getDiscountAmount());
-            } else {
-                response = CouponServiceProto.ApplyCouponManualResponse.newBuilder()
-                        .setStatus(CouponServiceProto.Status.newBuilder()
-                                .setCode(CouponServiceProto.StatusCode.OK)
-                                .setMessage(result.getErrorMessage())
-                                .build())
-                        .setPayload(CouponServiceProto.ApplyCouponManualResponsePayload.newBuilder()
-                                .setSuccess(false)
-                                .setOrderAmount(orderAmount.doubleValue())
-                                .setDiscountAmount(result.getDiscountAmount().doubleValue())
-                                .setFinalAmount(finalAmount.doubleValue())
-                                .setErrorMessage(result.getErrorMessage())
-                                .build())
-                        .setError(CouponServiceProto.Error.newBuilder()
-                                .setCode(result.getErrorCode())
-                                .setMessage(result.getErrorMessage()))
-                        .build();
-
-                log.warn("Manual coupon application failed: {}", result.getErrorMessage());
-            }
-
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+            couponService.applyCouponManualAsync(
+                            request.getUserId(),
+                            request.getCouponCode(),
+                            BigDecimal.valueOf(request.getOrderAmount()),
+                            parseOrderDateTime(request.getOrderDate()))
+                    .thenApply(result -> buildApplyCouponManualResponse(request, result))
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            Throwable cause = GrpcFutures.unwrap(error);
+                            log.error("Error in applyCouponManual gRPC call: userId={}, couponCode={}, error={}",
+                                    request.getUserId(), request.getCouponCode(), cause.getMessage(), cause);
+                            response = applyCouponManualErrorResponse(cause);
+                        }
+                        responseObserver.onNext(response);
+                        responseObserver.onCompleted();
+                    });
 
         } catch (Exception e) {
             log.error("Error in applyCouponManual gRPC call: userId={}, couponCode={}, error={}", 
                      request.getUserId(), request.getCouponCode(), e.getMessage(), e);
 
-            CouponServiceProto.ApplyCouponManualResponse errorResponse = CouponServiceProto.ApplyCouponManualResponse.newBuilder()
+            responseObserver.onNext(applyCouponManualErrorResponse(e));
+            responseObserver.onCompleted();
+        }
+    }
+
+    private CouponServiceProto.ApplyCouponManualResponse buildApplyCouponManualResponse(
+            CouponServiceProto.ApplyCouponManualRequest request, CouponApplicationResult result) {
+        BigDecimal orderAmount = BigDecimal.valueOf(request.getOrderAmount());
+        if (result.isSuccess()) {
+            log.info("Manual coupon applied successfully: couponId={}, discount={}", 
+                    result.getCouponId(), result.getDiscountAmount());
+
+            return CouponServiceProto.ApplyCouponManualResponse.newBuilder()
                     .setStatus(CouponServiceProto.Status.newBuilder()
-                            .setCode(CouponServiceProto.StatusCode.INTERNAL)
-                            .setMessage("Internal server error")
-                            .build())
-                    .setError(CouponServiceProto.Error.newBuilder()
-                            .setCode("INTERNAL_ERROR")
-                            .setMessage("Internal server error: " + e.getMessage())
+                            .setCode(CouponServiceProto.StatusCode.OK)
+                            .setMessage("Coupon applied successfully")
                             .build())
+                    .setPayload(buildApplyCouponManualPayload(orderAmount, result))
                     .build();
+        }
 
-            responseObserver.onNext(errorResponse);
-            responseObserver.onCompleted();
+        log.warn("Manual coupon application failed: {}", result.getErrorMessage());
+        return CouponServiceProto.ApplyCouponManualResponse.newBuilder()
+                .setStatus(CouponServiceProto.Status.newBuilder()
+                        .setCode(CouponServiceProto.StatusCode.OK)
+                        .setMessage(result.getErrorMessage())
+                        .build())
+                .setPayload(buildApplyCouponManualPayload(orderAmount, result))
+                .setError(CouponServiceProto.Error.newBuilder()
+                        .setCode(result.getErrorCode())
+                        .setMessage(result.getErrorMessage()))
+                .build();
+    }
+
+    private CouponServiceProto.ApplyCouponManualResponsePayload buildApplyCouponManualPayload(
+            BigDecimal orderAmount, CouponApplicationResult result) {
+        BigDecimal finalAmount = orderAmount.subtract(result.getDiscountAmount());
+        if (result.isSuccess()) {
+            return CouponServiceProto.ApplyCouponManualResponsePayload.newBuilder()
+                    .setSuccess(true)
+                    .setCouponId(result.getCouponId())
+                    .setCouponCode(result.getCouponCode())
+                    .setOrderAmount(orderAmount.doubleValue())
+                    .setDiscountAmount(result.getDiscountAmount().doubleValue())
+                    .setFinalAmount(finalAmount.doubleValue())
+                    .build();
         }
+        return CouponServiceProto.ApplyCouponManualResponsePayload.newBuilder()
+                .setSuccess(false)
+                .setOrderAmount(orderAmount.doubleValue())
+                .setDiscountAmount(result.getDiscountAmount().doubleValue())
+                .setFinalAmount(finalAmount.doubleValue())
+                .setErrorMessage(result.getErrorMessage())
+                .build();
     }
 
     @Override
     @RequireAuth("USE_COUPON")
     @PerformanceMonitor
-    public void applyCouponAuto(CouponServiceProto.ApplyCouponAutoRequest request,
-                              StreamObserver<CouponServiceProto.ApplyCouponAutoResponse> responseObserver) {
-        
-        log.info("Received applyCouponAuto gRPC request: userId={}, orderAmount={}", 
-                request.getUserId(), request.getOrderAmount());
+    @Observed(name = "batchApplyCoupons", contextualName = "CouponGrpcService.batchApplyCoupons")
+    public void batchApplyCoupons(CouponServiceProto.BatchApplyCouponsRequest request,
+                                  StreamObserver<CouponServiceProto.BatchApplyCouponsResponse> responseObserver) {
+
+        log.info("Received batchApplyCoupons gRPC request: userId={}, items={}",
+                request.getUserId(), request.getItemsCount());
 
         try {
             validator.validateUserId(request.getUserId());
-            validator.validateOrderAmount(request.getOrderAmount());
+            if (request.getItemsCount() == 0 || request.getItemsCount() > MAX_BATCH_APPLY_ITEMS) {
+                throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_APPLY_ITEMS + " items");
+            }
 
-            CouponApplicationResult result = couponService.applyCouponAutoMultiple(
-                    request.getUserId(), 
-                    BigDecimal.valueOf(request.getOrderAmount()),
-                    parseOrderDateTime(request.getOrderDate()));
+            List<CouponService.BatchApplyItem> items = request.getItemsList().stream()
+                    .map(item -> {
+                        validator.validateCouponCode(item.getCouponCode());
+                        validator.validateOrderAmount(item.getOrderAmount());
+                        return new CouponService.BatchApplyItem(
+                                item.getItemId(),
+                                item.getCouponCode(),
+                                BigDecimal.valueOf(item.getOrderAmount()),
+                                parseOrderDateTime(item.getOrderDate()));
+                    })
+                    .toList();
 
-            CouponServiceProto.ApplyCouponAutoResponse response;
+            couponService.applyCouponsBatchAsync(request.getUserId(), items)
+                    .thenApply(results -> buildBatchApplyCouponsResponse(items, results))
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            Throwable cause = GrpcFutures.unwrap(error);
+                            log.error("Error in batchApplyCoupons gRPC call: userId={}, error={}",
+                                    request.getUserId(), cause.getMessage(), cause);
+                            response = batchApplyCouponsErrorResponse(CouponServiceProto.StatusCode.INTERNAL,
+                                    "INTERNAL_ERROR", "Internal server error: " + cause.getMessage());
+                        }
+                        responseObserver.onNext(response);
+                        responseObserver.onCompleted();
+                    });
 
-            BigDecimal orderAmount = BigDecimal.valueOf(request.getOrderAmount());
-            BigDecimal finalAmount = orderAmount.subtract(result.getDiscountAmount());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for batchApplyCoupons: userId={}, error={}", request.getUserId(), e.getMessage());
+            responseObserver.onNext(batchApplyCouponsErrorResponse(CouponServiceProto.StatusCode.INVALID_ARGUMENT,
+                    "INVALID_ARGUMENT", e.getMessage()));
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            log.error("Error in batchApplyCoupons gRPC call: userId={}, error={}", request.getUserId(), e.getMessage(), e);
+            responseObserver.onNext(batchApplyCouponsErrorResponse(CouponServiceProto.StatusCode.INTERNAL,
+                    "INTERNAL_ERROR", "Internal server error: " + e.getMessage()));
+            responseObserver.onCompleted();
+        }
+    }
+
+    private CouponServiceProto.BatchApplyCouponsResponse buildBatchApplyCouponsResponse(
+            List<CouponService.BatchApplyItem> items, List<CouponService.BatchApplyItemResult> results) {
+        CouponServiceProto.BatchApplyCouponsResponsePayload.Builder payload =
+                CouponServiceProto.BatchApplyCouponsResponsePayload.newBuilder();
+        int applied = 0;
+        for (int i = 0; i < results.size(); i++) {
+            CouponApplicationResult result = results.get(i).result();
+            CouponServiceProto.BatchApplyCouponItemResult.Builder itemResult = CouponServiceProto.BatchApplyCouponItemResult.newBuilder()
+                    .setItemId(results.get(i).itemId())
+                    .setResult(buildApplyCouponManualPayload(items.get(i).orderAmount(), result));
             if (result.isSuccess()) {
+                applied++;
+            } else if (result.getErrorCode() != null) {
+                itemResult.setErrorCode(result.getErrorCode());
+            }
+            payload.addResults(itemResult);
+        }
 
-                response = CouponServiceProto.ApplyCouponAutoResponse.newBuilder()
-                        .setStatus(CouponServiceProto.Status.newBuilder()
-                                .setCode(CouponServiceProto.StatusCode.OK)
-                                .setMessage("Best coupon applied successfully")
-                                .build())
-                        .setPayload(CouponServiceProto.ApplyCouponAutoResponsePayload.newBuilder()
-                                .setSuccess(true)
-                                .setCouponId(result.getCouponId())
-                                .setCouponCode(result.getCouponCode())
-                                .setOrderAmount(orderAmount.doubleValue())
-                                .setDiscountAmount(result.getDiscountAmount().doubleValue())
-                                .setFinalAmount(finalAmount.doubleValue())
-                                .build())
-                        .build();
+        log.info("Batch coupon application completed: items={}, applied={}", results.size(), applied);
+        return CouponServiceProto.BatchApplyCouponsResponse.newBuilder()
+                .setStatus(CouponServiceProto.Status.newBuilder()
+                        .setCode(CouponServiceProto.StatusCode.OK)
+                        .setMessage("Batch processed")
+                        .build())
+                .setPayload(payload)
+                .build();
+    }
 
-                log.info("Auto coupon applied successfully: couponId={}, discount={}", 
-                        result.getCouponId(), result.getDiscountAmount());
-            } else {
+    private CouponServiceProto.BatchApplyCouponsResponse batchApplyCouponsErrorResponse(
+            CouponServiceProto.StatusCode statusCode, String errorCode, String message) {
+        return CouponServiceProto.BatchApplyCouponsResponse.newBuilder()
+                .setStatus(CouponServiceProto.Status.newBuilder()
+                        .setCode(statusCode)
+                        .setMessage(statusCode == CouponServiceProto.StatusCode.INVALID_ARGUMENT
+                                ? "Invalid request" : "Internal server error")
+                        .build())
+                .setError(CouponServiceProto.Error.newBuilder()
+                        .setCode(errorCode)
+                        .setMessage(message)
+                        .build())
+                .build();
+    }
 
-                response = CouponServiceProto.ApplyCouponAutoResponse.newBuilder()
-                        .setStatus(CouponServiceProto.Status.newBuilder()
-                                .setCode(CouponServiceProto.StatusCode.OK)
-                                .setMessage("No applicable coupon found")
-                                .build())
-                        .setPayload(CouponServiceProto.ApplyCouponAutoResponsePayload.newBuilder()
-                                .setSuccess(false)
-                                .setOrderAmount(orderAmount.doubleValue())
-                                .setDiscountAmount(0)
-                                .setFinalAmount(finalAmount.doubleValue())
-                                .build())
-                        .build();
+    private CouponServiceProto.ApplyCouponManualResponse applyCouponManualErrorResponse(Throwable e) {
+        return CouponServiceProto.ApplyCouponManualResponse.newBuilder()
+                .setStatus(CouponServiceProto.Status.newBuilder()
+                        .setCode(CouponServiceProto.StatusCode.INTERNAL)
+                        .setMessage("Internal server error")
+                        .build())
+                .setError(CouponServiceProto.Error.newBuilder()
+                        .setCode("INTERNAL_ERROR")
+                        .setMessage("Internal server error: " + e.getMessage())
+                        .build())
+                .build();
+    }
 
-                log.info("Auto coupon application failed: {}", result.getErrorMessage());
-            }
+    @Override
+    @RequireAuth("USE_COUPON")
+    @PerformanceMonitor
+    public void applyCouponAuto(CouponServiceProto.ApplyCouponAutoRequest request,
+                              StreamObserver<CouponServiceProto.ApplyCouponAutoResponse> responseObserver) {
+        
+        log.info("Received applyCouponAuto gRPC request: userId={}, orderAmount={}", 
+                request.getUserId(), request.getOrderAmount());
 
-            responseObserver.onNext(response);
-            responseObserver.onCompleted();
+        try {
+            validator.validateUserId(request.getUserId());
+            validator.validateOrderAmount(request.getOrderAmount());
+
+            couponService.applyCouponAutoAsync(
+                            request.getUserId(),
+                            BigDecimal.valueOf(request.getOrderAmount()),
+                            parseOrderDateTime(request.getOrderDate()))
+                    .thenApply(result -> buildApplyCouponAutoResponse(request, result))
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            Throwable cause = GrpcFutures.unwrap(error);
+                            log.error("Error in applyCouponAuto gRPC call: userId={}, error={}",
+                                    request.getUserId(), cause.getMessage(), cause);
+                            response = applyCouponAutoErrorResponse(cause);
+                        }
+                        responseObserver.onNext(response);
+                        responseObserver.onCompleted();
+                    });
 
         } catch (Exception e) {
             log.error("Error in applyCouponAuto gRPC call: userId={}, error={}", 
                      request.getUserId(), e.getMessage(), e);
 
-            CouponServiceProto.ApplyCouponAutoResponse errorResponse = CouponServiceProto.ApplyCouponAutoResponse.newBuilder()
+            responseObserver.onNext(applyCouponAutoErrorResponse(e));
+            responseObserver.onCompleted();
+        }
+    }
+
+    private CouponServiceProto.ApplyCouponAutoResponse buildApplyCouponAutoResponse(
+            CouponServiceProto.ApplyCouponAutoRequest request, CouponApplicationResult result) {
+        BigDecimal orderAmount = BigDecimal.valueOf(request.getOrderAmount());
+        BigDecimal finalAmount = orderAmount.subtract(result.getDiscountAmount());
+        if (result.isSuccess()) {
+            log.info("Auto coupon applied successfully: couponId={}, discount={}", 
+                    result.getCouponId(), result.getDiscountAmount());
+
+            return CouponServiceProto.ApplyCouponAutoResponse.newBuilder()
                     .setStatus(CouponServiceProto.Status.newBuilder()
-                            .setCode(CouponServiceProto.StatusCode.INTERNAL)
-                            .setMessage("Internal server error")
+                            .setCode(CouponServiceProto.StatusCode.OK)
+                            .setMessage("Best coupon applied successfully")
                             .build())
-                    .setError(CouponServiceProto.Error.newBuilder()
-                            .setCode("INTERNAL_ERROR")
-                            .setMessage("Internal server error: " + e.getMessage())
+                    .setPayload(CouponServiceProto.ApplyCouponAutoResponsePayload.newBuilder()
+                            .setSuccess(true)
+                            .setCouponId(result.getCouponId())
+                            .setCouponCode(result.getCouponCode())
+                            .setOrderAmount(orderAmount.doubleValue())
+                            .setDiscountAmount(result.getDiscountAmount().doubleValue())
+                            .setFinalAmount(finalAmount.doubleValue())
                             .build())
                     .build();
-
-            responseObserver.onNext(errorResponse);
-            responseObserver.onCompleted();
         }
+
+        log.info("Auto coupon application failed: {}", result.getErrorMessage());
+        return CouponServiceProto.ApplyCouponAutoResponse.newBuilder()
+                .setStatus(CouponServiceProto.Status.newBuilder()
+                        .setCode(CouponServiceProto.StatusCode.OK)
+                        .setMessage("No applicable coupon found")
+                        .build())
+                .setPayload(CouponServiceProto.ApplyCouponAutoResponsePayload.newBuilder()
+                        .setSuccess(false)
+                        .setOrderAmount(orderAmount.doubleValue())
+                        .setDiscountAmount(0)
+                        .setFinalAmount(finalAmount.doubleValue())
+                        .build())
+                .build();
+    }
+
+    private CouponServiceProto.ApplyCouponAutoResponse applyCouponAutoErrorResponse(Throwable e) {
+        return CouponServiceProto.ApplyCouponAutoResponse.newBuilder()
+                .setStatus(CouponServiceProto.Status.newBuilder()
+                        .setCode(CouponServiceProto.StatusCode.INTERNAL)
+                        .setMessage("Internal server error")
+                        .build())
+                .setError(CouponServiceProto.Error.newBuilder()
+                        .setCode("INTERNAL_ERROR")
+                        .setMessage("Internal server error: " + e.getMessage())
+                        .build())
+                .build();
     }
 
     @Override
@@ -233,6 +368,7 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
 
             Coupon existingCoupon = couponRepository.findById(request.getCouponId())
                     .orElseThrow(() -> new IllegalArgumentException("Coupon not found"));
+            String previousCode = existingCoupon.getCode();
 
             if (!request.getEndDate().isEmpty()) {
                 existingCoupon.setExpiryDate(parseOrderDateTime(request.getEndDate()));
@@ -243,6 +379,7 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
             existingCoupon.setTitle(request.getTitle());
             existingCoupon.setIsActive(request.getIsActive());
             existingCoupon.setCollectionKeyId(request.getCollectionKeyId());
+            existingCoupon.setUpdatedAt(LocalDateTime.now());
 
             if (request.hasConfig()) {
                 Map<String, Value> configMap = request.getConfig().getConfigMap();
@@ -276,7 +413,7 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
             Coupon updatedCoupon = couponRepository.save(existingCoupon);
             log.info("Coupon updated in database successfully: couponId={}", request.getCouponId());
 
-            updateCacheAfterTransaction(updatedCoupon, request.getCouponId());
+            updateCacheAfterTransaction(updatedCoupon, previousCode, request.getCouponId());
 
             CouponServiceProto.UpdateCouponResponsePayload payload = buildCouponPayload(updatedCoupon);
 
@@ -329,17 +466,229 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
         }
     }
 
-    private void updateCacheAfterTransaction(Coupon updatedCoupon, long couponId) {
+    /**
+     * Refreshes the caches and notifies peers once the coupon transaction has committed, so
+     * nobody reloads the row before the change is visible or caches a change that rolls back.
+     */
+    private void updateCacheAfterTransaction(Coupon updatedCoupon, String previousCode, long couponId) {
+        CouponDetail couponDetail;
         try {
-            CouponDetail couponDetail = CouponDetail.fromCoupon(updatedCoupon);
-            updateCouponDetailCaches(couponDetail);
-            couponCacheService.cacheCouponCodeMapping(couponDetail.getCouponCode(), couponDetail.getCouponId());
+            couponDetail = CouponDetail.fromCoupon(updatedCoupon);
+        } catch (Exception cacheException) {
+            log.warn("Failed to update cache for coupon {}: {}", couponId, cacheException.getMessage());
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshCaches(couponDetail, previousCode, couponId);
+                }
+            });
+        } else {
+            refreshCaches(couponDetail, previousCode, couponId);
+        }
+    }
+
+    private void refreshCaches(CouponDetail couponDetail, String previousCode, long couponId) {
+        try {
+            couponCacheService.onCouponChanged(couponDetail, previousCode);
             log.info("Cache updated successfully for coupon: couponId={}", couponId);
         } catch (Exception cacheException) {
             log.warn("Failed to update cache for coupon {}: {}", couponId, cacheException.getMessage());
         }
     }
 
+    @Override
+    @RequireAuth("MANAGE_COUPON")
+    @PerformanceMonitor()
+    @Transactional(rollbackFor = IllegalArgumentException.class)
+    public void createCoupon(CouponServiceProto.CreateCouponRequest request,
+                             StreamObserver<CouponServiceProto.CreateCouponResponse> responseObserver) {
+
+        log.info("Received createCoupon gRPC request: code={}", request.getCode());
+
+        try {
+            couponValidator.validateCreateCouponRequest(request);
+
+            if (couponRepository.findByCodeIgnoreCase(request.getCode()).isPresent()) {
+                throw new IllegalArgumentException("Coupon code already exists");
+            }
+
+            Map<String, Value> configMap = request.getConfig().getConfigMap();
+            Coupon.DiscountConfig discountConfig = Coupon.DiscountConfig.builder()
+                    .type(configMap.get("type").getStringValue().toUpperCase())
+                    .value(BigDecimal.valueOf(configMap.get("value").getNumberValue()))
+                    .maxDiscount(configMap.containsKey("max_discount")
+                            ? BigDecimal.valueOf(configMap.get("max_discount").getNumberValue())
+                            : null)
+                    .build();
+
+            LocalDateTime now = LocalDateTime.now();
+            Coupon coupon = Coupon.builder()
+                    .code(request.getCode())
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .type(discountConfig.getType())
+                    .isActive(request.getIsActive())
+                    .collectionKeyId(request.getCollectionKeyId())
+                    .expiryDate(parseOrderDateTime(request.getEndDate()))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            coupon.setDiscountConfig(discountConfig);
+
+            Coupon savedCoupon = couponRepository.save(coupon);
+            log.info("Coupon created in database successfully: couponId={}, code={}", savedCoupon.getId(), savedCoupon.getCode());
+
+            updateCacheAfterTransaction(savedCoupon, null, savedCoupon.getId());
+
+            CouponServiceProto.CreateCouponResponse response = CouponServiceProto.CreateCouponResponse.newBuilder()
+                    .setStatus(CouponServiceProto.Status.newBuilder()
+                            .setCode(CouponServiceProto.StatusCode.OK)
+                            .setMessage("Coupon created successfully")
+                            .build())
+                    .setPayload(buildCreateCouponPayload(savedCoupon))
+                    .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for createCoupon: code={}, error={}", request.getCode(), e.getMessage());
+
+            CouponServiceProto.CreateCouponResponse errorResponse = CouponServiceProto.CreateCouponResponse.newBuilder()
+                    .setStatus(CouponServiceProto.Status.newBuilder()
+                            .setCode(CouponServiceProto.StatusCode.INVALID_ARGUMENT)
+                            .setMessage("Invalid request")
+                            .build())
+                    .setError(CouponServiceProto.Error.newBuilder()
+                            .setCode("INVALID_ARGUMENT")
+                            .setMessage(e.getMessage())
+                            .build())
+                    .build();
+
+            responseObserver.onNext(errorResponse);
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            log.error("Error in createCoupon gRPC call: code={}, error={}", request.getCode(), e.getMessage(), e);
+
+            CouponServiceProto.CreateCouponResponse errorResponse = CouponServiceProto.CreateCouponResponse.newBuilder()
+                    .setStatus(CouponServiceProto.Status.newBuilder()
+                            .setCode(CouponServiceProto.StatusCode.INTERNAL)
+                            .setMessage("Internal server error")
+                            .build())
+                    .setError(CouponServiceProto.Error.newBuilder()
+                            .setCode("INTERNAL_ERROR")
+                            .setMessage("Internal server error: " + e.getMessage())
+                            .build())
+                    .build();
+
+            responseObserver.onNext(errorResponse);
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Override
+    @RequireAuth("MANAGE_COUPON")
+    @PerformanceMonitor()
+    public StreamObserver<CouponServiceProto.IssueCouponsRequest> issueCoupons(
+            StreamObserver<CouponServiceProto.IssueCouponsResponse> responseObserver) {
+        return new StreamObserver<>() {
+            private CouponIssuanceService.Issuance issuance;
+            private boolean finished;
+
+            @Override
+            public void onNext(CouponServiceProto.IssueCouponsRequest request) {
+                if (finished) {
+                    return;
+                }
+                try {
+                    if (issuance == null) {
+                        log.info("Received issueCoupons gRPC request: couponId={}", request.getCouponId());
+                        issuance = couponIssuanceService.open(request.getCouponId());
+                    } else if (request.getCouponId() != issuance.couponId()) {
+                        throw new IllegalArgumentException("All messages must name coupon " + issuance.couponId());
+                    }
+                    issuance.add(request.getUserIdsList());
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid request for issueCoupons: couponId={}, error={}", request.getCouponId(), e.getMessage());
+                    fail(CouponServiceProto.StatusCode.INVALID_ARGUMENT, "Invalid request", "INVALID_ARGUMENT", e.getMessage());
+                } catch (Exception e) {
+                    log.error("Error in issueCoupons gRPC call: couponId={}, error={}", request.getCouponId(), e.getMessage(), e);
+                    fail(CouponServiceProto.StatusCode.INTERNAL, "Internal server error", "INTERNAL_ERROR",
+                            "Internal server error: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                finished = true;
+                log.warn("issueCoupons stream aborted by client: issued={}, error={}",
+                        issuance != null ? issuance.result().issued() : 0, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (finished) {
+                    return;
+                }
+                if (issuance == null) {
+                    fail(CouponServiceProto.StatusCode.INVALID_ARGUMENT, "Invalid request", "INVALID_ARGUMENT",
+                            "No recipients received");
+                    return;
+                }
+                try {
+                    CouponIssuanceService.IssuanceResult result = issuance.finish();
+                    finished = true;
+                    responseObserver.onNext(CouponServiceProto.IssueCouponsResponse.newBuilder()
+                            .setStatus(CouponServiceProto.Status.newBuilder()
+                                    .setCode(CouponServiceProto.StatusCode.OK)
+                                    .setMessage("Coupons issued successfully")
+                                    .build())
+                            .setPayload(CouponServiceProto.IssueCouponsResponsePayload.newBuilder()
+                                    .setCouponId(result.couponId())
+                                    .setReceivedCount(result.received())
+                                    .setIssuedCount(result.issued())
+                                    .setSkippedCount(result.skipped())
+                                    .setWalletsUpdatedCount(result.walletsUpdated())
+                                    .setDurationMs(result.durationMs())
+                                    .setRowsPerSecond(result.rowsPerSecond())
+                                    .build())
+                            .build());
+                    responseObserver.onCompleted();
+                } catch (Exception e) {
+                    log.error("Error in issueCoupons gRPC call: couponId={}, error={}", issuance.couponId(), e.getMessage(), e);
+                    fail(CouponServiceProto.StatusCode.INTERNAL, "Internal server error", "INTERNAL_ERROR",
+                            "Internal server error: " + e.getMessage());
+                }
+            }
+
+            /**
+             * Answers early; chunks already written stay, and replaying the call skips them.
+             */
+            private void fail(CouponServiceProto.StatusCode statusCode, String statusMessage,
+                              String errorCode, String errorMessage) {
+                finished = true;
+                CouponServiceProto.Error.Builder error = CouponServiceProto.Error.newBuilder()
+                        .setCode(errorCode)
+                        .setMessage(errorMessage);
+                if (issuance != null) {
+                    error.putDetails("issued_count", String.valueOf(issuance.result().issued()));
+                }
+                responseObserver.onNext(CouponServiceProto.IssueCouponsResponse.newBuilder()
+                        .setStatus(CouponServiceProto.Status.newBuilder()
+                                .setCode(statusCode)
+                                .setMessage(statusMessage)
+                                .build())
+                        .setError(error.build())
+                        .build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
     @Override
     @RequireAuth("MANAGE_COUPON")
     @PerformanceMonitor()
@@ -353,18 +702,27 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
             int page = Math.max(0, request.getPage());
             int size = Math.min(Math.max(1, request.getSize()), 100);
 
-            CouponService.CouponsListResult result = couponService.listCoupons(page, size);
-
-            List<CouponServiceProto.CouponSummary> couponSummaries = result.couponDetails().parallelStream()
-                    .map(this::buildCouponSummaryFromDetail)
-                    .toList();
-
-            CouponServiceProto.ListCouponsResponsePayload payload = CouponServiceProto.ListCouponsResponsePayload.newBuilder()
-                    .addAllCoupons(couponSummaries)
-                    .setTotalCount(result.totalCount())
-                    .setPage(result.page())
-                    .setSize(result.size())
-                    .build();
+            CouponServiceProto.ListCouponsResponsePayload payload;
+            if (request.hasPageToken()) {
+                CouponService.CouponsPage result = couponService.listCouponsPage(request.getPageToken(), size);
+                payload = CouponServiceProto.ListCouponsResponsePayload.newBuilder()
+                        .addAllCoupons(result.couponDetails().stream()
+                                .map(this::buildCouponSummaryFromDetail)
+                                .toList())
+                        .setSize(result.size())
+                        .setNextPageToken(result.nextPageToken())
+                        .build();
+            } else {
+                CouponService.CouponsListResult result = couponService.listCoupons(page, size);
+                payload = CouponServiceProto.ListCouponsResponsePayload.newBuilder()
+                        .addAllCoupons(result.couponDetails().parallelStream()
+                                .map(this::buildCouponSummaryFromDetail)
+                                .toList())
+                        .setTotalCount(result.totalCount())
+                        .setPage(result.page())
+                        .setSize(result.size())
+                        .build();
+            }
 
             CouponServiceProto.ListCouponsResponse response = CouponServiceProto.ListCouponsResponse.newBuilder()
                     .setStatus(CouponServiceProto.Status.newBuilder()
@@ -375,11 +733,28 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
                     .build();
 
             log.info("Coupons listed successfully: totalCount={}, page={}, size={}, returnedCount={}",
-                    result.totalCount(), page, size, couponSummaries.size());
+                    payload.getTotalCount(), page, size, payload.getCouponsCount());
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for listCoupons: error={}", e.getMessage());
+
+            CouponServiceProto.ListCouponsResponse errorResponse = CouponServiceProto.ListCouponsResponse.newBuilder()
+                    .setStatus(CouponServiceProto.Status.newBuilder()
+                            .setCode(CouponServiceProto.StatusCode.INVALID_ARGUMENT)
+                            .setMessage("Invalid request")
+                            .build())
+                    .setError(CouponServiceProto.Error.newBuilder()
+                            .setCode("INVALID_ARGUMENT")
+                            .setMessage(e.getMessage())
+                            .build())
+                    .build();
+
+            responseObserver.onNext(errorResponse);
+            responseObserver.onCompleted();
+
         } catch (Exception e) {
             log.error("Error in listCoupons gRPC call: error={}", e.getMessage(), e);
 
@@ -413,21 +788,23 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
             int page = Math.max(0, request.getPage());
             int size = Math.min(Math.max(1, request.getSize()), 100);
 
-            CouponService.UserCouponsResult result = couponService.getUserCouponsWithPagination(userId, page, size);
-
-            List<CouponServiceProto.UserCouponSummary> userCouponSummaries = result.userCouponClaimInfos().parallelStream()
-                    .filter(claimInfo -> result.couponDetailMap().containsKey(claimInfo.getCouponId()))
-                    .map(claimInfo -> buildUserCouponSummary(
-                            result.couponDetailMap().get(claimInfo.getCouponId()),
-                            claimInfo))
-                    .toList();
-
-            CouponServiceProto.GetUserCouponsResponsePayload payload = CouponServiceProto.GetUserCouponsResponsePayload.newBuilder()
-                    .addAllUserCoupons(userCouponSummaries)
-                    .setTotalCount(result.totalCount())
-                    .setPage(result.page())
-                    .setSize(result.size())
-                    .build();
+            CouponServiceProto.GetUserCouponsResponsePayload payload;
+            if (request.hasPageToken()) {
+                CouponService.UserCouponsPage result = couponService.getUserCouponsPage(userId, request.getPageToken(), size);
+                payload = CouponServiceProto.GetUserCouponsResponsePayload.newBuilder()
+                        .addAllUserCoupons(buildUserCouponSummaries(result.userCouponClaimInfos(), result.couponDetailMap()))
+                        .setSize(result.size())
+                        .setNextPageToken(result.nextPageToken())
+                        .build();
+            } else {
+                CouponService.UserCouponsResult result = couponService.getUserCouponsWithPagination(userId, page, size);
+                payload = CouponServiceProto.GetUserCouponsResponsePayload.newBuilder()
+                        .addAllUserCoupons(buildUserCouponSummaries(result.userCouponClaimInfos(), result.couponDetailMap()))
+                        .setTotalCount(result.totalCount())
+                        .setPage(result.page())
+                        .setSize(result.size())
+                        .build();
+            }
 
             CouponServiceProto.GetUserCouponsResponse response = CouponServiceProto.GetUserCouponsResponse.newBuilder()
                     .setStatus(CouponServiceProto.Status.newBuilder()
@@ -438,11 +815,28 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
                     .build();
 
             log.info("User coupons response built successfully: userId={}, totalCount={}, returnedCount={}",
-                    userId, result.totalCount(), userCouponSummaries.size());
+                    userId, payload.getTotalCount(), payload.getUserCouponsCount());
 
             responseObserver.onNext(response);
             responseObserver.onCompleted();
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid request for getUserCoupons: userId={}, error={}", request.getUserId(), e.getMessage());
+
+            CouponServiceProto.GetUserCouponsResponse errorResponse = CouponServiceProto.GetUserCouponsResponse.newBuilder()
+                    .setStatus(CouponServiceProto.Status.newBuilder()
+                            .setCode(CouponServiceProto.StatusCode.INVALID_ARGUMENT)
+                            .setMessage("Invalid request")
+                            .build())
+                    .setError(CouponServiceProto.Error.newBuilder()
+                            .setCode("INVALID_ARGUMENT")
+                            .setMessage(e.getMessage())
+                            .build())
+                    .build();
+
+            responseObserver.onNext(errorResponse);
+            responseObserver.onCompleted();
+
         } catch (Exception e) {
             log.error("Error in getUserCoupons gRPC call: userId={}, error={}", request.getUserId(), e.getMessage(), e);
 
@@ -462,6 +856,91 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
         }
     }
 
+    /**
+     * Streams the user's coupons one chunk at a time. A chunk is only read once the transport
+     * can take it, so a slow client holds back the reads instead of piling messages up in memory.
+     */
+    @Override
+    @RequireAuth("USE_COUPON")
+    @PerformanceMonitor()
+    public void streamUserCoupons(CouponServiceProto.StreamUserCouponsRequest request,
+                                  StreamObserver<CouponServiceProto.StreamUserCouponsResponse> responseObserver) {
+
+        log.info("Received streamUserCoupons gRPC request: userId={}, chunkSize={}",
+                request.getUserId(), request.getChunkSize());
+
+        int chunkSize = request.getChunkSize() > 0
+                ? Math.min(request.getChunkSize(), MAX_STREAM_CHUNK_SIZE)
+                : DEFAULT_STREAM_CHUNK_SIZE;
+
+        var call = (ServerCallStreamObserver<CouponServiceProto.StreamUserCouponsResponse>) responseObserver;
+        UserCouponStreamWriter writer = new UserCouponStreamWriter(call, request.getUserId(), chunkSize);
+        call.setOnCancelHandler(writer::cancel);
+        call.setOnReadyHandler(writer::drain);
+    }
+
+    /**
+     * gRPC runs the ready and cancel callbacks of a call one at a time, so the writer state
+     * needs no locking.
+     */
+    private final class UserCouponStreamWriter {
+        private final ServerCallStreamObserver<CouponServiceProto.StreamUserCouponsResponse> call;
+        private final int userId;
+        private final int chunkSize;
+        private CouponService.UserCouponCursor cursor;
+        private boolean finished;
+        private int sentCount;
+
+        private UserCouponStreamWriter(ServerCallStreamObserver<CouponServiceProto.StreamUserCouponsResponse> call,
+                                       int userId, int chunkSize) {
+            this.call = call;
+            this.userId = userId;
+            this.chunkSize = chunkSize;
+        }
+
+        void drain() {
+            try {
+                if (cursor == null && !finished) {
+                    cursor = couponService.openUserCouponCursor(userId, chunkSize);
+                }
+                while (!finished && call.isReady()) {
+                    if (!cursor.hasNext()) {
+                        finished = true;
+                        call.onCompleted();
+                        log.info("User coupons streamed successfully: userId={}, returnedCount={}", userId, sentCount);
+                        return;
+                    }
+                    CouponService.UserCouponsPage page = cursor.next();
+                    if (page.userCouponClaimInfos().isEmpty()) {
+                        continue;
+                    }
+                    List<CouponServiceProto.UserCouponSummary> summaries =
+                            buildUserCouponSummaries(page.userCouponClaimInfos(), page.couponDetailMap());
+                    call.onNext(CouponServiceProto.StreamUserCouponsResponse.newBuilder()
+                            .addAllUserCoupons(summaries)
+                            .build());
+                    sentCount += summaries.size();
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid request for streamUserCoupons: userId={}, error={}", userId, e.getMessage());
+                finished = true;
+                call.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            } catch (Exception e) {
+                log.error("Error in streamUserCoupons gRPC call: userId={}, sentCount={}, error={}",
+                        userId, sentCount, e.getMessage(), e);
+                finished = true;
+                call.onError(Status.INTERNAL.withDescription("Internal server error: " + e.getMessage()).asRuntimeException());
+            }
+        }
+
+        void cancel() {
+            if (!finished) {
+                finished = true;
+                log.info("User coupon stream cancelled by client: userId={}, sentCount={}", userId, sentCount);
+            }
+        }
+    }
+
     @Override
     @RequireAuth("USE_COUPON")
     @PerformanceMonitor()
@@ -498,23 +977,10 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
                         .build();
                 responseObserver.onNext(response);
                 responseObserver.onCompleted();
+                return;
             }
 
-            couponUser.setStatus(CouponUser.CouponUserStatus.CLAIMED);
-            couponUser.setUsedAt(null);
-            couponUser.setUpdatedAt(java.time.LocalDateTime.now());
-            couponUserRepository.save(couponUser);
-
-            var userCouponIdsOpt = couponCacheService.getCachedUserCouponIds(request.getUserId());
-            UserCouponIds userCouponIds = userCouponIdsOpt.orElseGet(() -> UserCouponIds.of(new HashMap<>()));
-            UserCouponClaimInfo claimInfo = UserCouponClaimInfo.builder()
-                    .userId(couponUser.getUserId())
-                    .couponId(couponUser.getCouponId())
-                    .claimedDate(couponUser.getClaimedAt())
-                    .expiryDate(couponUser.getExpiryDate())
-                    .build();
-            userCouponIds.getUserCouponInfo().put(couponUser.getCouponId(), claimInfo);
-            couponCacheService.cacheUserCouponIds(request.getUserId(), userCouponIds);
+            couponService.restoreCouponUser(couponUser);
 
             var response = CouponServiceProto.RollbackCouponUsageResponse.newBuilder()
                     .setStatus(CouponServiceProto.Status.newBuilder()
@@ -543,6 +1009,40 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
     }
 
     private CouponServiceProto.UpdateCouponResponsePayload buildCouponPayload(Coupon coupon) {
+        return CouponServiceProto.UpdateCouponResponsePayload.newBuilder()
+                .setCouponId(coupon.getId())
+                .setCode(coupon.getCode())
+                .setTitle(coupon.getTitle() != null ? coupon.getTitle() : "")
+                .setDescription(coupon.getDescription() != null ? coupon.getDescription() : "")
+                .setType(coupon.getDiscountType())
+                .setConfig(buildDiscountConfig(coupon))
+                .setCollectionKeyId(coupon.getCollectionKeyId())
+                .setIsActive(coupon.getIsActive())
+                .setStartDate(coupon.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .setEndDate(coupon.getExpiryDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .setCreatedAt(coupon.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .setUpdatedAt(coupon.getUpdatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .build();
+    }
+
+    private CouponServiceProto.CreateCouponResponsePayload buildCreateCouponPayload(Coupon coupon) {
+        return CouponServiceProto.CreateCouponResponsePayload.newBuilder()
+                .setCouponId(coupon.getId())
+                .setCode(coupon.getCode())
+                .setTitle(coupon.getTitle() != null ? coupon.getTitle() : "")
+                .setDescription(coupon.getDescription() != null ? coupon.getDescription() : "")
+                .setType(coupon.getDiscountType())
+                .setConfig(buildDiscountConfig(coupon))
+                .setCollectionKeyId(coupon.getCollectionKeyId())
+                .setIsActive(coupon.getIsActive())
+                .setStartDate(coupon.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .setEndDate(coupon.getExpiryDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .setCreatedAt(coupon.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .setUpdatedAt(coupon.getUpdatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .build();
+    }
+
+    private CouponServiceProto.DiscountConfig buildDiscountConfig(Coupon coupon) {
         CouponServiceProto.DiscountConfig.Builder discountConfigBuilder =
                 CouponServiceProto.DiscountConfig.newBuilder();
 
@@ -564,20 +1064,7 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
             }
         }
 
-        return CouponServiceProto.UpdateCouponResponsePayload.newBuilder()
-                .setCouponId(coupon.getId())
-                .setCode(coupon.getCode())
-                .setTitle(coupon.getTitle() != null ? coupon.getTitle() : "")
-                .setDescription(coupon.getDescription() != null ? coupon.getDescription() : "")
-                .setType(coupon.getDiscountType())
-                .setConfig(discountConfigBuilder.build())
-                .setCollectionKeyId(coupon.getCollectionKeyId())
-                .setIsActive(coupon.getIsActive())
-                .setStartDate(coupon.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .setEndDate(coupon.getExpiryDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .setCreatedAt(coupon.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .setUpdatedAt(coupon.getUpdatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
-                .build();
+        return discountConfigBuilder.build();
     }
 
     private CouponServiceProto.CouponSummary buildCouponSummaryFromDetail(CouponDetail couponDetail) {
@@ -623,22 +1110,17 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
                 .build();
     }
 
-    private CouponServiceProto.UserCouponSummary buildUserCouponSummary(CouponDetail couponDetail, UserCouponClaimInfo userCouponClaimInfo) {
-        double value = 0.0;
-        if (couponDetail.getDiscountConfigJson() != null && !couponDetail.getDiscountConfigJson().trim().isEmpty()) {
-            try {
-                ObjectMapper objectMapper = new ObjectMapper();
-                TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-                Map<String, Object> configMap = objectMapper.readValue(couponDetail.getDiscountConfigJson(), typeRef);
+    private List<CouponServiceProto.UserCouponSummary> buildUserCouponSummaries(
+            List<UserCouponClaimInfo> claimInfos, Map<Integer, CouponDetail> couponDetailMap) {
+        return claimInfos.stream()
+                .filter(claimInfo -> couponDetailMap.containsKey(claimInfo.getCouponId()))
+                .map(claimInfo -> buildUserCouponSummary(couponDetailMap.get(claimInfo.getCouponId()), claimInfo))
+                .toList();
+    }
 
-                Object valueObj = configMap.get("value");
-                if (valueObj instanceof Number) {
-                    value = ((Number) valueObj).doubleValue();
-                }
-            } catch (Exception e) {
-                log.warn("Failed to parse value from discount config for coupon {}: {}", couponDetail.getCouponId(), e.getMessage());
-            }
-        }
+    private CouponServiceProto.UserCouponSummary buildUserCouponSummary(CouponDetail couponDetail, UserCouponClaimInfo userCouponClaimInfo) {
+        BigDecimal discountValue = couponDetail.getDiscountCalculator().getValue();
+        double value = discountValue != null ? discountValue.doubleValue() : 0.0;
 
         return CouponServiceProto.UserCouponSummary.newBuilder()
                 .setCouponId(couponDetail.getCouponId())
@@ -653,12 +1135,4 @@ public class CouponGrpcService extends CouponServiceGrpc.CouponServiceImplBase {
                 .build();
     }
 
-    private void updateCouponDetailCaches(CouponDetail couponDetail) {
-        try {
-            couponCacheService.cacheCouponDetail(couponDetail.getCouponId(), couponDetail);
-        } catch (Exception e) {
-            log.error("Error during cache invalidation for coupon update: couponId={}, error={}",
-                    couponDetail.getCouponId(), e.getMessage(), e);
-        }
-    }
 }
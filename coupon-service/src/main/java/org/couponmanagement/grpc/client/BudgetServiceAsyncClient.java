@@ -0,0 +1,61 @@
+package org.couponmanagement.grpc.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.budget.BudgetServiceGrpc;
+import org.couponmanagement.budget.BudgetServiceProto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking budget-service client with a per-call deadline, shortened to what is left of
+ * the incoming call's deadline.
+ */
+@Component
+@Slf4j
+public class BudgetServiceAsyncClient {
+
+    private final GrpcClientFactory grpcClientFactory;
+    private final long deadlineMs;
+
+    public BudgetServiceAsyncClient(GrpcClientFactory grpcClientFactory,
+                                    @Value("${grpc.client.budget-service.deadline-ms:3000}") long deadlineMs) {
+        this.grpcClientFactory = grpcClientFactory;
+        this.deadlineMs = deadlineMs;
+    }
+
+    public CompletableFuture<BudgetServiceProto.RegisterBudgetCouponResponse> register(
+            BudgetServiceProto.RegisterBudgetCouponRequest request) {
+        return register(request, deadlineMs);
+    }
+
+    public CompletableFuture<BudgetServiceProto.RegisterBudgetCouponResponse> register(
+            BudgetServiceProto.RegisterBudgetCouponRequest request, long deadlineMs) {
+        try {
+            BudgetServiceGrpc.BudgetServiceFutureStub stub = BudgetServiceGrpc
+                    .newFutureStub(grpcClientFactory.getBudgetServiceChannel())
+                    .withDeadlineAfter(GrpcDeadlines.remainingMs(deadlineMs), TimeUnit.MILLISECONDS);
+            return GrpcFutures.toCompletableFuture(stub.register(request));
+        } catch (Exception e) {
+            log.error("Failed to start budget registration call: requestId={}, error={}",
+                    request.getRequestId(), e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<BudgetServiceProto.BatchRegisterBudgetCouponResponse> batchRegister(
+            BudgetServiceProto.BatchRegisterBudgetCouponRequest request) {
+        try {
+            BudgetServiceGrpc.BudgetServiceFutureStub stub = BudgetServiceGrpc
+                    .newFutureStub(grpcClientFactory.getBudgetServiceChannel())
+                    .withDeadlineAfter(GrpcDeadlines.remainingMs(deadlineMs), TimeUnit.MILLISECONDS);
+            return GrpcFutures.toCompletableFuture(stub.batchRegister(request));
+        } catch (Exception e) {
+            log.error("Failed to start batch budget registration call: size={}, error={}",
+                    request.getRegistrationsCount(), e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
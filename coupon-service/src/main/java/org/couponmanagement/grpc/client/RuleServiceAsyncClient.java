@@ -0,0 +1,70 @@
+package org.couponmanagement.grpc.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.rule.RuleServiceGrpc;
+import org.couponmanagement.rule.RuleServiceProto;
+import org.couponmanagement.rule.bounds.RuleBoundsServiceGrpc;
+import org.couponmanagement.rule.bounds.RuleBoundsServiceProto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking rule-service client. Each call gets its own deadline so a slow rule
+ * evaluation fails the future instead of holding a caller thread; it is shortened to what is
+ * left of the incoming call's deadline.
+ */
+@Component
+@Slf4j
+public class RuleServiceAsyncClient {
+
+    private final GrpcClientFactory grpcClientFactory;
+    private final long deadlineMs;
+
+    public RuleServiceAsyncClient(GrpcClientFactory grpcClientFactory,
+                                  @Value("${grpc.client.rule-service.deadline-ms:2000}") long deadlineMs) {
+        this.grpcClientFactory = grpcClientFactory;
+        this.deadlineMs = deadlineMs;
+    }
+
+    public CompletableFuture<RuleServiceProto.EvaluateRuleResponse> evaluateRuleCollections(
+            RuleServiceProto.EvaluateRuleRequest request) {
+        return evaluateRuleCollections(request, deadlineMs);
+    }
+
+    /**
+     * Evaluation is idempotent and read-only, so a slow attempt is hedged with a second one;
+     * see {@link GrpcHedgingPolicy}.
+     */
+    public CompletableFuture<RuleServiceProto.EvaluateRuleResponse> evaluateRuleCollections(
+            RuleServiceProto.EvaluateRuleRequest request, long deadlineMs) {
+        return grpcClientFactory.getRuleServiceHedgingPolicy().call(GrpcDeadlines.remainingMs(deadlineMs), (channel, attemptDeadlineMs) -> {
+            try {
+                RuleServiceGrpc.RuleServiceFutureStub stub = RuleServiceGrpc
+                        .newFutureStub(channel)
+                        .withDeadlineAfter(attemptDeadlineMs, TimeUnit.MILLISECONDS);
+                return GrpcFutures.toCompletableFuture(stub.evaluateRuleCollections(request));
+            } catch (Exception e) {
+                log.error("Failed to start rule evaluation call: requestId={}, error={}",
+                        request.getRequestId(), e.getMessage(), e);
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+    }
+
+    public CompletableFuture<RuleBoundsServiceProto.GetCollectionBoundsResponse> getCollectionBounds(
+            RuleBoundsServiceProto.GetCollectionBoundsRequest request) {
+        try {
+            RuleBoundsServiceGrpc.RuleBoundsServiceFutureStub stub = RuleBoundsServiceGrpc
+                    .newFutureStub(grpcClientFactory.getRuleServiceChannel())
+                    .withDeadlineAfter(GrpcDeadlines.remainingMs(deadlineMs), TimeUnit.MILLISECONDS);
+            return GrpcFutures.toCompletableFuture(stub.getCollectionBounds(request));
+        } catch (Exception e) {
+            log.error("Failed to start collection bounds call: requestId={}, error={}",
+                    request.getRequestId(), e.getMessage(), e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.rule.engine.CollectionOutcome;
+import org.couponmanagement.rule.engine.RuleDefinition;
+import org.couponmanagement.rule.engine.RuleInput;
+import org.couponmanagement.rule.engine.RuleSnapshot;
+import org.couponmanagement.rule.engine.RuleSnapshotEvaluator;
+import org.couponmanagement.rule.snapshot.RuleSnapshotServiceGrpc;
+import org.couponmanagement.rule.snapshot.RuleSnapshotServiceProto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of rule-service's rules, kept current over a {@code WatchRuleSnapshots} stream, so
+ * rule collections can be evaluated in-process instead of calling {@code evaluateRuleCollections}.
+ *
+ * <p>The copy is only used while it is fresh: rule-service has sent a message within
+ * {@code rule.snapshot.max-staleness-ms} and the last heartbeat named the version held here.
+ * Otherwise, and for collections the local engine cannot evaluate exactly, callers get empty
+ * and go to rule-service. A dropped stream is reopened with exponential backoff.
+ */
+@Component
+@Slf4j
+public class RuleSnapshotReplica {
+
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final GrpcClientFactory grpcClientFactory;
+    private final RuleSnapshotEvaluator evaluator = RuleSnapshotEvaluator.withDefaultChecks();
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+    private final String subscriberId = UUID.randomUUID().toString();
+    private final Counter localEvaluations;
+    private final Counter fallbacks;
+
+    private volatile Replica replica;
+    private volatile String latestVersion;
+    private volatile long lastMessageNanos;
+    private volatile boolean stopped;
+    private volatile ClientCallStreamObserver<RuleSnapshotServiceProto.WatchRuleSnapshotsRequest> call;
+    private long backoffMs = INITIAL_BACKOFF_MS;
+    private ScheduledExecutorService reconnector;
+
+    public RuleSnapshotReplica(GrpcClientFactory grpcClientFactory,
+                               @Value("${rule.snapshot.enabled:true}") boolean enabled,
+                               @Value("${rule.snapshot.max-staleness-ms:15000}") long maxStalenessMs,
+                               MeterRegistry meterRegistry) {
+        this.grpcClientFactory = grpcClientFactory;
+        this.enabled = enabled;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+
+        this.localEvaluations = Counter.builder("rule_snapshot_evaluations_total")
+                .tag("result", "local")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("rule_snapshot_evaluations_total")
+                .tag("result", "fallback")
+                .register(meterRegistry);
+        Gauge.builder("rule_snapshot_age_seconds", this, RuleSnapshotReplica::ageSeconds)
+                .description("Seconds since the last rule snapshot message; NaN before the first")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        reconnector = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("RuleSnapshotReplica").daemon().factory());
+        reconnector.execute(this::connect);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (call != null) {
+            call.cancel("Shutting down", null);
+        }
+        if (reconnector != null) {
+            reconnector.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the outcome of every collection, or empty if the snapshot is stale or any
+     *         collection must be evaluated by rule-service
+     */
+    public Optional<Map<Integer, CollectionOutcome>> evaluate(Collection<Integer> collectionIds,
+                                                              double orderAmount, LocalDateTime orderDate) {
+        Replica current = replica;
+        if (current == null || !isFresh(current)) {
+            fallbacks.increment();
+            return Optional.empty();
+        }
+        RuleInput input = new RuleInput(orderAmount, orderDate);
+        Map<Integer, CollectionOutcome> outcomes = new HashMap<>();
+        for (Integer collectionId : collectionIds) {
+            Optional<CollectionOutcome> outcome = evaluator.evaluate(current.snapshot(), collectionId, input);
+            if (outcome.isEmpty()) {
+                fallbacks.increment();
+                return Optional.empty();
+            }
+            outcomes.put(collectionId, outcome.get());
+        }
+        localEvaluations.increment();
+        return Optional.of(outcomes);
+    }
+
+    public Optional<String> version() {
+        Replica current = replica;
+        return current != null ? Optional.of(current.version()) : Optional.empty();
+    }
+
+    private boolean isFresh(Replica current) {
+        return current.version().equals(latestVersion)
+                && System.nanoTime() - lastMessageNanos <= maxStalenessNanos;
+    }
+
+    private void connect() {
+        if (stopped) {
+            return;
+        }
+        var request = RuleSnapshotServiceProto.WatchRuleSnapshotsRequest.newBuilder()
+                .setSubscriberId(subscriberId)
+                .build();
+        try {
+            RuleSnapshotServiceGrpc.newStub(grpcClientFactory.getRuleServiceChannel())
+                    .watchRuleSnapshots(request, new ClientResponseObserver<
+                            RuleSnapshotServiceProto.WatchRuleSnapshotsRequest, RuleSnapshotServiceProto.RuleSnapshotMessage>() {
+                        @Override
+                        public void beforeStart(ClientCallStreamObserver<RuleSnapshotServiceProto.WatchRuleSnapshotsRequest> requestStream) {
+                            call = requestStream;
+                        }
+
+                        @Override
+                        public void onNext(RuleSnapshotServiceProto.RuleSnapshotMessage message) {
+                            onMessage(message);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                            log.warn("Rule snapshot stream failed: error={}", t.getMessage());
+                            scheduleReconnect();
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            log.info("Rule snapshot stream closed by rule-service");
+                            scheduleReconnect();
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Failed to open rule snapshot stream: error={}", e.getMessage());
+            scheduleReconnect();
+        }
+    }
+
+    void onMessage(RuleSnapshotServiceProto.RuleSnapshotMessage message) {
+        if (message.hasSnapshot()) {
+            RuleSnapshot snapshot = fromProto(message.getSnapshot());
+            replica = new Replica(message.getVersion(), snapshot);
+            log.info("Rule snapshot replicated: version={}, rules={}, collections={}",
+                    message.getVersion(), snapshot.rules().size(), snapshot.collections().size());
+        }
+        latestVersion = message.getVersion();
+        lastMessageNanos = System.nanoTime();
+        synchronized (this) {
+            backoffMs = INITIAL_BACKOFF_MS;
+        }
+    }
+
+    private void scheduleReconnect() {
+        if (stopped) {
+            return;
+        }
+        long delay;
+        synchronized (this) {
+            delay = backoffMs;
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        }
+        reconnector.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private double ageSeconds() {
+        return replica == null ? Double.NaN : (System.nanoTime() - lastMessageNanos) / 1e9;
+    }
+
+    static RuleSnapshot fromProto(RuleSnapshotServiceProto.RuleSnapshot proto) {
+        List<RuleDefinition> rules = new ArrayList<>(proto.getRulesCount());
+        for (RuleSnapshotServiceProto.RuleDefinition rule : proto.getRulesList()) {
+            rules.add(new RuleDefinition(rule.getRuleId(), rule.getType(),
+                    rule.hasDescription() ? rule.getDescription() : null, rule.getConfiguration()));
+        }
+        Map<Integer, List<Integer>> collections = new HashMap<>();
+        for (RuleSnapshotServiceProto.RuleCollectionDefinition collection : proto.getCollectionsList()) {
+            collections.put(collection.getRuleCollectionId(), collection.getRuleIdsList());
+        }
+        return RuleSnapshot.of(rules, collections);
+    }
+
+    private record Replica(String version, RuleSnapshot snapshot) {
+    }
+}
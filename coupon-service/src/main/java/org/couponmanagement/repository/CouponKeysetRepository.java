@@ -0,0 +1,83 @@
+package org.couponmanagement.repository;
+
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.entity.Coupon;
+import org.couponmanagement.entity.CouponUser;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Seek queries for keyset pagination: each page starts strictly after the last id of the
+ * previous one, so the cost of a page does not grow with how deep the client has paged and
+ * no count query is needed. {@code coupon_user} is read through {@code idx_user_id}, whose
+ * entries are ordered by {@code (user_id, id)}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponKeysetRepository {
+
+    private final EntityManager entityManager;
+
+    @Observed(name = "CouponKeysetRepository.findCouponsAfter")
+    @Transactional(readOnly = true)
+    public List<Coupon> findCouponsAfter(int afterCouponId, int limit) {
+        return entityManager.createQuery("""
+                        SELECT c FROM Coupon c
+                        WHERE c.id > :afterId
+                        ORDER BY c.id ASC
+                        """, Coupon.class)
+                .setParameter("afterId", afterCouponId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Observed(name = "CouponKeysetRepository.findActiveCouponUsersAfter")
+    @Transactional(readOnly = true)
+    public List<CouponUser> findActiveCouponUsersAfter(int userId, long afterCouponUserId, int limit) {
+        return entityManager.createQuery("""
+                        SELECT cu FROM CouponUser cu
+                        JOIN FETCH cu.coupon c
+                        WHERE cu.userId = :userId
+                          AND cu.id > :afterId
+                          AND cu.status = :status
+                          AND c.isActive = true
+                        ORDER BY cu.id ASC
+                        """, CouponUser.class)
+                .setParameter("userId", userId)
+                .setParameter("afterId", afterCouponUserId)
+                .setParameter("status", CouponUser.CouponUserStatus.CLAIMED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Claimed coupons of active coupons across all users, ordered by {@code (user_id, id)} so
+     * each user's rows are contiguous. Projects straight into claim infos; no entities are
+     * attached to the persistence context, so a scan of the whole table runs in constant heap.
+     */
+    @Observed(name = "CouponKeysetRepository.findWalletClaimsAfter")
+    @Transactional(readOnly = true)
+    public List<UserCouponClaimInfo> findWalletClaimsAfter(int afterUserId, long afterCouponUserId, int limit) {
+        return entityManager.createQuery("""
+                        SELECT new org.couponmanagement.dto.UserCouponClaimInfo(
+                            cu.id, cu.userId, cu.couponId, cu.claimedAt, cu.expiryDate)
+                        FROM CouponUser cu
+                        JOIN cu.coupon c
+                        WHERE (cu.userId > :afterUserId
+                               OR (cu.userId = :afterUserId AND cu.id > :afterId))
+                          AND cu.status = :status
+                          AND c.isActive = true
+                        ORDER BY cu.userId ASC, cu.id ASC
+                        """, UserCouponClaimInfo.class)
+                .setParameter("afterUserId", afterUserId)
+                .setParameter("afterId", afterCouponUserId)
+                .setParameter("status", CouponUser.CouponUserStatus.CLAIMED)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,142 @@
+package org.couponmanagement.repository;
+
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import org.couponmanagement.dto.UpdateCouponEvent;
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.entity.CouponUser;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based writes to {@code coupon_user} for bulk issuance and batched status events,
+ * bypassing per-entity persist. Issuance is idempotent through
+ * {@code uk_coupon_user_user_coupon}: a user holds a coupon at most once. The key is not
+ * created by JPA; existing databases need the migration in {@code coupon-service/db.sql}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponUserBulkRepository {
+
+    private static final String INSERT_CLAIMS = """
+            INSERT IGNORE INTO coupon_user
+                (user_id, coupon_id, claimed_at, expiry_date, status, created_at, updated_at)
+            VALUES\s""";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_STATUS = """
+            UPDATE coupon_user SET status = ?, used_at = ?, updated_at = ?, state_version = ?
+            WHERE user_id = ? AND coupon_id = ?
+              AND (state_version IS NULL OR state_version < ?)""";
+
+    private final EntityManager entityManager;
+
+    /**
+     * Claims {@code couponId} for every user with one multi-row INSERT. Users that already hold
+     * the coupon hit the unique key and are skipped. IGNORE would also turn a bad value into a
+     * warning and a skipped or defaulted row, which would then be counted as a duplicate, so the
+     * user ids, which come from the caller, are checked first; every other value is generated
+     * here or by the caller from an existing coupon.
+     *
+     * @return the number of rows inserted
+     * @throws IllegalArgumentException if a user id is missing or not positive
+     */
+    @Observed(name = "CouponUserBulkRepository.insertClaims")
+    @Transactional
+    public int insertClaims(int couponId, Collection<Integer> userIds,
+                            LocalDateTime claimedAt, LocalDateTime expiryDate) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        for (Integer userId : userIds) {
+            if (userId == null || userId <= 0) {
+                throw new IllegalArgumentException("Invalid user ID: " + userId);
+            }
+        }
+        StringBuilder sql = new StringBuilder(INSERT_CLAIMS.length() + userIds.size() * (ROW.length() + 2))
+                .append(INSERT_CLAIMS);
+        for (int i = 0; i < userIds.size(); i++) {
+            sql.append(i == 0 ? ROW : ", " + ROW);
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        String status = CouponUser.CouponUserStatus.CLAIMED.name();
+        int position = 1;
+        for (Integer userId : userIds) {
+            query.setParameter(position++, userId);
+            query.setParameter(position++, couponId);
+            query.setParameter(position++, claimedAt);
+            query.setParameter(position++, expiryDate);
+            query.setParameter(position++, status);
+            query.setParameter(position++, claimedAt);
+            query.setParameter(position++, claimedAt);
+        }
+        return query.executeUpdate();
+    }
+
+    /**
+     * Claim infos of the users among {@code userIds} that hold {@code couponId} unused.
+     */
+    @Observed(name = "CouponUserBulkRepository.findClaims")
+    @Transactional(readOnly = true)
+    public List<UserCouponClaimInfo> findClaims(int couponId, Collection<Integer> userIds) {
+        return entityManager.createQuery("""
+                        SELECT new org.couponmanagement.dto.UserCouponClaimInfo(
+                            cu.id, cu.userId, cu.couponId, cu.claimedAt, cu.expiryDate)
+                        FROM CouponUser cu
+                        WHERE cu.couponId = :couponId
+                          AND cu.userId IN :userIds
+                          AND cu.status = :status
+                        """, UserCouponClaimInfo.class)
+                .setParameter("couponId", couponId)
+                .setParameter("userIds", userIds)
+                .setParameter("status", CouponUser.CouponUserStatus.CLAIMED)
+                .getResultList();
+    }
+
+    /**
+     * Applies one status change per event as a single JDBC batch on the transaction's
+     * connection, instead of one {@code markCouponUsed} statement and transaction per event.
+     * Each write is fenced by {@link UpdateCouponEvent#fenceVersion()} the same way as
+     * {@link CouponUserStateRepository#transition}, so a late event cannot undo a newer change.
+     *
+     * @return update counts in event order, 0 for missing or stale rows; drivers that rewrite
+     *         batches may report {@link java.sql.Statement#SUCCESS_NO_INFO}
+     */
+    @Observed(name = "CouponUserBulkRepository.updateStatuses")
+    @Transactional
+    public int[] updateStatuses(List<UpdateCouponEvent> events) {
+        if (events.isEmpty()) {
+            return new int[0];
+        }
+        for (UpdateCouponEvent event : events) {
+            if (event.fenceVersion() == null) {
+                throw new IllegalArgumentException("Update coupon event has neither a state version nor updatedAt: " + event);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATUS)) {
+                for (UpdateCouponEvent event : events) {
+                    long version = event.fenceVersion();
+                    statement.setString(1, event.getNewStatus().name());
+                    statement.setObject(2, event.getUsedAt());
+                    statement.setObject(3, event.getUpdatedAt() != null ? event.getUpdatedAt() : now);
+                    statement.setLong(4, version);
+                    statement.setInt(5, event.getUserId());
+                    statement.setInt(6, event.getCouponId());
+                    statement.setLong(7, version);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package org.couponmanagement.repository;
+
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.couponmanagement.entity.CouponUser.CouponUserStatus;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status writes fenced by the version issued by {@code CouponUserStateStore}: a write only
+ * lands if the row is still in the expected status and has not seen a newer version, so a
+ * delayed or replayed transition can never overwrite a later one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CouponUserStateRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * @return 1 if the row moved to {@code target}, 0 if it was stale or not in {@code expected}
+     */
+    @Observed(name = "CouponUserStateRepository.transition")
+    @Transactional
+    public int transition(int userId, int couponId, CouponUserStatus expected, CouponUserStatus target,
+                          LocalDateTime usedAt, long version) {
+        return entityManager.createQuery("""
+                        UPDATE CouponUser cu
+                        SET cu.status = :target,
+                            cu.usedAt = :usedAt,
+                            cu.stateVersion = :version,
+                            cu.updatedAt = :updatedAt
+                        WHERE cu.userId = :userId
+                          AND cu.couponId = :couponId
+                          AND cu.status = :expected
+                          AND (cu.stateVersion IS NULL OR cu.stateVersion < :version)
+                        """)
+                .setParameter("target", target)
+                .setParameter("usedAt", usedAt)
+                .setParameter("version", version)
+                .setParameter("updatedAt", LocalDateTime.now())
+                .setParameter("userId", userId)
+                .setParameter("couponId", couponId)
+                .setParameter("expected", expected)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,27 @@
+package org.couponmanagement.service;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.coupon.auto-apply")
+@Validated
+public class AutoApplyProperties {
+
+    /**
+     * Valid coupons ranked per auto apply; when budget registration misses on one, the next is tried.
+     */
+    @Min(1)
+    private int topK = 3;
+
+    /**
+     * Registers budget for all ranked coupons at once, keeps the best that succeeded and releases
+     * the rest through {@code rollback-budget-usage}. Needs the Kafka producer; without it the
+     * ranked coupons are tried one after another.
+     */
+    private boolean speculativeReservation = false;
+}
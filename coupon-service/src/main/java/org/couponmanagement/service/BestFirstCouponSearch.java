@@ -0,0 +1,207 @@
+package org.couponmanagement.service;
+
+import org.couponmanagement.dto.CouponCandidateIndex.Candidate;
+import org.couponmanagement.dto.CouponDetail;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Finds the coupons with the largest discounts that pass their rules, walking candidates
+ * in upper-bound order. Details are loaded a window at a time and rule collections are
+ * evaluated a few coupons per call; the search stops once it has ranked {@code topK} valid
+ * coupons, each beating every unseen candidate's upper bound, or runs out of candidates.
+ * Rule calls are asynchronous, so no thread is held while a batch is out for evaluation.
+ */
+final class BestFirstCouponSearch {
+
+    static final int DETAIL_WINDOW = 8;
+    static final int RULE_BATCH = 4;
+
+    record Scored(CouponDetail couponDetail, long discountMinor) {
+    }
+
+    /**
+     * @param ranked valid coupons, largest discount first
+     */
+    record Outcome(List<Scored> ranked, boolean stale, int candidatesExamined, int ruleCalls) {
+
+        Scored best() {
+            return ranked.isEmpty() ? null : ranked.get(0);
+        }
+
+        Optional<Scored> bestCoupon() {
+            return Optional.ofNullable(best());
+        }
+    }
+
+    private BestFirstCouponSearch() {
+    }
+
+    /**
+     * Rule-service only reports failed collections, so every requested id it leaves out passed.
+     */
+    static Map<Integer, Boolean> ruleResults(List<Integer> requestedIds, Set<Integer> failedIds) {
+        Map<Integer, Boolean> results = new HashMap<>();
+        for (Integer requestedId : requestedIds) {
+            results.put(requestedId, !failedIds.contains(requestedId));
+        }
+        return results;
+    }
+
+    static CompletableFuture<Outcome> search(List<Candidate> candidates,
+                                             long orderAmountMinor,
+                                             Function<List<Integer>, Map<Integer, CouponDetail>> detailLoader,
+                                             Predicate<CouponDetail> eligible,
+                                             Function<List<Integer>, CompletableFuture<Map<Integer, Boolean>>> ruleEvaluator,
+                                             Executor executor) {
+        return search(candidates, orderAmountMinor, 1, detailLoader, eligible, ruleEvaluator, executor);
+    }
+
+    /**
+     * @param candidates     index entries, highest upper bound first
+     * @param topK           valid coupons to rank before stopping
+     * @param detailLoader   coupon id batch to details; missing ids are skipped
+     * @param eligible       active / not expired / claimed checks for the order
+     * @param ruleEvaluator  rule collection id batch to pass/fail for every requested id; an id
+     *                       left out of the result is treated as failed
+     * @param executor       runs the steps after each rule call, since detail loading may block
+     * @return up to {@code topK} valid coupons, best first, or a stale outcome when a coupon's
+     *         current upper bound exceeds the indexed one and the ordering can no longer be trusted
+     */
+    static CompletableFuture<Outcome> search(List<Candidate> candidates,
+                                             long orderAmountMinor,
+                                             int topK,
+                                             Function<List<Integer>, Map<Integer, CouponDetail>> detailLoader,
+                                             Predicate<CouponDetail> eligible,
+                                             Function<List<Integer>, CompletableFuture<Map<Integer, Boolean>>> ruleEvaluator,
+                                             Executor executor) {
+        return new Run(candidates, orderAmountMinor, topK, detailLoader, eligible, ruleEvaluator, executor).next();
+    }
+
+    /**
+     * One search; steps run one after another, never concurrently, so the state needs no locking.
+     */
+    private static final class Run {
+
+        private final List<Candidate> candidates;
+        private final long orderAmountMinor;
+        private final int topK;
+        private final Function<List<Integer>, Map<Integer, CouponDetail>> detailLoader;
+        private final Predicate<CouponDetail> eligible;
+        private final Function<List<Integer>, CompletableFuture<Map<Integer, Boolean>>> ruleEvaluator;
+        private final Executor executor;
+
+        private final PriorityQueue<Scored> pending = new PriorityQueue<>(
+                Comparator.comparingLong(Scored::discountMinor).reversed());
+        private final Map<Integer, Boolean> ruleResults = new HashMap<>();
+        private final List<Scored> ranked = new ArrayList<>();
+        private int next;
+        private int ruleCalls;
+
+        private Run(List<Candidate> candidates,
+                    long orderAmountMinor,
+                    int topK,
+                    Function<List<Integer>, Map<Integer, CouponDetail>> detailLoader,
+                    Predicate<CouponDetail> eligible,
+                    Function<List<Integer>, CompletableFuture<Map<Integer, Boolean>>> ruleEvaluator,
+                    Executor executor) {
+            this.candidates = candidates;
+            this.orderAmountMinor = orderAmountMinor;
+            this.topK = topK;
+            this.detailLoader = detailLoader;
+            this.eligible = eligible;
+            this.ruleEvaluator = ruleEvaluator;
+            this.executor = executor;
+        }
+
+        private CompletableFuture<Outcome> next() {
+            while (next < candidates.size()
+                    && (pending.isEmpty() || bound(candidates.get(next), orderAmountMinor) > pending.peek().discountMinor())) {
+                int end = Math.min(next + DETAIL_WINDOW, candidates.size());
+                List<Candidate> window = candidates.subList(next, end);
+                if (bound(window.get(0), orderAmountMinor) <= 0) {
+                    next = candidates.size();
+                    break;
+                }
+
+                Map<Integer, CouponDetail> details = detailLoader.apply(window.stream().map(Candidate::getCouponId).toList());
+                for (Candidate candidate : window) {
+                    CouponDetail couponDetail = details.get(candidate.getCouponId());
+                    if (couponDetail == null) {
+                        continue;
+                    }
+                    if (couponDetail.getDiscountCalculator().upperBoundMinor() > candidate.getUpperBoundMinor()) {
+                        return CompletableFuture.completedFuture(new Outcome(List.of(), true, end, ruleCalls));
+                    }
+                    if (!eligible.test(couponDetail)) {
+                        continue;
+                    }
+                    long discount = couponDetail.getDiscountCalculator().calculateMinor(orderAmountMinor);
+                    if (discount > 0) {
+                        pending.add(new Scored(couponDetail, discount));
+                    }
+                }
+                next = end;
+            }
+
+            if (pending.isEmpty()) {
+                return CompletableFuture.completedFuture(new Outcome(List.copyOf(ranked), false, next, ruleCalls));
+            }
+
+            // Everything popped here beats every candidate not loaded yet
+            long nextBound = next < candidates.size() ? bound(candidates.get(next), orderAmountMinor) : 0L;
+            List<Scored> batch = new ArrayList<>(RULE_BATCH);
+            while (!pending.isEmpty() && batch.size() < RULE_BATCH && pending.peek().discountMinor() >= nextBound) {
+                batch.add(pending.poll());
+            }
+
+            Set<Integer> unevaluated = new LinkedHashSet<>();
+            for (Scored scored : batch) {
+                Integer collectionId = scored.couponDetail().getCollectionKeyId();
+                if (collectionId != null && !ruleResults.containsKey(collectionId)) {
+                    unevaluated.add(collectionId);
+                }
+            }
+            if (unevaluated.isEmpty()) {
+                return pick(batch);
+            }
+
+            ruleCalls++;
+            return ruleEvaluator.apply(new ArrayList<>(unevaluated))
+                    .thenComposeAsync(results -> {
+                        ruleResults.putAll(results);
+                        unevaluated.forEach(collectionId -> ruleResults.putIfAbsent(collectionId, false));
+                        return pick(batch);
+                    }, executor);
+        }
+
+        private CompletableFuture<Outcome> pick(List<Scored> batch) {
+            for (Scored scored : batch) {
+                Integer collectionId = scored.couponDetail().getCollectionKeyId();
+                if (collectionId != null && Boolean.TRUE.equals(ruleResults.get(collectionId))) {
+                    ranked.add(scored);
+                    if (ranked.size() >= topK) {
+                        return CompletableFuture.completedFuture(new Outcome(List.copyOf(ranked), false, next, ruleCalls));
+                    }
+                }
+            }
+            return next();
+        }
+    }
+
+    private static long bound(Candidate candidate, long orderAmountMinor) {
+        return Math.min(candidate.getUpperBoundMinor(), orderAmountMinor);
+    }
+}
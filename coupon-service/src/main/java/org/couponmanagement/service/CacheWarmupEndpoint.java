@@ -0,0 +1,39 @@
+package org.couponmanagement.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@code /actuator/cachewarmup}: GET reports progress and throughput of the current or last
+ * warmup run, POST starts a full warmup in the background. Needs {@code cachewarmup} in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "cachewarmup")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmupEndpoint {
+
+    private final CacheWarmupService cacheWarmupService;
+    private final CacheWarmupProgress progress;
+
+    @ReadOperation
+    public CacheWarmupProgress.Snapshot progress() {
+        return progress.snapshot();
+    }
+
+    @WriteOperation
+    public CacheWarmupProgress.Snapshot start() {
+        if (!progress.isRunning()) {
+            log.info("Cache warm up requested through actuator");
+            CompletableFuture.runAsync(cacheWarmupService::warmupAllCache);
+        }
+        return progress.snapshot();
+    }
+}
@@ -0,0 +1,108 @@
+package org.couponmanagement.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of the current (or last) wallet warmup run, read by {@link CacheWarmupEndpoint}.
+ * Only one run at a time: {@link #tryStart} fails while another is in progress.
+ */
+@Component
+public class CacheWarmupProgress {
+
+    public enum State { IDLE, RUNNING, COMPLETED, FAILED }
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong usersRead = new AtomicLong();
+    private final AtomicLong usersWritten = new AtomicLong();
+    private final AtomicLong usersFailed = new AtomicLong();
+    private final AtomicLong chunksWritten = new AtomicLong();
+
+    private volatile State state = State.IDLE;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int lastUserId;
+    private volatile String error;
+
+    public boolean tryStart() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        rowsRead.set(0);
+        usersRead.set(0);
+        usersWritten.set(0);
+        usersFailed.set(0);
+        chunksWritten.set(0);
+        lastUserId = 0;
+        error = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+        state = State.RUNNING;
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    void recordPage(int rows, int lastUserId) {
+        rowsRead.addAndGet(rows);
+        this.lastUserId = lastUserId;
+    }
+
+    void recordUserRead() {
+        usersRead.incrementAndGet();
+    }
+
+    void recordChunk(int users, int written) {
+        usersWritten.addAndGet(written);
+        usersFailed.addAndGet(users - written);
+        chunksWritten.incrementAndGet();
+    }
+
+    void complete() {
+        finish(State.COMPLETED, null);
+    }
+
+    void fail(String error) {
+        finish(State.FAILED, error);
+    }
+
+    private void finish(State finalState, String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        state = finalState;
+        running.set(false);
+    }
+
+    public Snapshot snapshot() {
+        Instant start = startedAt;
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMs = start != null ? Duration.between(start, end).toMillis() : 0L;
+        long written = usersWritten.get();
+        double usersPerSecond = elapsedMs > 0 ? written * 1000.0 / elapsedMs : 0.0;
+        return new Snapshot(state, startedAt, finishedAt, elapsedMs, rowsRead.get(), usersRead.get(),
+                written, usersFailed.get(), chunksWritten.get(), usersPerSecond, lastUserId, error);
+    }
+
+    public record Snapshot(
+            State state,
+            Instant startedAt,
+            Instant finishedAt,
+            long elapsedMs,
+            long rowsRead,
+            long usersRead,
+            long usersWritten,
+            long usersFailed,
+            long chunksWritten,
+            double usersPerSecond,
+            int lastUserId,
+            String error) {
+    }
+}
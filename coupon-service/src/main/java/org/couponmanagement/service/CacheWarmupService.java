@@ -3,21 +3,29 @@ package org.couponmanagement.service;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.cache.CouponCacheProperties;
 import org.couponmanagement.cache.CouponCacheService;
 import org.couponmanagement.dto.CouponDetail;
 import org.couponmanagement.dto.UserCouponClaimInfo;
 import org.couponmanagement.dto.UserCouponIds;
 import org.couponmanagement.entity.Coupon;
 import org.couponmanagement.entity.CouponUser;
+import org.couponmanagement.repository.CouponKeysetRepository;
 import org.couponmanagement.repository.CouponRepository;
 import org.couponmanagement.repository.CouponUserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,14 +36,23 @@ public class CacheWarmupService {
     private final CouponCacheService couponCacheService;
     private final CouponRepository couponRepository;
     private final CouponUserRepository couponUserRepository;
+    private final CouponKeysetRepository couponKeysetRepository;
+    private final CouponCacheProperties cacheProperties;
+    private final CacheWarmupProgress progress;
 
     public CacheWarmupService(
             CouponCacheService couponCacheService,
             CouponRepository couponRepository,
-            CouponUserRepository couponUserRepository) {
+            CouponUserRepository couponUserRepository,
+            CouponKeysetRepository couponKeysetRepository,
+            CouponCacheProperties cacheProperties,
+            CacheWarmupProgress progress) {
         this.couponCacheService = couponCacheService;
         this.couponRepository = couponRepository;
         this.couponUserRepository = couponUserRepository;
+        this.couponKeysetRepository = couponKeysetRepository;
+        this.cacheProperties = cacheProperties;
+        this.progress = progress;
     }
 
     public WarmupResult warmupActiveCoupons() {
@@ -144,16 +161,126 @@ public class CacheWarmupService {
             .build();
     }
 
+    /**
+     * Rebuilds every user's wallet from one keyset scan of {@code coupon_user}, ordered by
+     * {@code (user_id, id)} so a user's rows arrive together even when they span pages. Finished
+     * wallets are grouped into chunks of {@code batchChunkSize} users and written with one
+     * pipelined round trip each by {@code warmupParallelism} workers; the scan blocks while that
+     * many chunks are in flight, so heap stays bounded by the page and chunk sizes regardless of
+     * table size. Each page is its own short read, not one transaction held open for the run.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public WarmupResult warmupUserWallets() {
+        if (!progress.tryStart()) {
+            log.warn("User wallet warm up already running, skipping");
+            return WarmupResult.builder()
+                .type("USER_WALLETS")
+                .error("Warm up already running")
+                .build();
+        }
+
+        int pageSize = cacheProperties.getWarmupPageSize();
+        int chunkSize = cacheProperties.getBatchChunkSize();
+        int parallelism = cacheProperties.getWarmupParallelism();
+        log.info("Starting warm up for user wallets: pageSize={}, chunkSize={}, parallelism={}",
+                pageSize, chunkSize, parallelism);
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("CacheWarmup-", 0).daemon().factory());
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        try {
+            Map<Integer, UserCouponIds> chunk = new LinkedHashMap<>();
+            Map<Integer, UserCouponClaimInfo> currentClaims = new HashMap<>();
+            int currentUserId = 0;
+            long afterCouponUserId = 0L;
+
+            List<UserCouponClaimInfo> page;
+            do {
+                page = couponKeysetRepository.findWalletClaimsAfter(currentUserId, afterCouponUserId, pageSize);
+                for (UserCouponClaimInfo claim : page) {
+                    if (claim.getUserId() != currentUserId && !currentClaims.isEmpty()) {
+                        chunk.put(currentUserId, UserCouponIds.of(currentClaims));
+                        progress.recordUserRead();
+                        currentClaims = new HashMap<>();
+                        if (chunk.size() >= chunkSize) {
+                            submitChunk(chunk, workers, inFlight);
+                            chunk = new LinkedHashMap<>();
+                        }
+                    }
+                    currentUserId = claim.getUserId();
+                    afterCouponUserId = claim.getCouponUserId();
+                    currentClaims.put(claim.getCouponId(), claim);
+                }
+                progress.recordPage(page.size(), currentUserId);
+            } while (page.size() == pageSize);
+
+            if (!currentClaims.isEmpty()) {
+                chunk.put(currentUserId, UserCouponIds.of(currentClaims));
+                progress.recordUserRead();
+            }
+            if (!chunk.isEmpty()) {
+                submitChunk(chunk, workers, inFlight);
+            }
+
+            workers.shutdown();
+            if (!workers.awaitTermination(10, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Timed out waiting for wallet writes");
+            }
+            progress.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.fail("Interrupted");
+        } catch (Exception e) {
+            log.error("Error during user wallet warm up", e);
+            progress.fail(e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        CacheWarmupProgress.Snapshot snapshot = progress.snapshot();
+        log.info("Completed warm up for user wallets: state={}, users={}, written={}, failed={}, rows={}, durationMs={}",
+                snapshot.state(), snapshot.usersRead(), snapshot.usersWritten(), snapshot.usersFailed(),
+                snapshot.rowsRead(), snapshot.elapsedMs());
+        return WarmupResult.builder()
+            .type("USER_WALLETS")
+            .successCount((int) snapshot.usersWritten())
+            .failureCount((int) snapshot.usersFailed())
+            .totalProcessed((int) snapshot.usersRead())
+            .error(snapshot.error())
+            .build();
+    }
+
+    private void submitChunk(Map<Integer, UserCouponIds> chunk, ExecutorService workers, Semaphore inFlight)
+            throws InterruptedException {
+        inFlight.acquire();
+        try {
+            workers.execute(() -> {
+                int written = 0;
+                try {
+                    written = couponCacheService.cacheUserWallets(chunk);
+                } catch (Exception e) {
+                    log.error("Failed to cache user wallet chunk: size={}, error={}", chunk.size(), e.getMessage());
+                } finally {
+                    progress.recordChunk(chunk.size(), written);
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, WarmupResult> warmupAllCache() {
         log.info("Starting full cache warm up");
-        List<Integer> activeUserIds = getActiveUserIds();
 
         WarmupResult activeCouponsWarmup = warmupActiveCoupons();
-        WarmupResult userCouponsWarmup = warmupUserCoupons(activeUserIds);
+        WarmupResult userWalletsWarmup = warmupUserWallets();
 
         Map<String, WarmupResult> results = new HashMap<>();
         results.put("activeCoupons", activeCouponsWarmup);
-        results.put("userCoupons", userCouponsWarmup);
+        results.put("userCoupons", userWalletsWarmup);
 
         log.info("Full cache warm up completed");
         return results;
@@ -197,13 +324,6 @@ public class CacheWarmupService {
             .build();
     }
 
-    private List<Integer> getActiveUserIds() {
-        return couponUserRepository.findAll().stream()
-            .map(CouponUser::getUserId)
-            .distinct()
-            .collect(Collectors.toList());
-    }
-
     @Getter
     public static class WarmupResult {
         // Getters
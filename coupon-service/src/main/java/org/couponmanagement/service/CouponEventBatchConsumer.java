@@ -0,0 +1,116 @@
+package org.couponmanagement.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.couponmanagement.dto.UpdateCouponEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch mode of {@link CouponEventConsumer}, on unless {@code kafka.consumer.batch-enabled=false}.
+ * A poll batch is collapsed to the latest event per (user, coupon) and applied in one
+ * transaction, then acknowledged as a whole. Events are keyed by user id, so a user's events
+ * share a partition and arrive in order; the last one wins unless its version is older.
+ *
+ * <p>Records that cannot be deserialized or lack ids, status or a version are logged and
+ * skipped. If the batch write fails, events are retried one by one so a single bad row cannot
+ * hold back the rest; only events that fail for good are dropped. A transient failure, such as
+ * a lost connection, is rethrown without acknowledging, so the container's error handler
+ * redelivers the poll and finally sends it to the dead-letter topic. Rows are fenced by
+ * version, so events already applied before the failure are harmless to apply again.
+ */
+@Slf4j
+@AllArgsConstructor
+@Service
+@ConditionalOnExpression("${kafka.producer.enabled:true} and ${kafka.consumer.batch-enabled:true}")
+public class CouponEventBatchConsumer {
+    private final UpdateCouponService updateCouponService;
+
+    @KafkaListener(topics = "update-coupon-user", groupId = "coupon-service-group",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, UpdateCouponEvent>> records, Acknowledgment acknowledgment) {
+        Map<CouponUserKey, UpdateCouponEvent> latest = new LinkedHashMap<>();
+        int skipped = 0;
+        for (ConsumerRecord<String, UpdateCouponEvent> record : records) {
+            UpdateCouponEvent event = record.value();
+            if (!isApplicable(event)) {
+                skipped++;
+                log.warn("Skipping unusable update coupon event: topic: {}, partition: {}, offset: {}, event: {}",
+                        record.topic(), record.partition(), record.offset(), event);
+                continue;
+            }
+            latest.merge(new CouponUserKey(event.getUserId(), event.getCouponId()), event,
+                    (previous, next) -> isOlder(next, previous) ? previous : next);
+        }
+
+        List<UpdateCouponEvent> events = new ArrayList<>(latest.values());
+        int applied = events.size();
+        if (!events.isEmpty()) {
+            try {
+                updateCouponService.updateCouponUsageStatuses(events);
+            } catch (Exception e) {
+                log.warn("Batch update of coupon usage failed, applying events one by one: events={}, error={}",
+                        events.size(), e.getMessage());
+                int failed = applyIndividually(events);
+                applied -= failed;
+                skipped += failed;
+            }
+        }
+
+        acknowledgment.acknowledge();
+        log.info("Processed update coupon event batch: records={}, applied={}, skipped={}",
+                records.size(), applied, skipped);
+    }
+
+    private int applyIndividually(List<UpdateCouponEvent> events) {
+        int failed = 0;
+        for (UpdateCouponEvent event : events) {
+            try {
+                updateCouponService.updateCouponUsageStatus(event);
+            } catch (RuntimeException e) {
+                if (!isPermanent(e)) {
+                    log.warn("Transient failure applying update coupon event, redelivering batch: {}, error: {}",
+                            event, e.getMessage());
+                    throw e;
+                }
+                failed++;
+                log.error("Dropping update coupon event that cannot be applied: {}, error: {}", event, e.getMessage(), e);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Failures that the same event hits again on every attempt. Connection, lock and timeout
+     * errors are transient; so is a lost database resource, even though Spring files it as
+     * non-transient.
+     */
+    static boolean isPermanent(Throwable e) {
+        if (e instanceof NonTransientDataAccessResourceException) {
+            return false;
+        }
+        return e instanceof NonTransientDataAccessException || e instanceof IllegalArgumentException;
+    }
+
+    private static boolean isApplicable(UpdateCouponEvent event) {
+        return event != null && event.getUserId() != null && event.getCouponId() != null
+                && event.getNewStatus() != null && event.fenceVersion() != null;
+    }
+
+    private static boolean isOlder(UpdateCouponEvent candidate, UpdateCouponEvent current) {
+        return candidate.fenceVersion() < current.fenceVersion();
+    }
+
+    private record CouponUserKey(int userId, int couponId) {
+    }
+}
@@ -3,7 +3,7 @@ package org.couponmanagement.service;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.couponmanagement.dto.UpdateCouponEvent;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
@@ -14,7 +14,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 @AllArgsConstructor
 @Service
-@ConditionalOnProperty(name = "kafka.producer.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnExpression("${kafka.producer.enabled:true} and !${kafka.consumer.batch-enabled:true}")
 public class CouponEventConsumer {
     private final UpdateCouponService updateCouponService;
 
@@ -20,6 +20,7 @@ public class CouponEventProducer {
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
     private static final String TOPIC = "update-coupon-user";
+    private static final String ROLLBACK_TOPIC = "rollback-budget-usage";
 
     public void sendUpdateCouponEvent(UpdateCouponEvent event) {
         try {
@@ -50,7 +51,7 @@ public class CouponEventProducer {
             String key = event.getUserId().toString();
 
             CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(TOPIC, key, event);
+                    kafkaTemplate.send(ROLLBACK_TOPIC, key, event);
 
             future.whenComplete((result, ex) -> {
                 if (ex == null) {
@@ -0,0 +1,151 @@
+package org.couponmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.cache.CouponCacheService;
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.entity.Coupon;
+import org.couponmanagement.repository.CouponRepository;
+import org.couponmanagement.repository.CouponUserBulkRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Issues one coupon to many users. Recipients are buffered and written
+ * {@value #CHUNK_SIZE} at a time with one multi-row insert; the new claims are then added to
+ * the users' cached wallets with one pipelined round trip, instead of invalidating them.
+ */
+@Service
+@Slf4j
+public class CouponIssuanceService {
+
+    static final int CHUNK_SIZE = 1_000;
+
+    private final CouponRepository couponRepository;
+    private final CouponUserBulkRepository couponUserBulkRepository;
+    private final CouponCacheService couponCacheService;
+    private final Counter issuedRows;
+    private final Counter skippedRows;
+    private final Timer chunkTimer;
+
+    public CouponIssuanceService(CouponRepository couponRepository,
+                                 CouponUserBulkRepository couponUserBulkRepository,
+                                 CouponCacheService couponCacheService,
+                                 MeterRegistry meterRegistry) {
+        this.couponRepository = couponRepository;
+        this.couponUserBulkRepository = couponUserBulkRepository;
+        this.couponCacheService = couponCacheService;
+        this.issuedRows = Counter.builder("coupon_issuance_rows_total")
+                .tag("result", "issued")
+                .register(meterRegistry);
+        this.skippedRows = Counter.builder("coupon_issuance_rows_total")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("coupon_issuance_chunk_duration")
+                .description("Time to insert one issuance chunk and update its cached wallets")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the coupon does not exist, is inactive or expired
+     */
+    public Issuance open(int couponId) {
+        Coupon coupon = couponRepository.findById(couponId)
+                .orElseThrow(() -> new IllegalArgumentException("Coupon not found: " + couponId));
+        if (!Boolean.TRUE.equals(coupon.getIsActive())) {
+            throw new IllegalArgumentException("Coupon is not active: " + couponId);
+        }
+        if (coupon.getExpiryDate() != null && coupon.getExpiryDate().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Coupon is expired: " + couponId);
+        }
+        return new Issuance(couponId, coupon.getExpiryDate());
+    }
+
+    /**
+     * One issuance call. Not thread-safe; gRPC delivers the messages of a call one at a time.
+     */
+    public final class Issuance {
+        private final int couponId;
+        private final LocalDateTime expiryDate;
+        private final long startNanos = System.nanoTime();
+        private final Set<Integer> pending = new LinkedHashSet<>();
+        private long received;
+        private long issued;
+        private long walletsUpdated;
+
+        private Issuance(int couponId, LocalDateTime expiryDate) {
+            this.couponId = couponId;
+            this.expiryDate = expiryDate;
+        }
+
+        public int couponId() {
+            return couponId;
+        }
+
+        /**
+         * @throws IllegalArgumentException on a user id that is not positive, before any of
+         *                                  {@code userIds} is queued
+         */
+        public void add(Collection<Integer> userIds) {
+            for (Integer userId : userIds) {
+                if (userId == null || userId <= 0) {
+                    throw new IllegalArgumentException("Invalid user ID: " + userId);
+                }
+            }
+            for (Integer userId : userIds) {
+                received++;
+                pending.add(userId);
+                if (pending.size() >= CHUNK_SIZE) {
+                    flush();
+                }
+            }
+        }
+
+        public IssuanceResult finish() {
+            if (!pending.isEmpty()) {
+                flush();
+            }
+            IssuanceResult result = result();
+            log.info("Coupon issuance completed: couponId={}, received={}, issued={}, skipped={}, walletsUpdated={}, durationMs={}, rowsPerSecond={}",
+                    couponId, result.received(), result.issued(), result.skipped(), result.walletsUpdated(),
+                    result.durationMs(), String.format("%.1f", result.rowsPerSecond()));
+            return result;
+        }
+
+        public IssuanceResult result() {
+            long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+            double rowsPerSecond = durationMs > 0 ? issued * 1000.0 / durationMs : issued;
+            return new IssuanceResult(couponId, received, issued, received - issued, walletsUpdated,
+                    durationMs, rowsPerSecond);
+        }
+
+        private void flush() {
+            List<Integer> chunk = new ArrayList<>(pending);
+            pending.clear();
+            chunkTimer.record(() -> {
+                int inserted = couponUserBulkRepository.insertClaims(couponId, chunk, LocalDateTime.now(), expiryDate);
+                issued += inserted;
+                issuedRows.increment(inserted);
+                skippedRows.increment(chunk.size() - inserted);
+                if (inserted > 0) {
+                    List<UserCouponClaimInfo> claims = couponUserBulkRepository.findClaims(couponId, chunk);
+                    walletsUpdated += couponCacheService.addUserCouponClaims(couponId, claims);
+                }
+            });
+            log.debug("Coupon issuance chunk written: couponId={}, size={}, issuedSoFar={}", couponId, chunk.size(), issued);
+        }
+    }
+
+    public record IssuanceResult(int couponId, long received, long issued, long skipped, long walletsUpdated,
+                                 long durationMs, double rowsPerSecond) {
+    }
+}
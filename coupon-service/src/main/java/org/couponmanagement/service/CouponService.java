@@ -1,12 +1,13 @@
 package org.couponmanagement.service;
 
-import io.grpc.Channel;
 import io.micrometer.observation.annotation.Observed;
 import lombok.extern.slf4j.Slf4j;
-import org.couponmanagement.budget.BudgetServiceGrpc;
 import org.couponmanagement.budget.BudgetServiceProto;
 import org.couponmanagement.cache.CouponCacheService;
-import org.couponmanagement.cache.RedisLockService;
+import org.couponmanagement.cache.CouponUserStateStore;
+import org.couponmanagement.cache.RuleOutcomeCache;
+import org.couponmanagement.discount.DiscountCalculator;
+import org.couponmanagement.dto.CouponCandidateIndex;
 import org.couponmanagement.dto.CouponDetail;
 import org.couponmanagement.dto.CouponErrorCode;
 import org.couponmanagement.dto.EvaluateRuleResponsePayload;
@@ -18,15 +19,22 @@ import org.couponmanagement.dto.UserCouponIds;
 import org.couponmanagement.entity.Coupon;
 import org.couponmanagement.entity.CouponUser;
 import org.couponmanagement.grpc.annotation.PerformanceMonitor;
-import org.couponmanagement.grpc.client.GrpcClientFactory;
+import org.couponmanagement.grpc.client.BudgetServiceAsyncClient;
+import org.couponmanagement.grpc.client.GrpcFutures;
+import org.couponmanagement.grpc.client.RuleServiceAsyncClient;
+import org.couponmanagement.grpc.client.RuleSnapshotReplica;
 import org.couponmanagement.grpc.validation.RequestValidator;
+import org.couponmanagement.repository.CouponKeysetRepository;
+import org.couponmanagement.repository.CouponUserStateRepository;
 import org.couponmanagement.repository.CouponRepository;
 import org.couponmanagement.repository.CouponUserRepository;
-import org.couponmanagement.rule.RuleServiceGrpc;
 import org.couponmanagement.rule.RuleServiceProto;
+import org.couponmanagement.rule.engine.CollectionOutcome;
+import org.couponmanagement.utils.PageToken;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
@@ -37,38 +45,65 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class CouponService {
 
+    /**
+     * Budget-service errors after which auto apply moves on to the next ranked coupon.
+     */
+    private static final Set<String> BUDGET_MISS_ERROR_CODES = Set.of("INSUFFICIENT_BUDGET", "ALREADY_RESERVED");
+
     private final CouponUserRepository couponUserRepository;
     private final CouponRepository couponRepository;
     private final RequestValidator validator;
     private final CouponCacheService couponCacheService;
-    private final RedisLockService redisLockService;
     private final Executor couponEvaluationExecutor;
-    private final GrpcClientFactory grpcClientFactory;
+    private final RuleServiceAsyncClient ruleServiceClient;
+    private final RuleOutcomeCache ruleOutcomeCache;
+    private final RuleSnapshotReplica ruleSnapshotReplica;
+    private final BudgetServiceAsyncClient budgetServiceClient;
+    private final CouponKeysetRepository couponKeysetRepository;
+    private final CouponUserStateStore couponUserStateStore;
+    private final CouponUserStateRepository couponUserStateRepository;
+    private final AutoApplyProperties autoApplyProperties;
+    private final ObjectProvider<CouponEventProducer> couponEventProducer;
 
     public CouponService(
             CouponUserRepository couponUserRepository,
             CouponRepository couponRepository,
             RequestValidator validator,
             CouponCacheService couponCacheService,
-            RedisLockService redisLockService,
             @Qualifier("couponEvaluationExecutor") Executor couponEvaluationExecutor,
-            GrpcClientFactory grpcClientFactory) {
+            RuleServiceAsyncClient ruleServiceClient,
+            RuleOutcomeCache ruleOutcomeCache,
+            RuleSnapshotReplica ruleSnapshotReplica,
+            BudgetServiceAsyncClient budgetServiceClient,
+            CouponKeysetRepository couponKeysetRepository,
+            CouponUserStateStore couponUserStateStore,
+            CouponUserStateRepository couponUserStateRepository,
+            AutoApplyProperties autoApplyProperties,
+            ObjectProvider<CouponEventProducer> couponEventProducer) {
         this.couponUserRepository = couponUserRepository;
         this.couponRepository = couponRepository;
         this.validator = validator;
         this.couponCacheService = couponCacheService;
-        this.redisLockService = redisLockService;
         this.couponEvaluationExecutor = couponEvaluationExecutor;
-        this.grpcClientFactory = grpcClientFactory;
+        this.ruleServiceClient = ruleServiceClient;
+        this.ruleOutcomeCache = ruleOutcomeCache;
+        this.ruleSnapshotReplica = ruleSnapshotReplica;
+        this.budgetServiceClient = budgetServiceClient;
+        this.couponKeysetRepository = couponKeysetRepository;
+        this.couponUserStateStore = couponUserStateStore;
+        this.couponUserStateRepository = couponUserStateRepository;
+        this.autoApplyProperties = autoApplyProperties;
+        this.couponEventProducer = couponEventProducer;
     }
 
     @Observed(name = "get-user-coupons", contextualName = "user-coupons-retrieval")
@@ -142,14 +177,15 @@ public class CouponService {
                 .filter(cu -> missingCouponIds.contains(cu.getCouponId()))
                 .toList();
 
+        Map<Integer, CouponDetail> loadedDetails = new HashMap<>();
         for (CouponUser couponUser : missingCouponUsers) {
             if (couponUser.getCoupon() != null) {
-                CouponDetail couponDetail =
-                        CouponDetail.fromCoupon(couponUser.getCoupon());
-                couponDetailMap.put(couponUser.getCouponId(), couponDetail);
-                couponCacheService.cacheCouponDetail(couponUser.getCouponId(), couponDetail);
+                loadedDetails.put(couponUser.getCouponId(), CouponDetail.fromCoupon(couponUser.getCoupon()));
             }
         }
+
+        couponDetailMap.putAll(loadedDetails);
+        couponCacheService.cacheCouponDetailsBatch(loadedDetails);
     }
 
     private DatabaseCouponsResult loadUserCouponsFromDatabase(Integer userId) {
@@ -179,11 +215,10 @@ public class CouponService {
         Map<Integer, CouponDetail> couponDetailMap = new HashMap<>();
         for (CouponUser couponUser : allCouponUsers) {
             if (couponUser.getCoupon() != null) {
-                CouponDetail couponDetail = CouponDetail.fromCoupon(couponUser.getCoupon());
-                couponDetailMap.put(couponUser.getCouponId(), couponDetail);
-                couponCacheService.cacheCouponDetail(couponUser.getCouponId(), couponDetail);
+                couponDetailMap.put(couponUser.getCouponId(), CouponDetail.fromCoupon(couponUser.getCoupon()));
             }
         }
+        couponCacheService.cacheCouponDetailsBatch(couponDetailMap);
 
         return new DatabaseCouponsResult(userCouponClaimInfos, couponDetailMap);
     }
@@ -209,125 +244,589 @@ public class CouponService {
     ) {
     }
 
+    /**
+     * Keyset variant of {@link #getUserCouponsWithPagination}: returns the active coupons claimed
+     * after the one {@code pageToken} points at, ordered by coupon_user id. On a cache hit only
+     * the details of the returned window are read; on a miss the database seeks on
+     * {@code (user_id, id)}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or belongs to another user
+     */
+    @Observed(name = "get-user-coupons-page", contextualName = "user-coupons-keyset-retrieval")
+    public UserCouponsPage getUserCouponsPage(Integer userId, String pageToken, int size) {
+        log.info("Getting user coupons page: userId={}, size={}", userId, size);
+
+        validator.validateUserId(userId);
+        long afterCouponUserId = PageToken.decodeUserCoupons(pageToken, userId);
+
+        try {
+            Optional<UserCouponIds> cachedUserCouponIds = couponCacheService.getCachedUserCouponIds(userId);
+
+            UserCouponsPage result = cachedUserCouponIds.isPresent()
+                    ? userCouponsPageFromCache(userId, cachedUserCouponIds.get(), afterCouponUserId, size)
+                    : userCouponsPageFromDatabase(userId, afterCouponUserId, size);
+
+            log.info("User coupons page retrieved: userId={}, size={}, returnedCount={}, hasNext={}",
+                    userId, size, result.userCouponClaimInfos().size(), !result.nextPageToken().isEmpty());
+
+            return result;
+
+        } catch (Exception e) {
+            log.error("Error getting user coupons page: userId={}, error={}", userId, e.getMessage(), e);
+            throw new RuntimeException("Failed to get user coupons: " + e.getMessage(), e);
+        }
+    }
+
+    private UserCouponsPage userCouponsPageFromCache(Integer userId, UserCouponIds userCouponIds,
+                                                     long afterCouponUserId, int size) {
+        Collection<UserCouponClaimInfo> claims = userCouponIds.getUserCouponInfo().values();
+        List<UserCouponClaimInfo> pageClaims = new ArrayList<>(size);
+        Map<Integer, CouponDetail> couponDetailMap = new HashMap<>();
+        long cursor = afterCouponUserId;
+
+        // Inactive coupons are only known once their details are read, so keep taking windows
+        // until the page is full or the claims run out.
+        while (pageClaims.size() < size) {
+            List<UserCouponClaimInfo> window = nextClaimWindow(claims, cursor, size - pageClaims.size());
+            if (window.isEmpty()) {
+                break;
+            }
+
+            List<Integer> windowCouponIds = window.stream().map(UserCouponClaimInfo::getCouponId).toList();
+            Map<Integer, CouponDetail> windowDetails =
+                    new HashMap<>(couponCacheService.getCachedCouponDetailsBatch(windowCouponIds));
+            List<Integer> missingCouponIds = windowCouponIds.stream()
+                    .filter(id -> !windowDetails.containsKey(id))
+                    .toList();
+            if (!missingCouponIds.isEmpty()) {
+                log.debug("Cache miss for some coupon details: userId={}, missingCount={}", userId, missingCouponIds.size());
+                windowDetails.putAll(loadMissingCouponDetails(missingCouponIds));
+            }
+
+            for (UserCouponClaimInfo claim : window) {
+                CouponDetail couponDetail = windowDetails.get(claim.getCouponId());
+                if (couponDetail != null && couponDetail.isActive()) {
+                    pageClaims.add(claim);
+                    couponDetailMap.put(claim.getCouponId(), couponDetail);
+                }
+            }
+            cursor = window.get(window.size() - 1).getCouponUserId();
+        }
+
+        long lastCouponUserId = cursor;
+        boolean hasNext = pageClaims.size() == size && claims.stream()
+                .anyMatch(claim -> claim.getCouponUserId() != null && claim.getCouponUserId() > lastCouponUserId);
+
+        return new UserCouponsPage(pageClaims, couponDetailMap, size,
+                hasNext ? PageToken.forUserCoupons(userId, lastCouponUserId) : "");
+    }
+
+    /**
+     * The {@code limit} claims with the smallest coupon_user ids after {@code afterCouponUserId},
+     * in id order; selects with a bounded heap instead of sorting the whole wallet.
+     */
+    static List<UserCouponClaimInfo> nextClaimWindow(Collection<UserCouponClaimInfo> claims,
+                                                     long afterCouponUserId, int limit) {
+        Comparator<UserCouponClaimInfo> byCouponUserId = Comparator.comparing(UserCouponClaimInfo::getCouponUserId);
+        PriorityQueue<UserCouponClaimInfo> smallest = new PriorityQueue<>(limit, byCouponUserId.reversed());
+
+        for (UserCouponClaimInfo claim : claims) {
+            Long couponUserId = claim.getCouponUserId();
+            if (couponUserId == null || couponUserId <= afterCouponUserId) {
+                continue;
+            }
+            if (smallest.size() < limit) {
+                smallest.add(claim);
+            } else if (couponUserId < smallest.peek().getCouponUserId()) {
+                smallest.poll();
+                smallest.add(claim);
+            }
+        }
+
+        List<UserCouponClaimInfo> window = new ArrayList<>(smallest);
+        window.sort(byCouponUserId);
+        return window;
+    }
+
+    private UserCouponsPage userCouponsPageFromDatabase(Integer userId, long afterCouponUserId, int size) {
+        List<CouponUser> couponUsers = couponKeysetRepository.findActiveCouponUsersAfter(userId, afterCouponUserId, size + 1);
+        boolean hasNext = couponUsers.size() > size;
+        List<CouponUser> pageCouponUsers = hasNext ? couponUsers.subList(0, size) : couponUsers;
+
+        List<UserCouponClaimInfo> pageClaims = new ArrayList<>(pageCouponUsers.size());
+        Map<Integer, CouponDetail> couponDetailMap = new HashMap<>();
+        for (CouponUser couponUser : pageCouponUsers) {
+            pageClaims.add(new UserCouponClaimInfo(
+                    couponUser.getId(),
+                    couponUser.getUserId(),
+                    couponUser.getCouponId(),
+                    couponUser.getCreatedAt(),
+                    couponUser.getExpiryDate()
+            ));
+            couponDetailMap.put(couponUser.getCouponId(), CouponDetail.fromCoupon(couponUser.getCoupon()));
+        }
+        couponCacheService.cacheCouponDetailsBatch(couponDetailMap);
+
+        String nextPageToken = hasNext
+                ? PageToken.forUserCoupons(userId, pageCouponUsers.get(size - 1).getId())
+                : "";
+        return new UserCouponsPage(pageClaims, couponDetailMap, size, nextPageToken);
+    }
+
+    public record UserCouponsPage(
+            List<UserCouponClaimInfo> userCouponClaimInfos,
+            Map<Integer, CouponDetail> couponDetailMap,
+            int size,
+            String nextPageToken
+    ) {
+    }
+
+    /**
+     * Opens a chunked read over the user's active coupons for streaming. The cached claim map,
+     * if any, is read once; each chunk then only loads its own coupon details, otherwise each
+     * chunk is one database seek.
+     */
+    public UserCouponCursor openUserCouponCursor(Integer userId, int chunkSize) {
+        validator.validateUserId(userId);
+        UserCouponIds cachedUserCouponIds = couponCacheService.getCachedUserCouponIds(userId).orElse(null);
+        log.debug("Opening user coupon cursor: userId={}, chunkSize={}, cached={}",
+                userId, chunkSize, cachedUserCouponIds != null);
+        return new UserCouponCursor(userId, chunkSize, cachedUserCouponIds);
+    }
+
+    public final class UserCouponCursor {
+        private final Integer userId;
+        private final int chunkSize;
+        private final UserCouponIds cachedUserCouponIds;
+        private long afterCouponUserId;
+        private boolean exhausted;
+
+        private UserCouponCursor(Integer userId, int chunkSize, UserCouponIds cachedUserCouponIds) {
+            this.userId = userId;
+            this.chunkSize = chunkSize;
+            this.cachedUserCouponIds = cachedUserCouponIds;
+        }
+
+        public boolean hasNext() {
+            return !exhausted;
+        }
+
+        public UserCouponsPage next() {
+            if (exhausted) {
+                throw new NoSuchElementException("User coupon cursor exhausted: userId=" + userId);
+            }
+            UserCouponsPage page = cachedUserCouponIds != null
+                    ? userCouponsPageFromCache(userId, cachedUserCouponIds, afterCouponUserId, chunkSize)
+                    : userCouponsPageFromDatabase(userId, afterCouponUserId, chunkSize);
+
+            if (page.nextPageToken().isEmpty()) {
+                exhausted = true;
+            } else {
+                List<UserCouponClaimInfo> claims = page.userCouponClaimInfos();
+                afterCouponUserId = claims.get(claims.size() - 1).getCouponUserId();
+            }
+            return page;
+        }
+    }
+
     @Observed(name = "apply-coupon-manual", contextualName = "manual-coupon-application")
     @PerformanceMonitor
     public CouponApplicationResult applyCouponManual(Integer userId, String couponCode, BigDecimal orderAmount,
                                                      LocalDateTime orderDate) {
+        return applyCouponManualAsync(userId, couponCode, orderAmount, orderDate).join();
+    }
+
+    /**
+     * Lookups run on the caller; the rule and budget calls are composed on their futures and
+     * only the cache invalidation and status update go back onto {@code couponEvaluationExecutor}.
+     */
+    @PerformanceMonitor
+    public CompletableFuture<CouponApplicationResult> applyCouponManualAsync(Integer userId, String couponCode,
+                                                                            BigDecimal orderAmount,
+                                                                            LocalDateTime orderDate) {
         log.info("Applying coupon manually: userId={}, couponCode={}, orderAmount={}",
                 userId, couponCode, orderAmount);
 
         try {
             Integer couponId = getCouponIdFromCacheOrDB(couponCode);
             if (couponId == null) {
-                return CouponApplicationResult.buildResult(
+                return CompletableFuture.completedFuture(CouponApplicationResult.buildResult(
                         null,
                         BigDecimal.valueOf(0),
                         "Coupon not found",
                         false,
                         CouponErrorCode.COUPON_NOT_FOUND.name()
-                );
+                ));
             }
 
             CouponUserResult couponUserResult = getCouponUserFromCacheOrDB(userId, couponId, couponCode);
             if (!couponUserResult.success()) {
-                return CouponApplicationResult.buildResult(
+                return CompletableFuture.completedFuture(CouponApplicationResult.buildResult(
                         null,
                         BigDecimal.valueOf(0),
                         couponUserResult.errorMessage(),
                         false,
                         CouponErrorCode.COUPON_NOT_FOUND.name()
-                );
+                ));
             }
 
             CouponUser couponUser = couponUserResult.couponUser();
             Coupon coupon = couponUserResult.coupon();
 
-            if (!couponUser.isUsable(orderDate)) {
-                return CouponApplicationResult.buildResult(
-                        couponUser,
-                        BigDecimal.valueOf(0),
-                        "Coupon is expired",
-                        false,
-                        CouponErrorCode.COUPON_EXPIRED.name()
-                );
-            }
-
             BigDecimal discountAmount = coupon.calculateDiscount(orderAmount);
-            if (discountAmount.compareTo(BigDecimal.ZERO) <= 0) {
-                return CouponApplicationResult.failure("No discount applicable for this order amount", CouponErrorCode.INVALID_DISCOUNT_AMOUNT.name());
+            CouponApplicationResult notApplicable = checkCouponApplicable(couponUser, coupon, discountAmount, orderDate);
+            if (notApplicable != null) {
+                return CompletableFuture.completedFuture(notApplicable);
             }
 
-            if (isCouponExpired(couponUser, coupon, orderDate)) {
-                return CouponApplicationResult.buildResult(
-                        couponUser,
-                        BigDecimal.valueOf(0),
-                        "Coupon is expired",
-                        false,
-                        CouponErrorCode.COUPON_EXPIRED.name()
-                );
-            }
+            return evaluateRulesForCouponAsync(couponUser, userId, orderAmount, orderDate)
+                    .thenCompose(ruleResult -> {
+                        if (!ruleResult.success()) {
+                            return CompletableFuture.completedFuture(CouponApplicationResult.buildResult(
+                                    couponUser,
+                                    discountAmount,
+                                    ruleResult.errorMessage(),
+                                    false,
+                                    CouponErrorCode.RULE_VIOLATION.name()
+                            ));
+                        }
 
-            RuleEvaluationResult ruleResult = evaluateRulesForCoupon(couponUser, userId, orderAmount, orderDate);
-            if (!ruleResult.success()) {
-                return CouponApplicationResult.buildResult(
-                        couponUser,
-                        discountAmount,
-                        ruleResult.errorMessage(),
-                        false,
-                        CouponErrorCode.RULE_VIOLATION.name()
-                );
-            }
+                        return registerBudgetForCouponAsync(
+                                couponUser.getId(),
+                                userId,
+                                coupon.getId(),
+                                coupon.getBudgetId(),
+                                discountAmount
+                        ).thenApplyAsync(registrationResult -> completeManualApplication(
+                                registrationResult, couponUser, coupon, userId, discountAmount), couponEvaluationExecutor);
+                    })
+                    .exceptionally(failure -> {
+                        Throwable e = GrpcFutures.unwrap(failure);
+                        log.error("Error applying coupon manually: userId={}, couponCode={}, error={}",
+                                userId, couponCode, e.getMessage(), e);
+                        return CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+                    });
 
-            BudgetRegistrationResult registrationResult = registerBudgetForCoupon(
-                    couponUser.getId(),
-                    userId,
-                    coupon.getId(),
-                    coupon.getBudgetId(),
-                    discountAmount
+        } catch (Exception e) {
+            log.error("Error applying coupon manually: userId={}, couponCode={}, error={}",
+                    userId, couponCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(
+                    CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name()));
+        }
+    }
+
+    /**
+     * @return the failure to report, or {@code null} when the coupon can be applied to the order
+     */
+    private CouponApplicationResult checkCouponApplicable(CouponUser couponUser, Coupon coupon,
+                                                          BigDecimal discountAmount, LocalDateTime orderDate) {
+        if (!couponUser.isUsable(orderDate)) {
+            return CouponApplicationResult.buildResult(
+                    couponUser,
+                    BigDecimal.valueOf(0),
+                    "Coupon is expired",
+                    false,
+                    CouponErrorCode.COUPON_EXPIRED.name()
             );
-            if (!registrationResult.isSuccess()) {
-                return CouponApplicationResult.buildResult(
-                        couponUser,
-                        discountAmount,
-                        registrationResult.message(),
-                        false,
-                        registrationResult.errorCode()
-                );
-            }
+        }
 
-            boolean successInvalidateCache = invalidateCacheCouponUser(userId, couponUser.getCouponId());
-            if (!successInvalidateCache) {
-                log.warn("Failed to invalidate user coupon cache after manual application: userId={}, couponId={}",
-                        userId, couponUser.getCouponId());
-                return CouponApplicationResult.buildResult(
-                        couponUser,
-                        discountAmount,
-                        "Failed to invalidate coupon cache",
-                        false,
-                        CouponErrorCode.INTERNAL_ERROR.name()
-                );
-            }
+        if (discountAmount.compareTo(BigDecimal.ZERO) <= 0) {
+            return CouponApplicationResult.failure("No discount applicable for this order amount", CouponErrorCode.INVALID_DISCOUNT_AMOUNT.name());
+        }
 
-            updateCoupon(couponId, userId,
-                    CouponUser.CouponUserStatus.USED, LocalDateTime.now());
+        if (isCouponExpired(couponUser, coupon, orderDate)) {
+            return CouponApplicationResult.buildResult(
+                    couponUser,
+                    BigDecimal.valueOf(0),
+                    "Coupon is expired",
+                    false,
+                    CouponErrorCode.COUPON_EXPIRED.name()
+            );
+        }
+        return null;
+    }
 
-            log.info("Manual coupon applied successfully: couponId={}, discount={}",
-                    coupon.getId(), discountAmount);
+    private CouponApplicationResult completeManualApplication(BudgetRegistrationResult registrationResult,
+                                                              CouponUser couponUser, Coupon coupon,
+                                                              Integer userId, BigDecimal discountAmount) {
+        if (!registrationResult.isSuccess()) {
             return CouponApplicationResult.buildResult(
                     couponUser,
                     discountAmount,
-                    null,
-                    true,
-                    null
+                    registrationResult.message(),
+                    false,
+                    registrationResult.errorCode()
             );
+        }
+
+        CouponUserStateStore.Transition transition = markCouponUserUsed(userId, couponUser.getCouponId(),
+                couponUser.getStatus());
+        if (!transition.applied()) {
+            log.info("Coupon already used by another request: userId={}, couponId={}, version={}",
+                    userId, couponUser.getCouponId(), transition.version());
+            return lostCouponUse(couponUser, coupon, userId, discountAmount);
+        }
+
+        if (!updateCoupon(couponUser.getCouponId(), userId,
+                CouponUser.CouponUserStatus.USED, LocalDateTime.now(), transition.version())) {
+            log.info("Coupon already used in the database: userId={}, couponId={}, version={}",
+                    userId, couponUser.getCouponId(), transition.version());
+            return lostCouponUse(couponUser, coupon, userId, discountAmount);
+        }
+
+        log.info("Manual coupon applied successfully: couponId={}, discount={}",
+                coupon.getId(), discountAmount);
+        return CouponApplicationResult.buildResult(
+                couponUser,
+                discountAmount,
+                null,
+                true,
+                null
+        );
+    }
+
+    /**
+     * The budget was registered for this request, so give it back before reporting the coupon
+     * as already used.
+     */
+    private CouponApplicationResult lostCouponUse(CouponUser couponUser, Coupon coupon,
+                                                  Integer userId, BigDecimal discountAmount) {
+        CouponEventProducer eventProducer = couponEventProducer.getIfAvailable();
+        if (eventProducer != null) {
+            releaseBudget(userId, couponUser.getCouponId(), coupon.getBudgetId(), discountAmount, eventProducer);
+        } else {
+            log.warn("No event producer to release budget of lost coupon use: userId={}, couponId={}, budgetId={}",
+                    userId, couponUser.getCouponId(), coupon.getBudgetId());
+        }
+        return CouponApplicationResult.buildResult(
+                couponUser,
+                BigDecimal.valueOf(0),
+                "Coupon is already used",
+                false,
+                CouponErrorCode.COUPON_ALREADY_USED.name()
+        );
+    }
+
+    public record BatchApplyItem(String itemId, String couponCode, BigDecimal orderAmount, LocalDateTime orderDate) {
+    }
+
+    public record BatchApplyItemResult(String itemId, CouponApplicationResult result) {
+    }
+
+    private record PendingBatchItem(int index, BatchApplyItem item, CouponUser couponUser, Coupon coupon,
+                                    BigDecimal discountAmount) {
+    }
+
+    private record OrderContext(double orderAmount, LocalDateTime orderDate) {
+    }
+
+    /**
+     * Applies one coupon per item of a multi-order checkout with a fixed number of round trips:
+     * lookups are shared by items using the same code, rule collections go out in one
+     * EvaluateRuleRequest per distinct order amount and date (all concurrently), and every
+     * budget registration goes out in one BatchRegister call. Results are in item order; a
+     * coupon can only be applied to the first item that uses it.
+     */
+    @Observed(name = "batch-apply-coupons", contextualName = "batch-coupon-application")
+    @PerformanceMonitor
+    public CompletableFuture<List<BatchApplyItemResult>> applyCouponsBatchAsync(Integer userId, List<BatchApplyItem> items) {
+        log.info("Applying coupons in batch: userId={}, items={}", userId, items.size());
+
+        try {
+            validator.validateUserId(userId);
+
+            Map<String, CouponUserResult> couponUsersByCode = lookupBatchCouponUsers(userId, items);
+            CouponApplicationResult[] results = new CouponApplicationResult[items.size()];
+            List<PendingBatchItem> pending = new ArrayList<>();
+            Set<Integer> appliedCouponIds = new HashSet<>();
+
+            for (int i = 0; i < items.size(); i++) {
+                BatchApplyItem item = items.get(i);
+                CouponUserResult couponUserResult = couponUsersByCode.get(normalizeCouponCode(item.couponCode()));
+                if (!couponUserResult.success()) {
+                    results[i] = CouponApplicationResult.buildResult(null, BigDecimal.valueOf(0),
+                            couponUserResult.errorMessage(), false, CouponErrorCode.COUPON_NOT_FOUND.name());
+                    continue;
+                }
+
+                CouponUser couponUser = couponUserResult.couponUser();
+                Coupon coupon = couponUserResult.coupon();
+                if (!appliedCouponIds.add(coupon.getId())) {
+                    results[i] = CouponApplicationResult.buildResult(couponUser, BigDecimal.valueOf(0),
+                            "Coupon is already applied to another item", false, CouponErrorCode.DUPLICATE_COUPON.name());
+                    continue;
+                }
+
+                BigDecimal discountAmount = coupon.calculateDiscount(item.orderAmount());
+                CouponApplicationResult notApplicable = checkCouponApplicable(couponUser, coupon, discountAmount, item.orderDate());
+                if (notApplicable != null) {
+                    results[i] = notApplicable;
+                    continue;
+                }
+                pending.add(new PendingBatchItem(i, item, couponUser, coupon, discountAmount));
+            }
+
+            return evaluateBatchRulesAsync(userId, pending)
+                    .thenCompose(ruleFailures -> {
+                        List<PendingBatchItem> toRegister = new ArrayList<>();
+                        for (PendingBatchItem pendingItem : pending) {
+                            String failure = ruleFailures.get(pendingItem.index());
+                            if (failure != null) {
+                                results[pendingItem.index()] = CouponApplicationResult.buildResult(
+                                        pendingItem.couponUser(), pendingItem.discountAmount(), failure, false,
+                                        CouponErrorCode.RULE_VIOLATION.name());
+                            } else {
+                                toRegister.add(pendingItem);
+                            }
+                        }
+                        return registerBatchBudgetsAsync(userId, toRegister)
+                                .thenApplyAsync(registrations -> {
+                                    for (int j = 0; j < toRegister.size(); j++) {
+                                        PendingBatchItem pendingItem = toRegister.get(j);
+                                        results[pendingItem.index()] = completeManualApplication(registrations.get(j),
+                                                pendingItem.couponUser(), pendingItem.coupon(), userId, pendingItem.discountAmount());
+                                    }
+                                    return batchResults(items, results);
+                                }, couponEvaluationExecutor);
+                    })
+                    .exceptionally(failure -> {
+                        Throwable e = GrpcFutures.unwrap(failure);
+                        log.error("Error applying coupons in batch: userId={}, error={}", userId, e.getMessage(), e);
+                        CouponApplicationResult internalError =
+                                CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+                        for (int i = 0; i < results.length; i++) {
+                            if (results[i] == null) {
+                                results[i] = internalError;
+                            }
+                        }
+                        return batchResults(items, results);
+                    });
 
         } catch (Exception e) {
-            log.error("Error applying coupon manually: userId={}, couponCode={}, error={}",
-                    userId, couponCode, e.getMessage(), e);
-            return CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+            log.error("Error applying coupons in batch: userId={}, error={}", userId, e.getMessage(), e);
+            CouponApplicationResult internalError =
+                    CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+            return CompletableFuture.completedFuture(items.stream()
+                    .map(item -> new BatchApplyItemResult(item.itemId(), internalError))
+                    .toList());
+        }
+    }
+
+    private Map<String, CouponUserResult> lookupBatchCouponUsers(Integer userId, List<BatchApplyItem> items) {
+        Optional<UserCouponIds> cachedUserCoupons = couponCacheService.getCachedUserCouponIds(userId);
+        Map<String, CouponUserResult> couponUsersByCode = new HashMap<>();
+        for (BatchApplyItem item : items) {
+            String code = normalizeCouponCode(item.couponCode());
+            if (couponUsersByCode.containsKey(code)) {
+                continue;
+            }
+            Integer couponId = getCouponIdFromCacheOrDB(item.couponCode());
+            couponUsersByCode.put(code, couponId == null
+                    ? CouponUserResult.failure("Coupon not found")
+                    : getCouponUserFromCacheOrDB(userId, couponId, item.couponCode(), cachedUserCoupons));
+        }
+        log.debug("Batch coupon lookups: userId={}, items={}, distinctCodes={}", userId, items.size(), couponUsersByCode.size());
+        return couponUsersByCode;
+    }
+
+    /**
+     * @return rule failure message by item index; items that passed or need no rules are absent
+     */
+    private CompletableFuture<Map<Integer, String>> evaluateBatchRulesAsync(Integer userId, List<PendingBatchItem> pending) {
+        Map<OrderContext, List<PendingBatchItem>> byContext = new LinkedHashMap<>();
+        for (PendingBatchItem pendingItem : pending) {
+            Integer collectionKeyId = pendingItem.coupon().getCollectionKeyId();
+            if (collectionKeyId == null || collectionKeyId == 0) {
+                continue;
+            }
+            byContext.computeIfAbsent(
+                    new OrderContext(pendingItem.item().orderAmount().doubleValue(), pendingItem.item().orderDate()),
+                    context -> new ArrayList<>()).add(pendingItem);
         }
+
+        Map<Integer, String> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        byContext.forEach((context, contextItems) -> {
+            List<Integer> ruleCollectionIds = contextItems.stream()
+                    .map(pendingItem -> pendingItem.coupon().getCollectionKeyId())
+                    .distinct()
+                    .toList();
+            calls.add(evaluateRuleAsync(ruleCollectionIds, userId, BigDecimal.valueOf(context.orderAmount()), context.orderDate())
+                    .thenAccept(payload -> {
+                        Map<Integer, String> failedCollections = payload.ruleCollectionResults().stream()
+                                .filter(result -> !result.success())
+                                .collect(Collectors.toMap(RuleCollectionResult::ruleCollectionId,
+                                        result -> result.errorMessage() != null ? result.errorMessage() : "",
+                                        (first, second) -> first + ", " + second));
+                        for (PendingBatchItem pendingItem : contextItems) {
+                            String failure = failedCollections.get(pendingItem.coupon().getCollectionKeyId());
+                            if (failure != null) {
+                                failures.put(pendingItem.index(), failure);
+                            }
+                        }
+                    }));
+        });
+
+        log.debug("Batch rule evaluation: userId={}, items={}, ruleCalls={}", userId, pending.size(), calls.size());
+        return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> failures);
+    }
+
+    /**
+     * @return one registration result per item, in order; all failed if the call itself fails
+     */
+    private CompletableFuture<List<BudgetRegistrationResult>> registerBatchBudgetsAsync(Integer userId,
+                                                                                     List<PendingBatchItem> toRegister) {
+        if (toRegister.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        var batchRequest = BudgetServiceProto.BatchRegisterBudgetCouponRequest.newBuilder();
+        for (PendingBatchItem pendingItem : toRegister) {
+            batchRequest.addRegistrations(BudgetServiceProto.RegisterBudgetCouponRequest.newBuilder()
+                    .setRequestId(UUID.randomUUID().toString())
+                    .setCouponUserId(pendingItem.couponUser().getId())
+                    .setUserId(userId)
+                    .setCouponId(pendingItem.coupon().getId())
+                    .setBudgetId(pendingItem.coupon().getBudgetId())
+                    .setDiscountAmount(pendingItem.discountAmount().doubleValue())
+                    .build());
+        }
+
+        return budgetServiceClient.batchRegister(batchRequest.build())
+                .thenApply(grpcResponse -> {
+                    List<BudgetRegistrationResult> registrations = new ArrayList<>(toRegister.size());
+                    for (int j = 0; j < toRegister.size(); j++) {
+                        PendingBatchItem pendingItem = toRegister.get(j);
+                        registrations.add(j < grpcResponse.getResultsCount()
+                                ? toBudgetRegistrationResult(grpcResponse.getResults(j), userId,
+                                        pendingItem.coupon().getId(), pendingItem.coupon().getBudgetId())
+                                : BudgetRegistrationResult.failure("Budget registration result missing",
+                                        CouponErrorCode.INTERNAL_ERROR.name()));
+                    }
+                    return registrations;
+                })
+                .exceptionally(failure -> {
+                    Throwable e = GrpcFutures.unwrap(failure);
+                    log.error("Error registering budgets in batch: userId={}, size={}, error={}",
+                            userId, toRegister.size(), e.getMessage(), e);
+                    BudgetRegistrationResult registrationError = BudgetRegistrationResult.failure(
+                            "Budget registration error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+                    return Collections.nCopies(toRegister.size(), registrationError);
+                });
     }
 
+    private static List<BatchApplyItemResult> batchResults(List<BatchApplyItem> items, CouponApplicationResult[] results) {
+        List<BatchApplyItemResult> batchResults = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            batchResults.add(new BatchApplyItemResult(items.get(i).itemId(), results[i]));
+        }
+        return batchResults;
+    }
+
+    private static String normalizeCouponCode(String couponCode) {
+        return couponCode.toUpperCase(Locale.ROOT);
+    }
 
     public CompletableFuture<Void> updateCouponAsync(Integer couponId, Integer userId,
                                                      CouponUser.CouponUserStatus newStatus,
@@ -344,13 +843,29 @@ public class CouponService {
         }, couponEvaluationExecutor);
     }
 
-    public void updateCoupon(Integer couponId, Integer userId,
+    /**
+     * Writes a transition issued by {@link CouponUserStateStore}; skipped if the row already
+     * holds a newer version or is no longer in the status the transition started from.
+     *
+     * @return false if the write was skipped
+     */
+    public boolean updateCoupon(Integer couponId, Integer userId,
                                                      CouponUser.CouponUserStatus newStatus,
-                                                     LocalDateTime usedAt) {
+                                                     LocalDateTime usedAt,
+                                                     long stateVersion) {
+        CouponUser.CouponUserStatus previousStatus = newStatus == CouponUser.CouponUserStatus.USED
+                ? CouponUser.CouponUserStatus.CLAIMED
+                : CouponUser.CouponUserStatus.USED;
         try {
-            couponUserRepository.markCouponUsed(userId, couponId, usedAt, newStatus);
-            log.info("Updated coupon usage status for couponId: {}, userId: {} to status: {}",
-                    couponId, userId, newStatus);
+            int updated = couponUserStateRepository.transition(userId, couponId, previousStatus, newStatus, usedAt, stateVersion);
+            if (updated > 0) {
+                log.info("Updated coupon usage status for couponId: {}, userId: {} to status: {}",
+                        couponId, userId, newStatus);
+                return true;
+            }
+            log.warn("Stale coupon usage update skipped for couponId: {}, userId: {}, status: {}, version: {}",
+                    couponId, userId, newStatus, stateVersion);
+            return false;
         } catch (Exception e) {
             log.error("Error updating coupon usage status for couponId: {}, userId: {}: {}",
                     couponId, userId, e.getMessage(), e);
@@ -362,27 +877,26 @@ public class CouponService {
     @PerformanceMonitor
     @Observed(name = "getCouponIdFromCacheOrDB", contextualName = "CouponService.getCouponIdFromCacheOrDB")
     private Integer getCouponIdFromCacheOrDB(String couponCode) {
-        Optional<Integer> couponIdOpt = couponCacheService.getCouponIdByCode(couponCode);
-        if (couponIdOpt.isPresent()) {
-            log.debug("Cache hit for coupon ID: couponCode={}, couponId={}", couponCode, couponIdOpt.get());
-            return couponIdOpt.get();
-        }
-
-        Optional<Coupon> coupon = couponRepository.findByCodeIgnoreCase(couponCode);
-        if (coupon.isEmpty()) {
+        Optional<Integer> couponId = couponCacheService.getOrLoadCouponIdByCode(couponCode, () -> {
+            Optional<Integer> loaded = couponRepository.findByCodeIgnoreCase(couponCode).map(Coupon::getId);
+            log.debug("Cache miss for coupon ID: couponCode={}, found={}", couponCode, loaded.isPresent());
+            return loaded;
+        });
+        if (couponId.isEmpty()) {
             log.debug("Coupon not found in database: couponCode={}", couponCode);
             return null;
         }
-
-        Integer couponId = coupon.get().getId();
-        couponCacheService.cacheCouponCodeMapping(couponCode, couponId);
-        log.debug("Cache miss for coupon ID: couponCode={}, couponId={} - cached", couponCode, couponId);
-        return couponId;
+        return couponId.get();
     }
 
     @PerformanceMonitor
     private CouponUserResult getCouponUserFromCacheOrDB(Integer userId, Integer couponId, String couponCode) {
-        Optional<UserCouponIds> cachedUserCoupons = couponCacheService.getCachedUserCouponIds(userId);
+        return getCouponUserFromCacheOrDB(userId, couponId, couponCode,
+                couponCacheService.getCachedUserCouponClaims(userId, List.of(couponId)));
+    }
+
+    private CouponUserResult getCouponUserFromCacheOrDB(Integer userId, Integer couponId, String couponCode,
+                                                        Optional<UserCouponIds> cachedUserCoupons) {
         if (cachedUserCoupons.isPresent()) {
             log.debug("Cache UserCouponIds hit for user coupons: userId={}", userId);
 
@@ -391,34 +905,26 @@ public class CouponService {
                 return CouponUserResult.failure("Coupon not found for user");
             }
 
-            Optional<CouponDetail> couponDetail = couponCacheService.getCachedCouponDetail(couponId);
-            if (couponDetail.isPresent()) {
-                CouponUser couponUser = CouponUser.buildFromDetailAndClaimInfo(couponDetail.get(), userCouponClaimInfo);
-                Coupon coupon = couponUser.getCoupon();
-                if (!coupon.getIsActive()) {
-                    return CouponUserResult.failure("Coupon not found for user");
-                }
-                return CouponUserResult.success(couponUser, coupon);
-            }
-
-            Optional<Coupon> coupon = couponRepository.findById(couponId);
-            if (coupon.isEmpty()) {
+            Optional<CouponDetail> couponDetail = couponCacheService.getOrLoadCouponDetail(couponId,
+                    () -> couponRepository.findById(couponId).map(CouponDetail::fromCoupon));
+            if (couponDetail.isEmpty()) {
                 return CouponUserResult.failure("Coupon detail not found");
             }
 
-            CouponDetail couponDetailFromDB = CouponDetail.fromCoupon(coupon.get());
-            couponCacheService.cacheCouponDetail(couponId, couponDetailFromDB);
-
-            if (!couponDetailFromDB.isActive()) {
+            CouponUser couponUser = CouponUser.buildFromDetailAndClaimInfo(couponDetail.get(), userCouponClaimInfo);
+            Coupon coupon = couponUser.getCoupon();
+            if (!coupon.getIsActive()) {
                 return CouponUserResult.failure("Coupon not found for user");
             }
-
-            CouponUser couponUser = CouponUser.buildFromDetailAndClaimInfo(couponDetailFromDB, userCouponClaimInfo);
-            log.debug("Cache miss for coupon detail: couponId={} - cached", couponId);
-            return CouponUserResult.success(couponUser, coupon.get());
+            return CouponUserResult.success(couponUser, coupon);
         }
 
         log.debug("Cache UserCouponIds miss for user coupons: userId={}", userId);
+        return couponCacheService.loadUserCoupon(userId, couponCode,
+                () -> loadCouponUserFromDB(userId, couponId, couponCode));
+    }
+
+    private CouponUserResult loadCouponUserFromDB(Integer userId, Integer couponId, String couponCode) {
         Optional<CouponUser> couponUser = couponUserRepository.findByUserIdAndCouponCode(userId, couponCode);
         if (couponUser.isEmpty()) {
             return CouponUserResult.failure("Coupon not found for user");
@@ -433,11 +939,8 @@ public class CouponService {
         CouponDetail couponDetail = CouponDetail.fromCoupon(coupon);
         couponCacheService.cacheCouponDetail(couponId, couponDetail);
 
-        Map<Integer, UserCouponClaimInfo> userCouponInfoMap = Map.of(
-                couponId, new UserCouponClaimInfo(user.getId(), user.getUserId(), user.getCouponId(), user.getCreatedAt(), user.getExpiryDate())
-        );
-        UserCouponIds userCouponIdsCache = UserCouponIds.of(userCouponInfoMap);
-        couponCacheService.cacheUserCouponIds(userId, userCouponIdsCache);
+        couponCacheService.addUserCouponClaim(userId,
+                new UserCouponClaimInfo(user.getId(), user.getUserId(), user.getCouponId(), user.getCreatedAt(), user.getExpiryDate()));
 
         return CouponUserResult.success(user, coupon);
     }
@@ -478,45 +981,52 @@ public class CouponService {
     }
 
 
-    @PerformanceMonitor
-    private RuleEvaluationResult evaluateRulesForCoupon(CouponUser couponUser, Integer userId,
-                                                        BigDecimal orderAmount,
-                                                        LocalDateTime orderDate) {
-        try {
-            String requestID = String.valueOf(UUID.randomUUID());
-
-            Channel channel = grpcClientFactory.getRuleServiceChannel();
-            RuleServiceGrpc.RuleServiceBlockingStub stub = RuleServiceGrpc.newBlockingStub(channel);
-
-            Integer collectionKeyId = couponUser.getCoupon().getCollectionKeyId();
-
-            if (collectionKeyId == 0) {
-                return new RuleEvaluationResult(true, null);
-            }
-
-            var grpcRequest = RuleServiceProto.EvaluateRuleRequest.newBuilder()
-                    .setRequestId(requestID)
-                    .setUserId(userId)
-                    .setOrderAmount(orderAmount.doubleValue())
-                    .setOrderDate(orderDate.toString())
-                    .addAllRuleCollectionIds(List.of(collectionKeyId))
-                    .build();
-
-            var grpcResponse = stub.evaluateRuleCollections(grpcRequest);
+    private CompletableFuture<RuleEvaluationResult> evaluateRulesForCouponAsync(CouponUser couponUser, Integer userId,
+                                                                              BigDecimal orderAmount,
+                                                                              LocalDateTime orderDate) {
+        Integer collectionKeyId = couponUser.getCoupon().getCollectionKeyId();
+        if (collectionKeyId == 0) {
+            return CompletableFuture.completedFuture(new RuleEvaluationResult(true, null));
+        }
 
-            if (grpcResponse.getStatus().getCode() != RuleServiceProto.StatusCode.OK) {
-                log.warn("Rule service call failed for auto coupon: userId={}, couponCode={}, status={}, message={}",
-                        userId, couponUser.getCoupon().getCode(), grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
-                return new RuleEvaluationResult(false, "Rule evaluation failed: " + grpcResponse.getStatus().getMessage());
-            }
+        Optional<CollectionOutcome> cached = localRuleOutcomes(List.of(collectionKeyId), orderAmount, orderDate)
+                .map(outcomes -> outcomes.get(collectionKeyId));
+        if (cached.isPresent()) {
+            log.debug("Rule evaluated without rule-service: userId={}, couponCode={}, ruleCollectionId={}",
+                    userId, couponUser.getCoupon().getCode(), collectionKeyId);
+            return CompletableFuture.completedFuture(
+                    new RuleEvaluationResult(cached.get().success(), cached.get().errorMessage()));
+        }
 
-            return processRuleCollectionResults(grpcResponse.getPayload(), userId, couponUser.getCoupon().getCode());
+        String requestID = String.valueOf(UUID.randomUUID());
+        var grpcRequest = RuleServiceProto.EvaluateRuleRequest.newBuilder()
+                .setRequestId(requestID)
+                .setUserId(userId)
+                .setOrderAmount(orderAmount.doubleValue())
+                .setOrderDate(orderDate.toString())
+                .addAllRuleCollectionIds(List.of(collectionKeyId))
+                .build();
 
-        } catch (Exception e) {
-            log.error("Error during rule evaluation: userId={}, couponCode={}, error={}",
-                    userId, couponUser.getCoupon().getCode(), e.getMessage(), e);
-            return new RuleEvaluationResult(false, "Rule evaluation error: " + e.getMessage());
-        }
+        return ruleServiceClient.evaluateRuleCollections(grpcRequest)
+                .thenApply(grpcResponse -> {
+                    if (grpcResponse.getStatus().getCode() != RuleServiceProto.StatusCode.OK) {
+                        log.warn("Rule service call failed for coupon: userId={}, couponCode={}, status={}, message={}",
+                                userId, couponUser.getCoupon().getCode(), grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
+                        return new RuleEvaluationResult(false, "Rule evaluation failed: " + grpcResponse.getStatus().getMessage());
+                    }
+                    cacheRuleOutcomes(List.of(collectionKeyId), orderAmount, orderDate,
+                            grpcResponse.getPayload().getRuleCollectionResultsList().stream()
+                                    .map(result -> new RuleCollectionResult(result.getRuleCollectionId(),
+                                            result.getIsSuccess(), result.getErrorMessage()))
+                                    .toList());
+                    return processRuleCollectionResults(grpcResponse.getPayload(), userId, couponUser.getCoupon().getCode());
+                })
+                .exceptionally(failure -> {
+                    Throwable e = GrpcFutures.unwrap(failure);
+                    log.error("Error during rule evaluation: userId={}, couponCode={}, error={}",
+                            userId, couponUser.getCoupon().getCode(), e.getMessage(), e);
+                    return new RuleEvaluationResult(false, "Rule evaluation error: " + e.getMessage());
+                });
     }
 
     private RuleEvaluationResult processRuleCollectionResults(RuleServiceProto.EvaluateRuleResponsePayload payload,
@@ -547,363 +1057,365 @@ public class CouponService {
     private record RuleEvaluationResult(boolean success, String errorMessage) {
     }
 
+    /**
+     * Outcomes available without calling rule-service: evaluated on the replicated rule snapshot
+     * while it is fresh, else from outcomes rule-service returned for equivalent orders.
+     */
+    private Optional<Map<Integer, CollectionOutcome>> localRuleOutcomes(List<Integer> ruleCollectionIds,
+                                                                       BigDecimal orderAmount, LocalDateTime orderDate) {
+        return ruleSnapshotReplica.evaluate(ruleCollectionIds, orderAmount.doubleValue(), orderDate)
+                .or(() -> ruleOutcomeCache.getAll(ruleCollectionIds, orderAmount.doubleValue(), orderDate));
+    }
+
+    /**
+     * Rule-service only returns failed collections; every other requested collection passed.
+     */
+    private void cacheRuleOutcomes(List<Integer> ruleCollectionIds, BigDecimal orderAmount, LocalDateTime orderDate,
+                                   List<RuleCollectionResult> results) {
+        Map<Integer, String> failures = new HashMap<>();
+        for (RuleCollectionResult result : results) {
+            if (!result.success()) {
+                failures.merge(result.ruleCollectionId(), result.errorMessage() != null ? result.errorMessage() : "",
+                        (first, second) -> first + ", " + second);
+            }
+        }
+        ruleOutcomeCache.putAll(ruleCollectionIds, orderAmount.doubleValue(), orderDate, failures);
+    }
+
     public CouponApplicationResult applyCouponAutoMultiple(
             Integer userId, BigDecimal orderAmount, LocalDateTime orderDate
+    ){
+        return applyCouponAutoAsync(userId, orderAmount, orderDate).join();
+    }
+
+    /**
+     * Best-first auto apply. Rule batches and the budget registration are awaited as futures,
+     * so a pool thread is only used while loading details between rule calls. The search ranks
+     * the top {@code app.coupon.auto-apply.top-k} valid coupons, so a budget miss on the best
+     * one falls through to the next instead of failing the request.
+     */
+    @PerformanceMonitor
+    public CompletableFuture<CouponApplicationResult> applyCouponAutoAsync(
+            Integer userId, BigDecimal orderAmount, LocalDateTime orderDate
     ){
         validator.validateUserId(userId);
         validator.validateOrderAmount(orderAmount.doubleValue());
-        List<CouponUser> availableCoupons = getAvailableCouponsForUser(userId);
-        if (availableCoupons.isEmpty()) {
-            return CouponApplicationResult.failure("No available coupons for user", CouponErrorCode.NO_AVAILABLE_COUPONS.name());
+        Map<Integer, UserCouponClaimInfo> claims = getAvailableClaimsForUser(userId);
+        if (claims.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    CouponApplicationResult.failure("No available coupons for user", CouponErrorCode.NO_AVAILABLE_COUPONS.name()));
         }
 
-        List<CouponUser> validCoupons = availableCoupons.parallelStream()
-                .filter(couponUser -> {
-                    Coupon coupon = couponUser.getCoupon();
-                    if (coupon == null) return false;
-
-                    return !isCouponExpired(couponUser, coupon, orderDate);
+        long orderAmountMinor = DiscountCalculator.toMinorUnits(orderAmount);
+        int topK = autoApplyProperties.getTopK();
+        Predicate<CouponDetail> eligible = couponDetail -> {
+            UserCouponClaimInfo claimInfo = claims.get(couponDetail.getCouponId());
+            return claimInfo != null
+                    && couponDetail.isActive()
+                    && (claimInfo.getExpiryDate() == null || !claimInfo.getExpiryDate().isBefore(orderDate))
+                    && (couponDetail.getExpiryDate() == null || !couponDetail.getExpiryDate().isBefore(orderDate));
+        };
+        Function<List<Integer>, CompletableFuture<Map<Integer, Boolean>>> ruleEvaluator = ruleCollectionIds ->
+                evaluateRuleAsync(ruleCollectionIds, userId, orderAmount, orderDate)
+                        .thenApply(payload -> BestFirstCouponSearch.ruleResults(ruleCollectionIds,
+                                payload.ruleCollectionResults().stream()
+                                        .filter(result -> !result.success())
+                                        .map(RuleCollectionResult::ruleCollectionId)
+                                        .collect(Collectors.toSet())));
+
+        CouponCandidateIndex candidateIndex = getCouponCandidates(userId, claims.keySet(), false);
+        return BestFirstCouponSearch.search(candidateIndex.getCandidates(), orderAmountMinor, topK,
+                        this::loadCouponDetails, eligible, ruleEvaluator, couponEvaluationExecutor)
+                .thenCompose(outcome -> {
+                    if (!outcome.stale()) {
+                        return CompletableFuture.completedFuture(outcome);
+                    }
+                    log.debug("Coupon candidate index is stale, rebuilding: userId={}", userId);
+                    CouponCandidateIndex rebuilt = getCouponCandidates(userId, claims.keySet(), true);
+                    return BestFirstCouponSearch.search(rebuilt.getCandidates(), orderAmountMinor, topK,
+                            this::loadCouponDetails, eligible, ruleEvaluator, couponEvaluationExecutor);
                 })
-                .toList();
-        if (validCoupons.isEmpty()) {
-            return CouponApplicationResult.failure("No valid coupons available for user", CouponErrorCode.NO_AVAILABLE_COUPONS.name());
-        }
-
-        List<CouponWithRuleEvaluationResult> evaluationResults = evaluateMultipleCouponWithRule(
-                validCoupons, orderAmount, userId, orderDate
-        );
-        CouponWithRuleEvaluationResult bestResult = evaluationResults.parallelStream()
-                .filter(result -> result.isValid() && result.discountAmount().compareTo(BigDecimal.ZERO) > 0)
-                .max(Comparator.comparing(CouponWithRuleEvaluationResult::discountAmount))
-                .orElse(null);
-        if (bestResult == null) {
-            return CouponApplicationResult.failure("No applicable coupon found after rule evaluation", CouponErrorCode.NO_AVAILABLE_COUPONS.name());
-        }
-        CouponUser bestCoupon = validCoupons.stream()
-                .filter(couponUser -> couponUser.getCouponId().equals(bestResult.couponUser().getCouponId()))
-                .findFirst()
-                .orElse(null);
-        BigDecimal bestDiscount = bestResult.discountAmount();
-
-        BudgetRegistrationResult registrationResult = registerBudgetForCoupon(
-                bestCoupon.getId(),
-                userId,
-                bestCoupon.getCouponId(),
-                bestCoupon.getCoupon().getBudgetId(),
-                bestDiscount
-        );
-
-        if (!registrationResult.isSuccess()) {
-            return CouponApplicationResult.failure("No applicable coupon found after parallel rule evaluation", registrationResult.errorCode);
-        }
-
-        log.info("Parallel auto coupon evaluation completed: couponId={}, discount={}",
-                bestCoupon.getCouponId(), bestDiscount);
-        return CouponApplicationResult.buildResult(
-                bestCoupon,
-                bestDiscount,
-                null,
-                true,
-                null
-        );
-    }
-
-    @Observed(name = "apply-coupon-auto-parallel", contextualName = "parallel-auto-coupon-application")
-    @PerformanceMonitor
-    public CompletableFuture<CouponApplicationResult> applyCouponAutoParallel(Integer userId, BigDecimal orderAmount, LocalDateTime orderDate) {
-        log.info("Auto-applying best coupon (parallel): userId={}, orderAmount={}", userId, orderAmount);
+                .thenCompose(outcome -> {
+                    log.debug("Best-first coupon search: userId={}, walletSize={}, ranked={}, examined={}, ruleCalls={}",
+                            userId, claims.size(), outcome.ranked().size(), outcome.candidatesExamined(), outcome.ruleCalls());
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                validator.validateUserId(userId);
-                validator.validateOrderAmount(orderAmount.doubleValue());
-
-                List<CouponUser> availableCoupons = getAvailableCouponsForUser(userId);
-                if (availableCoupons.isEmpty()) {
-                    return CouponApplicationResult.failure("No available coupons for user", CouponErrorCode.NO_AVAILABLE_COUPONS.name());
-                }
-
-                List<CouponUser> validCoupons = availableCoupons.parallelStream()
-                        .filter(couponUser -> {
-                            Coupon coupon = couponUser.getCoupon();
-                            if (coupon == null) return false;
-
-                            return !isCouponExpired(couponUser, coupon, orderDate);
-                        })
-                        .toList();
-
-                if (validCoupons.isEmpty()) {
-                    return CouponApplicationResult.failure("No valid coupons available for user", CouponErrorCode.NO_AVAILABLE_COUPONS.name());
-                }
-
-                List<CompletableFuture<CouponWithRuleEvaluationResult>> evaluationFutures = validCoupons.parallelStream()
-                        .map(couponUser -> evaluateCouponWithRulesAsync(couponUser, orderAmount, userId, orderDate))
-                        .toList();
+                    if (outcome.ranked().isEmpty()) {
+                        return CompletableFuture.completedFuture(
+                                CouponApplicationResult.failure("No applicable coupon found after rule evaluation", CouponErrorCode.NO_AVAILABLE_COUPONS.name()));
+                    }
 
-                List<CouponWithRuleEvaluationResult> evaluationResults = evaluateMultipleCouponWithRule(
-                        validCoupons, orderAmount, userId, orderDate
-                );
-
-                CompletableFuture<Void> allEvaluations = CompletableFuture.allOf(
-                        evaluationFutures.toArray(new CompletableFuture[0])
-                );
-
-                CouponWithRuleEvaluationResult bestResult = allEvaluations.thenApply(v -> {
-                    return evaluationFutures.parallelStream()
-                            .map(CompletableFuture::join)
-                            .filter(result -> result.isValid() && result.discountAmount().compareTo(BigDecimal.ZERO) > 0)
-                            .max(Comparator.comparing(CouponWithRuleEvaluationResult::discountAmount))
-                            .orElse(null);
-                }).join();
-
-                if (bestResult != null) {
-                    CouponUser bestCoupon = bestResult.couponUser();
-                    BigDecimal bestDiscount = bestResult.discountAmount();
-
-                    CouponUserResult couponUserResult = getCouponUserFromCacheOrDB(userId, bestCoupon.getCouponId(), bestCoupon.getCoupon().getCode());
-
-                    Coupon coupon = bestCoupon.getCoupon();
-                    BudgetRegistrationResult registrationResult = registerBudgetForCoupon(
-                            bestCoupon.getId(),
-                            userId,
-                            coupon.getId(),
-                            coupon.getBudgetId(),
-                            bestDiscount
-                    );
-
-                    if (!registrationResult.isSuccess()) {
-                        return CouponApplicationResult.failure("No applicable coupon found after parallel rule evaluation", registrationResult.errorCode);
+                    List<BudgetReservation> ranked = new ArrayList<>(outcome.ranked().size());
+                    for (BestFirstCouponSearch.Scored scored : outcome.ranked()) {
+                        ranked.add(BudgetReservation.of(ranked.size() + 1, scored, claims));
                     }
+                    CouponEventProducer eventProducer = couponEventProducer.getIfAvailable();
+                    CompletableFuture<BudgetReservation> reserved = autoApplyProperties.isSpeculativeReservation()
+                            && eventProducer != null && ranked.size() > 1
+                            ? reserveSpeculatively(userId, ranked, eventProducer)
+                            : reserveInRankOrder(userId, ranked, 0);
+
+                    return reserved.thenApply(reservation -> {
+                        if (!reservation.registration().isSuccess()) {
+                            return CouponApplicationResult.failure("No applicable coupon found after parallel rule evaluation",
+                                    reservation.registration().errorCode());
+                        }
 
-                    log.info("Parallel auto coupon evaluation completed: couponId={}, discount={}",
-                            bestCoupon.getCouponId(), bestDiscount);
-                    return CouponApplicationResult.buildResult(
-                            bestCoupon,
-                            bestDiscount,
-                            null,
-                            true,
-                            null
-                    );
-                } else {
-                    return CouponApplicationResult.failure("No applicable coupon found after parallel rule evaluation", CouponErrorCode.NO_AVAILABLE_COUPONS.name());
-                }
+                        CouponUser bestCoupon = reservation.couponUser();
+                        log.info("Best-first auto coupon evaluation completed: couponId={}, discount={}, rank={}, examined={}, ruleCalls={}",
+                                bestCoupon.getCouponId(), reservation.discount(), reservation.rank(),
+                                outcome.candidatesExamined(), outcome.ruleCalls());
+                        return CouponApplicationResult.buildResult(
+                                bestCoupon,
+                                reservation.discount(),
+                                null,
+                                true,
+                                null
+                        );
+                    });
+                });
+    }
 
-            } catch (Exception e) {
-                log.error("Error in parallel auto-applying coupon: userId={}, error={}", userId, e.getMessage(), e);
-                return CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+    /**
+     * Registers the ranked coupons one at a time, moving on only after a budget miss; other
+     * failures are returned as they are.
+     */
+    private CompletableFuture<BudgetReservation> reserveInRankOrder(Integer userId, List<BudgetReservation> ranked, int index) {
+        return register(userId, ranked.get(index)).thenCompose(reservation -> {
+            if (reservation.registration().isSuccess()
+                    || index + 1 >= ranked.size()
+                    || !BUDGET_MISS_ERROR_CODES.contains(reservation.registration().errorCode())) {
+                return CompletableFuture.completedFuture(reservation);
             }
-        }, couponEvaluationExecutor);
+            log.info("Budget miss on ranked coupon, trying next: userId={}, couponId={}, rank={}, errorCode={}",
+                    userId, reservation.couponUser().getCouponId(), reservation.rank(), reservation.registration().errorCode());
+            return reserveInRankOrder(userId, ranked, index + 1);
+        });
     }
 
-    private EvaluateRuleResponsePayload evaluateRule(
-            List<Integer> ruleCollectionIds, Integer userId, BigDecimal orderAmount,
-            LocalDateTime orderDate ) {
-        try {
-            String requestID = String.valueOf(UUID.randomUUID());
-
-            Channel channel = grpcClientFactory.getRuleServiceChannel();
-            RuleServiceGrpc.RuleServiceBlockingStub stub = RuleServiceGrpc.newBlockingStub(channel);
-
-            var grpcRequest = RuleServiceProto.EvaluateRuleRequest.newBuilder()
-                    .setRequestId(requestID)
-                    .setUserId(userId)
-                    .setOrderAmount(orderAmount.doubleValue())
-                    .setOrderDate(orderDate.toString())
-                    .addAllRuleCollectionIds(ruleCollectionIds)
-                    .build();
-
-            var grpcResponse = stub.evaluateRuleCollections(grpcRequest);
-
-            if (grpcResponse.getStatus().getCode() != RuleServiceProto.StatusCode.OK) {
-                log.warn("Rule service call failed: userId={}, ruleCollectionIds={}, status={}, message={}",
-                        userId, ruleCollectionIds, grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
+    /**
+     * Registers every ranked coupon at once and keeps the best one that succeeded. The other
+     * successful registrations are released asynchronously through a rollback event, so their
+     * budget is held until budget-service consumes it.
+     */
+    private CompletableFuture<BudgetReservation> reserveSpeculatively(Integer userId, List<BudgetReservation> ranked,
+                                                                     CouponEventProducer eventProducer) {
+        List<CompletableFuture<BudgetReservation>> registrations = ranked.stream()
+                .map(candidate -> register(userId, candidate))
+                .toList();
 
-                List<RuleCollectionResult> failedResults = ruleCollectionIds.stream()
-                    .map(ruleCollectionId -> new RuleCollectionResult(
-                        ruleCollectionId,
-                        false,
-                        "Rule service call failed: " + grpcResponse.getStatus().getMessage()
-                    ))
-                    .toList();
+        return CompletableFuture.allOf(registrations.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            List<BudgetReservation> results = registrations.stream().map(CompletableFuture::join).toList();
+            BudgetReservation winner = results.stream()
+                    .filter(reservation -> reservation.registration().isSuccess())
+                    .findFirst()
+                    .orElse(results.get(0));
 
-                return new EvaluateRuleResponsePayload(requestID, userId, failedResults);
+            for (BudgetReservation reservation : results) {
+                if (reservation != winner && reservation.registration().isSuccess()) {
+                    releaseBudgetReservation(userId, reservation, eventProducer);
+                }
             }
+            return winner;
+        });
+    }
 
-            var payload = grpcResponse.getPayload();
-            List<RuleCollectionResult> ruleCollectionResults = payload.getRuleCollectionResultsList().parallelStream()
-                .map(grpcResult -> new RuleCollectionResult(
-                    grpcResult.getRuleCollectionId(),
-                    grpcResult.getIsSuccess(),
-                    grpcResult.getErrorMessage()
-                ))
-                .toList();
-
-            log.debug("Rule service response: userId={}, requestId={}, ruleCollectionResults={}",
-                    userId, requestID, ruleCollectionResults);
-
-            log.info("Rule evaluation completed: userId={}, requestId={}, totalRules={}, passedRules={}",
-                    userId, requestID, ruleCollectionResults.size(),
-                    ruleCollectionResults.stream().mapToLong(r -> r.success() ? 1 : 0).sum());
+    private CompletableFuture<BudgetReservation> register(Integer userId, BudgetReservation candidate) {
+        CouponUser couponUser = candidate.couponUser();
+        return registerBudgetForCouponAsync(
+                couponUser.getId(),
+                userId,
+                couponUser.getCouponId(),
+                couponUser.getCoupon().getBudgetId(),
+                candidate.discount()
+        ).thenApply(candidate::withRegistration);
+    }
 
-            return new EvaluateRuleResponsePayload(requestID, userId, ruleCollectionResults);
+    private void releaseBudgetReservation(Integer userId, BudgetReservation reservation, CouponEventProducer eventProducer) {
+        CouponUser couponUser = reservation.couponUser();
+        releaseBudget(userId, couponUser.getCouponId(), couponUser.getCoupon().getBudgetId(), reservation.discount(),
+                eventProducer);
+    }
 
+    /**
+     * Gives back a successful budget registration that will not be used, through a rollback event.
+     */
+    private void releaseBudget(Integer userId, Integer couponId, Integer budgetId, BigDecimal amount,
+                               CouponEventProducer eventProducer) {
+        try {
+            eventProducer.sendRollBackEvent(new RollBackBudgetEvent(
+                    budgetId,
+                    couponId,
+                    userId,
+                    amount,
+                    RegisterStatus.CANCELLED
+            ));
+            log.debug("Released budget reservation: userId={}, couponId={}, budgetId={}",
+                    userId, couponId, budgetId);
         } catch (Exception e) {
-            log.error("Error during rule evaluation: userId={}, ruleCollectionIds={}, error={}",
-                    userId, ruleCollectionIds, e.getMessage(), e);
+            log.error("Failed to release budget reservation: userId={}, couponId={}, budgetId={}, error={}",
+                    userId, couponId, budgetId, e.getMessage(), e);
+        }
+    }
 
-            List<RuleCollectionResult> failedResults = ruleCollectionIds.stream()
-                .map(ruleCollectionId -> new RuleCollectionResult(
-                    ruleCollectionId,
-                    false,
-                    "Internal error during rule evaluation: " + e.getMessage()
-                ))
-                .toList();
+    /**
+     * A ranked coupon and, once registered, its budget registration result.
+     */
+    private record BudgetReservation(int rank, CouponUser couponUser, BigDecimal discount,
+                                     BudgetRegistrationResult registration) {
+
+        static BudgetReservation of(int rank, BestFirstCouponSearch.Scored scored, Map<Integer, UserCouponClaimInfo> claims) {
+            CouponDetail couponDetail = scored.couponDetail();
+            return new BudgetReservation(
+                    rank,
+                    CouponUser.buildFromDetailAndClaimInfo(couponDetail, claims.get(couponDetail.getCouponId())),
+                    BigDecimal.valueOf(scored.discountMinor(), DiscountCalculator.MONEY_SCALE),
+                    null);
+        }
 
-            return new EvaluateRuleResponsePayload(
-                String.valueOf(UUID.randomUUID()),
-                userId,
-                failedResults
-            );
+        BudgetReservation withRegistration(BudgetRegistrationResult registration) {
+            return new BudgetReservation(rank, couponUser, discount, registration);
         }
     }
 
+    private Map<Integer, UserCouponClaimInfo> getAvailableClaimsForUser(Integer userId) {
+        Optional<UserCouponIds> cachedUserCoupons = couponCacheService.getCachedUserCouponIds(userId);
+        if (cachedUserCoupons.isPresent() && cachedUserCoupons.get().getUserCouponInfo() != null) {
+            return cachedUserCoupons.get().getUserCouponInfo();
+        }
 
-    private List<CouponWithRuleEvaluationResult> evaluateMultipleCouponWithRule(
-            List<CouponUser> couponUsers, BigDecimal orderAmount, Integer userId, LocalDateTime orderDate) {
-        List<Integer> ruleCollectionIds = couponUsers.parallelStream()
-                .map(cu -> cu.getCoupon().getCollectionKeyId())
-                .distinct()
-                .toList();
-        EvaluateRuleResponsePayload evaluateRuleResponsePayload = evaluateRule(
-                ruleCollectionIds, userId, orderAmount, orderDate
-        );
-        var ruleCollectionResultMap = evaluateRuleResponsePayload.ruleCollectionResults().stream()
-                .collect(Collectors.toMap(RuleCollectionResult::ruleCollectionId, Function.identity()));
+        Map<Integer, UserCouponClaimInfo> claims = new HashMap<>();
+        for (CouponUser couponUser : loadAndCacheAvailableCouponsOptimized(userId)) {
+            claims.put(couponUser.getCouponId(), new UserCouponClaimInfo(
+                    couponUser.getId(),
+                    couponUser.getUserId(),
+                    couponUser.getCouponId(),
+                    couponUser.getCreatedAt(),
+                    couponUser.getExpiryDate()
+            ));
+        }
+        return claims;
+    }
 
-        return couponUsers.parallelStream().map(couponUser -> {
-            var coupon = couponUser.getCoupon();
-            if (coupon == null) {
-                return new CouponWithRuleEvaluationResult(couponUser, BigDecimal.ZERO, false, "Coupon entity is null");
+    private CouponCandidateIndex getCouponCandidates(Integer userId, Set<Integer> walletCouponIds, boolean forceRebuild) {
+        if (!forceRebuild) {
+            Optional<CouponCandidateIndex> cached = couponCacheService.getCachedCouponCandidates(userId);
+            if (cached.isPresent() && cached.get().covers(walletCouponIds)) {
+                return cached.get();
             }
+        }
 
-            var discountAmount = coupon.calculateDiscount(orderAmount);
-            if (discountAmount.compareTo(BigDecimal.ZERO) <= 0) {
-                return new CouponWithRuleEvaluationResult(couponUser, BigDecimal.ZERO, false, "No applicable discount for order amount");
-            }
+        List<Integer> couponIds = new ArrayList<>(walletCouponIds);
+        CouponCandidateIndex candidateIndex = CouponCandidateIndex.build(couponIds, loadCouponDetails(couponIds));
+        couponCacheService.cacheCouponCandidates(userId, candidateIndex);
+        return candidateIndex;
+    }
 
-            var ruleResult = ruleCollectionResultMap.get(coupon.getCollectionKeyId());
-            if (ruleResult == null || !ruleResult.success()) {
-                return new CouponWithRuleEvaluationResult(
-                        couponUser,
-                        discountAmount,
-                        false,
-                        ruleResult != null ? ruleResult.errorMessage() : "Rule evaluation failed"
-                );
-            }
+    private Map<Integer, CouponDetail> loadCouponDetails(List<Integer> couponIds) {
+        Map<Integer, CouponDetail> couponDetails = couponCacheService.getCachedCouponDetailsBatch(couponIds);
 
-            return new CouponWithRuleEvaluationResult(couponUser, discountAmount, true, null);
-        }).toList();
+        List<Integer> missingCouponIds = couponIds.stream()
+                .filter(id -> !couponDetails.containsKey(id))
+                .toList();
+        if (!missingCouponIds.isEmpty()) {
+            couponDetails.putAll(loadMissingCouponDetails(missingCouponIds));
+        }
+        return couponDetails;
     }
 
-
+    @Observed(name = "apply-coupon-auto-parallel", contextualName = "parallel-auto-coupon-application")
     @PerformanceMonitor
-    private CompletableFuture<CouponWithRuleEvaluationResult> evaluateCouponWithRulesAsync(
-            CouponUser couponUser, BigDecimal orderAmount, Integer userId, LocalDateTime orderDate) {
-
-        return CompletableFuture.supplyAsync(() -> {
-                    try {
-                        Coupon coupon = couponUser.getCoupon();
-                        if (coupon == null) {
-                            return new CouponWithRuleEvaluationResult(couponUser, BigDecimal.ZERO, false, "Coupon entity is null");
-                        }
-
-                        BigDecimal discountAmount = coupon.calculateDiscount(orderAmount);
-                        if (discountAmount.compareTo(BigDecimal.ZERO) <= 0) {
-                            return new CouponWithRuleEvaluationResult(couponUser, BigDecimal.ZERO, false, "No applicable discount for order amount");
-                        }
-
-                        log.debug("Coupon discount calculated: couponId={}, discount={}", coupon.getId(), discountAmount);
-                        return new CouponWithRuleEvaluationResult(couponUser, discountAmount, true, null);
-
-                    } catch (Exception e) {
-                        log.warn("Error calculating discount for coupon: couponId={}, error={}",
-                                couponUser.getCouponId(), e.getMessage(), e);
-                        return new CouponWithRuleEvaluationResult(couponUser, BigDecimal.ZERO, false, "Discount calculation error: " + e.getMessage());
-                    }
-                }, couponEvaluationExecutor)
-                .thenCompose(discountResult -> {
-                    if (!discountResult.isValid()) {
-                        return CompletableFuture.completedFuture(discountResult);
-                    }
+    public CompletableFuture<CouponApplicationResult> applyCouponAutoParallel(Integer userId, BigDecimal orderAmount, LocalDateTime orderDate) {
+        log.info("Auto-applying best coupon (parallel): userId={}, orderAmount={}", userId, orderAmount);
 
-                    return evaluateRulesAsync(couponUser, userId, orderAmount, orderDate)
-                            .thenApply(ruleResult -> {
-                                if (ruleResult.success()) {
-                                    return new CouponWithRuleEvaluationResult(
-                                            discountResult.couponUser(),
-                                            discountResult.discountAmount(),
-                                            true,
-                                            null);
-                                } else {
-                                    return new CouponWithRuleEvaluationResult(
-                                            discountResult.couponUser(),
-                                            discountResult.discountAmount(),
-                                            false,
-                                            ruleResult.errorMessage());
-                                }
-                            });
-                });
+        try {
+            return applyCouponAutoAsync(userId, orderAmount, orderDate)
+                    .exceptionally(failure -> {
+                        Throwable e = GrpcFutures.unwrap(failure);
+                        log.error("Error in parallel auto-applying coupon: userId={}, error={}", userId, e.getMessage(), e);
+                        return CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+                    });
+        } catch (Exception e) {
+            log.error("Error in parallel auto-applying coupon: userId={}, error={}", userId, e.getMessage(), e);
+            return CompletableFuture.completedFuture(
+                    CouponApplicationResult.failure("Internal error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name()));
+        }
     }
 
-    private CompletableFuture<RuleEvaluationResult> evaluateRulesAsync(
-            CouponUser couponUser, Integer userId, BigDecimal orderAmount,
-            LocalDateTime orderDate) {
-
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String requestID = String.valueOf(UUID.randomUUID());
-
-                Channel channel = grpcClientFactory.getRuleServiceChannel();
-                RuleServiceGrpc.RuleServiceBlockingStub stub = RuleServiceGrpc.newBlockingStub(channel);
+    private CompletableFuture<EvaluateRuleResponsePayload> evaluateRuleAsync(
+            List<Integer> ruleCollectionIds, Integer userId, BigDecimal orderAmount,
+            LocalDateTime orderDate ) {
+        String requestID = String.valueOf(UUID.randomUUID());
 
-                Optional<CouponDetail> cachedCouponDetail = getCouponDetailByCode(couponUser.getCoupon().getCode());
-                if (cachedCouponDetail.isEmpty()) {
-                    return new RuleEvaluationResult(false, "Coupon detail not found for rule evaluation");
-                }
+        Optional<Map<Integer, CollectionOutcome>> cached = localRuleOutcomes(ruleCollectionIds, orderAmount, orderDate);
+        if (cached.isPresent()) {
+            List<RuleCollectionResult> failedResults = ruleCollectionIds.stream()
+                    .filter(ruleCollectionId -> !cached.get().get(ruleCollectionId).success())
+                    .map(ruleCollectionId -> new RuleCollectionResult(
+                            ruleCollectionId, false, cached.get().get(ruleCollectionId).errorMessage()))
+                    .toList();
+            log.debug("Rules evaluated without rule-service: userId={}, ruleCollectionIds={}, failed={}",
+                    userId, ruleCollectionIds, failedResults.size());
+            return CompletableFuture.completedFuture(new EvaluateRuleResponsePayload(requestID, userId, failedResults));
+        }
 
-                var grpcRequest = RuleServiceProto.EvaluateRuleRequest.newBuilder()
-                        .setRequestId(requestID)
-                        .setUserId(userId)
-                        .setOrderAmount(orderAmount.doubleValue())
-                        .setOrderDate(orderDate.toString())
-                        .addAllRuleCollectionIds(List.of(cachedCouponDetail.get().getCollectionKeyId()))
-                        .build();
+        var grpcRequest = RuleServiceProto.EvaluateRuleRequest.newBuilder()
+                .setRequestId(requestID)
+                .setUserId(userId)
+                .setOrderAmount(orderAmount.doubleValue())
+                .setOrderDate(orderDate.toString())
+                .addAllRuleCollectionIds(ruleCollectionIds)
+                .build();
 
-                var grpcResponse = stub.evaluateRuleCollections(grpcRequest);
+        return ruleServiceClient.evaluateRuleCollections(grpcRequest)
+                .thenApply(grpcResponse -> {
+                    if (grpcResponse.getStatus().getCode() != RuleServiceProto.StatusCode.OK) {
+                        log.warn("Rule service call failed: userId={}, ruleCollectionIds={}, status={}, message={}",
+                                userId, ruleCollectionIds, grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
+
+                        List<RuleCollectionResult> failedResults = ruleCollectionIds.stream()
+                            .map(ruleCollectionId -> new RuleCollectionResult(
+                                ruleCollectionId,
+                                false,
+                                "Rule service call failed: " + grpcResponse.getStatus().getMessage()
+                            ))
+                            .toList();
+
+                        return new EvaluateRuleResponsePayload(requestID, userId, failedResults);
+                    }
 
-                if (grpcResponse.getStatus().getCode() != RuleServiceProto.StatusCode.OK) {
-                    log.warn("Rule service call failed for parallel evaluation: userId={}, couponCode={}, status={}, message={}",
-                            userId, couponUser.getCoupon().getCode(), grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
-                    return new RuleEvaluationResult(false, "Rule evaluation failed: " + grpcResponse.getStatus().getMessage());
-                }
+                    List<RuleCollectionResult> ruleCollectionResults = grpcResponse.getPayload().getRuleCollectionResultsList().stream()
+                        .map(grpcResult -> new RuleCollectionResult(
+                            grpcResult.getRuleCollectionId(),
+                            grpcResult.getIsSuccess(),
+                            grpcResult.getErrorMessage()
+                        ))
+                        .toList();
 
-                return processRuleCollectionResults(grpcResponse.getPayload(), userId, couponUser.getCoupon().getCode());
+                    log.debug("Rule service response: userId={}, requestId={}, ruleCollectionResults={}",
+                            userId, requestID, ruleCollectionResults);
+                    cacheRuleOutcomes(ruleCollectionIds, orderAmount, orderDate, ruleCollectionResults);
 
-            } catch (Exception e) {
-                log.error("Error during parallel rule evaluation: userId={}, couponCode={}, error={}",
-                        userId, couponUser.getCoupon().getCode(), e.getMessage(), e);
-                return new RuleEvaluationResult(false, "Rule evaluation error: " + e.getMessage());
-            }
-        }, couponEvaluationExecutor);
-    }
+                    log.info("Rule evaluation completed: userId={}, requestId={}, totalRules={}, passedRules={}",
+                            userId, requestID, ruleCollectionResults.size(),
+                            ruleCollectionResults.stream().mapToLong(r -> r.success() ? 1 : 0).sum());
 
+                    return new EvaluateRuleResponsePayload(requestID, userId, ruleCollectionResults);
+                })
+                .exceptionally(failure -> {
+                    Throwable e = GrpcFutures.unwrap(failure);
+                    log.error("Error during rule evaluation: userId={}, ruleCollectionIds={}, error={}",
+                            userId, ruleCollectionIds, e.getMessage(), e);
+
+                    List<RuleCollectionResult> failedResults = ruleCollectionIds.stream()
+                        .map(ruleCollectionId -> new RuleCollectionResult(
+                            ruleCollectionId,
+                            false,
+                            "Internal error during rule evaluation: " + e.getMessage()
+                        ))
+                        .toList();
 
-    private record CouponWithRuleEvaluationResult(
-            CouponUser couponUser,
-            BigDecimal discountAmount,
-            boolean isValid,
-            String errorMessage
-    ) {
+                    return new EvaluateRuleResponsePayload(requestID, userId, failedResults);
+                });
     }
 
     @Observed(name = "apply-coupon-auto-parallel-sync", contextualName = "parallel-auto-coupon-application-sync")
@@ -914,7 +1426,12 @@ public class CouponService {
 
             if (result.isSuccess() && result.getCouponId() != null) {
 
-                invalidateCacheCouponUser(userId, result.getCouponId());
+                // Auto apply only ranks coupons the wallet lists as claimed
+                CouponUserStateStore.Transition transition = markCouponUserUsed(userId, result.getCouponId(),
+                        CouponUser.CouponUserStatus.CLAIMED);
+                if (!transition.applied()) {
+                    return CouponApplicationResult.failure("Coupon is already used", CouponErrorCode.COUPON_ALREADY_USED.name());
+                }
 
                 log.info("Parallel auto coupon applied successfully: couponId={}, discount={}",
                         result.getCouponId(), result.getDiscountAmount());
@@ -928,41 +1445,53 @@ public class CouponService {
     }
 
 
-    private boolean executeUnderLock(Integer userId, Integer couponId, Supplier<Boolean> operation) {
-        RedisLockService.LockResult lockResult = null;
-
-        try {
-            lockResult = redisLockService.acquireCouponUserLock(userId, couponId);
-            if (!lockResult.acquired()) {
-                log.warn("Lock already held - operation rejected: userId={}, couponId={}, error={}",
-                        userId, couponId, lockResult.errorMessage());
-                throw new RuntimeException("Operation rejected - coupon is being processed by another request: " + lockResult.errorMessage());
-            }
-            log.debug("Lock acquired for operation: userId={}, couponId={}, lockId={}",
-                    userId, couponId, lockResult.lockId());
-            return operation.get();
-        } catch (Exception e) {
-            log.error("Error executing operation under lock: userId={}, couponId={}, error={}",
-                    userId, couponId, e.getMessage(), e);
-            throw e;
-        } finally {
-            if (lockResult != null && lockResult.acquired()) {
-                boolean released = redisLockService.releaseLock(lockResult);
-                if (released) {
-                    log.debug("Lock released for operation: userId={}, couponId={}", userId, couponId);
-                } else {
-                    log.warn("Failed to release lock for operation: userId={}, couponId={}", userId, couponId);
-                }
-            }
+    /**
+     * CLAIMED to USED as one compare-and-set in Redis instead of a lock; exactly one concurrent
+     * caller wins and the others get {@code applied == false}. The winner then drops the coupon
+     * from the cached wallet; if that fails the stale entry is harmless, since every later use
+     * loses the compare-and-set.
+     *
+     * @param observed the status the caller read, used when Redis no longer holds one
+     */
+    @PerformanceMonitor
+    @Observed(name = "mark-coupon-user-used", contextualName = "CouponService.markCouponUserUsed")
+    public CouponUserStateStore.Transition markCouponUserUsed(Integer userId, Integer couponId,
+                                                              CouponUser.CouponUserStatus observed) {
+        CouponUserStateStore.Transition transition = couponUserStateStore.transition(userId, couponId,
+                CouponUser.CouponUserStatus.CLAIMED, CouponUser.CouponUserStatus.USED, observed);
+        if (transition.applied() && !couponCacheService.invalidateUserCache(userId, couponId)) {
+            log.warn("Failed to drop used coupon from cached wallet: userId={}, couponId={}", userId, couponId);
         }
+        return transition;
     }
 
+    /**
+     * Undoes a use: USED back to CLAIMED through the same compare-and-set, then a fenced row
+     * update, and the coupon goes back into the wallet if it is cached.
+     *
+     * @return false if the coupon was not in use any more
+     */
     @PerformanceMonitor
-    @Observed(name = "invalidate-coupon-user-cache", contextualName = "CouponService.invalidateCouponUserCache")
-    public boolean invalidateCacheCouponUser(Integer userId, Integer couponId) {
-        return executeUnderLock(userId, couponId, () -> {
-            return couponCacheService.invalidateUserCache(userId, couponId);
-        });
+    @Observed(name = "restore-coupon-user", contextualName = "CouponService.restoreCouponUser")
+    public boolean restoreCouponUser(CouponUser couponUser) {
+        Integer userId = couponUser.getUserId();
+        Integer couponId = couponUser.getCouponId();
+        CouponUserStateStore.Transition transition = couponUserStateStore.transition(userId, couponId,
+                CouponUser.CouponUserStatus.USED, CouponUser.CouponUserStatus.CLAIMED, CouponUser.CouponUserStatus.USED);
+        if (!transition.applied()) {
+            log.info("Coupon usage already rolled back: userId={}, couponId={}", userId, couponId);
+            return false;
+        }
+
+        updateCoupon(couponId, userId, CouponUser.CouponUserStatus.CLAIMED, null, transition.version());
+        couponCacheService.addUserCouponClaim(userId, UserCouponClaimInfo.builder()
+                .couponUserId(couponUser.getId())
+                .userId(userId)
+                .couponId(couponId)
+                .claimedDate(couponUser.getClaimedAt())
+                .expiryDate(couponUser.getExpiryDate())
+                .build());
+        return true;
     }
 
     @Observed(name = "list-coupons", contextualName = "coupons-listing")
@@ -1005,78 +1534,53 @@ public class CouponService {
     ) {
     }
 
+    /**
+     * Keyset variant of {@link #listCoupons}: seeks past the coupon id in {@code pageToken}
+     * and reads one extra row to tell whether another page exists, instead of counting.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    @Observed(name = "list-coupons-page", contextualName = "coupons-keyset-listing")
+    public CouponsPage listCouponsPage(String pageToken, int size) {
+        log.info("Listing coupons page: size={}", size);
 
-    @Observed(name = "get-coupon-detail-by-code", contextualName = "coupon-detail-fetch")
-    private Optional<CouponDetail> getCouponDetailByCode(String couponCode) {
-        Optional<Coupon> couponOpt = couponRepository.findByCodeIgnoreCase(couponCode);
-        if (couponOpt.isEmpty()) {
-            return Optional.empty();
-        }
+        int afterCouponId = PageToken.decodeCoupons(pageToken);
 
-        Coupon coupon = couponOpt.get();
+        try {
+            List<Coupon> coupons = couponKeysetRepository.findCouponsAfter(afterCouponId, size + 1);
+            boolean hasNext = coupons.size() > size;
+            List<Coupon> pageCoupons = hasNext ? coupons.subList(0, size) : coupons;
 
-        Optional<CouponDetail> cachedDetail = couponCacheService.getCachedCouponDetail(coupon.getId());
-        if (cachedDetail.isPresent()) {
-            log.debug("Cache hit for coupon detail: couponCode={}, couponId={}", couponCode, coupon.getId());
-            return cachedDetail;
-        }
+            List<CouponDetail> couponDetails = pageCoupons.stream()
+                    .map(CouponDetail::fromCoupon)
+                    .toList();
+            String nextPageToken = hasNext ? PageToken.forCoupons(pageCoupons.get(size - 1).getId()) : "";
 
-        CouponDetail couponDetail = CouponDetail.fromCoupon(coupon);
-        couponCacheService.cacheCouponDetail(coupon.getId(), couponDetail);
-        log.debug("Cache miss for coupon detail: couponCode={}, couponId={} - cached", couponCode, coupon.getId());
+            log.info("Coupons page listed from database: size={}, returnedCount={}, hasNext={}",
+                    size, couponDetails.size(), hasNext);
 
-        return Optional.of(couponDetail);
+            return new CouponsPage(couponDetails, size, nextPageToken);
+
+        } catch (Exception e) {
+            log.error("Error listing coupons page: size={}, error={}", size, e.getMessage(), e);
+            throw new RuntimeException("Failed to list coupons: " + e.getMessage(), e);
+        }
     }
 
-    private record DatabaseCouponsResult(
-            List<UserCouponClaimInfo> userCouponClaimInfos,
-            Map<Integer, CouponDetail> couponDetailMap
+    public record CouponsPage(
+            List<CouponDetail> couponDetails,
+            int size,
+            String nextPageToken
     ) {
     }
 
 
-    private List<CouponUser> getAvailableCouponsForUser(Integer userId) {
-        Optional<UserCouponIds> cachedUserCoupons = couponCacheService.getCachedUserCouponIds(userId);
-        if (cachedUserCoupons.isPresent()) {
-            log.debug("Cache hit for user coupons: userId={}", userId);
-            return buildCouponUsersFromCache(cachedUserCoupons.get());
-        }
-
-        log.debug("Cache miss for user coupons: userId={}", userId);
-        return loadAndCacheAvailableCouponsOptimized(userId);
+    private record DatabaseCouponsResult(
+            List<UserCouponClaimInfo> userCouponClaimInfos,
+            Map<Integer, CouponDetail> couponDetailMap
+    ) {
     }
 
-    private List<CouponUser> buildCouponUsersFromCache(UserCouponIds cachedUserCoupons) {
-        List<UserCouponClaimInfo> userCouponClaimInfos = cachedUserCoupons.getCouponDetails();
-
-        List<Integer> couponIds = userCouponClaimInfos.stream()
-                .map(UserCouponClaimInfo::getCouponId)
-                .toList();
-
-        Map<Integer, CouponDetail> cachedCouponDetails = couponCacheService.getCachedCouponDetailsBatch(couponIds);
-
-        List<Integer> missingCouponIds = couponIds.stream()
-                .filter(id -> !cachedCouponDetails.containsKey(id))
-                .toList();
-
-        if (!missingCouponIds.isEmpty()) {
-            log.debug("Cache miss for some coupon details: missingCount={}", missingCouponIds.size());
-            Map<Integer, CouponDetail> missingCouponDetails = loadMissingCouponDetails(missingCouponIds);
-            cachedCouponDetails.putAll(missingCouponDetails);
-        }
-
-        return userCouponClaimInfos.parallelStream()
-                .map(claimInfo -> {
-                    CouponDetail couponDetail = cachedCouponDetails.get(claimInfo.getCouponId());
-                    if (couponDetail != null) {
-                        return CouponUser.buildFromDetailAndClaimInfo(couponDetail, claimInfo);
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .filter(couponUser -> couponUser.isUsable(LocalDateTime.now()))
-                .toList();
-    }
 
     private Map<Integer, CouponDetail> loadMissingCouponDetails(List<Integer> missingCouponIds) {
         Map<Integer, CouponDetail> missingCouponDetails = new HashMap<>();
@@ -1087,11 +1591,10 @@ public class CouponService {
                 .map(Optional::get)
                 .toList();
 
-        missingCoupons.parallelStream().forEach(coupon -> {
-            CouponDetail couponDetail = CouponDetail.fromCoupon(coupon);
-            missingCouponDetails.put(coupon.getId(), couponDetail);
-            couponCacheService.cacheCouponDetail(coupon.getId(), couponDetail);
-        });
+        for (Coupon coupon : missingCoupons) {
+            missingCouponDetails.put(coupon.getId(), CouponDetail.fromCoupon(coupon));
+        }
+        couponCacheService.cacheCouponDetailsBatch(missingCouponDetails);
 
         return missingCouponDetails;
     }
@@ -1128,51 +1631,51 @@ public class CouponService {
 
     @Observed(name = "register-budget-for-coupon", contextualName = "budget-registration")
     @PerformanceMonitor
-    public BudgetRegistrationResult registerBudgetForCoupon(Long couponUserId, Integer userId, Integer couponId, Integer budgetId, BigDecimal discountAmount) {
+    public CompletableFuture<BudgetRegistrationResult> registerBudgetForCouponAsync(Long couponUserId, Integer userId, Integer couponId,
+                                                                                  Integer budgetId, BigDecimal discountAmount) {
         log.info("Registering budget for coupon: userId={}, couponId={}, budgetId={}, discountAmount={}",
                 userId, couponId, budgetId, discountAmount);
 
-        try {
-            String requestId = UUID.randomUUID().toString();
-
-            Channel channel = grpcClientFactory.getBudgetServiceChannel();
-            BudgetServiceGrpc.BudgetServiceBlockingStub stub = BudgetServiceGrpc.newBlockingStub(channel);
-
-            var grpcRequest = BudgetServiceProto.RegisterBudgetCouponRequest.newBuilder()
-                    .setRequestId(requestId)
-                    .setCouponUserId(couponUserId)
-                    .setUserId(userId)
-                    .setCouponId(couponId)
-                    .setBudgetId(budgetId)
-                    .setDiscountAmount(discountAmount.doubleValue())
-                    .build();
-
-            var grpcResponse = stub.register(grpcRequest);
+        String requestId = UUID.randomUUID().toString();
+        var grpcRequest = BudgetServiceProto.RegisterBudgetCouponRequest.newBuilder()
+                .setRequestId(requestId)
+                .setCouponUserId(couponUserId)
+                .setUserId(userId)
+                .setCouponId(couponId)
+                .setBudgetId(budgetId)
+                .setDiscountAmount(discountAmount.doubleValue())
+                .build();
 
-            if (grpcResponse.getStatus().getCode() != BudgetServiceProto.StatusCode.OK) {
-                log.warn("Budget registration failed: userId={}, couponId={}, budgetId={}, status={}, message={}",
-                        userId, couponId, budgetId, grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
+        return budgetServiceClient.register(grpcRequest)
+                .thenApply(grpcResponse -> toBudgetRegistrationResult(grpcResponse, userId, couponId, budgetId))
+                .exceptionally(failure -> {
+                    Throwable e = GrpcFutures.unwrap(failure);
+                    log.error("Error registering budget: userId={}, couponId={}, budgetId={}, error={}",
+                            userId, couponId, budgetId, e.getMessage(), e);
+                    return BudgetRegistrationResult.failure("Budget registration error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+                });
+    }
 
-                return BudgetRegistrationResult.failure(grpcResponse.getStatus().getMessage(), grpcResponse.getError().getCode());
-            }
+    private BudgetRegistrationResult toBudgetRegistrationResult(BudgetServiceProto.RegisterBudgetCouponResponse grpcResponse,
+                                                                Integer userId, Integer couponId, Integer budgetId) {
+        if (grpcResponse.getStatus().getCode() != BudgetServiceProto.StatusCode.OK) {
+            log.warn("Budget registration failed: userId={}, couponId={}, budgetId={}, status={}, message={}",
+                    userId, couponId, budgetId, grpcResponse.getStatus().getCode(), grpcResponse.getStatus().getMessage());
 
-            boolean isSuccess = grpcResponse.getPayload().getSuccess();
-            String message = grpcResponse.getPayload().getMessage();
-            String errorCode = grpcResponse.getError().getCode();
-            if (isSuccess) {
-                log.info("Budget registration successful: userId={}, couponId={}, budgetId={}",
-                        userId, couponId, budgetId);
-                return BudgetRegistrationResult.success("Budget registered successfully");
-            } else {
-                log.info("Budget registration failed: userId={}, couponId={}, budgetId={}, message={}",
-                        userId, couponId, budgetId, message);
-                return BudgetRegistrationResult.failure("Budget registration failed: " + message, errorCode);
-            }
+            return BudgetRegistrationResult.failure(grpcResponse.getStatus().getMessage(), grpcResponse.getError().getCode());
+        }
 
-        } catch (Exception e) {
-            log.error("Error registering budget: userId={}, couponId={}, budgetId={}, error={}",
-                    userId, couponId, budgetId, e.getMessage(), e);
-            return BudgetRegistrationResult.failure("Budget registration error: " + e.getMessage(), CouponErrorCode.INTERNAL_ERROR.name());
+        boolean isSuccess = grpcResponse.getPayload().getSuccess();
+        String message = grpcResponse.getPayload().getMessage();
+        String errorCode = grpcResponse.getError().getCode();
+        if (isSuccess) {
+            log.info("Budget registration successful: userId={}, couponId={}, budgetId={}",
+                    userId, couponId, budgetId);
+            return BudgetRegistrationResult.success("Budget registered successfully");
+        } else {
+            log.info("Budget registration failed: userId={}, couponId={}, budgetId={}, message={}",
+                    userId, couponId, budgetId, message);
+            return BudgetRegistrationResult.failure("Budget registration failed: " + message, errorCode);
         }
     }
 
@@ -4,35 +4,51 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.couponmanagement.dto.UpdateCouponEvent;
 import org.couponmanagement.repository.CouponRepository;
-import org.couponmanagement.repository.CouponUserRepository;
+import org.couponmanagement.repository.CouponUserBulkRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @Slf4j
 @AllArgsConstructor
 public class UpdateCouponService {
-    private final CouponUserRepository couponUserRepository;
+    private final CouponUserBulkRepository couponUserBulkRepository;
 
+    /**
+     * Fenced by the event's version like the batch write; a stale event updates nothing.
+     */
     @Transactional
     public void updateCouponUsageStatus(UpdateCouponEvent event) {
         try {
-            int updated = couponUserRepository.markCouponUsed(
-                    event.getUserId(),
-                    event.getCouponId(),
-                    event.getUsedAt(),
-                    event.getNewStatus()
-            );
-            if (updated > 0) {
+            int updated = couponUserBulkRepository.updateStatuses(List.of(event))[0];
+            if (updated != 0) {
                 log.info("Updated coupon usage status for couponId: {}, userId: {} to status: {}",
                         event.getCouponId(), event.getUserId(), event.getNewStatus());
             } else {
-                log.warn("No coupon usage record found to update for couponId: {}, userId: {}",
-                        event.getCouponId(), event.getUserId());
+                log.warn("No current coupon usage record to update for couponId: {}, userId: {}, version: {}",
+                        event.getCouponId(), event.getUserId(), event.fenceVersion());
             }
         } catch (Exception e) {
             log.error("Error updating coupon usage status for couponId: {}, userId: {}: {}", event.getCouponId(), event.getUserId(), e.getMessage(), e);
             throw e;
         }
     }
+
+    /**
+     * Applies already-collapsed events, at most one per (user, coupon), in one transaction and
+     * one JDBC batch. Any failure rolls back the whole batch.
+     */
+    @Transactional
+    public void updateCouponUsageStatuses(List<UpdateCouponEvent> events) {
+        int[] counts = couponUserBulkRepository.updateStatuses(events);
+        int missing = 0;
+        for (int count : counts) {
+            if (count == 0) {
+                missing++;
+            }
+        }
+        log.info("Updated coupon usage statuses in batch: events={}, noRecord={}", events.size(), missing);
+    }
 }
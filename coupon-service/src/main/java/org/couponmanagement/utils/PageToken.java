@@ -0,0 +1,82 @@
+package org.couponmanagement.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors for paged RPCs. A token carries the last id returned, so the next
+ * page seeks past it instead of skipping an offset; user tokens also carry the user id and are
+ * rejected for any other user.
+ */
+public final class PageToken {
+
+    private static final String COUPONS = "c";
+    private static final String USER_COUPONS = "u";
+
+    private PageToken() {
+    }
+
+    public static String forCoupons(int lastCouponId) {
+        return encode(COUPONS + ":" + lastCouponId);
+    }
+
+    /**
+     * @return the last coupon id of the previous page, or 0 for an empty token
+     */
+    public static int decodeCoupons(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        String[] parts = decode(token);
+        if (parts.length != 2 || !COUPONS.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        long lastCouponId = parseId(parts[1]);
+        if (lastCouponId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        return (int) lastCouponId;
+    }
+
+    public static String forUserCoupons(int userId, long lastCouponUserId) {
+        return encode(USER_COUPONS + ":" + userId + ":" + lastCouponUserId);
+    }
+
+    /**
+     * @return the last coupon_user id of the previous page, or 0 for an empty token
+     */
+    public static long decodeUserCoupons(String token, int userId) {
+        if (token == null || token.isEmpty()) {
+            return 0L;
+        }
+        String[] parts = decode(token);
+        if (parts.length != 3 || !USER_COUPONS.equals(parts[0]) || parseId(parts[1]) != userId) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+        return parseId(parts[2]);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+
+    private static long parseId(String value) {
+        try {
+            long id = Long.parseLong(value);
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid page token");
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.couponmanagement.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.couponmanagement.entity.Coupon;
+import org.couponmanagement.repository.CouponRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCodeFilterTest {
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CouponCodeFilter codeFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        codeFilter = new CouponCodeFilter(couponRepository, new CouponCacheProperties(), meterRegistry);
+    }
+
+    @Test
+    void isKnownMissing_PassesEverythingUntilBuilt() {
+        assertThat(codeFilter.isReady()).isFalse();
+        assertThat(codeFilter.isKnownMissing("ANYTHING")).isFalse();
+    }
+
+    @Test
+    void rebuild_RejectsUnknownCodesCaseInsensitively() {
+        givenCoupons("SAVE10", "Welcome5");
+
+        codeFilter.rebuild();
+
+        assertThat(codeFilter.isReady()).isTrue();
+        assertThat(codeFilter.isKnownMissing("save10")).isFalse();
+        assertThat(codeFilter.isKnownMissing("WELCOME5")).isFalse();
+        assertThat(codeFilter.isKnownMissing("BRUTE-FORCE-123")).isTrue();
+        assertThat(meterRegistry.get("coupon_code_bloom_size_bytes").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("coupon_code_bloom_expected_fpp").gauge().value()).isLessThan(0.01);
+    }
+
+    @Test
+    void recordMissing_IsClearedWhenCodeIsCreated() {
+        codeFilter.recordMissing("LAUNCH50");
+        assertThat(codeFilter.isKnownMissing("launch50")).isTrue();
+
+        codeFilter.add("LAUNCH50");
+
+        assertThat(codeFilter.isKnownMissing("LAUNCH50")).isFalse();
+    }
+
+    @Test
+    void add_MakesNewCodeKnownAfterBuild() {
+        givenCoupons("SAVE10");
+        codeFilter.rebuild();
+        assertThat(codeFilter.isKnownMissing("NEWCODE")).isTrue();
+
+        codeFilter.add("NewCode");
+
+        assertThat(codeFilter.isKnownMissing("NEWCODE")).isFalse();
+    }
+
+    @Test
+    void markStale_PassesUnknownCodesUntilRebuilt() {
+        givenCoupons("SAVE10");
+        codeFilter.rebuild();
+
+        // A peer's new code may have been published while this node was not listening
+        codeFilter.markStale();
+        assertThat(codeFilter.isKnownMissing("PEERCODE")).isFalse();
+
+        codeFilter.rebuild();
+        assertThat(codeFilter.isStale()).isFalse();
+        assertThat(codeFilter.isKnownMissing("PEERCODE")).isTrue();
+    }
+
+    private void givenCoupons(String... codes) {
+        List<Coupon> coupons = Arrays.stream(codes)
+                .map(code -> Coupon.builder().code(code).build())
+                .toList();
+        when(couponRepository.count()).thenReturn((long) coupons.size());
+        when(couponRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(coupons));
+    }
+}
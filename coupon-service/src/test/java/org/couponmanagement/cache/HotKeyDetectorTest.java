@@ -0,0 +1,50 @@
+package org.couponmanagement.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyDetectorTest {
+
+    @Test
+    void record_FlagsKeyOnceItReachesThreshold() {
+        HotKeyDetector detector = new HotKeyDetector(256, 4, 1.0, 10, 4);
+
+        IntStream.range(0, 9).forEach(i -> detector.record("coupon:info:WELCOME10"));
+        assertThat(detector.isHot("coupon:info:WELCOME10")).isFalse();
+
+        assertThat(detector.record("coupon:info:WELCOME10")).isTrue();
+        assertThat(detector.hotKeys()).extracting(HotKeyDetector.HotKey::key)
+                .containsExactly("coupon:info:WELCOME10");
+        assertThat(detector.isHot("coupon:info:OTHER")).isFalse();
+    }
+
+    @Test
+    void record_KeepsOnlyHottestKeysWhenFull() {
+        HotKeyDetector detector = new HotKeyDetector(256, 4, 1.0, 5, 2);
+
+        IntStream.range(0, 6).forEach(i -> detector.record("a"));
+        IntStream.range(0, 8).forEach(i -> detector.record("b"));
+        IntStream.range(0, 20).forEach(i -> detector.record("c"));
+
+        assertThat(detector.hotKeySet()).containsExactlyInAnyOrder("b", "c");
+        assertThat(detector.hotKeys().get(0).key()).isEqualTo("c");
+    }
+
+    @Test
+    void decay_DropsKeysThatCooledDown() {
+        HotKeyDetector detector = new HotKeyDetector(256, 4, 1.0, 8, 4);
+        IntStream.range(0, 8).forEach(i -> detector.record("viral"));
+        assertThat(detector.isHot("viral")).isTrue();
+
+        detector.decay();
+        assertThat(detector.isHot("viral")).isTrue();
+        assertThat(detector.estimate("viral")).isEqualTo(4);
+
+        detector.decay();
+        detector.decay();
+        assertThat(detector.isHot("viral")).isFalse();
+    }
+}
@@ -0,0 +1,140 @@
+package org.couponmanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.couponmanagement.cache.codec.CacheCodecRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisCacheServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private CacheCodecRegistry codecRegistry;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CouponCacheProperties cacheProperties;
+    private RedisCacheService redisCacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheProperties = new CouponCacheProperties();
+        redisCacheService = new RedisCacheService(redisTemplate, new ObjectMapper(), cacheProperties, meterRegistry, codecRegistry);
+    }
+
+    @Test
+    void multiGet_ReturnsOnlyHitsInOneRoundTrip() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("a", "b", "c")))
+                .thenReturn(Arrays.asList("1", null, 3));
+
+        Map<String, Integer> result = redisCacheService.multiGet(List.of("a", "b", "c"), Integer.class);
+
+        assertThat(result).containsOnlyKeys("a", "c");
+        assertThat(result.get("a")).isEqualTo(1);
+        assertThat(result.get("c")).isEqualTo(3);
+        verify(valueOperations, times(1)).multiGet(anyList());
+        assertThat(meterRegistry.find("coupon_redis_batch_duration").tag("operation", "mget").timer())
+                .isNotNull();
+    }
+
+    @Test
+    void multiGet_SplitsIntoChunks() {
+        cacheProperties.setBatchChunkSize(2);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(k -> (Object) "7").toList());
+
+        Map<String, Integer> result = redisCacheService.multiGet(List.of("a", "b", "c"), Integer.class);
+
+        assertThat(result).hasSize(3);
+        verify(valueOperations, times(2)).multiGet(anyList());
+    }
+
+    @Test
+    void multiGet_RedisFailureIsTreatedAsMiss() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new RuntimeException("connection reset"));
+
+        Map<String, Integer> result = redisCacheService.multiGet(List.of("a"), Integer.class);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void putAll_UsesSinglePipeline() {
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+
+        redisCacheService.putAll(Map.of("a", 1, "b", 2), 60);
+
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void getHashFields_ReadsOnlyRequestedFieldsWithOneHmget() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+        when(redisTemplate.getValueSerializer()).thenReturn((RedisSerializer) new GenericJackson2JsonRedisSerializer());
+        when(codecRegistry.decoderFor(any())).thenReturn(Optional.empty());
+        when(hashCommands.hMGet(eq(bytes("wallet:1")), any(byte[][].class)))
+                .thenReturn(Arrays.asList(bytes("_"), bytes("\"7\""), null));
+
+        Optional<Map<String, Integer>> result =
+                redisCacheService.getHashFields("wallet:1", List.of("10", "11"), Integer.class);
+
+        assertThat(result).hasValueSatisfying(fields -> assertThat(fields).containsOnly(Map.entry("10", 7)));
+        verify(hashCommands, never()).hGetAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getHashFields_MissingMarkerMeansNotCached() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+        when(hashCommands.hMGet(any(), any(byte[][].class))).thenReturn(Arrays.asList((byte[]) null, null));
+
+        assertThat(redisCacheService.getHashFields("wallet:1", List.of("10"), Integer.class)).isEmpty();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
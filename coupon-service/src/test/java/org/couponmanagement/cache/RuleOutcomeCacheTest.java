@@ -0,0 +1,118 @@
+package org.couponmanagement.cache;
+
+import io.grpc.Context;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.couponmanagement.grpc.client.RuleServiceAsyncClient;
+import org.couponmanagement.rule.bounds.RuleBoundsServiceProto;
+import org.couponmanagement.rule.engine.CollectionOutcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RuleOutcomeCacheTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 7, 27, 10, 15);
+
+    @Mock
+    private RuleServiceAsyncClient ruleServiceClient;
+
+    private RuleOutcomeCache outcomeCache;
+
+    @BeforeEach
+    void setUp() {
+        outcomeCache = new RuleOutcomeCache(ruleServiceClient, new CouponCacheProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void bucket_SeparatesOpenIntervalsFromBounds() {
+        double[] bounds = {100.0, 500.0};
+
+        assertThat(RuleOutcomeCache.bucket(bounds, 50.0)).isZero();
+        assertThat(RuleOutcomeCache.bucket(bounds, 100.0)).isEqualTo(1);
+        assertThat(RuleOutcomeCache.bucket(bounds, 100.01)).isEqualTo(2);
+        assertThat(RuleOutcomeCache.bucket(bounds, 499.99)).isEqualTo(2);
+        assertThat(RuleOutcomeCache.bucket(bounds, 500.0)).isEqualTo(3);
+        assertThat(RuleOutcomeCache.bucket(bounds, 10_000.0)).isEqualTo(4);
+        assertThat(RuleOutcomeCache.bucket(new long[0], 42L)).isZero();
+    }
+
+    @Test
+    void getAll_HitsOnlyWithinTheSameBuckets() {
+        givenBounds(bounds(7, "v1", true, 100.0));
+
+        assertThat(outcomeCache.getAll(List.of(7), 150.0, MORNING)).isEmpty();
+        outcomeCache.putAll(List.of(7), 150.0, MORNING, Map.of());
+
+        assertThat(outcomeCache.getAll(List.of(7), 420.0, MORNING.withHour(11)))
+                .hasValueSatisfying(outcomes -> assertThat(outcomes.get(7).success()).isTrue());
+        assertThat(outcomeCache.getAll(List.of(7), 100.0, MORNING)).isEmpty();
+        assertThat(outcomeCache.getAll(List.of(7, 0), 420.0, MORNING)).hasValueSatisfying(outcomes ->
+                assertThat(outcomes).containsOnlyKeys(7, 0));
+        verify(ruleServiceClient, times(1)).getCollectionBounds(any());
+    }
+
+    @Test
+    void putAll_KeepsFailureMessagesAndSkipsUncacheableCollections() {
+        givenBounds(bounds(7, "v1", true, 100.0), bounds(8, "", false));
+        outcomeCache.getAll(List.of(7, 8), 50.0, MORNING);
+
+        outcomeCache.putAll(List.of(7, 8), 50.0, MORNING, Map.of(7, "Order below minimum"));
+
+        assertThat(outcomeCache.getAll(List.of(7), 60.0, MORNING)).hasValueSatisfying(outcomes ->
+                assertThat(outcomes.get(7)).isEqualTo(CollectionOutcome.failure("Order below minimum")));
+        assertThat(outcomeCache.getAll(List.of(7, 8), 60.0, MORNING)).isEmpty();
+    }
+
+    @Test
+    void getAll_LoadsBoundsOutsideTheTriggeringRequest() {
+        AtomicBoolean cancelledAtCall = new AtomicBoolean(true);
+        when(ruleServiceClient.getCollectionBounds(any())).thenAnswer(invocation -> {
+            cancelledAtCall.set(Context.current().isCancelled());
+            return new CompletableFuture<>();
+        });
+        Context.CancellableContext request = Context.current().withCancellation();
+        request.cancel(null);
+
+        request.run(() -> outcomeCache.getAll(List.of(7), 150.0, MORNING));
+
+        assertThat(cancelledAtCall).isFalse();
+    }
+
+    private void givenBounds(RuleBoundsServiceProto.CollectionBounds... bounds) {
+        when(ruleServiceClient.getCollectionBounds(any())).thenReturn(CompletableFuture.completedFuture(
+                RuleBoundsServiceProto.GetCollectionBoundsResponse.newBuilder()
+                        .setStatus(RuleBoundsServiceProto.Status.newBuilder()
+                                .setCode(RuleBoundsServiceProto.StatusCode.OK))
+                        .setPayload(RuleBoundsServiceProto.GetCollectionBoundsResponsePayload.newBuilder()
+                                .addAllCollectionBounds(List.of(bounds)))
+                        .build()));
+    }
+
+    private static RuleBoundsServiceProto.CollectionBounds bounds(int collectionId, String version, boolean cacheable,
+                                                                  Double... amounts) {
+        return RuleBoundsServiceProto.CollectionBounds.newBuilder()
+                .setRuleCollectionId(collectionId)
+                .setVersion(version)
+                .setCacheable(cacheable)
+                .addAllAmountBounds(List.of(amounts))
+                .addTimeOfDayBounds(LocalTime.of(9, 0).toNanoOfDay())
+                .addTimeOfDayBounds(LocalTime.of(17, 0).toNanoOfDay())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package org.couponmanagement.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightCacheLoaderTest {
+
+    private CouponCacheProperties cacheProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlightCacheLoader loader;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new CouponCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        loader = new SingleFlightCacheLoader(cacheProperties, meterRegistry, Runnable::run);
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void load_ConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Integer> leader = callers.submit(() -> loader.load("coupon:info:HOT", () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return 42;
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(callers.submit(() -> loader.load("coupon:info:HOT", () -> {
+                loads.incrementAndGet();
+                return -1;
+            })));
+        }
+        waitForSharedLoads(5);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        for (Future<Integer> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void load_FailureIsRethrownAndNextCallLoadsAgain() {
+        assertThrows(IllegalStateException.class, () -> loader.load("coupon:info:BAD", () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertThat(loader.load("coupon:info:BAD", () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void shouldRefreshEarly_OnlyNearExpiry() {
+        loader.track("far", TimeUnit.HOURS.toMillis(1));
+        loader.track("expired", 0);
+
+        assertThat(loader.shouldRefreshEarly("far")).isFalse();
+        assertThat(loader.shouldRefreshEarly("expired")).isTrue();
+        assertThat(loader.shouldRefreshEarly("untracked")).isFalse();
+
+        cacheProperties.setEarlyRefreshEnabled(false);
+        assertThat(loader.shouldRefreshEarly("expired")).isFalse();
+    }
+
+    @Test
+    void refreshAsync_ReloadsAndResetsWindow() {
+        loader.track("coupon:info:HOT", 0);
+        AtomicInteger reloads = new AtomicInteger();
+
+        loader.refreshAsync("coupon:info:HOT", 3600, reloads::incrementAndGet);
+
+        assertThat(reloads.get()).isEqualTo(1);
+        assertThat(loader.shouldRefreshEarly("coupon:info:HOT")).isFalse();
+    }
+
+    private void waitForSharedLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("coupon_cache_loads_total", "result", "shared").count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.couponmanagement.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.couponmanagement.dto.CouponDetail;
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.dto.UserCouponIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactBinaryCodecTest {
+
+    private CompactBinaryCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = newCodec(1024);
+    }
+
+    @Test
+    void couponDetail_RoundTripsAndIsSmallerThanJson() throws Exception {
+        CouponDetail detail = CouponDetail.builder()
+                .couponId(42)
+                .couponCode("SAVE10")
+                .title("Save 10%")
+                .type("PERCENTAGE")
+                .status("ACTIVE")
+                .collectionKeyId(7)
+                .discountConfigJson("{\"type\":\"PERCENTAGE\",\"value\":10}")
+                .isActive(true)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .expiryDate(LocalDateTime.of(2025, 12, 31, 23, 59, 59))
+                .updatedAt(LocalDateTime.of(2025, 2, 1, 8, 30, 0, 123_000_000))
+                .build();
+
+        byte[] encoded = codec.encode(detail);
+        CouponDetail decoded = codec.decode(encoded, CouponDetail.class);
+
+        assertThat(decoded).isEqualTo(detail);
+        assertThat(encoded.length).isLessThan(new ObjectMapper().findAndRegisterModules()
+                .writeValueAsBytes(detail).length);
+    }
+
+    @Test
+    void userCouponIds_LargeWalletIsCompressed() throws Exception {
+        Map<Integer, UserCouponClaimInfo> info = new HashMap<>();
+        LocalDateTime claimed = LocalDateTime.of(2025, 3, 1, 12, 0);
+        for (int couponId = 1; couponId <= 200; couponId++) {
+            info.put(couponId, new UserCouponClaimInfo((long) couponId, 99, couponId, claimed, claimed.plusDays(30)));
+        }
+        UserCouponIds wallet = new UserCouponIds(info, claimed, info.size());
+
+        byte[] encoded = codec.encode(wallet);
+        UserCouponIds decoded = codec.decode(encoded, UserCouponIds.class);
+
+        assertThat(encoded[1] & 0x01).isEqualTo(1);
+        assertThat(decoded).isEqualTo(wallet);
+        assertThat(newCodec(Integer.MAX_VALUE).encode(wallet).length).isGreaterThan(encoded.length);
+    }
+
+    @Test
+    void userCouponClaimInfo_RoundTrips() throws Exception {
+        LocalDateTime claimed = LocalDateTime.of(2025, 3, 1, 12, 0);
+        UserCouponClaimInfo claim = new UserCouponClaimInfo(17L, 99, 5, claimed, claimed.plusDays(30));
+
+        byte[] encoded = codec.encode(claim);
+
+        assertThat(codec.decode(encoded, UserCouponClaimInfo.class)).isEqualTo(claim);
+        assertThat(encoded.length).isLessThan(24);
+    }
+
+    @Test
+    void canDecode_RejectsLegacyJson() {
+        assertThat(codec.canDecode("{\"couponId\":1}".getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(codec.canDecode("\"{\\\"couponId\\\":1}\"".getBytes(StandardCharsets.UTF_8))).isFalse();
+    }
+
+    @Test
+    void decode_RejectsMismatchedType() throws Exception {
+        byte[] encoded = codec.encode(new UserCouponIds(new HashMap<>(), null, 0));
+
+        assertThrows(IOException.class, () -> codec.decode(encoded, CouponDetail.class));
+    }
+
+    @Test
+    void writerAndReader_HandleNullsAndNegativeValues() throws Exception {
+        byte[] bytes = new BinaryWriter()
+                .writeNullableInt(null)
+                .writeNullableInt(-5)
+                .writeVarInt(Integer.MIN_VALUE)
+                .writeVarLong(Long.MAX_VALUE)
+                .writeString(null)
+                .writeString("")
+                .writeTimestamp(null)
+                .toByteArray();
+
+        BinaryReader reader = new BinaryReader(bytes);
+        assertThat(reader.readNullableInt()).isNull();
+        assertThat(reader.readNullableInt()).isEqualTo(-5);
+        assertThat(reader.readVarInt()).isEqualTo(Integer.MIN_VALUE);
+        assertThat(reader.readVarLong()).isEqualTo(Long.MAX_VALUE);
+        assertThat(reader.readString()).isNull();
+        assertThat(reader.readString()).isEmpty();
+        assertThat(reader.readTimestamp()).isNull();
+        assertThat(reader.remaining()).isZero();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static CompactBinaryCodec newCodec(int compressionThresholdBytes) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("couponDetailBinarySchema", new CouponDetailBinarySchema());
+        beanFactory.addBean("userCouponIdsBinarySchema", new UserCouponIdsBinarySchema());
+        beanFactory.addBean("userCouponClaimInfoBinarySchema", new UserCouponClaimInfoBinarySchema());
+        ObjectProvider<BinarySchema<?>> schemas = (ObjectProvider) beanFactory.getBeanProvider(BinarySchema.class);
+        return new CompactBinaryCodec(schemas, compressionThresholdBytes);
+    }
+}
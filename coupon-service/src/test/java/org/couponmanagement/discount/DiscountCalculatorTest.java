@@ -0,0 +1,81 @@
+package org.couponmanagement.discount;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscountCalculatorTest {
+
+    @Test
+    void calculateDiscount_Percentage() {
+        DiscountCalculator calculator = DiscountCalculator.compile("{\"type\":\"PERCENTAGE\",\"value\":10}", null);
+
+        assertEquals(0, new BigDecimal("15.00").compareTo(calculator.calculateDiscount(BigDecimal.valueOf(150))));
+        assertEquals(1500L, calculator.calculateMinor(15000L));
+    }
+
+    @Test
+    void calculateDiscount_PercentageWithMaxCap() {
+        DiscountCalculator calculator = DiscountCalculator.compile(
+                "{\"type\":\"PERCENTAGE\",\"value\":15,\"max_discount\":50}", null);
+
+        assertEquals(0, new BigDecimal("50").compareTo(calculator.calculateDiscount(BigDecimal.valueOf(1000))));
+        assertEquals(0, new BigDecimal("15").compareTo(calculator.calculateDiscount(BigDecimal.valueOf(100))));
+    }
+
+    @Test
+    void calculateDiscount_FractionalPercentage() {
+        DiscountCalculator calculator = DiscountCalculator.compile("{\"type\":\"percentage\",\"value\":12.5}", null);
+
+        assertEquals(0, new BigDecimal("1250000").compareTo(calculator.calculateDiscount(BigDecimal.valueOf(10000000))));
+    }
+
+    @Test
+    void calculateDiscount_FixedAmountCappedByOrderAmount() {
+        DiscountCalculator calculator = DiscountCalculator.compile("{\"type\":\"FIXED_AMOUNT\",\"value\":200}", null);
+
+        assertEquals(0, new BigDecimal("200").compareTo(calculator.calculateDiscount(BigDecimal.valueOf(1000))));
+        assertEquals(0, new BigDecimal("120").compareTo(calculator.calculateDiscount(BigDecimal.valueOf(120))));
+    }
+
+    @Test
+    void calculateDiscount_UnknownTypeOrInvalidJson() {
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                DiscountCalculator.compile("{\"type\":\"FIXED\",\"value\":20}", null).calculateDiscount(BigDecimal.TEN)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+                DiscountCalculator.compile("invalid-json", null).calculateDiscount(BigDecimal.TEN)));
+    }
+
+    @Test
+    void getDiscountType_FallsBackToCouponType() {
+        assertEquals("PERCENTAGE", DiscountCalculator.compile("{\"value\":10}", "percentage").getDiscountType());
+        assertEquals("FIXED_AMOUNT", DiscountCalculator.compile(null, null).getDiscountType());
+        assertEquals("FIXED", DiscountCalculator.compile("{\"type\":\"fixed\"}", null).getDiscountType());
+    }
+
+    @Test
+    void upperBound_FixedValueOrPercentageCap() {
+        assertEquals(20000L, DiscountCalculator.compile("{\"type\":\"FIXED_AMOUNT\",\"value\":200}", null).upperBoundMinor());
+        assertEquals(5000L, DiscountCalculator.compile(
+                "{\"type\":\"PERCENTAGE\",\"value\":15,\"max_discount\":50}", null).upperBoundMinor());
+        assertEquals(Long.MAX_VALUE, DiscountCalculator.compile("{\"type\":\"PERCENTAGE\",\"value\":15}", null).upperBoundMinor());
+        assertEquals(0L, DiscountCalculator.compile("invalid-json", null).upperBoundMinor());
+    }
+
+    @Test
+    void registry_ReusesCalculatorForSameVersion() {
+        DiscountCalculatorRegistry registry = DiscountCalculatorRegistry.getInstance();
+        LocalDateTime version = LocalDateTime.now();
+        String json = "{\"type\":\"PERCENTAGE\",\"value\":10}";
+
+        DiscountCalculator first = registry.forCoupon(9001, version, json, null);
+        DiscountCalculator second = registry.forCoupon(9001, version, json, null);
+        DiscountCalculator updated = registry.forCoupon(9001, version.plusSeconds(1), json, null);
+
+        assertSame(first, second);
+        assertNotSame(first, updated);
+    }
+}
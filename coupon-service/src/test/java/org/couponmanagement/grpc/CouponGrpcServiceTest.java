@@ -1,5 +1,6 @@
 package org.couponmanagement.grpc;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.couponmanagement.cache.CouponCacheService;
 import org.couponmanagement.coupon.CouponServiceProto;
@@ -21,6 +22,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -89,12 +91,12 @@ class CouponGrpcServiceTest {
                 .discountAmount(BigDecimal.valueOf(10.0))
                 .build();
 
-        when(couponService.applyCouponManual(
+        when(couponService.applyCouponManualAsync(
                 eq(1),
                 eq("DISCOUNT10"),
                 eq(BigDecimal.valueOf(100.0)),
                 any(LocalDateTime.class)))
-                .thenReturn(successResult);
+                .thenReturn(CompletableFuture.completedFuture(successResult));
 
         // Act
         couponGrpcService.applyCouponManual(validManualRequest, manualResponseObserver);
@@ -129,12 +131,12 @@ class CouponGrpcServiceTest {
                 .discountAmount(BigDecimal.ZERO)
                 .build();
 
-        when(couponService.applyCouponManual(
+        when(couponService.applyCouponManualAsync(
                 eq(1),
                 eq("DISCOUNT10"),
                 eq(BigDecimal.valueOf(100.0)),
                 any(LocalDateTime.class)))
-                .thenReturn(failureResult);
+                .thenReturn(CompletableFuture.completedFuture(failureResult));
 
         couponGrpcService.applyCouponManual(validManualRequest, manualResponseObserver);
 
@@ -179,8 +181,8 @@ class CouponGrpcServiceTest {
         doNothing().when(validator).validateCouponCode(anyString());
         doNothing().when(validator).validateOrderAmount(anyDouble());
 
-        when(couponService.applyCouponManual(any(), any(), any(), any()))
-                .thenThrow(new RuntimeException("Database connection failed"));
+        when(couponService.applyCouponManualAsync(any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Database connection failed")));
 
         couponGrpcService.applyCouponManual(validManualRequest, manualResponseObserver);
 
@@ -281,4 +283,57 @@ class CouponGrpcServiceTest {
         assertThat(returnedCoupon.getCouponCode()).isEqualTo("ACTIVE001");
     }
 
+    @Test
+    @DisplayName("streamUserCoupons should read the next chunk only when the transport is ready")
+    @SuppressWarnings("unchecked")
+    void streamUserCoupons_HonorsFlowControl() {
+        CouponService.UserCouponCursor cursor = mock(CouponService.UserCouponCursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(streamPage(1), streamPage(2));
+        when(couponService.openUserCouponCursor(1, 100)).thenReturn(cursor);
+
+        ServerCallStreamObserver<CouponServiceProto.StreamUserCouponsResponse> call =
+                mock(ServerCallStreamObserver.class);
+        when(call.isReady()).thenReturn(true, false, true, true);
+
+        couponGrpcService.streamUserCoupons(
+                CouponServiceProto.StreamUserCouponsRequest.newBuilder().setUserId(1).build(), call);
+
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        verify(call).setOnReadyHandler(onReady.capture());
+
+        onReady.getValue().run();
+        verify(call, times(1)).onNext(any());
+        verify(cursor, times(1)).next();
+        verify(call, never()).onCompleted();
+
+        onReady.getValue().run();
+        ArgumentCaptor<CouponServiceProto.StreamUserCouponsResponse> chunks =
+                ArgumentCaptor.forClass(CouponServiceProto.StreamUserCouponsResponse.class);
+        verify(call, times(2)).onNext(chunks.capture());
+        verify(call).onCompleted();
+        assertThat(chunks.getAllValues())
+                .extracting(chunk -> chunk.getUserCoupons(0).getCouponId())
+                .containsExactly(1, 2);
+    }
+
+    private CouponService.UserCouponsPage streamPage(int couponId) {
+        CouponDetail detail = new CouponDetail();
+        detail.setCouponId(couponId);
+        detail.setCouponCode("CODE" + couponId);
+        detail.setTitle("Coupon " + couponId);
+        detail.setType("PERCENTAGE");
+        detail.setDiscountConfigJson("{\"type\":\"PERCENTAGE\",\"value\":10}");
+        detail.setActive(true);
+        detail.setUpdatedAt(LocalDateTime.now());
+        detail.setExpiryDate(LocalDateTime.now().plusDays(30));
+        UserCouponClaimInfo claimInfo = UserCouponClaimInfo.builder()
+                .couponUserId((long) couponId)
+                .userId(1)
+                .couponId(couponId)
+                .claimedDate(LocalDateTime.now())
+                .expiryDate(LocalDateTime.now().plusDays(30))
+                .build();
+        return new CouponService.UserCouponsPage(List.of(claimInfo), Map.of(couponId, detail), 1, "");
+    }
 }
@@ -0,0 +1,73 @@
+package org.couponmanagement.grpc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT_NANOS = 10_000_000L;
+
+    @Test
+    void growsWhileLatencyHoldsUnderLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100);
+
+        for (int round = 0; round < 20; round++) {
+            saturate(limit, RTT_NANOS);
+        }
+
+        assertThat(limit.limit()).isGreaterThan(10);
+        assertThat(limit.inFlight()).isZero();
+    }
+
+    @Test
+    void doesNotGrowWhenMostlyIdle() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.onSample(RTT_NANOS, false);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void shrinksWhenLatencyRisesOrCallsDrop() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 2, 100);
+        for (int round = 0; round < 5; round++) {
+            saturate(limit, RTT_NANOS);
+        }
+        int steady = limit.limit();
+
+        saturate(limit, RTT_NANOS * 10);
+        int queueing = limit.limit();
+        assertThat(queueing).isLessThan(steady);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        limit.onSample(RTT_NANOS, true);
+        assertThat(limit.limit()).isLessThan(queueing);
+    }
+
+    @Test
+    void rejectsBeyondLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release();
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimit limit, long rttNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.onSample(rttNanos, false);
+        }
+    }
+}
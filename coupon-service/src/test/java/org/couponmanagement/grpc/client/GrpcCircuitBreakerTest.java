@@ -0,0 +1,70 @@
+package org.couponmanagement.grpc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GrpcCircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000_000_000L;
+
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        GrpcCircuitBreaker breaker = new GrpcCircuitBreaker(10, 4, 50.0, 1_000, 2);
+
+        record(breaker, false, 0);
+        record(breaker, true, 0);
+        record(breaker, false, 0);
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.CLOSED);
+
+        record(breaker, true, 0);
+
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(OPEN_NANOS - 1)).isEqualTo(GrpcCircuitBreaker.REJECTED);
+    }
+
+    @Test
+    void closesAfterHalfOpenTrialsSucceed() {
+        GrpcCircuitBreaker breaker = openBreaker();
+
+        long first = breaker.tryAcquire(OPEN_NANOS);
+        long second = breaker.tryAcquire(OPEN_NANOS);
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(OPEN_NANOS)).isEqualTo(GrpcCircuitBreaker.REJECTED);
+
+        breaker.onResult(first, false, OPEN_NANOS);
+        breaker.onResult(second, false, OPEN_NANOS);
+
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void reopensOnHalfOpenFailureAndIgnoresStaleResults() {
+        GrpcCircuitBreaker breaker = new GrpcCircuitBreaker(10, 2, 50.0, 1_000, 1);
+        long beforeOpen = breaker.tryAcquire(0);
+        record(breaker, true, 0);
+        record(breaker, true, 0);
+
+        long trial = breaker.tryAcquire(OPEN_NANOS);
+        breaker.onResult(beforeOpen, false, OPEN_NANOS);
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.HALF_OPEN);
+
+        breaker.onResult(trial, true, OPEN_NANOS);
+
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(OPEN_NANOS + 1)).isEqualTo(GrpcCircuitBreaker.REJECTED);
+    }
+
+    private static GrpcCircuitBreaker openBreaker() {
+        GrpcCircuitBreaker breaker = new GrpcCircuitBreaker(10, 2, 50.0, 1_000, 2);
+        record(breaker, true, 0);
+        record(breaker, true, 0);
+        assertThat(breaker.state()).isEqualTo(GrpcCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void record(GrpcCircuitBreaker breaker, boolean failed, long nowNanos) {
+        breaker.onResult(breaker.tryAcquire(nowNanos), failed, nowNanos);
+    }
+}
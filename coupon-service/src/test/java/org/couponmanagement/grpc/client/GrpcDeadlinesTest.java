@@ -0,0 +1,89 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.Context;
+import io.grpc.Deadline;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GrpcDeadlinesTest {
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterAll
+    static void shutdownScheduler() {
+        SCHEDULER.shutdownNow();
+    }
+
+    @Test
+    void usesCapWithoutCallerDeadline() {
+        assertThat(GrpcDeadlines.remainingMs(2_000)).isEqualTo(2_000);
+        assertThat(GrpcDeadlines.isExpired()).isFalse();
+    }
+
+    @Test
+    void shortensToCallerDeadline() {
+        Context.CancellableContext context = Context.current()
+                .withDeadlineAfter(500, TimeUnit.MILLISECONDS, SCHEDULER);
+        try {
+            context.run(() -> {
+                assertThat(GrpcDeadlines.remainingMs(2_000)).isBetween(1L, 500L);
+                assertThat(GrpcDeadlines.remainingMs(100)).isEqualTo(100);
+            });
+        } finally {
+            context.cancel(null);
+        }
+    }
+
+    @Test
+    void deadlineIsInheritedWhenCallerHasLessTimeThanTheCall() {
+        Context.CancellableContext context = Context.current()
+                .withDeadlineAfter(200, TimeUnit.MILLISECONDS, SCHEDULER);
+        try {
+            context.run(() -> {
+                assertThat(GrpcDeadlines.isInherited(Deadline.after(2_000, TimeUnit.MILLISECONDS))).isTrue();
+                assertThat(GrpcDeadlines.isInherited(null)).isTrue();
+            });
+        } finally {
+            context.cancel(null);
+        }
+    }
+
+    @Test
+    void deadlineIsOwnWhenCallTimeoutIsShorter() {
+        assertThat(GrpcDeadlines.isInherited(Deadline.after(100, TimeUnit.MILLISECONDS))).isFalse();
+
+        Context.CancellableContext context = Context.current()
+                .withDeadlineAfter(2_000, TimeUnit.MILLISECONDS, SCHEDULER);
+        try {
+            context.run(() -> assertThat(
+                    GrpcDeadlines.isInherited(Deadline.after(100, TimeUnit.MILLISECONDS))).isFalse());
+        } finally {
+            context.cancel(null);
+        }
+    }
+
+    @Test
+    void expiresWhenCallerCancels() {
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.cancel(null);
+
+        context.run(() -> assertThat(GrpcDeadlines.isExpired()).isTrue());
+    }
+
+    @Test
+    void expiredDeadlineLeavesNoTime() {
+        Context.CancellableContext context = Context.current()
+                .withDeadlineAfter(-1, TimeUnit.MILLISECONDS, SCHEDULER);
+
+        context.run(() -> {
+            assertThat(GrpcDeadlines.isExpired()).isTrue();
+            assertThat(GrpcDeadlines.remainingMs(2_000)).isLessThanOrEqualTo(0);
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class GrpcHedgingPolicyTest {
+
+    private final Channel primaryChannel = mock(Channel.class);
+    private final Channel hedgeChannel = mock(Channel.class);
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void call_HedgesSlowPrimaryAndCancelsTheLoser() {
+        GrpcHedgingPolicy policy = policy(100.0);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.call(1_000, (channel, deadlineMs) -> channel == primaryChannel
+                ? primary
+                : CompletableFuture.completedFuture("hedge"));
+
+        assertThat(result.orTimeout(1, TimeUnit.SECONDS).join()).isEqualTo("hedge");
+        assertThat(primary).isCancelled();
+        assertThat(counter("grpc_client_hedging_attempts_total")).isEqualTo(1.0);
+        assertThat(counter("grpc_client_hedging_wins_total")).isEqualTo(1.0);
+    }
+
+    @Test
+    void call_SkipsHedgeWhenBudgetIsSpent() throws Exception {
+        GrpcHedgingPolicy policy = policy(0.0);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.call(1_000, (channel, deadlineMs) -> channel == primaryChannel
+                ? primary
+                : CompletableFuture.completedFuture("hedge"));
+        Thread.sleep(100);
+        primary.complete("primary");
+
+        assertThat(result.join()).isEqualTo("primary");
+        assertThat(counter("grpc_client_hedging_attempts_total")).isZero();
+        assertThat(counter("grpc_client_hedging_budget_exhausted_total")).isEqualTo(1.0);
+    }
+
+    @Test
+    void call_FailsWithoutHedgingWhenPrimaryFailsFirst() throws Exception {
+        GrpcHedgingPolicy policy = policy(100.0);
+
+        CompletableFuture<String> result = policy.call(1_000, (channel, deadlineMs) -> channel == primaryChannel
+                ? CompletableFuture.failedFuture(new IllegalStateException("unavailable"))
+                : CompletableFuture.completedFuture("hedge"));
+        Thread.sleep(100);
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(counter("grpc_client_hedging_attempts_total")).isZero();
+    }
+
+    private GrpcHedgingPolicy policy(double budgetPercent) {
+        return new GrpcHedgingPolicy("rule-service", () -> primaryChannel, () -> hedgeChannel,
+                true, 0.95, 20, 5, budgetPercent, meterRegistry);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
@@ -0,0 +1,174 @@
+package org.couponmanagement.grpc.client;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.ConnectivityState;
+import io.grpc.ConnectivityStateInfo;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.LoadBalancer;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeastOutstandingLoadBalancerTest {
+
+    private final List<LoadBalancer.Subchannel> subchannels = new ArrayList<>();
+    private final List<LoadBalancer.SubchannelStateListener> listeners = new ArrayList<>();
+    private LoadBalancer.Helper helper;
+    private LeastOutstandingLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        helper = mock(LoadBalancer.Helper.class);
+        when(helper.getSynchronizationContext()).thenReturn(new SynchronizationContext((thread, e) -> {
+            throw new AssertionError(e);
+        }));
+        when(helper.getScheduledExecutorService()).thenReturn(mock(ScheduledExecutorService.class));
+        when(helper.createSubchannel(any(LoadBalancer.CreateSubchannelArgs.class))).thenAnswer(invocation -> {
+            LoadBalancer.Subchannel subchannel = mock(LoadBalancer.Subchannel.class);
+            doAnswer(start -> {
+                listeners.add(start.getArgument(0));
+                return null;
+            }).when(subchannel).start(any(LoadBalancer.SubchannelStateListener.class));
+            subchannels.add(subchannel);
+            return subchannel;
+        });
+        loadBalancer = new LeastOutstandingLoadBalancer(helper);
+    }
+
+    @Test
+    void picksEndpointWithFewerOutstandingCalls() {
+        resolve(9001, 9002);
+        markAllReady();
+        LoadBalancer.SubchannelPicker picker = latestPicker();
+
+        LoadBalancer.PickResult first = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        ClientStreamTracer firstStream = start(first);
+        LoadBalancer.PickResult second = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        ClientStreamTracer secondStream = start(second);
+        assertThat(second.getSubchannel()).isNotSameAs(first.getSubchannel());
+
+        LoadBalancer.PickResult third = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        start(third);
+        firstStream.streamClosed(Status.OK);
+        secondStream.streamClosed(Status.OK);
+
+        // Both endpoints are always compared, so the one without a call in flight wins
+        LoadBalancer.PickResult fourth = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        assertThat(fourth.getSubchannel()).isNotSameAs(third.getSubchannel());
+    }
+
+    @Test
+    void dropsPicksThatNeverStartAStream() {
+        resolve(9001, 9002);
+        markAllReady();
+        LoadBalancer.SubchannelPicker picker = latestPicker();
+
+        // Picks gRPC discards, e.g. because the transport was not ready, must not count as busy
+        for (int i = 0; i < 10; i++) {
+            picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        }
+        LoadBalancer.PickResult inFlight = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        start(inFlight);
+
+        LoadBalancer.PickResult next = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+        assertThat(next.getSubchannel()).isNotSameAs(inFlight.getSubchannel());
+    }
+
+    @Test
+    void ejectsEndpointAfterConsecutiveUnavailableResults() {
+        resolve(9001, 9002);
+        markAllReady();
+        LoadBalancer.Subchannel failing = subchannels.get(0);
+        LoadBalancer.SubchannelPicker picker = latestPicker();
+
+        int failures = 0;
+        while (failures < LeastOutstandingLoadBalancer.EJECTION_FAILURES) {
+            LoadBalancer.PickResult result = picker.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+            if (result.getSubchannel() == failing) {
+                close(result, Status.UNAVAILABLE);
+                failures++;
+            }
+        }
+
+        LoadBalancer.SubchannelPicker afterEjection = latestPicker();
+        assertThat(afterEjection).isNotSameAs(picker);
+        for (int i = 0; i < 20; i++) {
+            assertThat(afterEjection.pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class)).getSubchannel())
+                    .isSameAs(subchannels.get(1));
+        }
+    }
+
+    @Test
+    void shutsDownSubchannelsOfRemovedEndpoints() {
+        resolve(9001, 9002);
+        markAllReady();
+
+        resolve(9002, 9003);
+
+        assertThat(subchannels).hasSize(3);
+        verify(subchannels.get(0)).shutdown();
+        verify(subchannels.get(1), never()).shutdown();
+        verify(subchannels.get(2)).requestConnection();
+    }
+
+    @Test
+    void failsPicksWhenNoEndpointCanConnect() {
+        resolve(9001);
+        Status refused = Status.UNAVAILABLE.withDescription("Connection refused");
+        listeners.get(0).onSubchannelState(ConnectivityStateInfo.forTransientFailure(refused));
+
+        ArgumentCaptor<LoadBalancer.SubchannelPicker> picker = ArgumentCaptor.forClass(LoadBalancer.SubchannelPicker.class);
+        verify(helper).updateBalancingState(eq(ConnectivityState.TRANSIENT_FAILURE), picker.capture());
+        LoadBalancer.PickResult result = picker.getValue().pickSubchannel(mock(LoadBalancer.PickSubchannelArgs.class));
+
+        assertThat(result.getStatus()).isEqualTo(refused);
+    }
+
+    private void resolve(int... ports) {
+        List<EquivalentAddressGroup> addresses = new ArrayList<>();
+        for (int port : ports) {
+            addresses.add(new EquivalentAddressGroup(new InetSocketAddress("127.0.0.1", port)));
+        }
+        Status status = loadBalancer.acceptResolvedAddresses(LoadBalancer.ResolvedAddresses.newBuilder()
+                .setAddresses(addresses)
+                .build());
+        assertThat(status.isOk()).isTrue();
+    }
+
+    private void markAllReady() {
+        listeners.forEach(listener -> listener.onSubchannelState(ConnectivityStateInfo.forNonError(ConnectivityState.READY)));
+    }
+
+    private LoadBalancer.SubchannelPicker latestPicker() {
+        ArgumentCaptor<LoadBalancer.SubchannelPicker> picker = ArgumentCaptor.forClass(LoadBalancer.SubchannelPicker.class);
+        verify(helper, atLeastOnce()).updateBalancingState(eq(ConnectivityState.READY), picker.capture());
+        return picker.getValue();
+    }
+
+    private static ClientStreamTracer start(LoadBalancer.PickResult result) {
+        return result.getStreamTracerFactory()
+                .newClientStreamTracer(ClientStreamTracer.StreamInfo.newBuilder().build(), new Metadata());
+    }
+
+    private static void close(LoadBalancer.PickResult result, Status status) {
+        start(result).streamClosed(status);
+    }
+}
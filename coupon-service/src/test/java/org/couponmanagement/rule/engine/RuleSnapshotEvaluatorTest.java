@@ -0,0 +1,69 @@
+package org.couponmanagement.rule.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleSnapshotEvaluatorTest {
+
+    private static final String MIN_500K = "{\"type\": \"MIN_ORDER_AMOUNT\", \"min_amount\": 500000}";
+    private static final String OFFICE_HOURS = "{\"type\": \"DAILY_ACTIVE_TIME\", \"start_time\": \"09:00:00\", \"end_time\": \"17:00:00\"}";
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 7, 27, 12, 0);
+
+    private final RuleSnapshotEvaluator evaluator = RuleSnapshotEvaluator.withDefaultChecks();
+
+    @Test
+    void evaluate_JoinsDescriptionsOfFailedRulesInCollectionOrder() {
+        RuleSnapshot snapshot = RuleSnapshot.of(
+                List.of(new RuleDefinition(1, "MIN_ORDER_AMOUNT", "Order must be at least 500k", MIN_500K),
+                        new RuleDefinition(2, "DAILY_ACTIVE_TIME", "Only during office hours", OFFICE_HOURS)),
+                Map.of(10, List.of(2, 1)));
+
+        assertThat(evaluator.evaluate(snapshot, 10, new RuleInput(600_000, NOON)))
+                .contains(CollectionOutcome.SUCCESS);
+        assertThat(evaluator.evaluate(snapshot, 10, new RuleInput(500_000, NOON.withHour(17))))
+                .contains(CollectionOutcome.SUCCESS);
+        assertThat(evaluator.evaluate(snapshot, 10, new RuleInput(100_000, NOON.withHour(20))))
+                .contains(CollectionOutcome.failure("Only during office hours, Order must be at least 500k"));
+    }
+
+    @Test
+    void evaluate_MirrorsRuleServiceEdgeCases() {
+        RuleSnapshot snapshot = RuleSnapshot.of(
+                List.of(new RuleDefinition(1, "MIN_ORDER_AMOUNT", null, MIN_500K)),
+                Map.of(10, List.of(1), 11, List.of(), 12, List.of(99)));
+
+        assertThat(evaluator.evaluate(snapshot, 0, new RuleInput(1, NOON))).contains(CollectionOutcome.SUCCESS);
+        assertThat(evaluator.evaluate(snapshot, 10, new RuleInput(1, NOON))).contains(CollectionOutcome.SUCCESS);
+        assertThat(evaluator.evaluate(snapshot, 11, new RuleInput(1, NOON)))
+                .contains(CollectionOutcome.failure("No rules found in collection: 11"));
+        assertThat(evaluator.evaluate(snapshot, 12, new RuleInput(1, NOON)))
+                .contains(CollectionOutcome.failure("No rules found in collection: 12"));
+    }
+
+    @Test
+    void evaluate_DefersToRuleServiceWhenNotExact() {
+        RuleSnapshot snapshot = RuleSnapshot.of(
+                List.of(new RuleDefinition(1, "FIRST_ORDER_ONLY", "First order only", "{\"type\": \"FIRST_ORDER_ONLY\"}"),
+                        new RuleDefinition(2, "MIN_ORDER_AMOUNT", "Broken", "{not json")),
+                Map.of(10, List.of(1), 11, List.of(2)));
+
+        assertThat(evaluator.evaluate(snapshot, 10, new RuleInput(1, NOON))).isEmpty();
+        assertThat(evaluator.evaluate(snapshot, 11, new RuleInput(1, NOON))).isEmpty();
+        assertThat(evaluator.evaluate(snapshot, 42, new RuleInput(1, NOON))).isEmpty();
+    }
+
+    @Test
+    void of_VersionDependsOnContentOnly() {
+        RuleDefinition rule = new RuleDefinition(1, "MIN_ORDER_AMOUNT", "At least 500k", MIN_500K);
+
+        String version = RuleSnapshot.of(List.of(rule), Map.of(10, List.of(1))).version();
+
+        assertThat(RuleSnapshot.of(List.of(rule), Map.of(10, List.of(1))).version()).isEqualTo(version);
+        assertThat(RuleSnapshot.of(List.of(rule), Map.of(10, List.of(1), 11, List.of(1))).version()).isNotEqualTo(version);
+    }
+}
@@ -0,0 +1,218 @@
+package org.couponmanagement.service;
+
+import org.couponmanagement.dto.CouponCandidateIndex;
+import org.couponmanagement.dto.CouponDetail;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BestFirstCouponSearchTest {
+
+    private static final long ORDER_AMOUNT_MINOR = 100_000L; // 1000.00
+
+    @Test
+    void search_StopsAfterBestValidCandidate() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        for (int couponId = 1; couponId <= 40; couponId++) {
+            details.put(couponId, fixed(couponId, couponId * 5, couponId));
+        }
+        List<Integer> loaded = new ArrayList<>();
+        List<List<Integer>> ruleCalls = new ArrayList<>();
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR,
+                loader(details, loaded),
+                detail -> true,
+                collectionIds -> {
+                    ruleCalls.add(collectionIds);
+                    return CompletableFuture.completedFuture(BestFirstCouponSearch.ruleResults(collectionIds, Set.of()));
+                }, Runnable::run).join();
+
+        assertThat(outcome.bestCoupon()).isPresent();
+        assertThat(outcome.best().couponDetail().getCouponId()).isEqualTo(40);
+        assertThat(outcome.best().discountMinor()).isEqualTo(20_000L);
+        assertThat(ruleCalls).hasSize(1);
+        assertThat(loaded).hasSize(BestFirstCouponSearch.DETAIL_WINDOW);
+    }
+
+    @Test
+    void search_FallsThroughRejectedCandidates() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        details.put(1, fixed(1, 300, 11));
+        details.put(2, percentage(2, 20, 150, 12));
+        details.put(3, fixed(3, 100, 13));
+        details.put(4, fixed(4, 10, 14));
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR,
+                loader(details, new ArrayList<>()),
+                detail -> true,
+                failing(Set.of(11, 12)), Runnable::run).join();
+
+        assertThat(outcome.best().couponDetail().getCouponId()).isEqualTo(3);
+    }
+
+    @Test
+    void search_RanksTopKValidCandidates() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        details.put(1, fixed(1, 300, 11));
+        details.put(2, fixed(2, 200, 12));
+        details.put(3, fixed(3, 150, 13));
+        details.put(4, fixed(4, 100, 14));
+        details.put(5, fixed(5, 50, 15));
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR, 3,
+                loader(details, new ArrayList<>()),
+                detail -> true,
+                failing(Set.of(12)), Runnable::run).join();
+
+        assertThat(outcome.ranked()).extracting(scored -> scored.couponDetail().getCouponId())
+                .containsExactly(1, 3, 4);
+        assertThat(outcome.best().discountMinor()).isEqualTo(30_000L);
+    }
+
+    @Test
+    void search_ReturnsFewerThanTopKWhenCandidatesRunOut() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        details.put(1, fixed(1, 300, 11));
+        details.put(2, fixed(2, 200, 12));
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR, 3,
+                loader(details, new ArrayList<>()),
+                detail -> true,
+                failing(Set.of(11)), Runnable::run).join();
+
+        assertThat(outcome.ranked()).extracting(scored -> scored.couponDetail().getCouponId())
+                .containsExactly(2);
+        assertThat(outcome.stale()).isFalse();
+    }
+
+    @Test
+    void search_PrefersExactDiscountOverUpperBound() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        // Uncapped 5% has the highest bound but only yields 50.00 on this order
+        details.put(1, percentage(1, 5, null, 11));
+        details.put(2, fixed(2, 80, 12));
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR,
+                loader(details, new ArrayList<>()),
+                detail -> true,
+                failing(Set.of()), Runnable::run).join();
+
+        assertThat(outcome.best().couponDetail().getCouponId()).isEqualTo(2);
+        assertThat(outcome.best().discountMinor()).isEqualTo(8_000L);
+    }
+
+    @Test
+    void search_SkipsIneligibleAndReportsNoneWhenNothingPasses() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        details.put(1, fixed(1, 300, 11));
+        details.put(2, fixed(2, 100, 12));
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR,
+                loader(details, new ArrayList<>()),
+                detail -> detail.getCouponId() != 1,
+                failing(Set.of(11, 12)), Runnable::run).join();
+
+        assertThat(outcome.bestCoupon()).isEmpty();
+        assertThat(outcome.stale()).isFalse();
+        assertThat(outcome.ruleCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void search_ReportsStaleWhenBoundIncreased() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        details.put(1, fixed(1, 100, 11));
+        List<CouponCandidateIndex.Candidate> candidates = index(details);
+        details.put(1, fixed(1, 500, 11));
+
+        BestFirstCouponSearch.Outcome outcome = BestFirstCouponSearch.search(
+                candidates, ORDER_AMOUNT_MINOR,
+                loader(details, new ArrayList<>()),
+                detail -> true,
+                failing(Set.of()), Runnable::run).join();
+
+        assertThat(outcome.stale()).isTrue();
+    }
+
+    @Test
+    void ruleResults_TreatsUnreportedCollectionsAsPassed() {
+        assertThat(BestFirstCouponSearch.ruleResults(List.of(11, 12, 13), Set.of(12)))
+                .containsEntry(11, true)
+                .containsEntry(12, false)
+                .containsEntry(13, true)
+                .hasSize(3);
+    }
+
+    @Test
+    void search_DoesNotWaitOnOutstandingRuleCall() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        details.put(1, fixed(1, 300, 11));
+        CompletableFuture<Map<Integer, Boolean>> ruleCall = new CompletableFuture<>();
+
+        CompletableFuture<BestFirstCouponSearch.Outcome> outcome = BestFirstCouponSearch.search(
+                index(details), ORDER_AMOUNT_MINOR,
+                loader(details, new ArrayList<>()),
+                detail -> true,
+                collectionIds -> ruleCall,
+                Runnable::run);
+
+        assertThat(outcome).isNotDone();
+        ruleCall.complete(BestFirstCouponSearch.ruleResults(List.of(11), Set.of()));
+        assertThat(outcome.join().best().couponDetail().getCouponId()).isEqualTo(1);
+    }
+
+    private static List<CouponCandidateIndex.Candidate> index(Map<Integer, CouponDetail> details) {
+        return CouponCandidateIndex.build(details.keySet(), details).getCandidates();
+    }
+
+    private static Function<List<Integer>, Map<Integer, CouponDetail>> loader(Map<Integer, CouponDetail> details,
+                                                                              List<Integer> loaded) {
+        return couponIds -> {
+            loaded.addAll(couponIds);
+            Map<Integer, CouponDetail> result = new HashMap<>();
+            couponIds.forEach(id -> result.put(id, details.get(id)));
+            return result;
+        };
+    }
+
+    /**
+     * Mirrors rule-service: only failed collections are reported, so the stub lists the failures.
+     */
+    private static Function<List<Integer>, CompletableFuture<Map<Integer, Boolean>>> failing(Set<Integer> failed) {
+        return collectionIds -> CompletableFuture.completedFuture(BestFirstCouponSearch.ruleResults(collectionIds, failed));
+    }
+
+    private static CouponDetail fixed(int couponId, int value, int collectionId) {
+        return detail(couponId, "{\"type\":\"FIXED_AMOUNT\",\"value\":" + value + "}", collectionId);
+    }
+
+    private static CouponDetail percentage(int couponId, int value, Integer maxDiscount, int collectionId) {
+        String cap = maxDiscount != null ? ",\"max_discount\":" + maxDiscount : "";
+        return detail(couponId, "{\"type\":\"PERCENTAGE\",\"value\":" + value + cap + "}", collectionId);
+    }
+
+    private static CouponDetail detail(int couponId, String config, int collectionId) {
+        return CouponDetail.builder()
+                .couponId(couponId)
+                .couponCode("CODE" + couponId)
+                .collectionKeyId(collectionId)
+                .discountConfigJson(config)
+                .isActive(true)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
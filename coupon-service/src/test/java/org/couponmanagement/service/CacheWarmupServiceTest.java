@@ -0,0 +1,111 @@
+package org.couponmanagement.service;
+
+import org.couponmanagement.cache.CouponCacheProperties;
+import org.couponmanagement.cache.CouponCacheService;
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.dto.UserCouponIds;
+import org.couponmanagement.repository.CouponKeysetRepository;
+import org.couponmanagement.repository.CouponRepository;
+import org.couponmanagement.repository.CouponUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private CouponCacheService couponCacheService;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponUserRepository couponUserRepository;
+
+    @Mock
+    private CouponKeysetRepository couponKeysetRepository;
+
+    private CacheWarmupProgress progress;
+    private CacheWarmupService cacheWarmupService;
+
+    @BeforeEach
+    void setUp() {
+        CouponCacheProperties cacheProperties = new CouponCacheProperties();
+        cacheProperties.setWarmupPageSize(3);
+        cacheProperties.setBatchChunkSize(2);
+        cacheProperties.setWarmupParallelism(1);
+        progress = new CacheWarmupProgress();
+        cacheWarmupService = new CacheWarmupService(couponCacheService, couponRepository, couponUserRepository,
+                couponKeysetRepository, cacheProperties, progress);
+    }
+
+    @Test
+    void warmupUserWallets_GroupsUsersAcrossPagesAndWritesChunks() {
+        when(couponKeysetRepository.findWalletClaimsAfter(0, 0L, 3))
+                .thenReturn(List.of(claim(1L, 1, 10), claim(2L, 1, 11), claim(3L, 2, 20)));
+        when(couponKeysetRepository.findWalletClaimsAfter(2, 3L, 3))
+                .thenReturn(List.of(claim(4L, 2, 21), claim(5L, 3, 30)));
+        List<Map<Integer, UserCouponIds>> chunks = Collections.synchronizedList(new ArrayList<>());
+        when(couponCacheService.cacheUserWallets(anyMap())).thenAnswer(invocation -> {
+            Map<Integer, UserCouponIds> chunk = invocation.getArgument(0);
+            chunks.add(new LinkedHashMap<>(chunk));
+            return chunk.size();
+        });
+
+        CacheWarmupService.WarmupResult result = cacheWarmupService.warmupUserWallets();
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).containsOnlyKeys(1, 2);
+        assertThat(chunks.get(0).get(1).getCouponIds()).containsExactlyInAnyOrder(10, 11);
+        assertThat(chunks.get(0).get(2).getCouponIds()).containsExactlyInAnyOrder(20, 21);
+        assertThat(chunks.get(1)).containsOnlyKeys(3);
+        assertThat(result.getSuccessCount()).isEqualTo(3);
+        assertThat(result.getFailureCount()).isZero();
+
+        CacheWarmupProgress.Snapshot snapshot = progress.snapshot();
+        assertThat(snapshot.state()).isEqualTo(CacheWarmupProgress.State.COMPLETED);
+        assertThat(snapshot.rowsRead()).isEqualTo(5);
+        assertThat(snapshot.chunksWritten()).isEqualTo(2);
+        verify(couponUserRepository, never()).findAll();
+    }
+
+    @Test
+    void warmupUserWallets_CountsUnwrittenWalletsAsFailures() {
+        when(couponKeysetRepository.findWalletClaimsAfter(0, 0L, 3))
+                .thenReturn(List.of(claim(1L, 1, 10), claim(2L, 2, 20)));
+        when(couponCacheService.cacheUserWallets(anyMap())).thenReturn(0);
+
+        CacheWarmupService.WarmupResult result = cacheWarmupService.warmupUserWallets();
+
+        assertThat(result.getSuccessCount()).isZero();
+        assertThat(result.getFailureCount()).isEqualTo(2);
+        assertThat(result.getTotalProcessed()).isEqualTo(2);
+    }
+
+    @Test
+    void warmupUserWallets_RejectsConcurrentRun() {
+        progress.tryStart();
+
+        CacheWarmupService.WarmupResult result = cacheWarmupService.warmupUserWallets();
+
+        assertThat(result.getError()).isEqualTo("Warm up already running");
+        verifyNoInteractions(couponKeysetRepository, couponCacheService);
+    }
+
+    private static UserCouponClaimInfo claim(long couponUserId, int userId, int couponId) {
+        return new UserCouponClaimInfo(couponUserId, userId, couponId, null, null);
+    }
+}
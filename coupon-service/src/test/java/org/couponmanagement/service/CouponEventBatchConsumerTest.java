@@ -0,0 +1,106 @@
+package org.couponmanagement.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.couponmanagement.dto.UpdateCouponEvent;
+import org.couponmanagement.entity.CouponUser.CouponUserStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponEventBatchConsumerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private UpdateCouponService updateCouponService;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @InjectMocks
+    private CouponEventBatchConsumer consumer;
+
+    @Test
+    void listen_CollapsesToLatestEventPerCouponUserAndAcksOnce() {
+        List<ConsumerRecord<String, UpdateCouponEvent>> records = List.of(
+                record(0, event(1, 10, CouponUserStatus.USED, T0)),
+                record(1, event(1, 10, CouponUserStatus.CLAIMED, T0.plusSeconds(1))),
+                record(2, event(2, 10, CouponUserStatus.USED, T0)),
+                record(3, null),
+                record(4, event(1, 10, CouponUserStatus.USED, T0.minusSeconds(5))));
+
+        consumer.listen(records, acknowledgment);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UpdateCouponEvent>> batch = ArgumentCaptor.forClass(List.class);
+        verify(updateCouponService).updateCouponUsageStatuses(batch.capture());
+        assertThat(batch.getValue()).hasSize(2);
+        assertThat(batch.getValue().get(0).getUserId()).isEqualTo(1);
+        assertThat(batch.getValue().get(0).getNewStatus()).isEqualTo(CouponUserStatus.CLAIMED);
+        assertThat(batch.getValue().get(1).getUserId()).isEqualTo(2);
+        verify(updateCouponService, never()).updateCouponUsageStatus(any());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void listen_IsolatesPoisonEventWhenBatchFails() {
+        UpdateCouponEvent good = event(1, 10, CouponUserStatus.USED, T0);
+        UpdateCouponEvent poison = event(2, 10, CouponUserStatus.USED, T0);
+        doThrow(new IllegalStateException("batch failed")).when(updateCouponService).updateCouponUsageStatuses(anyList());
+        doThrow(new DataIntegrityViolationException("bad row")).when(updateCouponService).updateCouponUsageStatus(poison);
+
+        consumer.listen(List.of(record(0, good), record(1, poison)), acknowledgment);
+
+        verify(updateCouponService).updateCouponUsageStatus(good);
+        verify(updateCouponService).updateCouponUsageStatus(poison);
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void listen_RethrowsTransientFailureWithoutAcking() {
+        UpdateCouponEvent event = event(1, 10, CouponUserStatus.USED, T0);
+        doThrow(new CannotGetJdbcConnectionException("db down")).when(updateCouponService).updateCouponUsageStatuses(anyList());
+        doThrow(new CannotGetJdbcConnectionException("db down")).when(updateCouponService).updateCouponUsageStatus(event);
+
+        assertThatThrownBy(() -> consumer.listen(List.of(record(0, event)), acknowledgment))
+                .isInstanceOf(CannotGetJdbcConnectionException.class);
+
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void listen_CollapsesByStateVersionOverUpdatedAt() {
+        UpdateCouponEvent newer = event(1, 10, CouponUserStatus.CLAIMED, T0);
+        newer.setStateVersion(2_000L);
+        UpdateCouponEvent older = event(1, 10, CouponUserStatus.USED, T0.plusSeconds(1));
+        older.setStateVersion(1_000L);
+
+        consumer.listen(List.of(record(0, newer), record(1, older)), acknowledgment);
+
+        verify(updateCouponService).updateCouponUsageStatuses(List.of(newer));
+    }
+
+    private static ConsumerRecord<String, UpdateCouponEvent> record(long offset, UpdateCouponEvent event) {
+        return new ConsumerRecord<>("update-coupon-user", 0, offset, event != null ? event.getUserId().toString() : null, event);
+    }
+
+    private static UpdateCouponEvent event(int userId, int couponId, CouponUserStatus status, LocalDateTime updatedAt) {
+        return new UpdateCouponEvent(couponId, userId, status, updatedAt, updatedAt, null);
+    }
+}
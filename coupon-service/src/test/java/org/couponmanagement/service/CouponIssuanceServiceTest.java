@@ -0,0 +1,100 @@
+package org.couponmanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.couponmanagement.cache.CouponCacheService;
+import org.couponmanagement.dto.UserCouponClaimInfo;
+import org.couponmanagement.entity.Coupon;
+import org.couponmanagement.repository.CouponRepository;
+import org.couponmanagement.repository.CouponUserBulkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssuanceServiceTest {
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponUserBulkRepository couponUserBulkRepository;
+
+    @Mock
+    private CouponCacheService couponCacheService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CouponIssuanceService issuanceService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        issuanceService = new CouponIssuanceService(couponRepository, couponUserBulkRepository, couponCacheService, meterRegistry);
+    }
+
+    @Test
+    void issue_WritesFullChunksAndRemainderAndCountsSkipped() {
+        LocalDateTime expiry = LocalDateTime.now().plusDays(7);
+        when(couponRepository.findById(5)).thenReturn(Optional.of(Coupon.builder().id(5).isActive(true).expiryDate(expiry).build()));
+        // Users 1 and 2 already hold the coupon
+        when(couponUserBulkRepository.insertClaims(eq(5), anyCollection(), any(), eq(expiry)))
+                .thenAnswer(invocation -> (int) ((Collection<?>) invocation.getArgument(1)).stream()
+                        .filter(userId -> !userId.equals(1) && !userId.equals(2))
+                        .count());
+        when(couponUserBulkRepository.findClaims(eq(5), anyCollection()))
+                .thenReturn(List.of(new UserCouponClaimInfo(1L, 3, 5, null, expiry)));
+        when(couponCacheService.addUserCouponClaims(eq(5), anyList())).thenReturn(1);
+
+        CouponIssuanceService.Issuance issuance = issuanceService.open(5);
+        issuance.add(IntStream.rangeClosed(1, 600).boxed().toList());
+        issuance.add(IntStream.rangeClosed(601, 1_001).boxed().toList());
+        issuance.add(List.of(1_001));
+        CouponIssuanceService.IssuanceResult result = issuance.finish();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Integer>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(couponUserBulkRepository, times(2)).insertClaims(eq(5), chunks.capture(), any(), eq(expiry));
+        assertThat(chunks.getAllValues()).extracting(Collection::size).containsExactly(1_000, 1);
+        assertThat(result.received()).isEqualTo(1_002);
+        assertThat(result.issued()).isEqualTo(999);
+        assertThat(result.skipped()).isEqualTo(3);
+        assertThat(result.walletsUpdated()).isEqualTo(2);
+        assertThat(meterRegistry.get("coupon_issuance_rows_total").tag("result", "issued").counter().count())
+                .isEqualTo(999.0);
+    }
+
+    @Test
+    void add_RejectsInvalidUserIdBeforeWriting() {
+        when(couponRepository.findById(5)).thenReturn(Optional.of(Coupon.builder().id(5).isActive(true).build()));
+
+        CouponIssuanceService.Issuance issuance = issuanceService.open(5);
+
+        assertThatThrownBy(() -> issuance.add(List.of(1, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(issuance.result().received()).isZero();
+        verifyNoInteractions(couponUserBulkRepository);
+    }
+
+    @Test
+    void open_RejectsInactiveCoupon() {
+        when(couponRepository.findById(5)).thenReturn(Optional.of(Coupon.builder().id(5).isActive(false).build()));
+
+        assertThatThrownBy(() -> issuanceService.open(5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not active");
+        verifyNoInteractions(couponUserBulkRepository, couponCacheService);
+    }
+}
@@ -1,23 +1,36 @@
 package org.couponmanagement.service;
 
+import org.couponmanagement.budget.BudgetServiceProto;
 import org.couponmanagement.cache.CouponCacheService;
+import org.couponmanagement.cache.CouponUserStateStore;
+import org.couponmanagement.cache.RuleOutcomeCache;
 import org.couponmanagement.dto.CouponDetail;
+import org.couponmanagement.dto.CouponErrorCode;
+import org.couponmanagement.dto.RegisterStatus;
 import org.couponmanagement.dto.UserCouponClaimInfo;
 import org.couponmanagement.dto.UserCouponIds;
 import org.couponmanagement.entity.Coupon;
 import org.couponmanagement.entity.CouponUser;
 import org.couponmanagement.entity.CouponUser.CouponUserStatus;
 import org.couponmanagement.entity.DiscountType;
-import org.couponmanagement.grpc.client.GrpcClientFactory;
+import org.couponmanagement.grpc.client.BudgetServiceAsyncClient;
+import org.couponmanagement.grpc.client.RuleServiceAsyncClient;
+import org.couponmanagement.grpc.client.RuleSnapshotReplica;
 import org.couponmanagement.grpc.validation.RequestValidator;
+import org.couponmanagement.repository.CouponKeysetRepository;
 import org.couponmanagement.repository.CouponRepository;
 import org.couponmanagement.repository.CouponUserRepository;
+import org.couponmanagement.repository.CouponUserStateRepository;
+import org.couponmanagement.rule.RuleServiceProto;
+import org.couponmanagement.utils.PageToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -25,7 +38,9 @@ import org.springframework.data.domain.PageRequest;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -52,7 +67,34 @@ class CouponServiceTest {
     private Executor couponEvaluationExecutor;
 
     @Mock
-    private GrpcClientFactory grpcClientFactory;
+    private RuleServiceAsyncClient ruleServiceClient;
+
+    @Mock
+    private RuleOutcomeCache ruleOutcomeCache;
+
+    @Mock
+    private RuleSnapshotReplica ruleSnapshotReplica;
+
+    @Mock
+    private BudgetServiceAsyncClient budgetServiceClient;
+
+    @Mock
+    private CouponKeysetRepository couponKeysetRepository;
+
+    @Mock
+    private CouponUserStateStore couponUserStateStore;
+
+    @Mock
+    private CouponUserStateRepository couponUserStateRepository;
+
+    @Spy
+    private AutoApplyProperties autoApplyProperties = new AutoApplyProperties();
+
+    @Mock
+    private ObjectProvider<CouponEventProducer> couponEventProducerProvider;
+
+    @Mock
+    private CouponEventProducer couponEventProducer;
 
     @InjectMocks
     private CouponService couponService;
@@ -186,6 +228,8 @@ class CouponServiceTest {
         doNothing().when(validator).validateCouponCode(couponCode);
         doNothing().when(validator).validateOrderAmount(orderAmount.doubleValue());
 
+        passThroughCacheLoads();
+
         // Act
         CouponApplicationResult result = couponService.applyCouponManual(userId, couponCode, orderAmount, orderDate);
 
@@ -215,6 +259,8 @@ class CouponServiceTest {
         when(couponRepository.findByCodeIgnoreCase(couponCode))
                 .thenReturn(Optional.empty());
 
+        passThroughCacheLoads();
+
         // Act
         CouponApplicationResult result = couponService.applyCouponManual(userId, couponCode, orderAmount, orderDate);
 
@@ -240,6 +286,8 @@ class CouponServiceTest {
         when(couponRepository.findByCodeIgnoreCase(couponCode))
                 .thenReturn(Optional.of(testCoupon));
 
+        passThroughCacheLoads();
+
         // Act
         CouponApplicationResult result = couponService.applyCouponManual(userId, couponCode, orderAmount, orderDate);
 
@@ -369,8 +417,358 @@ class CouponServiceTest {
         // Verify that only active coupons were processed
         verify(couponUserRepository).findActiveCouponsByUserId(userId);
         verify(couponCacheService).cacheUserCouponIds(eq(userId), any(UserCouponIds.class));
-        verify(couponCacheService).cacheCouponDetail(eq(1), any(CouponDetail.class));
-        verify(couponCacheService, never()).cacheCouponDetail(eq(2), any(CouponDetail.class));
+        verify(couponCacheService).cacheCouponDetailsBatch(argThat(details ->
+                details.containsKey(1) && !details.containsKey(2)));
+    }
+
+    @Test
+    @DisplayName("Keyset page from cache skips inactive coupons and resumes after the cursor")
+    void testGetUserCouponsPage_FromCache() {
+        Integer userId = 123;
+        Map<Integer, UserCouponClaimInfo> claims = new HashMap<>();
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        for (int couponId = 1; couponId <= 4; couponId++) {
+            claims.put(couponId, new UserCouponClaimInfo(couponId * 10L, userId, couponId,
+                    LocalDateTime.now(), LocalDateTime.now().plusDays(30)));
+            details.put(couponId, CouponDetail.builder().couponId(couponId).isActive(couponId != 2).build());
+        }
+        when(couponCacheService.getCachedUserCouponIds(userId)).thenReturn(Optional.of(UserCouponIds.of(claims)));
+        when(couponCacheService.getCachedCouponDetailsBatch(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            Map<Integer, CouponDetail> found = new HashMap<>();
+            ids.forEach(id -> found.put(id, details.get(id)));
+            return found;
+        });
+
+        CouponService.UserCouponsPage first = couponService.getUserCouponsPage(userId, "", 2);
+
+        assertThat(first.userCouponClaimInfos()).extracting(UserCouponClaimInfo::getCouponId).containsExactly(1, 3);
+        assertThat(first.nextPageToken()).isEqualTo(PageToken.forUserCoupons(userId, 30L));
+
+        CouponService.UserCouponsPage second = couponService.getUserCouponsPage(userId, first.nextPageToken(), 2);
+
+        assertThat(second.userCouponClaimInfos()).extracting(UserCouponClaimInfo::getCouponId).containsExactly(4);
+        assertThat(second.nextPageToken()).isEmpty();
+        verify(couponCacheService, never()).getCachedCouponDetailsBatch(argThat(ids -> ids.size() > 2));
+        verifyNoInteractions(couponKeysetRepository);
+    }
+
+    @Test
+    @DisplayName("Keyset page from database seeks past the cursor and reads one extra row")
+    void testGetUserCouponsPage_FromDatabase() {
+        Integer userId = 123;
+        when(couponCacheService.getCachedUserCouponIds(userId)).thenReturn(Optional.empty());
+        List<CouponUser> rows = new ArrayList<>();
+        for (long id = 5; id <= 7; id++) {
+            Coupon coupon = new Coupon();
+            coupon.setId((int) id);
+            coupon.setCode("CODE" + id);
+            coupon.setIsActive(true);
+            coupon.setDiscountConfigJson("{\"type\":\"PERCENTAGE\",\"value\":10}");
+            coupon.setExpiryDate(LocalDateTime.now().plusDays(30));
+            rows.add(CouponUser.builder().id(id).userId(userId).couponId((int) id).coupon(coupon).build());
+        }
+        when(couponKeysetRepository.findActiveCouponUsersAfter(userId, 4L, 3)).thenReturn(rows);
+
+        CouponService.UserCouponsPage page =
+                couponService.getUserCouponsPage(userId, PageToken.forUserCoupons(userId, 4L), 2);
+
+        assertThat(page.userCouponClaimInfos()).extracting(UserCouponClaimInfo::getCouponUserId).containsExactly(5L, 6L);
+        assertThat(page.couponDetailMap()).containsOnlyKeys(5, 6);
+        assertThat(page.nextPageToken()).isEqualTo(PageToken.forUserCoupons(userId, 6L));
+        verify(couponCacheService, never()).cacheUserCouponIds(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Page token issued for another user is rejected")
+    void testGetUserCouponsPage_RejectsForeignToken() {
+        String otherUsersToken = PageToken.forUserCoupons(456, 10L);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> couponService.getUserCouponsPage(123, otherUsersToken, 10));
+        verifyNoInteractions(couponCacheService, couponKeysetRepository);
+    }
+
+    @Test
+    @DisplayName("Coupon listing emits a token only when another row exists")
+    void testListCouponsPage() {
+        List<Coupon> rows = new ArrayList<>();
+        for (int id = 11; id <= 12; id++) {
+            Coupon coupon = new Coupon();
+            coupon.setId(id);
+            coupon.setCode("CODE" + id);
+            coupon.setIsActive(true);
+            coupon.setDiscountConfigJson("{\"type\":\"PERCENTAGE\",\"value\":10}");
+            coupon.setExpiryDate(LocalDateTime.now().plusDays(30));
+            rows.add(coupon);
+        }
+        when(couponKeysetRepository.findCouponsAfter(10, 3)).thenReturn(rows);
+
+        CouponService.CouponsPage page = couponService.listCouponsPage(PageToken.forCoupons(10), 2);
+
+        assertThat(page.couponDetails()).extracting(CouponDetail::getCouponId).containsExactly(11, 12);
+        assertThat(page.nextPageToken()).isEmpty();
+        verify(couponRepository, never()).findAllCoupons(any());
+    }
+
+    @Test
+    @DisplayName("Batch apply shares lookups per code and registers budgets in one call")
+    void applyCouponsBatchAsync_SharesLookupsAndBatchesBudget() {
+        testCoupon.setBudgetId(5);
+        testCouponUser.setCoupon(testCoupon);
+        passThroughCacheLoads();
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(couponEvaluationExecutor).execute(any());
+
+        when(couponRepository.findByCodeIgnoreCase("DISCOUNT10")).thenReturn(Optional.of(testCoupon));
+        when(couponRepository.findByCodeIgnoreCase("UNKNOWN")).thenReturn(Optional.empty());
+        when(couponCacheService.getCachedUserCouponIds(userId)).thenReturn(Optional.empty());
+        when(couponUserRepository.findByUserIdAndCouponCode(userId, "DISCOUNT10")).thenReturn(Optional.of(testCouponUser));
+        when(budgetServiceClient.batchRegister(any())).thenReturn(CompletableFuture.completedFuture(
+                BudgetServiceProto.BatchRegisterBudgetCouponResponse.newBuilder()
+                        .addResults(BudgetServiceProto.RegisterBudgetCouponResponse.newBuilder()
+                                .setStatus(BudgetServiceProto.Status.newBuilder()
+                                        .setCode(BudgetServiceProto.StatusCode.INVALID_ARGUMENT)
+                                        .setMessage("Insufficient budget"))
+                                .setError(BudgetServiceProto.Error.newBuilder().setCode("INSUFFICIENT_BUDGET")))
+                        .build()));
+
+        LocalDateTime orderDate = LocalDateTime.now();
+        List<CouponService.BatchApplyItemResult> results = couponService.applyCouponsBatchAsync(userId, List.of(
+                new CouponService.BatchApplyItem("order-1", "DISCOUNT10", BigDecimal.valueOf(200), orderDate),
+                new CouponService.BatchApplyItem("order-2", "discount10", BigDecimal.valueOf(300), orderDate),
+                new CouponService.BatchApplyItem("order-3", "UNKNOWN", BigDecimal.valueOf(100), orderDate)
+        )).join();
+
+        assertThat(results).extracting(CouponService.BatchApplyItemResult::itemId)
+                .containsExactly("order-1", "order-2", "order-3");
+        assertThat(results).extracting(result -> result.result().getErrorCode())
+                .containsExactly("INSUFFICIENT_BUDGET", CouponErrorCode.DUPLICATE_COUPON.name(),
+                        CouponErrorCode.COUPON_NOT_FOUND.name());
+
+        verify(couponRepository, times(1)).findByCodeIgnoreCase("DISCOUNT10");
+        verify(couponUserRepository, times(1)).findByUserIdAndCouponCode(userId, "DISCOUNT10");
+        verify(budgetServiceClient).batchRegister(argThat(request -> request.getRegistrationsCount() == 1
+                && request.getRegistrations(0).getBudgetId() == 5));
+        verify(budgetServiceClient, never()).register(any());
+        verifyNoInteractions(ruleServiceClient);
+    }
+
+    @Test
+    @DisplayName("Winning the CLAIMED to USED compare-and-set writes the row fenced by the issued version")
+    void applyCouponsBatchAsync_WinnerWritesFencedStatus() {
+        givenSingleCouponWithRegisteredBudget();
+        when(couponUserStateStore.transition(userId, 1, CouponUserStatus.CLAIMED, CouponUserStatus.USED, CouponUserStatus.CLAIMED))
+                .thenReturn(new CouponUserStateStore.Transition(true, 43L, CouponUserStatus.USED));
+        when(couponCacheService.invalidateUserCache(userId, 1)).thenReturn(true);
+        when(couponUserStateRepository.transition(eq(userId), eq(1), eq(CouponUserStatus.CLAIMED),
+                eq(CouponUserStatus.USED), any(LocalDateTime.class), eq(43L))).thenReturn(1);
+
+        List<CouponService.BatchApplyItemResult> results = couponService.applyCouponsBatchAsync(userId, List.of(
+                new CouponService.BatchApplyItem("order-1", "DISCOUNT10", BigDecimal.valueOf(200), LocalDateTime.now())
+        )).join();
+
+        assertThat(results.get(0).result().isSuccess()).isTrue();
+        verify(couponUserStateRepository).transition(eq(userId), eq(1), eq(CouponUserStatus.CLAIMED),
+                eq(CouponUserStatus.USED), any(LocalDateTime.class), eq(43L));
+    }
+
+    @Test
+    @DisplayName("Losing the CLAIMED to USED compare-and-set reports the coupon as already used and releases its budget")
+    void applyCouponsBatchAsync_LoserGetsAlreadyUsed() {
+        givenSingleCouponWithRegisteredBudget();
+        when(couponEventProducerProvider.getIfAvailable()).thenReturn(couponEventProducer);
+        when(couponUserStateStore.transition(userId, 1, CouponUserStatus.CLAIMED, CouponUserStatus.USED, CouponUserStatus.CLAIMED))
+                .thenReturn(new CouponUserStateStore.Transition(false, 43L, CouponUserStatus.USED));
+
+        List<CouponService.BatchApplyItemResult> results = couponService.applyCouponsBatchAsync(userId, List.of(
+                new CouponService.BatchApplyItem("order-1", "DISCOUNT10", BigDecimal.valueOf(200), LocalDateTime.now())
+        )).join();
+
+        assertThat(results.get(0).result().isSuccess()).isFalse();
+        assertThat(results.get(0).result().getErrorCode()).isEqualTo(CouponErrorCode.COUPON_ALREADY_USED.name());
+        verifyNoInteractions(couponUserStateRepository);
+        verify(couponCacheService, never()).invalidateUserCache(anyInt(), anyInt());
+        verify(couponEventProducer).sendRollBackEvent(argThat(event -> event.getCouponId() == 1
+                && event.getBudgetId() == 5
+                && event.getStatus() == RegisterStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("A row already used in the database reports the coupon as already used and releases its budget")
+    void applyCouponsBatchAsync_FencedRowGetsAlreadyUsed() {
+        givenSingleCouponWithRegisteredBudget();
+        when(couponEventProducerProvider.getIfAvailable()).thenReturn(couponEventProducer);
+        when(couponUserStateStore.transition(userId, 1, CouponUserStatus.CLAIMED, CouponUserStatus.USED, CouponUserStatus.CLAIMED))
+                .thenReturn(new CouponUserStateStore.Transition(true, 43L, CouponUserStatus.USED));
+        when(couponUserStateRepository.transition(eq(userId), eq(1), eq(CouponUserStatus.CLAIMED),
+                eq(CouponUserStatus.USED), any(LocalDateTime.class), eq(43L))).thenReturn(0);
+
+        List<CouponService.BatchApplyItemResult> results = couponService.applyCouponsBatchAsync(userId, List.of(
+                new CouponService.BatchApplyItem("order-1", "DISCOUNT10", BigDecimal.valueOf(200), LocalDateTime.now())
+        )).join();
+
+        assertThat(results.get(0).result().isSuccess()).isFalse();
+        assertThat(results.get(0).result().getErrorCode()).isEqualTo(CouponErrorCode.COUPON_ALREADY_USED.name());
+        verify(couponEventProducer).sendRollBackEvent(argThat(event -> event.getCouponId() == 1
+                && event.getBudgetId() == 5
+                && event.getStatus() == RegisterStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Auto apply falls through to the next ranked coupon after a budget miss")
+    void applyCouponAutoAsync_FallsThroughBudgetMiss() {
+        givenAutoApplyWallet();
+        when(budgetServiceClient.register(any())).thenAnswer(invocation -> {
+            BudgetServiceProto.RegisterBudgetCouponRequest request = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(budgetResponse(request.getCouponId() == 2));
+        });
+
+        CouponApplicationResult result = couponService.applyCouponAutoAsync(userId, BigDecimal.valueOf(1000), LocalDateTime.now()).join();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getCouponId()).isEqualTo(2);
+        assertThat(result.getDiscountAmount()).isEqualByComparingTo("200");
+        verify(budgetServiceClient, times(2)).register(any());
+    }
+
+    @Test
+    @DisplayName("Auto apply picks the best coupon whose rules rule-service did not report as failed")
+    void applyCouponAutoAsync_TreatsUnreportedCollectionsAsPassed() {
+        givenAutoApplyWallet();
+        givenRuleServiceFails(Set.of(11));
+        when(budgetServiceClient.register(any())).thenReturn(CompletableFuture.completedFuture(budgetResponse(true)));
+
+        CouponApplicationResult result = couponService.applyCouponAutoAsync(userId, BigDecimal.valueOf(1000), LocalDateTime.now()).join();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getCouponId()).isEqualTo(2);
+        verify(budgetServiceClient).register(argThat(request -> request.getCouponId() == 2));
+    }
+
+    @Test
+    @DisplayName("Speculative auto apply keeps the best registration and releases the others")
+    void applyCouponAutoAsync_SpeculativeReleasesLosers() {
+        givenAutoApplyWallet();
+        autoApplyProperties.setSpeculativeReservation(true);
+        when(couponEventProducerProvider.getIfAvailable()).thenReturn(couponEventProducer);
+        when(budgetServiceClient.register(any())).thenReturn(CompletableFuture.completedFuture(budgetResponse(true)));
+
+        CouponApplicationResult result = couponService.applyCouponAutoAsync(userId, BigDecimal.valueOf(1000), LocalDateTime.now()).join();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getCouponId()).isEqualTo(1);
+        verify(budgetServiceClient, times(2)).register(any());
+        verify(couponEventProducer).sendRollBackEvent(argThat(event -> event.getCouponId() == 2
+                && event.getBudgetId() == 7
+                && event.getStatus() == RegisterStatus.CANCELLED));
+    }
+
+    private void givenAutoApplyWallet() {
+        Map<Integer, CouponDetail> details = new HashMap<>();
+        Map<Integer, UserCouponClaimInfo> claims = new HashMap<>();
+        for (int couponId = 1; couponId <= 2; couponId++) {
+            details.put(couponId, CouponDetail.builder()
+                    .couponId(couponId)
+                    .couponCode("AUTO" + couponId)
+                    .collectionKeyId(10 + couponId)
+                    .budgetId(5 + couponId)
+                    .discountConfigJson("{\"type\":\"FIXED_AMOUNT\",\"value\":" + (400 - couponId * 100) + "}")
+                    .isActive(true)
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+            claims.put(couponId, UserCouponClaimInfo.builder()
+                    .couponUserId((long) couponId)
+                    .userId(userId)
+                    .couponId(couponId)
+                    .expiryDate(LocalDateTime.now().plusDays(1))
+                    .build());
+        }
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(couponEvaluationExecutor).execute(any());
+        when(couponCacheService.getCachedUserCouponIds(userId)).thenReturn(Optional.of(UserCouponIds.of(claims)));
+        when(couponCacheService.getCachedCouponDetailsBatch(anyList()))
+                .thenAnswer(invocation -> {
+                    Map<Integer, CouponDetail> found = new HashMap<>();
+                    List<Integer> couponIds = invocation.getArgument(0);
+                    couponIds.forEach(couponId -> found.put(couponId, details.get(couponId)));
+                    return found;
+                });
+        givenRuleServiceFails(Set.of());
     }
 
+    /**
+     * Answers the way rule-service does: only failed collections are listed, the rest passed.
+     */
+    private void givenRuleServiceFails(Set<Integer> failedCollectionIds) {
+        when(ruleServiceClient.evaluateRuleCollections(any())).thenAnswer(invocation -> {
+            RuleServiceProto.EvaluateRuleRequest request = invocation.getArgument(0);
+            RuleServiceProto.EvaluateRuleResponsePayload.Builder payload = RuleServiceProto.EvaluateRuleResponsePayload.newBuilder()
+                    .setRequestId(request.getRequestId())
+                    .setUserId(request.getUserId());
+            request.getRuleCollectionIdsList().stream()
+                    .filter(failedCollectionIds::contains)
+                    .forEach(collectionId -> payload.addRuleCollectionResults(RuleServiceProto.RuleCollectionResult.newBuilder()
+                            .setRuleCollectionId(collectionId)
+                            .setIsSuccess(false)
+                            .setErrorMessage("Order amount too low")));
+            return CompletableFuture.completedFuture(RuleServiceProto.EvaluateRuleResponse.newBuilder()
+                    .setStatus(RuleServiceProto.Status.newBuilder().setCode(RuleServiceProto.StatusCode.OK))
+                    .setPayload(payload)
+                    .build());
+        });
+    }
+
+    private static BudgetServiceProto.RegisterBudgetCouponResponse budgetResponse(boolean registered) {
+        if (registered) {
+            return BudgetServiceProto.RegisterBudgetCouponResponse.newBuilder()
+                    .setStatus(BudgetServiceProto.Status.newBuilder()
+                            .setCode(BudgetServiceProto.StatusCode.OK))
+                    .setPayload(BudgetServiceProto.RegisterBudgetCouponResponsePayload.newBuilder()
+                            .setSuccess(true))
+                    .build();
+        }
+        return BudgetServiceProto.RegisterBudgetCouponResponse.newBuilder()
+                .setStatus(BudgetServiceProto.Status.newBuilder()
+                        .setCode(BudgetServiceProto.StatusCode.INVALID_ARGUMENT)
+                        .setMessage("Insufficient budget"))
+                .setError(BudgetServiceProto.Error.newBuilder().setCode("INSUFFICIENT_BUDGET"))
+                .build();
+    }
+
+    private void givenSingleCouponWithRegisteredBudget() {
+        testCoupon.setBudgetId(5);
+        testCouponUser.setCoupon(testCoupon);
+        passThroughCacheLoads();
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(couponEvaluationExecutor).execute(any());
+
+        when(couponRepository.findByCodeIgnoreCase("DISCOUNT10")).thenReturn(Optional.of(testCoupon));
+        when(couponCacheService.getCachedUserCouponIds(userId)).thenReturn(Optional.empty());
+        when(couponUserRepository.findByUserIdAndCouponCode(userId, "DISCOUNT10")).thenReturn(Optional.of(testCouponUser));
+        when(budgetServiceClient.batchRegister(any())).thenReturn(CompletableFuture.completedFuture(
+                BudgetServiceProto.BatchRegisterBudgetCouponResponse.newBuilder()
+                        .addResults(BudgetServiceProto.RegisterBudgetCouponResponse.newBuilder()
+                                .setStatus(BudgetServiceProto.Status.newBuilder()
+                                        .setCode(BudgetServiceProto.StatusCode.OK))
+                                .setPayload(BudgetServiceProto.RegisterBudgetCouponResponsePayload.newBuilder()
+                                        .setSuccess(true)))
+                        .build()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void passThroughCacheLoads() {
+        lenient().when(couponCacheService.getOrLoadCouponIdByCode(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<Optional<Integer>>) invocation.getArgument(1)).get());
+        lenient().when(couponCacheService.getOrLoadCouponDetail(anyInt(), any()))
+                .thenAnswer(invocation -> ((Supplier<Optional<CouponDetail>>) invocation.getArgument(1)).get());
+        lenient().when(couponCacheService.loadUserCoupon(anyInt(), anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(2)).get());
+    }
 }
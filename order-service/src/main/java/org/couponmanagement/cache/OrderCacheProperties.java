@@ -1,6 +1,7 @@
 package org.couponmanagement.cache;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -15,4 +16,25 @@ public class OrderCacheProperties {
     @NotBlank
     private String keyPrefix = "coupon-service";
 
+    /**
+     * How long the result of a ProcessOrder call is replayed for retries with its request id.
+     */
+    @Positive
+    private long idempotencyTtlSeconds = 86_400;
+
+    /**
+     * Lifetime of the marker held while the first attempt runs; if that instance dies, the
+     * request id is freed after this long.
+     */
+    @Positive
+    private long idempotencyInFlightTtlSeconds = 30;
+
+    /**
+     * How long a duplicate waits for the first attempt's result, and how often it checks.
+     */
+    @Positive
+    private long idempotencyWaitMs = 5_000;
+
+    @Positive
+    private long idempotencyPollMs = 50;
 }
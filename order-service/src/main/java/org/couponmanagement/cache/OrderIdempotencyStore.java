@@ -0,0 +1,232 @@
+package org.couponmanagement.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.dto.OrderError;
+import org.couponmanagement.dto.ProcessOrderResult;
+import org.couponmanagement.grpc.client.GrpcDeadlines;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes ProcessOrder idempotent per user and request id. The first attempt claims the id in
+ * Redis with an in-flight marker and replaces it with its result when done; retries replay
+ * that result instead of applying the coupon and inserting the order again. Duplicates that
+ * arrive while the first attempt runs wait for its result: on the same instance through a
+ * local future, across instances by polling the marker.
+ *
+ * <p>Only successes and final business rejections are kept. Anything else, such as an internal
+ * error or a coupon-service outage, left nothing behind and a retry should run it again. The
+ * coupon code, amount and order date are stored with the id, and reusing the id for a different
+ * order is rejected instead of replaying another order's result. If Redis cannot be reached,
+ * orders are processed without protection rather than refused.
+ */
+@Component
+@Slf4j
+public class OrderIdempotencyStore {
+
+    private static final String KEY_PREFIX = "order-idempotency:";
+
+    /**
+     * Rejections that the same order gets again on retry: order validation and coupon-service's
+     * coupon and rule errors. Budget and transport errors may clear up, so they are not listed.
+     */
+    private static final Set<String> FINAL_REJECTIONS = Set.of(
+            OrderError.INVALID_ARGUMENT.name(),
+            "COUPON_NOT_FOUND",
+            "COUPON_EXPIRED",
+            "COUPON_ALREADY_USED",
+            "RULE_VIOLATION",
+            "INVALID_DISCOUNT_AMOUNT");
+
+    /**
+     * The order a request id was first used for.
+     */
+    public record Fingerprint(String couponCode, Double orderAmount, LocalDateTime orderDate) {
+    }
+
+    /**
+     * What is stored under the request id: the marker while the first attempt runs, then its result.
+     */
+    public record Entry(String owner, boolean completed, Fingerprint fingerprint, ProcessOrderResult result) {
+
+        boolean matches(Fingerprint other) {
+            return fingerprint != null && fingerprint.equals(other);
+        }
+    }
+
+    private record Attempt(Fingerprint fingerprint, CompletableFuture<ProcessOrderResult> result) {
+    }
+
+    private final RedisCacheService redisCacheService;
+    private final OrderCacheProperties cacheProperties;
+    private final ConcurrentHashMap<String, Attempt> running = new ConcurrentHashMap<>();
+
+    private final Counter processed;
+    private final Counter replayed;
+    private final Counter joined;
+    private final Counter timedOut;
+    private final Counter bypassed;
+    private final Counter mismatched;
+
+    public OrderIdempotencyStore(RedisCacheService redisCacheService,
+                                 OrderCacheProperties cacheProperties,
+                                 MeterRegistry meterRegistry) {
+        this.redisCacheService = redisCacheService;
+        this.cacheProperties = cacheProperties;
+        this.processed = outcomeCounter(meterRegistry, "processed");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.joined = outcomeCounter(meterRegistry, "joined");
+        this.timedOut = outcomeCounter(meterRegistry, "timed_out");
+        this.bypassed = outcomeCounter(meterRegistry, "bypassed");
+        this.mismatched = outcomeCounter(meterRegistry, "mismatched");
+    }
+
+    public ProcessOrderResult execute(Integer userId, String requestId, Fingerprint fingerprint,
+                                      Supplier<ProcessOrderResult> work) {
+        String key = KEY_PREFIX + userId + ":" + requestId;
+        Attempt attempt = new Attempt(fingerprint, new CompletableFuture<>());
+        Attempt first = running.putIfAbsent(key, attempt);
+        if (first != null) {
+            if (!fingerprint.equals(first.fingerprint())) {
+                return mismatch(key);
+            }
+            return join(key, first.result());
+        }
+
+        try {
+            ProcessOrderResult result = claimOrReplay(key, fingerprint, work);
+            attempt.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            attempt.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(key, attempt);
+        }
+    }
+
+    /**
+     * Successes and listed business rejections are final. Everything else may succeed on retry.
+     */
+    static boolean isReplayable(ProcessOrderResult result) {
+        return result.success() || FINAL_REJECTIONS.contains(result.errorCode());
+    }
+
+    private ProcessOrderResult join(String key, CompletableFuture<ProcessOrderResult> first) {
+        joined.increment();
+        try {
+            return first.get(Math.max(0, GrpcDeadlines.remainingMs(cacheProperties.getIdempotencyWaitMs())),
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            return inProgress(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inProgress(key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ProcessOrderResult claimOrReplay(String key, Fingerprint fingerprint, Supplier<ProcessOrderResult> work) {
+        String owner = UUID.randomUUID().toString();
+        long waitUntilNanos = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(GrpcDeadlines.remainingMs(cacheProperties.getIdempotencyWaitMs()));
+
+        while (true) {
+            boolean claimed;
+            try {
+                claimed = redisCacheService.putIfAbsent(key, new Entry(owner, false, fingerprint, null),
+                        cacheProperties.getIdempotencyInFlightTtlSeconds());
+            } catch (RuntimeException e) {
+                log.warn("Idempotency store unavailable, processing without it: key={}, error={}", key, e.getMessage());
+                bypassed.increment();
+                return work.get();
+            }
+            if (claimed) {
+                return runClaimed(key, owner, fingerprint, work);
+            }
+
+            Optional<Entry> entry = redisCacheService.get(key, Entry.class);
+            if (entry.isPresent() && !entry.get().matches(fingerprint)) {
+                return mismatch(key);
+            }
+            if (entry.isPresent() && entry.get().completed()) {
+                log.info("Replaying stored order result: key={}", key);
+                replayed.increment();
+                return entry.get().result();
+            }
+            // Otherwise the first attempt is still running, or it gave the id up since the claim
+            // failed and the next pass takes it over
+            if (System.nanoTime() - waitUntilNanos >= 0) {
+                timedOut.increment();
+                return inProgress(key);
+            }
+            try {
+                Thread.sleep(cacheProperties.getIdempotencyPollMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return inProgress(key);
+            }
+        }
+    }
+
+    private ProcessOrderResult runClaimed(String key, String owner, Fingerprint fingerprint,
+                                          Supplier<ProcessOrderResult> work) {
+        ProcessOrderResult result;
+        try {
+            result = work.get();
+        } catch (RuntimeException e) {
+            redisCacheService.delete(key);
+            throw e;
+        }
+
+        processed.increment();
+        if (isReplayable(result)) {
+            redisCacheService.put(key, new Entry(owner, true, fingerprint, result), cacheProperties.getIdempotencyTtlSeconds());
+        } else {
+            redisCacheService.delete(key);
+        }
+        return result;
+    }
+
+    private ProcessOrderResult inProgress(String key) {
+        log.warn("Gave up waiting for the first attempt of a duplicate order request: key={}", key);
+        return ProcessOrderResult.builder()
+                .success(false)
+                .errorCode(OrderError.REQUEST_IN_PROGRESS.name())
+                .errorMessage("An order with this request id is still being processed")
+                .build();
+    }
+
+    private ProcessOrderResult mismatch(String key) {
+        log.warn("Request id reused for a different order: key={}", key);
+        mismatched.increment();
+        return ProcessOrderResult.builder()
+                .success(false)
+                .errorCode(OrderError.REQUEST_ID_REUSED.name())
+                .errorMessage("This request id was already used for a different order")
+                .build();
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order_idempotency_requests_total")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -56,13 +56,7 @@ public class RedisCacheService {
     public void put(String key, Object value, long ttlSeconds) {
         try {
             String fullKey = buildKey(key);
-
-            Object cacheValue = value;
-            if (!(value instanceof String) && !(value instanceof Number) && !(value instanceof Boolean)) {
-                cacheValue = objectMapper.writeValueAsString(value);
-            }
-
-            redisTemplate.opsForValue().set(fullKey, cacheValue, Duration.ofSeconds(ttlSeconds));
+            redisTemplate.opsForValue().set(fullKey, toCacheValue(value), Duration.ofSeconds(ttlSeconds));
             log.debug("Cached value for key: {} with TTL: {}s", fullKey, ttlSeconds);
 
         } catch (JsonProcessingException e) {
@@ -72,6 +66,38 @@ public class RedisCacheService {
         }
     }
 
+    /**
+     * Stores the value only when the key is absent. Unlike the other methods this one does not
+     * swallow Redis errors, so a caller using the key as a lock can tell "taken" from "unknown".
+     * Must not run inside a Spring transaction: the template then queues the command and
+     * returns no answer.
+     */
+    public boolean putIfAbsent(String key, Object value, long ttlSeconds) {
+        Object cacheValue;
+        try {
+            cacheValue = toCacheValue(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize value for cache key: " + key, e);
+        }
+        Boolean stored = redisTemplate.opsForValue().setIfAbsent(buildKey(key), cacheValue, Duration.ofSeconds(ttlSeconds));
+        return Boolean.TRUE.equals(stored);
+    }
+
+    public void delete(String key) {
+        try {
+            redisTemplate.delete(buildKey(key));
+        } catch (Exception e) {
+            log.error("Error deleting cache key: {}", key, e);
+        }
+    }
+
+    private Object toCacheValue(Object value) throws JsonProcessingException {
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        return objectMapper.writeValueAsString(value);
+    }
+
     private String buildKey(String key) {
         return cacheProperties.getKeyPrefix() + ":" + key;
     }
@@ -3,4 +3,6 @@ package org.couponmanagement.dto;
 public enum OrderError {
     INTERNAL_ERROR,
     INVALID_ARGUMENT,
+    REQUEST_IN_PROGRESS,
+    REQUEST_ID_REUSED,
 }
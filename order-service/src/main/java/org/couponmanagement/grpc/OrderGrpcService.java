@@ -5,6 +5,7 @@ import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.couponmanagement.cache.OrderIdempotencyStore;
 import org.couponmanagement.dto.OrderError;
 import org.couponmanagement.dto.ProcessOrderRequest;
 import org.couponmanagement.dto.ProcessOrderResult;
@@ -28,6 +29,7 @@ public class OrderGrpcService extends OrderServiceGrpc.OrderServiceImplBase {
     private final RequestValidator validator;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     private final DateTimeUtils dateTimeUtils;
+    private final OrderIdempotencyStore orderIdempotencyStore;
 
     @Override
     @RequireAuth("PROCESS_ORDER")
@@ -44,13 +46,18 @@ public class OrderGrpcService extends OrderServiceGrpc.OrderServiceImplBase {
             validator.validateOrderAmount(request.getOrderAmount());
             validator.validateRequestId(request.getRequestId());
 
-            ProcessOrderResult result = processOrderInternal(
-                    request.getUserId(),
-                    request.getCouponCode(),
-                    request.getOrderAmount(),
-                    dateTimeUtils.parseOrderDate(request.getOrderDate()),
-                    request.getRequestId()
-            );
+            LocalDateTime orderDate = dateTimeUtils.parseOrderDate(request.getOrderDate());
+            OrderIdempotencyStore.Fingerprint fingerprint = new OrderIdempotencyStore.Fingerprint(
+                    request.getCouponCode(), request.getOrderAmount(), orderDate);
+            // Outside the order transaction, so only committed results are replayed to retries
+            ProcessOrderResult result = orderIdempotencyStore.execute(request.getUserId(), request.getRequestId(),
+                    fingerprint, () -> processOrderInternal(
+                            request.getUserId(),
+                            request.getCouponCode(),
+                            request.getOrderAmount(),
+                            orderDate,
+                            request.getRequestId()
+                    ));
 
             OrderServiceProto.ProcessOrderResponse response;
             
@@ -1,6 +1,7 @@
 package org.couponmanagement.service;
 
 import io.grpc.Channel;
+import io.grpc.Context;
 import io.grpc.StatusRuntimeException;
 import io.micrometer.observation.annotation.Observed;
 import lombok.AllArgsConstructor;
@@ -18,6 +19,7 @@ import org.couponmanagement.dto.ProcessOrderResult;
 import org.couponmanagement.entity.Order;
 import org.couponmanagement.grpc.annotation.PerformanceMonitor;
 import org.couponmanagement.grpc.client.GrpcClientFactory;
+import org.couponmanagement.grpc.client.GrpcDeadlines;
 import org.couponmanagement.grpc.validation.RequestValidator;
 import org.couponmanagement.grpc.validation.ValidationException;
 import org.couponmanagement.repository.OrderRepository;
@@ -35,6 +37,11 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class OrderService {
 
+    /**
+     * Upper bound for coupon-service calls; shorter when less of the incoming deadline is left.
+     */
+    private static final long COUPON_SERVICE_DEADLINE_MS = 5_000;
+
     private final OrderRepository orderRepository;
     private final GrpcClientFactory grpcClientFactory;
     private final RequestValidator validator;
@@ -156,7 +163,8 @@ public class OrderService {
     private CouponResult callCouponServiceManual(Integer userId, String couponCode, Double orderAmount, LocalDateTime orderDate) {
         try {
             Channel channel = grpcClientFactory.getCouponServiceChannel();
-            CouponServiceGrpc.CouponServiceBlockingStub stub = CouponServiceGrpc.newBlockingStub(channel);
+            CouponServiceGrpc.CouponServiceBlockingStub stub = CouponServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(GrpcDeadlines.remainingMs(COUPON_SERVICE_DEADLINE_MS), TimeUnit.MILLISECONDS);
 
             var grpcRequest = CouponServiceProto.ApplyCouponManualRequest.newBuilder()
                     .setUserId(userId)
@@ -206,7 +214,7 @@ public class OrderService {
         try {
             Channel channel = grpcClientFactory.getCouponServiceChannel();
             CouponServiceGrpc.CouponServiceBlockingStub stub = CouponServiceGrpc.newBlockingStub(channel)
-                    .withDeadlineAfter(5, TimeUnit.SECONDS);
+                    .withDeadlineAfter(GrpcDeadlines.remainingMs(COUPON_SERVICE_DEADLINE_MS), TimeUnit.MILLISECONDS);
 
             var grpcRequest = CouponServiceProto.ApplyCouponAutoRequest.newBuilder()
                     .setUserId(userId)
@@ -259,9 +267,14 @@ public class OrderService {
     }
 
     private void rollbackCouponUsage(Integer userId, Integer couponId) {
+        // Compensation must finish even when the caller has given up, so it does not
+        // inherit the caller's deadline or cancellation
+        Context rollbackContext = Context.current().fork();
+        Context previous = rollbackContext.attach();
         try {
             Channel channel = grpcClientFactory.getCouponServiceChannel();
-            CouponServiceGrpc.CouponServiceBlockingStub stub = CouponServiceGrpc.newBlockingStub(channel);
+            CouponServiceGrpc.CouponServiceBlockingStub stub = CouponServiceGrpc.newBlockingStub(channel)
+                    .withDeadlineAfter(COUPON_SERVICE_DEADLINE_MS, TimeUnit.MILLISECONDS);
             var rollbackRequest = CouponServiceProto.RollbackCouponUsageRequest.newBuilder()
                     .setUserId(userId)
                     .setCouponId(couponId)
@@ -274,6 +287,8 @@ public class OrderService {
             }
         } catch (Exception ex) {
             log.error("Exception when calling rollbackCouponUsage: userId={}, couponId={}, error={}", userId, couponId, ex.getMessage(), ex);
+        } finally {
+            rollbackContext.detach(previous);
         }
     }
 }
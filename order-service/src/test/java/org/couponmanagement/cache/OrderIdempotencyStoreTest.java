@@ -0,0 +1,214 @@
+package org.couponmanagement.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.couponmanagement.dto.OrderError;
+import org.couponmanagement.dto.ProcessOrderResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyStoreTest {
+
+    private static final String KEY = "order-idempotency:1:req-123";
+    private static final OrderIdempotencyStore.Fingerprint FINGERPRINT =
+            new OrderIdempotencyStore.Fingerprint("SAVE10", 250.0, LocalDateTime.of(2025, 1, 15, 10, 30));
+
+    @Mock
+    private RedisCacheService redisCacheService;
+
+    private OrderCacheProperties cacheProperties;
+    private OrderIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        cacheProperties = new OrderCacheProperties();
+        cacheProperties.setIdempotencyWaitMs(200);
+        cacheProperties.setIdempotencyPollMs(10);
+        store = new OrderIdempotencyStore(redisCacheService, cacheProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void execute_FirstAttempt_StoresResult() {
+        ProcessOrderResult success = successResult();
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(true);
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> success);
+
+        assertSame(success, result);
+        verify(redisCacheService).put(eq(KEY),
+                argThat(entry -> entry instanceof OrderIdempotencyStore.Entry stored && stored.completed() && stored.result() == success),
+                eq(cacheProperties.getIdempotencyTtlSeconds()));
+    }
+
+    @Test
+    void execute_CompletedEntry_ReplaysWithoutWork() {
+        ProcessOrderResult stored = successResult();
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(false);
+        when(redisCacheService.get(KEY, OrderIdempotencyStore.Entry.class))
+                .thenReturn(Optional.of(new OrderIdempotencyStore.Entry("other", true, FINGERPRINT, stored)));
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> fail("work must not run again"));
+
+        assertSame(stored, result);
+        verify(redisCacheService, never()).put(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void execute_InternalError_FreesRequestId() {
+        ProcessOrderResult failure = ProcessOrderResult.builder()
+                .success(false)
+                .errorCode(OrderError.INTERNAL_ERROR.name())
+                .errorMessage("Coupon service unavailable")
+                .build();
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(true);
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> failure);
+
+        assertSame(failure, result);
+        verify(redisCacheService).delete(KEY);
+        verify(redisCacheService, never()).put(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void execute_TransientCouponServiceFailure_FreesRequestId() {
+        ProcessOrderResult failure = ProcessOrderResult.builder()
+                .success(false)
+                .errorCode("UNAVAILABLE")
+                .errorMessage("Coupon service unavailable")
+                .build();
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(true);
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> failure);
+
+        assertSame(failure, result);
+        verify(redisCacheService).delete(KEY);
+        verify(redisCacheService, never()).put(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void execute_FinalRejection_StoresResult() {
+        ProcessOrderResult rejection = ProcessOrderResult.builder()
+                .success(false)
+                .errorCode("COUPON_ALREADY_USED")
+                .errorMessage("Coupon already used")
+                .build();
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(true);
+
+        store.execute(1, "req-123", FINGERPRINT, () -> rejection);
+
+        verify(redisCacheService).put(eq(KEY),
+                argThat(entry -> entry instanceof OrderIdempotencyStore.Entry stored && stored.result() == rejection),
+                eq(cacheProperties.getIdempotencyTtlSeconds()));
+    }
+
+    @Test
+    void execute_DifferentPayload_RejectsReuse() {
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(false);
+        when(redisCacheService.get(KEY, OrderIdempotencyStore.Entry.class))
+                .thenReturn(Optional.of(new OrderIdempotencyStore.Entry("other", true, FINGERPRINT, successResult())));
+        OrderIdempotencyStore.Fingerprint otherOrder =
+                new OrderIdempotencyStore.Fingerprint("SAVE10", 999.0, FINGERPRINT.orderDate());
+
+        ProcessOrderResult result = store.execute(1, "req-123", otherOrder, () -> fail("work must not run"));
+
+        assertFalse(result.success());
+        assertEquals(OrderError.REQUEST_ID_REUSED.name(), result.errorCode());
+    }
+
+    @Test
+    void execute_EntryWithoutFingerprint_RejectsReuse() {
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(false);
+        when(redisCacheService.get(KEY, OrderIdempotencyStore.Entry.class))
+                .thenReturn(Optional.of(new OrderIdempotencyStore.Entry("other", true, null, successResult())));
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> fail("work must not run"));
+
+        assertFalse(result.success());
+        assertEquals(OrderError.REQUEST_ID_REUSED.name(), result.errorCode());
+    }
+
+    @Test
+    void execute_StillInFlightElsewhere_GivesUpAfterWait() {
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(false);
+        when(redisCacheService.get(KEY, OrderIdempotencyStore.Entry.class))
+                .thenReturn(Optional.of(new OrderIdempotencyStore.Entry("other", false, FINGERPRINT, null)));
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> fail("work must not run"));
+
+        assertFalse(result.success());
+        assertEquals(OrderError.REQUEST_IN_PROGRESS.name(), result.errorCode());
+    }
+
+    @Test
+    void execute_RedisUnavailable_ProcessesWithoutStore() {
+        ProcessOrderResult success = successResult();
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        ProcessOrderResult result = store.execute(1, "req-123", FINGERPRINT, () -> success);
+
+        assertSame(success, result);
+    }
+
+    @Test
+    void execute_ConcurrentDuplicate_WaitsForFirstAttempt() throws Exception {
+        cacheProperties.setIdempotencyWaitMs(5_000);
+        ProcessOrderResult success = successResult();
+        // A duplicate arriving after the first attempt finished sees its stored result instead
+        when(redisCacheService.putIfAbsent(eq(KEY), any(OrderIdempotencyStore.Entry.class), anyLong())).thenReturn(true, false);
+        lenient().when(redisCacheService.get(KEY, OrderIdempotencyStore.Entry.class))
+                .thenReturn(Optional.of(new OrderIdempotencyStore.Entry("first", true, FINGERPRINT, success)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<ProcessOrderResult> first = CompletableFuture.supplyAsync(() -> store.execute(1, "req-123", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return success;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ProcessOrderResult> duplicate = CompletableFuture.supplyAsync(() -> store.execute(1, "req-123", FINGERPRINT, () -> {
+            runs.incrementAndGet();
+            return successResult();
+        }));
+        release.countDown();
+
+        assertSame(success, first.get(5, TimeUnit.SECONDS));
+        assertSame(success, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    private static ProcessOrderResult successResult() {
+        return ProcessOrderResult.builder()
+                .success(true)
+                .orderId(1)
+                .userId(1)
+                .status("COMPLETED")
+                .build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
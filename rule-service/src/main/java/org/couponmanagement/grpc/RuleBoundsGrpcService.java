@@ -0,0 +1,77 @@
+package org.couponmanagement.grpc;
+
+import io.grpc.stub.StreamObserver;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.couponmanagement.grpc.validation.RequestValidator;
+import org.couponmanagement.rule.bounds.RuleBoundsServiceGrpc;
+import org.couponmanagement.rule.bounds.RuleBoundsServiceProto;
+import org.couponmanagement.service.RuleOutcomeBoundsService;
+
+import java.util.Arrays;
+import java.util.List;
+
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+public class RuleBoundsGrpcService extends RuleBoundsServiceGrpc.RuleBoundsServiceImplBase {
+
+    private final RuleOutcomeBoundsService ruleOutcomeBoundsService;
+    private final RequestValidator validator;
+
+    @Override
+    @Observed(name = "get-collection-bounds")
+    public void getCollectionBounds(RuleBoundsServiceProto.GetCollectionBoundsRequest request,
+                                    StreamObserver<RuleBoundsServiceProto.GetCollectionBoundsResponse> responseObserver) {
+        try {
+            validator.validateCollectionIds(request.getRuleCollectionIdsList());
+
+            List<RuleBoundsServiceProto.CollectionBounds> bounds = ruleOutcomeBoundsService
+                    .getCollectionBounds(request.getRuleCollectionIdsList()).stream()
+                    .map(RuleBoundsGrpcService::toProto)
+                    .toList();
+
+            RuleBoundsServiceProto.GetCollectionBoundsResponse response = RuleBoundsServiceProto.GetCollectionBoundsResponse.newBuilder()
+                    .setStatus(RuleBoundsServiceProto.Status.newBuilder()
+                            .setCode(RuleBoundsServiceProto.StatusCode.OK)
+                            .setMessage("Collection bounds retrieved successfully")
+                            .build())
+                    .setPayload(RuleBoundsServiceProto.GetCollectionBoundsResponsePayload.newBuilder()
+                            .addAllCollectionBounds(bounds)
+                            .build())
+                    .build();
+
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            log.error("Error getting collection bounds: requestId={}", request.getRequestId(), e);
+
+            RuleBoundsServiceProto.GetCollectionBoundsResponse errorResponse = RuleBoundsServiceProto.GetCollectionBoundsResponse.newBuilder()
+                    .setStatus(RuleBoundsServiceProto.Status.newBuilder()
+                            .setCode(RuleBoundsServiceProto.StatusCode.INTERNAL)
+                            .setMessage("Internal server error while computing collection bounds")
+                            .build())
+                    .setError(RuleBoundsServiceProto.Error.newBuilder()
+                            .setCode("RULE_BOUNDS_ERROR")
+                            .setMessage(e.getMessage() != null ? e.getMessage() : "Unknown error occurred")
+                            .build())
+                    .build();
+
+            responseObserver.onNext(errorResponse);
+            responseObserver.onCompleted();
+        }
+    }
+
+    private static RuleBoundsServiceProto.CollectionBounds toProto(RuleOutcomeBoundsService.CollectionBounds bounds) {
+        return RuleBoundsServiceProto.CollectionBounds.newBuilder()
+                .setRuleCollectionId(bounds.collectionId())
+                .setVersion(bounds.version())
+                .setCacheable(bounds.cacheable())
+                .addAllAmountBounds(Arrays.stream(bounds.amountBounds()).boxed().toList())
+                .addAllTimeOfDayBounds(Arrays.stream(bounds.timeOfDayBounds()).boxed().toList())
+                .build();
+    }
+}
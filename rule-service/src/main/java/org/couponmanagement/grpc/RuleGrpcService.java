@@ -14,6 +14,7 @@ import org.couponmanagement.grpc.validation.RequestValidator;
 import org.couponmanagement.rule.RuleServiceGrpc;
 import org.couponmanagement.rule.RuleServiceProto;
 import org.couponmanagement.service.RuleEvaluationService;
+import org.couponmanagement.service.RuleSnapshotPublisher;
 import org.couponmanagement.repository.RuleCollectionRepository;
 import org.couponmanagement.repository.RuleRepository;
 import org.couponmanagement.entity.RuleCollection;
@@ -46,6 +47,9 @@ public class RuleGrpcService extends RuleServiceGrpc.RuleServiceImplBase {
 
     @Autowired
     private RuleCacheService ruleCacheService;
+
+    @Autowired
+    private RuleSnapshotPublisher ruleSnapshotPublisher;
     
     @Override
     @Observed(name = "evaluate-rule-collections")
@@ -354,6 +358,7 @@ public class RuleGrpcService extends RuleServiceGrpc.RuleServiceImplBase {
 
             ruleCacheService.cacheRuleConfig(updatedRule.getId(),
                     RuleCacheService.RuleConfigCacheInfo.fromRule(updatedRule));
+            ruleSnapshotPublisher.publishNow();
 
             var response = RuleServiceProto.ModifyRuleResponse.newBuilder()
                     .setStatus(RuleServiceProto.Status.newBuilder()
@@ -624,6 +629,7 @@ public class RuleGrpcService extends RuleServiceGrpc.RuleServiceImplBase {
                     throw new Exception("Error updating cache for collection " + collectionId + ": " + e.getMessage());
                 }
             }
+            ruleSnapshotPublisher.publishNow();
             var response = RuleServiceProto.ModifyRuleCollectionResponse.newBuilder()
                     .setStatus(RuleServiceProto.Status.newBuilder()
                             .setCode(RuleServiceProto.StatusCode.OK)
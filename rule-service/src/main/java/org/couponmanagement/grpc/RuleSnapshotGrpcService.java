@@ -0,0 +1,24 @@
+package org.couponmanagement.grpc;
+
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.couponmanagement.rule.snapshot.RuleSnapshotServiceGrpc;
+import org.couponmanagement.rule.snapshot.RuleSnapshotServiceProto;
+import org.couponmanagement.service.RuleSnapshotPublisher;
+
+@GrpcService
+@RequiredArgsConstructor
+@Slf4j
+public class RuleSnapshotGrpcService extends RuleSnapshotServiceGrpc.RuleSnapshotServiceImplBase {
+
+    private final RuleSnapshotPublisher ruleSnapshotPublisher;
+
+    @Override
+    public void watchRuleSnapshots(RuleSnapshotServiceProto.WatchRuleSnapshotsRequest request,
+                                   StreamObserver<RuleSnapshotServiceProto.RuleSnapshotMessage> responseObserver) {
+        log.info("Received watchRuleSnapshots request: subscriberId={}", request.getSubscriberId());
+        ruleSnapshotPublisher.subscribe(request.getSubscriberId(), responseObserver);
+    }
+}
@@ -11,6 +11,8 @@ import org.couponmanagement.engine.RuleHandler;
 import org.couponmanagement.entity.Rule;
 import org.couponmanagement.entity.RuleCollection;
 import org.couponmanagement.grpc.annotation.PerformanceMonitor;
+import org.couponmanagement.grpc.client.DeadlineMetrics;
+import org.couponmanagement.grpc.client.GrpcDeadlines;
 import org.couponmanagement.performance.ErrorMetricsRegistry;
 import org.couponmanagement.repository.RuleCollectionRepository;
 import org.couponmanagement.repository.RuleRepository;
@@ -23,6 +25,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,7 +39,12 @@ public class RuleEvaluationService {
     private final Executor ruleEvaluationExecutor;
     private final Executor collectionRuleEvaluationExecutor;
     private final ErrorMetricsRegistry errorMetricsRegistry;
+    private final DeadlineMetrics deadlineMetrics;
 
+    /**
+     * Longest wait for parallel rule evaluation; shorter when the caller's deadline is closer.
+     */
+    private static final long PARALLEL_EVALUATION_TIMEOUT_MS = 30_000;
 
     private final ConcurrentHashMap<String, RuleHandler> handlerCache = new ConcurrentHashMap<>();
 
@@ -47,7 +55,8 @@ public class RuleEvaluationService {
             @Qualifier("ruleHandlerMap") Map<String, RuleHandler> ruleHandlerMap,
             @Qualifier("ruleEvaluationExecutor") Executor ruleEvaluationExecutor,
             @Qualifier("collectionRuleEvaluationExecutor") Executor collectionRuleEvaluationExecutor,
-            ErrorMetricsRegistry errorMetricsRegistry){
+            ErrorMetricsRegistry errorMetricsRegistry,
+            DeadlineMetrics deadlineMetrics){
         this.ruleCollectionRepository = ruleCollectionRepository;
         this.ruleRepository = ruleRepository;
         this.ruleCacheService = ruleCacheService;
@@ -55,6 +64,7 @@ public class RuleEvaluationService {
         this.ruleEvaluationExecutor = ruleEvaluationExecutor;
         this.collectionRuleEvaluationExecutor = collectionRuleEvaluationExecutor;
         this.errorMetricsRegistry = errorMetricsRegistry;
+        this.deadlineMetrics = deadlineMetrics;
     }
 
     public record RuleCollectionEvaluationResult(
@@ -172,9 +182,13 @@ public class RuleEvaluationService {
         );
 
         try {
-            allFutures.get(30, TimeUnit.SECONDS);
+            allFutures.get(Math.max(0, GrpcDeadlines.remainingMs(PARALLEL_EVALUATION_TIMEOUT_MS)), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Parallel rule evaluation ran out of time: rules={}", rules.size());
+            deadlineMetrics.recordExpired(DeadlineMetrics.TASK);
+            futures.forEach(future -> future.cancel(true));
         } catch (Exception e) {
-            log.error("Timeout or error during parallel rule evaluation", e);
+            log.error("Error during parallel rule evaluation", e);
             futures.forEach(future -> future.cancel(true));
         }
 
@@ -194,6 +208,11 @@ public class RuleEvaluationService {
     @Observed(name = "evaluate-rule-with-details")
     private RuleEvaluationResult evaluateRuleWithDetails(Rule rule, RuleEvaluationContext context) {
         long startTime = System.currentTimeMillis();
+
+        if (GrpcDeadlines.isExpired()) {
+            deadlineMetrics.recordExpired(DeadlineMetrics.TASK);
+            return new RuleEvaluationResult(rule.getId(), rule.getType(), false, "Deadline exceeded", 0);
+        }
         
         try {
             RuleHandler handler = getCachedHandler(rule.getType());
@@ -265,6 +284,10 @@ public class RuleEvaluationService {
 
         List<CompletableFuture<RuleCollectionEvaluationResult>> futures = collectionIds.stream().
                 map(collectionId -> CompletableFuture.supplyAsync(() -> {
+                    if (GrpcDeadlines.isExpired()) {
+                        deadlineMetrics.recordExpired(DeadlineMetrics.TASK);
+                        return new RuleCollectionEvaluationResult(collectionId, false, "Deadline exceeded");
+                    }
                     try{
                         return evaluateRuleCollection(collectionId, context);
                     } catch (Exception e) {
@@ -282,7 +305,7 @@ public class RuleEvaluationService {
 
 
     @Observed(name = "load-rule-collection-with-rules")
-    private RuleCollectionWithRules loadRuleCollectionWithRules(Integer collectionId) {
+    public RuleCollectionWithRules loadRuleCollectionWithRules(Integer collectionId) {
         try {
             Optional<RuleCacheService.RuleCollectionCacheInfo> cachedCollectionInfo =
                     ruleCacheService.getCachedRuleCollection(collectionId);
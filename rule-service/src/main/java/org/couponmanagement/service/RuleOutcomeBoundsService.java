@@ -0,0 +1,142 @@
+package org.couponmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.entity.Rule;
+import org.couponmanagement.entity.RuleType;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Derives, per rule collection, the order amounts and times of day at which its outcome can
+ * change. Every supported rule compares one input against constants from its config, so between
+ * two adjacent constants, and at each constant itself, the outcome is fixed whichever comparison
+ * operator the handler uses. Callers can then cache an outcome per bucket without approximation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RuleOutcomeBoundsService {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final RuleEvaluationService ruleEvaluationService;
+
+    public record CollectionBounds(
+            Integer collectionId,
+            String version,
+            boolean cacheable,
+            double[] amountBounds,
+            long[] timeOfDayBounds
+    ) {
+        static CollectionBounds notCacheable(Integer collectionId) {
+            return new CollectionBounds(collectionId, "", false, new double[0], new long[0]);
+        }
+    }
+
+    @Observed(name = "compute-collection-bounds")
+    public List<CollectionBounds> getCollectionBounds(List<Integer> collectionIds) {
+        return collectionIds.stream()
+                .map(this::getCollectionBounds)
+                .toList();
+    }
+
+    CollectionBounds getCollectionBounds(Integer collectionId) {
+        try {
+            RuleEvaluationService.RuleCollectionWithRules collectionWithRules =
+                    ruleEvaluationService.loadRuleCollectionWithRules(collectionId);
+            if (collectionWithRules == null) {
+                return CollectionBounds.notCacheable(collectionId);
+            }
+            return computeBounds(collectionId, collectionWithRules.ruleCollection().getRuleIdsList(),
+                    collectionWithRules.rules());
+        } catch (Exception e) {
+            log.warn("Error computing bounds for rule collection {}: {}", collectionId, e.getMessage());
+            return CollectionBounds.notCacheable(collectionId);
+        }
+    }
+
+    static CollectionBounds computeBounds(Integer collectionId, List<Integer> ruleIds, List<Rule> rules) {
+        TreeSet<Double> amounts = new TreeSet<>();
+        TreeSet<Long> times = new TreeSet<>();
+        for (Rule rule : rules) {
+            if (!addBounds(rule, amounts, times)) {
+                log.debug("Rule collection {} is not cacheable: rule {} of type {}", collectionId, rule.getId(), rule.getType());
+                return CollectionBounds.notCacheable(collectionId);
+            }
+        }
+        return new CollectionBounds(
+                collectionId,
+                version(ruleIds, rules),
+                true,
+                amounts.stream().mapToDouble(Double::doubleValue).toArray(),
+                times.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * @return false if the rule's outcome may depend on something other than amount and time of day
+     */
+    private static boolean addBounds(Rule rule, TreeSet<Double> amounts, TreeSet<Long> times) {
+        if (rule.getType() == null || rule.getRuleConfiguration() == null) {
+            return false;
+        }
+        try {
+            JsonNode config = objectMapper.readTree(rule.getRuleConfiguration());
+            return switch (RuleType.valueOf(rule.getType())) {
+                case MIN_ORDER_AMOUNT -> {
+                    JsonNode minAmount = config.get("min_amount");
+                    if (minAmount == null || !minAmount.isNumber()) {
+                        yield false;
+                    }
+                    amounts.add(minAmount.asDouble());
+                    yield true;
+                }
+                case DAILY_ACTIVE_TIME -> {
+                    JsonNode start = config.get("start_time");
+                    JsonNode end = config.get("end_time");
+                    if (start == null || end == null) {
+                        yield false;
+                    }
+                    times.add(LocalTime.parse(start.asText(), TIME_FORMAT).toNanoOfDay());
+                    times.add(LocalTime.parse(end.asText(), TIME_FORMAT).toNanoOfDay());
+                    yield true;
+                }
+            };
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Digest of everything the outcome is built from, including descriptions, which become
+     * the failure messages.
+     */
+    static String version(List<Integer> ruleIds, List<Rule> rules) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ruleIds.toString().getBytes(StandardCharsets.UTF_8));
+            for (Rule rule : rules) {
+                for (Object part : Arrays.asList(rule.getId(), rule.getType(), rule.getDescription(), rule.getRuleConfiguration())) {
+                    digest.update((byte) 0);
+                    digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.couponmanagement.service;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.couponmanagement.entity.Rule;
+import org.couponmanagement.entity.RuleCollection;
+import org.couponmanagement.repository.RuleCollectionRepository;
+import org.couponmanagement.repository.RuleRepository;
+import org.couponmanagement.rule.engine.RuleDefinition;
+import org.couponmanagement.rule.engine.RuleSnapshot;
+import org.couponmanagement.rule.snapshot.RuleSnapshotServiceProto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes the full rule set to subscribed coupon-service nodes over
+ * {@code RuleSnapshotService.WatchRuleSnapshots}. The snapshot is rebuilt from the database
+ * every {@code rule.snapshot.publish-interval-ms}, and right away after a rule or collection is
+ * modified; subscribers get the new snapshot when its version changes and a heartbeat otherwise,
+ * which is how they tell a quiet rule set from a lost stream.
+ */
+@Service
+@Slf4j
+public class RuleSnapshotPublisher {
+
+    private final RuleRepository ruleRepository;
+    private final RuleCollectionRepository ruleCollectionRepository;
+    private final long publishIntervalMs;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile RuleSnapshotServiceProto.RuleSnapshotMessage current;
+    private ScheduledExecutorService publisher;
+
+    public RuleSnapshotPublisher(RuleRepository ruleRepository,
+                                 RuleCollectionRepository ruleCollectionRepository,
+                                 @Value("${rule.snapshot.publish-interval-ms:5000}") long publishIntervalMs) {
+        this.ruleRepository = ruleRepository;
+        this.ruleCollectionRepository = ruleCollectionRepository;
+        this.publishIntervalMs = publishIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        publisher = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("RuleSnapshotPublisher").daemon().factory());
+        publisher.scheduleWithFixedDelay(this::publish, 0, publishIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (publisher != null) {
+            publisher.shutdownNow();
+        }
+        subscribers.forEach(Subscriber::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * Rebuilds and publishes on the publisher thread; called after rule modifications. Inside a
+     * transaction this waits for the commit, so the rebuild reads the modified rows.
+     */
+    public void publishNow() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publisher.execute(RuleSnapshotPublisher.this::publish);
+                }
+            });
+        } else {
+            publisher.execute(this::publish);
+        }
+    }
+
+    /**
+     * Registers on the publisher thread, so the first message a subscriber gets is the current
+     * snapshot and nothing older can follow it.
+     */
+    public void subscribe(String subscriberId, StreamObserver<RuleSnapshotServiceProto.RuleSnapshotMessage> observer) {
+        Subscriber subscriber = new Subscriber(subscriberId, observer);
+        if (observer instanceof ServerCallStreamObserver<?> serverObserver) {
+            serverObserver.setOnCancelHandler(() -> {
+                subscribers.remove(subscriber);
+                log.info("Rule snapshot subscriber left: subscriberId={}", subscriberId);
+            });
+        }
+        publisher.execute(() -> {
+            subscribers.add(subscriber);
+            RuleSnapshotServiceProto.RuleSnapshotMessage snapshot = current;
+            if (snapshot != null) {
+                subscriber.send(snapshot);
+            }
+            log.info("Rule snapshot subscriber joined: subscriberId={}, version={}, subscribers={}",
+                    subscriberId, snapshot != null ? snapshot.getVersion() : null, subscribers.size());
+        });
+    }
+
+    void publish() {
+        try {
+            RuleSnapshot snapshot = loadSnapshot();
+            RuleSnapshotServiceProto.RuleSnapshotMessage previous = current;
+            long now = System.currentTimeMillis();
+            if (previous == null || !previous.getVersion().equals(snapshot.version())) {
+                current = RuleSnapshotServiceProto.RuleSnapshotMessage.newBuilder()
+                        .setVersion(snapshot.version())
+                        .setPublishedAtMs(now)
+                        .setSnapshot(toProto(snapshot))
+                        .build();
+                log.info("Publishing rule snapshot: version={}, rules={}, collections={}, subscribers={}",
+                        snapshot.version(), snapshot.rules().size(), snapshot.collections().size(), subscribers.size());
+                subscribers.forEach(subscriber -> subscriber.send(current));
+            } else {
+                RuleSnapshotServiceProto.RuleSnapshotMessage heartbeat = RuleSnapshotServiceProto.RuleSnapshotMessage.newBuilder()
+                        .setVersion(snapshot.version())
+                        .setPublishedAtMs(now)
+                        .build();
+                subscribers.forEach(subscriber -> subscriber.send(heartbeat));
+            }
+        } catch (Exception e) {
+            // No heartbeat goes out, so subscribers treat their copy as stale until the next success
+            log.warn("Failed to publish rule snapshot: error={}", e.getMessage(), e);
+        }
+    }
+
+    RuleSnapshot loadSnapshot() {
+        List<RuleDefinition> rules = new ArrayList<>();
+        for (Rule rule : ruleRepository.findAll()) {
+            rules.add(new RuleDefinition(rule.getId(), rule.getType(), rule.getDescription(), rule.getRuleConfiguration()));
+        }
+        Map<Integer, List<Integer>> collections = new LinkedHashMap<>();
+        for (RuleCollection collection : ruleCollectionRepository.findAll()) {
+            collections.put(collection.getId(), collection.getRuleIdsList());
+        }
+        return RuleSnapshot.of(rules, collections);
+    }
+
+    static RuleSnapshotServiceProto.RuleSnapshot toProto(RuleSnapshot snapshot) {
+        RuleSnapshotServiceProto.RuleSnapshot.Builder builder = RuleSnapshotServiceProto.RuleSnapshot.newBuilder();
+        for (RuleDefinition rule : snapshot.rules()) {
+            RuleSnapshotServiceProto.RuleDefinition.Builder ruleBuilder = RuleSnapshotServiceProto.RuleDefinition.newBuilder()
+                    .setRuleId(rule.ruleId())
+                    .setType(rule.type() != null ? rule.type() : "")
+                    .setConfiguration(rule.configuration() != null ? rule.configuration() : "");
+            if (rule.description() != null) {
+                ruleBuilder.setDescription(rule.description());
+            }
+            builder.addRules(ruleBuilder);
+        }
+        snapshot.collections().forEach((collectionId, ruleIds) -> builder.addCollections(
+                RuleSnapshotServiceProto.RuleCollectionDefinition.newBuilder()
+                        .setRuleCollectionId(collectionId)
+                        .addAllRuleIds(ruleIds)));
+        return builder.build();
+    }
+
+    /**
+     * Only used from the publisher thread, apart from {@link #complete} on shutdown.
+     */
+    private final class Subscriber {
+        private final String subscriberId;
+        private final StreamObserver<RuleSnapshotServiceProto.RuleSnapshotMessage> observer;
+
+        private Subscriber(String subscriberId, StreamObserver<RuleSnapshotServiceProto.RuleSnapshotMessage> observer) {
+            this.subscriberId = subscriberId;
+            this.observer = observer;
+        }
+
+        void send(RuleSnapshotServiceProto.RuleSnapshotMessage message) {
+            try {
+                observer.onNext(message);
+            } catch (Exception e) {
+                log.warn("Dropping rule snapshot subscriber: subscriberId={}, error={}", subscriberId, e.getMessage());
+                subscribers.remove(this);
+            }
+        }
+
+        void complete() {
+            try {
+                observer.onCompleted();
+            } catch (Exception e) {
+                log.debug("Rule snapshot stream already closed: subscriberId={}", subscriberId);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.couponmanagement.service;
+
+import org.couponmanagement.entity.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleOutcomeBoundsServiceTest {
+
+    @Test
+    void computeBounds_CollectsSortedDistinctAmountAndTimeBounds() {
+        List<Rule> rules = List.of(
+                rule(1, "MIN_ORDER_AMOUNT", "{\"type\": \"MIN_ORDER_AMOUNT\", \"min_amount\": 500000}"),
+                rule(2, "DAILY_ACTIVE_TIME", "{\"type\": \"DAILY_ACTIVE_TIME\", \"start_time\": \"09:00:00\", \"end_time\": \"17:30:00\"}"),
+                rule(3, "MIN_ORDER_AMOUNT", "{\"type\": \"MIN_ORDER_AMOUNT\", \"min_amount\": 100000}"),
+                rule(4, "MIN_ORDER_AMOUNT", "{\"type\": \"MIN_ORDER_AMOUNT\", \"min_amount\": 500000}"));
+
+        RuleOutcomeBoundsService.CollectionBounds bounds =
+                RuleOutcomeBoundsService.computeBounds(7, List.of(1, 2, 3, 4), rules);
+
+        assertTrue(bounds.cacheable());
+        assertEquals(7, bounds.collectionId());
+        assertArrayEquals(new double[]{100000, 500000}, bounds.amountBounds());
+        assertArrayEquals(new long[]{LocalTime.of(9, 0).toNanoOfDay(), LocalTime.of(17, 30).toNanoOfDay()},
+                bounds.timeOfDayBounds());
+    }
+
+    @Test
+    void computeBounds_UnknownTypeOrBadConfig_NotCacheable() {
+        assertFalse(RuleOutcomeBoundsService.computeBounds(1, List.of(1),
+                List.of(rule(1, "FIRST_ORDER_ONLY", "{\"type\": \"FIRST_ORDER_ONLY\"}"))).cacheable());
+        assertFalse(RuleOutcomeBoundsService.computeBounds(1, List.of(1),
+                List.of(rule(1, "DAILY_ACTIVE_TIME", "{\"type\": \"DAILY_ACTIVE_TIME\", \"start_time\": \"9am\", \"end_time\": \"17:00:00\"}"))).cacheable());
+    }
+
+    @Test
+    void version_ChangesWithConfigAndDescription() {
+        Rule rule = rule(1, "MIN_ORDER_AMOUNT", "{\"type\": \"MIN_ORDER_AMOUNT\", \"min_amount\": 100000}");
+        String original = RuleOutcomeBoundsService.version(List.of(1), List.of(rule));
+
+        assertEquals(original, RuleOutcomeBoundsService.version(List.of(1), List.of(rule)));
+
+        rule.setDescription("Order must be at least 100k");
+        String described = RuleOutcomeBoundsService.version(List.of(1), List.of(rule));
+        assertNotEquals(original, described);
+
+        rule.setRuleConfiguration("{\"type\": \"MIN_ORDER_AMOUNT\", \"min_amount\": 200000}");
+        assertNotEquals(described, RuleOutcomeBoundsService.version(List.of(1), List.of(rule)));
+    }
+
+    private static Rule rule(int id, String type, String config) {
+        Rule rule = new Rule();
+        rule.setId(id);
+        rule.setType(type);
+        rule.setRuleConfiguration(config);
+        return rule;
+    }
+}